@@ -0,0 +1,405 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * DrtInsertionSearchBenchmark.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.common.zones.ZoneSystem;
+import org.matsim.contrib.common.zones.ZoneSystemUtils;
+import org.matsim.contrib.drt.optimizer.VehicleDataEntryFactoryImpl;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.insertion.CostCalculationStrategy;
+import org.matsim.contrib.drt.optimizer.insertion.DefaultInsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionWithDetourData;
+import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchParams;
+import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchQSimModule;
+import org.matsim.contrib.drt.optimizer.insertion.repeatedselective.RepeatedSelectiveInsertionSearchParams;
+import org.matsim.contrib.drt.optimizer.insertion.repeatedselective.RepeatedSelectiveInsertionSearchQSimModule;
+import org.matsim.contrib.drt.optimizer.insertion.selective.SelectiveInsertionSearchParams;
+import org.matsim.contrib.drt.optimizer.insertion.selective.SelectiveInsertionSearchQSimModule;
+import org.matsim.contrib.drt.optimizer.insertion.selective.SingleInsertionDetourPathCalculator;
+import org.matsim.contrib.drt.passenger.AcceptedDrtRequest;
+import org.matsim.contrib.drt.passenger.DefaultOfferAcceptor;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
+import org.matsim.contrib.drt.run.DrtConfigGroup;
+import org.matsim.contrib.drt.schedule.DrtStayTaskEndTimeCalculator;
+import org.matsim.contrib.drt.schedule.DrtTaskFactoryImpl;
+import org.matsim.contrib.drt.scheduler.DefaultRequestInsertionScheduler;
+import org.matsim.contrib.drt.stops.DefaultStopTimeCalculator;
+import org.matsim.contrib.drt.stops.StopTimeCalculator;
+import org.matsim.contrib.drt.util.DrtEventsReaders;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.fleet.FleetSpecificationImpl;
+import org.matsim.contrib.dvrp.fleet.Fleets;
+import org.matsim.contrib.dvrp.fleet.ImmutableDvrpVehicleSpecification;
+import org.matsim.contrib.dvrp.load.IntegerLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.contrib.dvrp.schedule.DriveTaskUpdater;
+import org.matsim.contrib.dvrp.schedule.ScheduleTimingUpdater;
+import org.matsim.contrib.zone.skims.AdaptiveTravelTimeMatrixImpl;
+import org.matsim.contrib.zone.skims.DvrpTravelTimeMatrixParams;
+import org.matsim.contrib.zone.skims.FreeSpeedTravelTimeMatrix;
+import org.matsim.contrib.zone.skims.TravelTimeMatrix;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.mobsim.framework.MobsimTimer;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the DRT insertion searches without running the QSim. A fixed stream of requests is inserted, one by one,
+ * into the schedules of a fleet of <code>fleetSize</code> vehicles: each operation searches for the best insertion
+ * and, if there is one, schedules the request and refreshes the entry of the chosen vehicle.
+ * <p></p>
+ * The requests are either read from the {@link DrtRequestSubmittedEvent}s of a recorded events file
+ * (<code>eventsFile</code>, together with the network of the run, <code>networkFile</code>) or generated at random on
+ * a grid of <code>gridSize * gridSize</code> nodes. The fleet is not moving, so each request is shifted in time as if it
+ * were submitted at the time of the fleet snapshot, keeping the offsets of its time windows. The fleet is reset after
+ * every <code>requestsPerFleet</code> requests (and whenever the request stream starts over), outside the measurement.
+ * <p></p>
+ * <code>insertRequest</code> reports the throughput (requests/s), <code>insertRequestLatency</code> the distribution
+ * of the insertion latency, including its p50 and p99. The allocation rate per request is reported by the GC profiler.
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main DrtInsertionSearchBenchmark -prof gc</code>.
+ * To replay a recorded run, add <code>-p networkFile=output_network.xml.gz -p eventsFile=output_events.xml.gz</code>.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DrtInsertionSearchBenchmark {
+
+	public enum InsertionSearchType {Extensive, Selective, RepeatedSelective}
+
+	private static final double NOW = 0;
+	private static final double SERVICE_END_TIME = 30 * 3600;
+	private static final double STOP_DURATION = 60;
+	private static final int VEHICLE_CAPACITY = 4;
+	private static final double MAX_WAIT_TIME = 600;
+	private static final double MAX_TRAVEL_TIME_ALPHA = 1.5;
+	private static final double MAX_TRAVEL_TIME_BETA = 600;
+	private static final int NUMBER_OF_SYNTHETIC_REQUESTS = 10_000;
+	private static final double ADAPTIVE_MATRIX_ALPHA = 0.75;
+
+	private static final IntegerLoadType LOAD_TYPE = new IntegerLoadType("passengers");
+
+	@Param
+	public InsertionSearchType insertionSearch;
+
+	@Param({"100", "1000"})
+	public int fleetSize;
+
+	@Param({"1000"})
+	public int requestsPerFleet;
+
+	@Param({"50"})
+	public int gridSize;
+
+	@Param({""})
+	public String networkFile;
+
+	@Param({""})
+	public String eventsFile;
+
+	private final TravelTime travelTime = new FreeSpeedTravelTime();
+	private final StopTimeCalculator stopTimeCalculator = new DefaultStopTimeCalculator(STOP_DURATION);
+	private final VehicleEntry.EntryFactory vehicleEntryFactory = new VehicleDataEntryFactoryImpl(LOAD_TYPE);
+	private final DefaultOfferAcceptor offerAcceptor = new DefaultOfferAcceptor();
+	private final MobsimTimer timer = new MobsimTimer(1);
+
+	private Network network;
+	private List<Link> vehicleStartLinks;
+	private List<DrtRequest> requests;
+	private ForkJoinPool forkJoinPool;
+	private SingleInsertionDetourPathCalculator singleInsertionDetourPathCalculator;
+	private DrtInsertionSearch search;
+
+	private int nextRequest;
+	private int requestsInFleet;
+	private Fleet fleet;
+	private DefaultRequestInsertionScheduler insertionScheduler;
+	private final Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries = new HashMap<>();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(4711);
+		this.network = networkFile.isEmpty() ? createGridNetwork() : NetworkUtils.readNetwork(networkFile);
+		List<Link> links = new ArrayList<>(network.getLinks().values());
+
+		this.vehicleStartLinks = new ArrayList<>(fleetSize);
+		for (int v = 0; v < fleetSize; v++) {
+			vehicleStartLinks.add(links.get(random.nextInt(links.size())));
+		}
+
+		DrtConfigGroup drtCfg = new DrtConfigGroup();
+		drtCfg.addParameterSet(switch (insertionSearch) {
+			case Extensive -> new ExtensiveInsertionSearchParams();
+			case Selective -> new SelectiveInsertionSearchParams();
+			case RepeatedSelective -> new RepeatedSelectiveInsertionSearchParams();
+		});
+
+		this.requests = eventsFile.isEmpty() ? createRandomRequests(links, random, drtCfg.getMode()) :
+				readRequests(drtCfg.getMode());
+		this.forkJoinPool = new ForkJoinPool(drtCfg.numberOfThreads);
+		this.search = createInsertionSearch(drtCfg);
+
+		timer.setTime(NOW);
+		this.nextRequest = 0;
+		resetFleet();
+	}
+
+	@Setup(Level.Invocation)
+	public void resetFleetIfFull() {
+		if (requestsInFleet >= requestsPerFleet || (nextRequest == 0 && requestsInFleet > 0)) {
+			resetFleet();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (singleInsertionDetourPathCalculator != null) {
+			singleInsertionDetourPathCalculator.notifyMobsimBeforeCleanup(null);
+		}
+		forkJoinPool.shutdown();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public boolean insertRequest() {
+		return insertNextRequest();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public boolean insertRequestLatency() {
+		return insertNextRequest();
+	}
+
+	private boolean insertNextRequest() {
+		DrtRequest request = requests.get(nextRequest);
+		nextRequest = (nextRequest + 1) % requests.size();
+		requestsInFleet++;
+
+		Optional<InsertionWithDetourData> best = search.findBestInsertion(request, vehicleEntries.values());
+		if (best.isEmpty()) {
+			return false;
+		}
+
+		InsertionWithDetourData insertion = best.get();
+		AcceptedDrtRequest acceptedRequest = offerAcceptor.acceptDrtOffer(request,
+				insertion.detourTimeInfo.pickupDetourInfo.departureTime,
+				insertion.detourTimeInfo.dropoffDetourInfo.arrivalTime).orElseThrow();
+		DvrpVehicle vehicle = insertion.insertion.vehicleEntry.vehicle;
+		insertionScheduler.scheduleRequest(acceptedRequest, insertion);
+
+		VehicleEntry newVehicleEntry = vehicleEntryFactory.create(vehicle, NOW);
+		if (newVehicleEntry != null) {
+			vehicleEntries.put(vehicle.getId(), newVehicleEntry);
+		} else {
+			vehicleEntries.remove(vehicle.getId());
+		}
+		return true;
+	}
+
+	private void resetFleet() {
+		FleetSpecificationImpl fleetSpecification = new FleetSpecificationImpl();
+		for (int v = 0; v < fleetSize; v++) {
+			fleetSpecification.addVehicleSpecification(ImmutableDvrpVehicleSpecification.newBuilder()
+					.id(Id.create("v" + v, DvrpVehicle.class))
+					.startLinkId(vehicleStartLinks.get(v).getId())
+					.capacity(VEHICLE_CAPACITY)
+					.serviceBeginTime(NOW)
+					.serviceEndTime(SERVICE_END_TIME)
+					.build());
+		}
+		this.fleet = Fleets.createDefaultFleet(fleetSpecification, network.getLinks()::get);
+
+		// adds the initial stay tasks
+		ScheduleTimingUpdater scheduleTimingUpdater = new ScheduleTimingUpdater(timer,
+				new DrtStayTaskEndTimeCalculator(stopTimeCalculator), DriveTaskUpdater.NOOP);
+		this.insertionScheduler = new DefaultRequestInsertionScheduler(fleet, timer, travelTime, scheduleTimingUpdater,
+				new DrtTaskFactoryImpl(), stopTimeCalculator, false);
+
+		vehicleEntries.clear();
+		for (DvrpVehicle vehicle : fleet.getVehicles().values()) {
+			vehicle.getSchedule().nextTask();
+			vehicleEntries.put(vehicle.getId(), vehicleEntryFactory.create(vehicle, NOW));
+		}
+		this.requestsInFleet = 0;
+	}
+
+	private DrtInsertionSearch createInsertionSearch(DrtConfigGroup drtCfg) {
+		TravelDisutility travelDisutility = new TimeAsTravelDisutility(travelTime);
+		InsertionCostCalculator insertionCostCalculator = new DefaultInsertionCostCalculator(
+				new CostCalculationStrategy.RejectSoftConstraintViolations(),
+				drtCfg.addOrGetDrtOptimizationConstraintsParams().addOrGetDefaultDrtOptimizationConstraintsSet());
+
+		DvrpTravelTimeMatrixParams matrixParams = new DvrpTravelTimeMatrixParams();
+		ZoneSystem zoneSystem = ZoneSystemUtils.createZoneSystem(network, matrixParams.getZoneSystemParams());
+		TravelTimeMatrix travelTimeMatrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(network, zoneSystem,
+				matrixParams, drtCfg.numberOfThreads, 1);
+
+		switch (insertionSearch) {
+			case Extensive:
+				return ExtensiveInsertionSearchQSimModule.createInsertionSearch(drtCfg, network, travelTime,
+						travelDisutility, travelTimeMatrix, insertionCostCalculator, stopTimeCalculator, forkJoinPool);
+			case Selective:
+				this.singleInsertionDetourPathCalculator = new SingleInsertionDetourPathCalculator(network,
+						travelTime, travelDisutility, drtCfg);
+				return SelectiveInsertionSearchQSimModule.createInsertionSearch(drtCfg, travelTime, travelTimeMatrix,
+						singleInsertionDetourPathCalculator, insertionCostCalculator, stopTimeCalculator, forkJoinPool);
+			case RepeatedSelective: {
+				var adaptiveTravelTimeMatrix = new AdaptiveTravelTimeMatrixImpl(SERVICE_END_TIME, network,
+						zoneSystem, matrixParams, travelTimeMatrix, ADAPTIVE_MATRIX_ALPHA);
+				this.singleInsertionDetourPathCalculator = new SingleInsertionDetourPathCalculator(network,
+						travelTime, travelDisutility, drtCfg);
+				return RepeatedSelectiveInsertionSearchQSimModule.createInsertionSearch(drtCfg, travelTime,
+						travelTimeMatrix, adaptiveTravelTimeMatrix, singleInsertionDetourPathCalculator,
+						insertionCostCalculator, stopTimeCalculator, forkJoinPool);
+			}
+			default:
+				throw new IllegalArgumentException("Unsupported insertionSearch=" + insertionSearch);
+		}
+	}
+
+	private Network createGridNetwork() {
+		Network network = NetworkUtils.createNetwork();
+		Node[][] nodes = new Node[gridSize][gridSize];
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y), new Coord(x * 200., y * 200.));
+			}
+		}
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				if (x + 1 < gridSize) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_e"), nodes[x][y], nodes[x + 1][y], 200., 13.9, 1800., 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_w"), nodes[x + 1][y], nodes[x][y], 200., 13.9, 1800., 1);
+				}
+				if (y + 1 < gridSize) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_n"), nodes[x][y], nodes[x][y + 1], 200., 13.9, 1800., 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_s"), nodes[x][y + 1], nodes[x][y], 200., 13.9, 1800., 1);
+				}
+			}
+		}
+		return network;
+	}
+
+	private List<DrtRequest> createRandomRequests(List<Link> links, Random random, String mode) {
+		List<DrtRequest> requests = new ArrayList<>(NUMBER_OF_SYNTHETIC_REQUESTS);
+		for (int r = 0; r < NUMBER_OF_SYNTHETIC_REQUESTS; r++) {
+			Link fromLink = links.get(random.nextInt(links.size()));
+			Link toLink = links.get(random.nextInt(links.size()));
+			// Manhattan distance at 13.9 m/s approximates the direct ride time on the grid
+			double directRideTime = (Math.abs(fromLink.getCoord().getX() - toLink.getCoord().getX())
+					+ Math.abs(fromLink.getCoord().getY() - toLink.getCoord().getY())) / 13.9;
+			requests.add(DrtRequest.newBuilder()
+					.id(Id.create(r, Request.class))
+					.submissionTime(NOW)
+					.earliestStartTime(NOW)
+					.latestStartTime(NOW + MAX_WAIT_TIME)
+					.latestArrivalTime(NOW + MAX_TRAVEL_TIME_ALPHA * directRideTime + MAX_TRAVEL_TIME_BETA)
+					.maxRideDuration(Double.POSITIVE_INFINITY)
+					.passengerIds(List.of(Id.createPersonId(r)))
+					.mode(mode)
+					.fromLink(fromLink)
+					.toLink(toLink)
+					.load(LOAD_TYPE.fromInt(1))
+					.build());
+		}
+		return requests;
+	}
+
+	private List<DrtRequest> readRequests(String mode) {
+		List<DrtRequest> requests = new ArrayList<>();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler((BasicEventHandler)event -> {
+			if (event instanceof DrtRequestSubmittedEvent submitted) {
+				Link fromLink = network.getLinks().get(submitted.getFromLinkId());
+				Link toLink = network.getLinks().get(submitted.getToLinkId());
+				if (fromLink != null && toLink != null) {
+					requests.add(shiftToNow(submitted, fromLink, toLink, mode));
+				}
+			}
+		});
+		eventsManager.initProcessing();
+		DrtEventsReaders.createEventsReader(eventsManager).readFile(eventsFile);
+		eventsManager.finishProcessing();
+
+		if (requests.isEmpty()) {
+			throw new IllegalArgumentException("No DrtRequestSubmittedEvents on the network found in " + eventsFile);
+		}
+		return requests;
+	}
+
+	private static DrtRequest shiftToNow(DrtRequestSubmittedEvent event, Link fromLink, Link toLink, String mode) {
+		double shift = NOW - event.getTime();
+		return DrtRequest.newBuilder()
+				.id(event.getRequestId())
+				.submissionTime(NOW)
+				.earliestStartTime(event.getEarliestDepartureTime() + shift)
+				.latestStartTime(event.getLatestPickupTime() + shift)
+				.latestArrivalTime(event.getLatestDropoffTime() + shift)
+				.maxRideDuration(event.getMaxRideDuration())
+				.passengerIds(event.getPersonIds())
+				.mode(mode)
+				.fromLink(fromLink)
+				.toLink(toLink)
+				// the load is not serialised together with its type, so it is derived from the passengers
+				.load(LOAD_TYPE.fromInt(event.getPersonIds().size()))
+				.build();
+	}
+}
@@ -0,0 +1,98 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * MessageQueueBenchmark.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.core.mobsim.jdeqsim.JDEQSimConfigGroup;
+import org.matsim.core.mobsim.jdeqsim.JDEQSimConfigGroup.MessageQueueType;
+import org.matsim.core.mobsim.jdeqsim.Message;
+import org.matsim.core.mobsim.jdeqsim.MessageQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmark for the message queue of JDEQSim ("hold model"): the queue holds <code>size</code> messages, and
+ * every operation takes the next message and schedules it again, mostly a few seconds later (like link travel times),
+ * sometimes hours later (like activity durations).
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main MessageQueueBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageQueueBenchmark {
+
+	@Param({"priorityQueue", "calendarQueue"})
+	public MessageQueueType queueType;
+
+	@Param({"10000", "1000000"})
+	public int size;
+
+	private MessageQueue queue;
+	private Random random;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		JDEQSimConfigGroup config = new JDEQSimConfigGroup();
+		config.setMessageQueueType(queueType);
+		this.queue = MessageQueue.create(config);
+		this.random = new Random(4711);
+		for (int i = 0; i < size; i++) {
+			Message m = new HoldMessage();
+			m.setMessageArrivalTime(random.nextDouble() * 3600);
+			queue.putMessage(m);
+		}
+	}
+
+	@Benchmark
+	public Message hold() {
+		Message m = queue.getNextMessage();
+		double delay = random.nextInt(30) == 0 ? random.nextDouble() * 7200 : 1 + random.nextDouble() * 20;
+		m.setMessageArrivalTime(m.getMessageArrivalTime() + delay);
+		queue.putMessage(m);
+		return m;
+	}
+
+	private static final class HoldMessage extends Message {
+		@Override
+		public void processEvent() {
+		}
+
+		@Override
+		public void handleMessage() {
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * OneToManyPathSearchBenchmark.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearch;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearchPool;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmark for the backward searches from the pickup to the preceding waypoints of all insertions, as done by the
+ * extensive DRT insertion search. The targets of a request are the links where <code>numberOfVehicles</code> vehicles,
+ * spread over a grid of <code>gridSize * gridSize</code> nodes, are (or will be) within the next 15 minutes. The search
+ * is run:
+ * <ul>
+ *     <li>until all targets are reached,</li>
+ *     <li>until all targets are reached or the max wait time of the request is exceeded,</li>
+ *     <li>until all targets are reached or cannot be reached in time, given the departure times of the vehicles.</li>
+ * </ul>
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main OneToManyPathSearchBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OneToManyPathSearchBenchmark {
+
+	private static final double MAX_WAIT_TIME = 600;
+	private static final int NUMBER_OF_REQUESTS = 1000;
+
+	private record Request(Link fromLink, double earliestStartTime, List<Link> toLinks,
+						   Map<Link, Double> maxTravelTimes) {
+	}
+
+	@Param({"100"})
+	public int gridSize;
+
+	@Param({"100", "1000"})
+	public int numberOfVehicles;
+
+	private OneToManyPathSearch pathSearch;
+	private Request[] requests;
+	private int nextRequest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Network network = NetworkUtils.createNetwork();
+		Node[][] nodes = new Node[gridSize][gridSize];
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y), new Coord(x * 200., y * 200.));
+			}
+		}
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				if (x + 1 < gridSize) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_e"), nodes[x][y], nodes[x + 1][y], 200., 13.9, 1800., 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_w"), nodes[x + 1][y], nodes[x][y], 200., 13.9, 1800., 1);
+				}
+				if (y + 1 < gridSize) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_n"), nodes[x][y], nodes[x][y + 1], 200., 13.9, 1800., 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_s"), nodes[x][y + 1], nodes[x][y], 200., 13.9, 1800., 1);
+				}
+			}
+		}
+		Link[] links = network.getLinks().values().toArray(new Link[0]);
+
+		FreeSpeedTravelTime travelTime = new FreeSpeedTravelTime();
+		this.pathSearch = OneToManyPathSearchPool.create(network, travelTime,
+				new OnlyTimeDependentTravelDisutility(travelTime), true).get();
+
+		Random random = new Random(4711);
+		this.requests = new Request[NUMBER_OF_REQUESTS];
+		for (int r = 0; r < NUMBER_OF_REQUESTS; r++) {
+			double now = 8 * 3600 + r;
+			List<Link> toLinks = new ArrayList<>();
+			Map<Link, Double> maxTravelTimes = new HashMap<>();
+			for (int v = 0; v < numberOfVehicles; v++) {
+				Link link = links[random.nextInt(links.length)];
+				double departureTime = now + random.nextInt(900);
+				toLinks.add(link);
+				maxTravelTimes.merge(link, now + MAX_WAIT_TIME - departureTime, Math::max);
+			}
+			this.requests[r] = new Request(links[random.nextInt(links.length)], now, toLinks, maxTravelTimes);
+		}
+		this.nextRequest = 0;
+	}
+
+	private Request nextRequest() {
+		Request request = this.requests[this.nextRequest];
+		this.nextRequest = (this.nextRequest + 1) % NUMBER_OF_REQUESTS;
+		return request;
+	}
+
+	@Benchmark
+	public Map<Link, PathData> allTargetsReached() {
+		Request request = nextRequest();
+		return this.pathSearch.calcPathDataMap(request.fromLink, request.toLinks, request.earliestStartTime, false);
+	}
+
+	@Benchmark
+	public Map<Link, PathData> maxWaitTimeExceeded() {
+		Request request = nextRequest();
+		return this.pathSearch.calcPathDataMap(request.fromLink, request.toLinks, request.earliestStartTime, false,
+				MAX_WAIT_TIME);
+	}
+
+	@Benchmark
+	public Map<Link, PathData> targetsTooFar() {
+		Request request = nextRequest();
+		return this.pathSearch.calcPathDataMap(request.fromLink, request.maxTravelTimes, request.earliestStartTime,
+				false);
+	}
+}
@@ -0,0 +1,139 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.QSimConfigGroup.NodeTransition;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.mobsim.qsim.QSim;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.misc.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmark for the node logic of the QSim: one hub node with <code>degree</code> in- and out-links, and agents
+ * on every in-link that want to go to some out-link.  In- and out-links are short, so that the mobsim time is spent in
+ * moving vehicles over the hub, i.e. in <code>QNodeImpl.doSimStep</code>.
+ * <p></p>
+ * A QSim can only be run once, so each measured iteration is a single run of a QSim that has been built (injector,
+ * engines, network) beforehand in the iteration setup. Only <code>QSim.run()</code> is timed.
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main QNodeBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class QNodeBenchmark {
+
+	@Param({"4", "16", "48"})
+	public int degree;
+
+	@Param({"emptyBufferAfterBufferRandomDistribution_dontBlockNode", "moveVehByVehRandomDistribution_dontBlockNode",
+			"moveVehByVehDeterministicPriorities_nodeBlockedWhenSingleOutlinkFull"})
+	public NodeTransition nodeTransition;
+
+	@Param({"200"})
+	public int agentsPerInLink;
+
+	private Scenario scenario;
+	private QSim qsim;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Config config = ConfigUtils.createConfig();
+		config.qsim().setNodeTransitionLogic(nodeTransition);
+		config.qsim().setEndTime(Time.parseTime("04:00:00"));
+		scenario = ScenarioUtils.createScenario(config);
+
+		Network network = scenario.getNetwork();
+		Node hub = NetworkUtils.createAndAddNode(network, Id.createNodeId("hub"), new Coord(0, 0));
+		for (int i = 0; i < degree; i++) {
+			double angle = 2 * Math.PI * i / degree;
+			Node outer = NetworkUtils.createAndAddNode(network, Id.createNodeId(i), new Coord(100 * Math.cos(angle), 100 * Math.sin(angle)));
+			// capacities on the in-links are different, so that the capacity based selection of in-links has something to do:
+			NetworkUtils.createAndAddLink(network, Id.createLinkId("in" + i), outer, hub, 100., 10., 600. + 100. * (i % 5), 1);
+			NetworkUtils.createAndAddLink(network, Id.createLinkId("out" + i), hub, outer, 100., 10., 1800., 1);
+		}
+
+		PopulationFactory pf = scenario.getPopulation().getFactory();
+		for (int i = 0; i < degree; i++) {
+			Id<Link> fromLinkId = Id.createLinkId("in" + i);
+			for (int j = 0; j < agentsPerInLink; j++) {
+				Id<Link> toLinkId = Id.createLinkId("out" + ((i + 1 + j) % degree));
+				Person person = pf.createPerson(Id.createPersonId(i + "_" + j));
+				Plan plan = pf.createPlan();
+				Activity home = pf.createActivityFromLinkId("home", fromLinkId);
+				home.setEndTime(j * 3600. / agentsPerInLink);
+				plan.addActivity(home);
+				Leg leg = pf.createLeg(TransportMode.car);
+				leg.setRoute(RouteUtils.createLinkNetworkRouteImpl(fromLinkId, toLinkId));
+				plan.addLeg(leg);
+				plan.addActivity(pf.createActivityFromLinkId("work", toLinkId));
+				person.addPlan(plan);
+				scenario.getPopulation().addPerson(person);
+			}
+		}
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+	}
+
+	@Setup(Level.Iteration)
+	public void buildQSim() {
+		qsim = new QSimBuilder(scenario.getConfig())
+			.useDefaults()
+			.build(scenario, EventsUtils.createEventsManager());
+	}
+
+	@Benchmark
+	public void moveNode() {
+		qsim.run();
+	}
+}
@@ -0,0 +1,163 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * SwissRailRaptorBenchmark.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.TransitLine;
+import org.matsim.pt.transitSchedule.api.TransitRoute;
+import org.matsim.pt.transitSchedule.api.TransitRouteStop;
+import org.matsim.pt.transitSchedule.api.TransitSchedule;
+import org.matsim.pt.transitSchedule.api.TransitScheduleFactory;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.sbb.matsim.routing.pt.raptor.RaptorParameters;
+import ch.sbb.matsim.routing.pt.raptor.RaptorStaticConfig;
+import ch.sbb.matsim.routing.pt.raptor.RaptorStaticConfig.RaptorTransferCalculation;
+import ch.sbb.matsim.routing.pt.raptor.RaptorUtils;
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptor;
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorCore.TravelInfo;
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData;
+
+/**
+ * Micro benchmark for the routing throughput of {@link SwissRailRaptor}: calculates least cost trees from random stops
+ * in a synthetic schedule, where every row and every column of a grid of <code>gridSize * gridSize</code> stops is
+ * served by a line in both directions, every 10 minutes during the day.  Every stop is a transfer point, so the
+ * benchmark mostly measures the handling of transfers and departures.
+ * <p></p>
+ * The memory used by the transfers is logged when the data is created; run with <code>-prof gc</code> to see the
+ * allocations per routing request.
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main SwissRailRaptorBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SwissRailRaptorBenchmark {
+
+	@Param({"30"})
+	public int gridSize;
+
+	@Param({"Initial", "Adaptive"})
+	public RaptorTransferCalculation transferCalculation;
+
+	private SwissRailRaptor raptor;
+	private RaptorParameters parameters;
+	private List<TransitStopFacility> stops;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Config config = ConfigUtils.createConfig();
+		TransitSchedule schedule = ScenarioUtils.createScenario(config).getTransitSchedule();
+		Network network = NetworkUtils.createNetwork(config);
+		Node fromNode = NetworkUtils.createAndAddNode(network, Id.createNodeId("a"), new Coord(0, 0));
+		Node toNode = NetworkUtils.createAndAddNode(network, Id.createNodeId("b"), new Coord(gridSize * 500, 0));
+		Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId("l"), fromNode, toNode, gridSize * 500, 10, 1000, 1);
+
+		TransitScheduleFactory factory = schedule.getFactory();
+		TransitStopFacility[][] grid = new TransitStopFacility[gridSize][gridSize];
+		this.stops = new ArrayList<>();
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				TransitStopFacility stop = factory.createTransitStopFacility(Id.create(x + "_" + y, TransitStopFacility.class), new Coord(x * 500, y * 500), false);
+				stop.setLinkId(link.getId());
+				schedule.addStopFacility(stop);
+				grid[x][y] = stop;
+				this.stops.add(stop);
+			}
+		}
+
+		for (int i = 0; i < gridSize; i++) {
+			List<TransitStopFacility> row = new ArrayList<>();
+			List<TransitStopFacility> column = new ArrayList<>();
+			for (int j = 0; j < gridSize; j++) {
+				row.add(grid[j][i]);
+				column.add(grid[i][j]);
+			}
+			TransitLine rowLine = factory.createTransitLine(Id.create("row" + i, TransitLine.class));
+			rowLine.addRoute(createRoute(factory, link, "east", row));
+			rowLine.addRoute(createRoute(factory, link, "west", row.reversed()));
+			schedule.addTransitLine(rowLine);
+			TransitLine columnLine = factory.createTransitLine(Id.create("column" + i, TransitLine.class));
+			columnLine.addRoute(createRoute(factory, link, "north", column));
+			columnLine.addRoute(createRoute(factory, link, "south", column.reversed()));
+			schedule.addTransitLine(columnLine);
+		}
+
+		RaptorStaticConfig staticConfig = RaptorUtils.createStaticConfig(config);
+		staticConfig.setTransferCalculation(transferCalculation);
+		SwissRailRaptorData data = SwissRailRaptorData.create(schedule, null, staticConfig, network, null);
+		this.raptor = new SwissRailRaptor.Builder(data, config).build();
+		this.parameters = RaptorUtils.createParameters(config);
+		this.random = new Random(4711);
+	}
+
+	private static TransitRoute createRoute(TransitScheduleFactory factory, Link link, String direction, List<TransitStopFacility> stops) {
+		List<TransitRouteStop> routeStops = new ArrayList<>();
+		for (int i = 0; i < stops.size(); i++) {
+			routeStops.add(factory.createTransitRouteStop(stops.get(i), i * 120, i * 120 + 20));
+		}
+		NetworkRoute networkRoute = RouteUtils.createLinkNetworkRouteImpl(link.getId(), link.getId());
+		TransitRoute route = factory.createTransitRoute(Id.create(direction, TransitRoute.class), networkRoute, routeStops, "bus");
+		for (int time = 5 * 3600; time < 22 * 3600; time += 600) {
+			route.addDeparture(factory.createDeparture(Id.create(direction + time, Departure.class), time));
+		}
+		return route;
+	}
+
+	@Benchmark
+	public Map<Id<TransitStopFacility>, TravelInfo> calcTree() {
+		TransitStopFacility fromStop = this.stops.get(this.random.nextInt(this.stops.size()));
+		return this.raptor.calcTree(fromStop, 8 * 3600 + this.random.nextInt(3600), this.parameters, null);
+	}
+}
@@ -0,0 +1,155 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TransportProblemBenchmark.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.SparseTransportProblem;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.SparseTransportProblem.Candidate;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.TransportProblem;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.TransportProblem.Flow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmark for the transport problem solved by the min cost flow DRT rebalancing. The zones are the cells of a
+ * square grid of <code>zoneCount</code> cells; the relocation cost is the Manhattan distance (in cells) times 60 s. The
+ * vehicle surplus of each zone changes only slightly between subsequent rebalancings. The problem is solved:
+ * <ul>
+ *     <li>densely, with all pairs of zones ({@link TransportProblem}),</li>
+ *     <li>sparsely, with zones at most {@link #MAX_DISTANCE} cells apart, from scratch,</li>
+ *     <li>sparsely, with zones at most {@link #MAX_DISTANCE} cells apart, warm-started with the previous solution.</li>
+ * </ul>
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main TransportProblemBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransportProblemBenchmark {
+
+	private static final int MAX_DISTANCE = 8;
+	private static final int NUMBER_OF_REBALANCINGS = 10;
+
+	private record Surplus(List<Pair<Integer, Integer>> supply, List<Pair<Integer, Integer>> demand) {
+	}
+
+	@Param({"500", "2000", "5000"})
+	public int zoneCount;
+
+	private int gridSize;
+	private Surplus[] surpluses;
+	private int nextSurplus;
+
+	private TransportProblem<Integer, Integer> denseProblem;
+	private Function<Integer, List<Candidate<Integer>>> candidates;
+	private SparseTransportProblem<Integer, Integer> warmStartProblem;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.gridSize = (int)Math.ceil(Math.sqrt(zoneCount));
+
+		Random random = new Random(4711);
+		int[] surplus = random.ints(zoneCount, -5, 6).toArray();
+		this.surpluses = new Surplus[NUMBER_OF_REBALANCINGS];
+		for (int r = 0; r < NUMBER_OF_REBALANCINGS; r++) {
+			List<Pair<Integer, Integer>> supply = new ArrayList<>();
+			List<Pair<Integer, Integer>> demand = new ArrayList<>();
+			for (int zone = 0; zone < zoneCount; zone++) {
+				if (random.nextInt(10) == 0) {
+					surplus[zone] = Math.max(-5, Math.min(5, surplus[zone] + random.nextInt(3) - 1));
+				}
+				if (surplus[zone] > 0) {
+					supply.add(Pair.of(zone, surplus[zone]));
+				} else if (surplus[zone] < 0) {
+					demand.add(Pair.of(zone, -surplus[zone]));
+				}
+			}
+			this.surpluses[r] = new Surplus(supply, demand);
+		}
+		this.nextSurplus = 0;
+
+		this.denseProblem = new TransportProblem<>(this::cost);
+
+		List<List<Candidate<Integer>>> candidateLists = new ArrayList<>(zoneCount);
+		for (int origin = 0; origin < zoneCount; origin++) {
+			List<Candidate<Integer>> candidateList = new ArrayList<>();
+			for (int destination = 0; destination < zoneCount; destination++) {
+				if (destination != origin && distance(origin, destination) <= MAX_DISTANCE) {
+					candidateList.add(new Candidate<>(destination, cost(origin, destination)));
+				}
+			}
+			candidateLists.add(candidateList);
+		}
+		this.candidates = candidateLists::get;
+		this.warmStartProblem = new SparseTransportProblem<>(candidates, true);
+	}
+
+	private int distance(int zone1, int zone2) {
+		return Math.abs(zone1 % gridSize - zone2 % gridSize) + Math.abs(zone1 / gridSize - zone2 / gridSize);
+	}
+
+	private int cost(int zone1, int zone2) {
+		return distance(zone1, zone2) * 60;
+	}
+
+	private Surplus nextSurplus() {
+		Surplus surplus = this.surpluses[this.nextSurplus];
+		this.nextSurplus = (this.nextSurplus + 1) % NUMBER_OF_REBALANCINGS;
+		return surplus;
+	}
+
+	@Benchmark
+	public List<Flow<Integer, Integer>> dense() {
+		Surplus surplus = nextSurplus();
+		return denseProblem.solve(surplus.supply, surplus.demand);
+	}
+
+	@Benchmark
+	public List<Flow<Integer, Integer>> sparseColdStart() {
+		Surplus surplus = nextSurplus();
+		return new SparseTransportProblem<>(candidates, false).solve(surplus.supply, surplus.demand);
+	}
+
+	@Benchmark
+	public List<Flow<Integer, Integer>> sparseWarmStart() {
+		Surplus surplus = nextSurplus();
+		return warmStartProblem.solve(surplus.supply, surplus.demand);
+	}
+}
@@ -0,0 +1,179 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * WithinDayTravelTimeBenchmark.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeSimStepEvent;
+import org.matsim.core.mobsim.framework.events.MobsimInitializedEvent;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.withinday.trafficmonitoring.WithinDayTravelTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmark for {@link WithinDayTravelTime} under concurrent load: one thread handles link enter and leave events
+ * (and triggers the update of the mean travel times once per time step, like the mobsim does), while many threads read
+ * link travel times of random links, like the routers of the threads of a <code>ParallelDuringLegReplanner</code> do.
+ * The network is a grid with <code>gridSize * gridSize</code> nodes.
+ * <p></p>
+ * Run with <code>java -cp matsim-benchmark.jar:libs/* org.openjdk.jmh.Main WithinDayTravelTimeBenchmark</code>.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WithinDayTravelTimeBenchmark {
+
+	@Param({"100"})
+	public int gridSize;
+
+	@Param({"10000"})
+	public int numberOfVehicles;
+
+	@Param({"4"})
+	public int numberOfUpdateThreads;
+
+	private WithinDayTravelTime travelTime;
+	private Link[] links;
+
+	// only used by the events thread
+	private Id<Vehicle>[] vehicleIds;
+	private Link[] currentLinks;
+	private int nextVehicle;
+	private double now;
+	private Random random;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		Config config = ConfigUtils.createConfig();
+		config.global().setNumberOfThreads(numberOfUpdateThreads);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+
+		Network network = scenario.getNetwork();
+		Node[][] nodes = new Node[gridSize][gridSize];
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y), new Coord(x * 200., y * 200.));
+			}
+		}
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				if (x + 1 < gridSize) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_e"), nodes[x][y], nodes[x + 1][y], 200., 13.9, 1800., 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_w"), nodes[x + 1][y], nodes[x][y], 200., 13.9, 1800., 1);
+				}
+				if (y + 1 < gridSize) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_n"), nodes[x][y], nodes[x][y + 1], 200., 13.9, 1800., 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_s"), nodes[x][y + 1], nodes[x][y], 200., 13.9, 1800., 1);
+				}
+			}
+		}
+		this.links = network.getLinks().values().toArray(new Link[0]);
+
+		this.random = new Random(4711);
+		this.vehicleIds = new Id[numberOfVehicles];
+		this.currentLinks = new Link[numberOfVehicles];
+		this.travelTime = new WithinDayTravelTime(scenario, null);
+		this.travelTime.notifyMobsimInitialized(new MobsimInitializedEvent<>(null));
+		for (int i = 0; i < numberOfVehicles; i++) {
+			this.vehicleIds[i] = Id.createVehicleId(i);
+			this.currentLinks[i] = this.links[this.random.nextInt(this.links.length)];
+			this.travelTime.handleEvent(new LinkEnterEvent(0, this.vehicleIds[i], this.currentLinks[i].getId()));
+		}
+		this.now = 0;
+		this.nextVehicle = 0;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.travelTime.notifyMobsimBeforeCleanup(new MobsimBeforeCleanupEvent<>(null));
+	}
+
+	/**
+	 * One vehicle moves to the next link; after all vehicles have moved, the next time step starts.
+	 */
+	@Benchmark
+	@Group("replanning")
+	@GroupThreads(1)
+	public void handleEvents() {
+		int v = this.nextVehicle++;
+		if (this.nextVehicle == this.numberOfVehicles) {
+			this.nextVehicle = 0;
+			this.now += 1;
+			this.travelTime.notifyMobsimBeforeSimStep(new MobsimBeforeSimStepEvent<>(null, this.now));
+		}
+		Link next = this.links[this.random.nextInt(this.links.length)];
+		this.travelTime.handleEvent(new LinkLeaveEvent(this.now, this.vehicleIds[v], this.currentLinks[v].getId()));
+		this.travelTime.handleEvent(new LinkEnterEvent(this.now, this.vehicleIds[v], next.getId()));
+		this.currentLinks[v] = next;
+	}
+
+	/**
+	 * Reads the travel times of 100 random links, i.e. a (very) small routing request.
+	 */
+	@Benchmark
+	@Group("replanning")
+	@GroupThreads(15)
+	public double getLinkTravelTimes(ReplannerState state) {
+		double sum = 0;
+		for (int i = 0; i < 100; i++) {
+			Link link = this.links[state.random.nextInt(this.links.length)];
+			sum += this.travelTime.getLinkTravelTime(link, this.now, null, null);
+		}
+		return sum;
+	}
+
+	@State(Scope.Thread)
+	public static class ReplannerState {
+		final Random random = new Random();
+	}
+}
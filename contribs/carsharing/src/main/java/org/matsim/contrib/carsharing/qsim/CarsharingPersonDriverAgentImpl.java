@@ -241,7 +241,7 @@ public class CarsharingPersonDriverAgentImpl implements MobsimDriverAgent, Mobsi
 
 	@Override
 	public Id<TransitStopFacility> getDesiredDestinationStopId() {
-		return this.transitAgentDelegate.getDesiredAccessStopId() ;
+		return this.transitAgentDelegate.getDesiredDestinationStopId() ;
 	}
 
 	@Override
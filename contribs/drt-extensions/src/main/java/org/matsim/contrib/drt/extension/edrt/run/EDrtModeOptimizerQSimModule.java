@@ -125,7 +125,9 @@ public class EDrtModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 		addModalComponent(QSimScopeForkJoinPoolHolder.class,
 				() -> new QSimScopeForkJoinPoolHolder(drtCfg.numberOfThreads));
 
-		bindModal(RequestFleetFilter.class).toProvider(modalProvider(getter -> RequestFleetFilter.none));
+		bindModal(RequestFleetFilter.class).toProvider(modalProvider(getter -> drtCfg.filterUnreachableVehicles ?
+				new ReachableVehiclesFleetFilter(getter.getModal(Network.class)) :
+				RequestFleetFilter.none));
 
 		bindModal(UnplannedRequestInserter.class).toProvider(modalProvider(
 				getter -> new DefaultUnplannedRequestInserter(drtCfg, getter.getModal(Fleet.class),
@@ -0,0 +1,397 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package graphs.flows;
+
+import java.util.Arrays;
+
+/**
+ * Minimum cost flow with node supplies, solved with the cost scaling push-relabel algorithm of Goldberg and Tarjan
+ * (O(V^2 * E * log(V * C))). Arcs are kept in flat arrays, so the solver handles sparse graphs with many nodes well.
+ * <p>
+ * The solver can be warm-started with the flows and node potentials of a similar, previously solved problem (see
+ * {@link #setFlow(int, int)} and {@link #setPotential(int, double)}). Then, instead of scaling epsilon down from the
+ * maximum arc cost, only the final refinement is run. The solution is optimal regardless of the initial values; good
+ * initial values only reduce the number of pushes and relabels.
+ * <p>
+ * The problem must be feasible, i.e. the supplies must sum up to zero and all supplies must be routable to the
+ * demands.
+ */
+public class CostScalingMinCostFlow {
+	private static final int ALPHA = 8;// scaling factor of epsilon
+
+	private final int nodeCount;
+	private final long[] supplies;
+	private final double[] initialPotentials;
+	private boolean warmStart = false;
+
+	// arc 2k is the k-th added arc, arc 2k+1 is its reverse arc
+	private int arcCount = 0;
+	private int[] heads = new int[16];
+	private int[] residualCapacities = new int[16];
+	private long[] costs = new long[16];
+
+	// state of the solver
+	private int[] firstArcs;
+	private int[] arcs;
+	private long[] scaledCosts;
+	private long[] excesses;
+	private long minPrice;
+
+	// solution
+	private long[] prices;
+	private long costScale;
+
+	public CostScalingMinCostFlow(int nodeCount) {
+		this.nodeCount = nodeCount;
+		this.supplies = new long[nodeCount];
+		this.initialPotentials = new double[nodeCount];
+	}
+
+	/**
+	 * @return index of the arc
+	 */
+	public int addArc(int from, int to, int capacity, long cost) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		}
+		if (arcCount == heads.length) {
+			heads = Arrays.copyOf(heads, 2 * arcCount);
+			residualCapacities = Arrays.copyOf(residualCapacities, 2 * arcCount);
+			costs = Arrays.copyOf(costs, 2 * arcCount);
+		}
+		heads[arcCount] = to;
+		residualCapacities[arcCount] = capacity;
+		costs[arcCount] = cost;
+		heads[arcCount + 1] = from;
+		residualCapacities[arcCount + 1] = 0;
+		costs[arcCount + 1] = -cost;
+		arcCount += 2;
+		return arcCount / 2 - 1;
+	}
+
+	/**
+	 * @param supply positive for supply nodes, negative for demand nodes
+	 */
+	public void setSupply(int node, int supply) {
+		supplies[node] = supply;
+	}
+
+	/**
+	 * Sets the initial flow on the arc (warm start).
+	 */
+	public void setFlow(int arc, int flow) {
+		int capacity = residualCapacities[2 * arc] + residualCapacities[2 * arc + 1];
+		if (flow < 0 || flow > capacity) {
+			throw new IllegalArgumentException("Flow: " + flow + " is not within [0, " + capacity + "]");
+		}
+		residualCapacities[2 * arc] = capacity - flow;
+		residualCapacities[2 * arc + 1] = flow;
+	}
+
+	/**
+	 * Sets the initial potential of the node (warm start). The reduced cost of arc (u, v) is
+	 * <code>cost(u, v) + potential(u) - potential(v)</code>.
+	 */
+	public void setPotential(int node, double potential) {
+		initialPotentials[node] = potential;
+		warmStart = true;
+	}
+
+	public int getFlow(int arc) {
+		return residualCapacities[2 * arc + 1];
+	}
+
+	/**
+	 * @return the potential of the node in the optimal solution (can be used to warm-start a similar problem)
+	 */
+	public double getPotential(int node) {
+		return (double)prices[node] / costScale;
+	}
+
+	/**
+	 * @return the cost of the optimal flow
+	 */
+	public long solve() {
+		long totalSupply = 0;
+		for (long supply : supplies) {
+			totalSupply += supply;
+		}
+		if (totalSupply != 0) {
+			throw new IllegalStateException("Supplies do not sum up to zero: " + totalSupply);
+		}
+
+		// arcs of each node (forward star)
+		firstArcs = new int[nodeCount + 1];
+		for (int a = 0; a < arcCount; a++) {
+			firstArcs[tail(a) + 1]++;
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			firstArcs[v + 1] += firstArcs[v];
+		}
+		arcs = new int[arcCount];
+		int[] nextArcs = Arrays.copyOf(firstArcs, nodeCount);
+		for (int a = 0; a < arcCount; a++) {
+			arcs[nextArcs[tail(a)]++] = a;
+		}
+
+		// with costs scaled by (n + 1), a 1-optimal flow is optimal
+		costScale = nodeCount + 1;
+		scaledCosts = new long[arcCount];
+		long maxCost = 1;
+		for (int a = 0; a < arcCount; a++) {
+			scaledCosts[a] = costs[a] * costScale;
+			maxCost = Math.max(maxCost, Math.abs(scaledCosts[a]));
+		}
+
+		prices = new long[nodeCount];
+		excesses = supplies.clone();
+		for (int a = 0; a < arcCount; a += 2) {
+			int flow = residualCapacities[a + 1];
+			excesses[tail(a)] -= flow;
+			excesses[heads[a]] += flow;
+		}
+
+		// cold start: any flow is maxCost-optimal for zero prices, so epsilon is scaled down from maxCost
+		long epsilon = maxCost;
+		long maxReducedCost = maxCost;
+		if (warmStart) {
+			// warm start: good initial prices need only local corrections, which are done by a single refinement
+			// (relabels and price updates may still change prices by a lot)
+			epsilon = 1;
+			for (int v = 0; v < nodeCount; v++) {
+				prices[v] = Math.round(initialPotentials[v] * costScale);
+			}
+			for (int a = 0; a < arcCount; a++) {
+				maxReducedCost = Math.max(maxReducedCost, Math.abs(reducedCost(a)));
+			}
+		}
+
+		// prices drop by O(n * epsilon) in each refinement; a larger drop means that the problem is infeasible
+		double maxPriceDrop = 4. * (ALPHA + 1) * (nodeCount + 1) * (double)maxReducedCost;
+		minPrice = maxPriceDrop >= Long.MAX_VALUE / 2 ?
+				Long.MIN_VALUE / 2 :
+				Arrays.stream(prices).min().orElse(0) - (long)maxPriceDrop;
+
+		do {
+			epsilon = Math.max(1, epsilon / ALPHA);
+			refine(epsilon);
+		} while (epsilon > 1);
+
+		long totalCost = 0;
+		for (int a = 0; a < arcCount; a += 2) {
+			totalCost += residualCapacities[a + 1] * costs[a];
+		}
+		return totalCost;
+	}
+
+	private void refine(long epsilon) {
+		// saturate all arcs with negative reduced costs (the flow becomes 0-optimal)
+		for (int a = 0; a < arcCount; a++) {
+			int residualCapacity = residualCapacities[a];
+			if (residualCapacity > 0 && reducedCost(a) < 0) {
+				push(a, residualCapacity);
+			}
+		}
+		updatePrices(epsilon);
+
+		// FIFO queue of active nodes
+		int[] queue = new int[nodeCount];
+		boolean[] queued = new boolean[nodeCount];
+		int head = 0;
+		int size = 0;
+		for (int v = 0; v < nodeCount; v++) {
+			if (excesses[v] > 0) {
+				queue[(head + size++) % nodeCount] = v;
+				queued[v] = true;
+			}
+		}
+
+		int[] currentArcs = Arrays.copyOf(firstArcs, nodeCount);
+		int relabelsSinceUpdate = 0;
+		while (size > 0) {
+			int v = queue[head];
+			head = (head + 1) % nodeCount;
+			size--;
+			queued[v] = false;
+
+			// discharge v
+			while (excesses[v] > 0) {
+				if (currentArcs[v] == firstArcs[v + 1]) {
+					relabel(v, epsilon);
+					currentArcs[v] = firstArcs[v];
+					if (++relabelsSinceUpdate == nodeCount) {
+						updatePrices(epsilon);
+						relabelsSinceUpdate = 0;
+					}
+					continue;
+				}
+
+				int a = arcs[currentArcs[v]];
+				if (residualCapacities[a] > 0 && reducedCost(a) < 0) {
+					int w = heads[a];
+					push(a, (int)Math.min(excesses[v], residualCapacities[a]));
+					if (excesses[w] > 0 && !queued[w]) {
+						queue[(head + size++) % nodeCount] = w;
+						queued[w] = true;
+					}
+					if (residualCapacities[a] > 0) {
+						continue;// v has no excess left
+					}
+				}
+				currentArcs[v]++;
+			}
+		}
+	}
+
+	private void relabel(int v, long epsilon) {
+		// there are no admissible arcs: the reduced costs of all residual arcs are non-negative
+		long maxPrice = Long.MIN_VALUE;
+		for (int i = firstArcs[v]; i < firstArcs[v + 1]; i++) {
+			int a = arcs[i];
+			if (residualCapacities[a] > 0) {
+				maxPrice = Math.max(maxPrice, prices[heads[a]] - scaledCosts[a]);
+			}
+		}
+		if (maxPrice == Long.MIN_VALUE || maxPrice - epsilon < minPrice) {
+			throw new IllegalStateException("Infeasible min cost flow problem: excess of node " + v + " cannot be routed");
+		}
+		prices[v] = maxPrice - epsilon;
+	}
+
+	/**
+	 * Global price update heuristic: decreases the prices by the epsilon-lengths of the shortest residual paths to the
+	 * nodes with deficits (where the length of a residual arc is <code>floor(reducedCost / epsilon) + 1</code>), which
+	 * makes these paths admissible. The flow stays epsilon-optimal.
+	 */
+	private void updatePrices(long epsilon) {
+		int activeNodes = 0;
+		long[] distances = new long[nodeCount];
+		Arrays.fill(distances, Long.MAX_VALUE);
+		NodeHeap heap = new NodeHeap(nodeCount);
+		for (int v = 0; v < nodeCount; v++) {
+			if (excesses[v] < 0) {
+				distances[v] = 0;
+				heap.add(v, 0);
+			} else if (excesses[v] > 0) {
+				activeNodes++;
+			}
+		}
+
+		boolean[] settled = new boolean[nodeCount];
+		long lastDistance = 0;
+		while (activeNodes > 0 && !heap.isEmpty()) {
+			int w = heap.poll();
+			if (settled[w]) {
+				continue;
+			}
+			settled[w] = true;
+			lastDistance = distances[w];
+			if (excesses[w] > 0) {
+				activeNodes--;
+			}
+
+			// residual arcs (v, w) are the reverse arcs of the arcs leaving w
+			for (int i = firstArcs[w]; i < firstArcs[w + 1]; i++) {
+				int a = arcs[i] ^ 1;
+				int v = heads[arcs[i]];
+				if (residualCapacities[a] > 0 && !settled[v]) {
+					long distance = lastDistance + Math.max(0, Math.floorDiv(reducedCost(a), epsilon) + 1);
+					if (distance < distances[v]) {
+						distances[v] = distance;
+						heap.add(v, distance);
+					}
+				}
+			}
+		}
+
+		for (int v = 0; v < nodeCount; v++) {
+			prices[v] -= epsilon * (settled[v] ? distances[v] : lastDistance);
+		}
+	}
+
+	/**
+	 * Binary min-heap of nodes with lazy deletion (a node may be added several times).
+	 */
+	private static final class NodeHeap {
+		private long[] keys;
+		private int[] nodes;
+		private int size = 0;
+
+		private NodeHeap(int capacity) {
+			keys = new long[capacity];
+			nodes = new int[capacity];
+		}
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private void add(int node, long key) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, 2 * size);
+				nodes = Arrays.copyOf(nodes, 2 * size);
+			}
+			int i = size++;
+			while (i > 0 && keys[(i - 1) / 2] > key) {
+				keys[i] = keys[(i - 1) / 2];
+				nodes[i] = nodes[(i - 1) / 2];
+				i = (i - 1) / 2;
+			}
+			keys[i] = key;
+			nodes[i] = node;
+		}
+
+		private int poll() {
+			int top = nodes[0];
+			long key = keys[--size];
+			int node = nodes[size];
+			int i = 0;
+			while (2 * i + 1 < size) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && keys[child + 1] < keys[child]) {
+					child++;
+				}
+				if (keys[child] >= key) {
+					break;
+				}
+				keys[i] = keys[child];
+				nodes[i] = nodes[child];
+				i = child;
+			}
+			keys[i] = key;
+			nodes[i] = node;
+			return top;
+		}
+	}
+
+	private void push(int arc, int flow) {
+		residualCapacities[arc] -= flow;
+		residualCapacities[arc ^ 1] += flow;
+		excesses[tail(arc)] -= flow;
+		excesses[heads[arc]] += flow;
+	}
+
+	private long reducedCost(int arc) {
+		return scaledCosts[arc] + prices[tail(arc)] - prices[heads[arc]];
+	}
+
+	private int tail(int arc) {
+		return heads[arc ^ 1];
+	}
+}
@@ -29,6 +29,7 @@ import org.matsim.contrib.drt.optimizer.insertion.DefaultInsertionCostCalculator
 import org.matsim.contrib.drt.optimizer.insertion.DefaultUnplannedRequestInserter;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
 import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.ReachableVehiclesFleetFilter;
 import org.matsim.contrib.drt.optimizer.insertion.RequestFleetFilter;
 import org.matsim.contrib.drt.optimizer.insertion.UnplannedRequestInserter;
 import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchParams;
@@ -107,7 +108,9 @@ public class DrtModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 		addModalComponent(QSimScopeForkJoinPoolHolder.class,
 				() -> new QSimScopeForkJoinPoolHolder(drtCfg.numberOfThreads));
 
-		bindModal(RequestFleetFilter.class).toProvider(modalProvider(getter -> RequestFleetFilter.none));
+		bindModal(RequestFleetFilter.class).toProvider(modalProvider(getter -> drtCfg.filterUnreachableVehicles ?
+				new ReachableVehiclesFleetFilter(getter.getModal(Network.class)) :
+				RequestFleetFilter.none));
 
 		bindModal(UnplannedRequestInserter.class).toProvider(modalProvider(
 				getter -> new DefaultUnplannedRequestInserter(drtCfg, getter.getModal(Fleet.class),
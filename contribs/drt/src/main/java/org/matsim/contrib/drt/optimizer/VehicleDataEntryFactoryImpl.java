@@ -23,6 +23,7 @@ import static org.matsim.contrib.drt.schedule.DrtTaskBaseType.STOP;
 import static org.matsim.contrib.drt.schedule.DrtTaskBaseType.getBaseTypeOrElseThrow;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.matsim.contrib.drt.schedule.DrtStopTask;
@@ -54,18 +55,7 @@ public class VehicleDataEntryFactoryImpl implements VehicleEntry.EntryFactory {
 		int nextTaskIdx;
 		if (schedule.getStatus() == ScheduleStatus.STARTED) {
 			startTask = schedule.getCurrentTask();
-			start = switch (getBaseTypeOrElseThrow(startTask)) {
-				case DRIVE -> {
-					var driveTask = (DriveTask)startTask;
-					var diversionPoint = ((OnlineDriveTaskTracker)driveTask.getTaskTracker()).getDiversionPoint();
-					yield diversionPoint != null ? diversionPoint : //diversion possible
-							new LinkTimePair(driveTask.getPath().getToLink(),
-									driveTask.getEndTime());// too late for diversion
-				}
-				case STOP -> new LinkTimePair(((DrtStopTask)startTask).getLink(), startTask.getEndTime());
-				case STAY -> new LinkTimePair(((StayTask)startTask).getLink(), currentTime);
-			};
-
+			start = getStart(startTask, currentTime);
 			nextTaskIdx = startTask.getTaskIdx() + 1;
 		} else { // PLANNED
 			start = new LinkTimePair(vehicle.getStartLink(), vehicle.getServiceBeginTime());
@@ -108,26 +98,72 @@ public class VehicleDataEntryFactoryImpl implements VehicleEntry.EntryFactory {
 			}
 		}
 
-		Waypoint.Stop startStop = startTask != null && STOP.isBaseTypeOf(startTask)
-				? startTask instanceof DrtCapacityChangeTask capacityChangeTask ? new Waypoint.Stop(capacityChangeTask, loadType) : new Waypoint.Stop((DrtStopTask) startTask, loadType.getEmptyLoad(), loadType)
-				: null;
+		Waypoint.Stop startStop = getStartStop(startTask);
+		var stopList = ImmutableList.copyOf(stops);
+		var slackTimes = computeSlackTimes(vehicle, currentTime, stopList, startStop, precedingStayTimes);
+		var waypointStart = new Waypoint.Start(startTask, start.link, start.time, outgoingOccupancy);
+
+		// the stops of an idle vehicle depend on the current time, so the entry cannot be refreshed later
+		if (startTask == null || STAY.isBaseTypeOf(startTask)) {
+			return new VehicleEntry(vehicle, waypointStart, stopList, slackTimes, precedingStayTimes, currentTime);
+		}
+		return new RefreshableVehicleEntry(vehicle, waypointStart, stopList, slackTimes, precedingStayTimes, currentTime,
+				new ScheduleSnapshot(schedule, nextTaskIdx));
+	}
+
+	/**
+	 * Returns an entry for the current time. If the upcoming tasks have not been changed since the previous entry was
+	 * created (no task ended, no request inserted, no timing updated), only the start (i.e. the current position of
+	 * the vehicle) and the slack times are recalculated, the stops are taken over from the previous entry.
+	 */
+	@Override
+	public VehicleEntry refresh(VehicleEntry previous, DvrpVehicle vehicle, double currentTime) {
+		if (!(previous instanceof RefreshableVehicleEntry entry) || !entry.snapshot.isUpToDate(vehicle.getSchedule())) {
+			return create(vehicle, currentTime);
+		}
+		Task startTask = entry.start.task.orElseThrow();
+		LinkTimePair start = getStart(startTask, currentTime);
+		var slackTimes = computeSlackTimes(vehicle, currentTime, entry.stops, getStartStop(startTask),
+				entry.precedingStayTimes);
+		return new RefreshableVehicleEntry(vehicle,
+				new Waypoint.Start(startTask, start.link, start.time, entry.start.occupancy), entry.stops, slackTimes,
+				entry.precedingStayTimes, currentTime, entry.snapshot);
+	}
 
-		var slackTimes = computeSlackTimes(vehicle, currentTime, stops, startStop, precedingStayTimes);
+	private static LinkTimePair getStart(Task startTask, double currentTime) {
+		return switch (getBaseTypeOrElseThrow(startTask)) {
+			case DRIVE -> {
+				var driveTask = (DriveTask)startTask;
+				var diversionPoint = ((OnlineDriveTaskTracker)driveTask.getTaskTracker()).getDiversionPoint();
+				yield diversionPoint != null ? diversionPoint : //diversion possible
+						new LinkTimePair(driveTask.getPath().getToLink(),
+								driveTask.getEndTime());// too late for diversion
+			}
+			case STOP -> new LinkTimePair(((DrtStopTask)startTask).getLink(), startTask.getEndTime());
+			case STAY -> new LinkTimePair(((StayTask)startTask).getLink(), currentTime);
+		};
+	}
 
-		return new VehicleEntry(vehicle, new Waypoint.Start(startTask, start.link, start.time, outgoingOccupancy),
-				ImmutableList.copyOf(stops), slackTimes, precedingStayTimes, currentTime);
+	private Waypoint.Stop getStartStop(Task startTask) {
+		return startTask != null && STOP.isBaseTypeOf(startTask)
+				? startTask instanceof DrtCapacityChangeTask capacityChangeTask ? new Waypoint.Stop(capacityChangeTask, loadType) : new Waypoint.Stop((DrtStopTask) startTask, loadType.getEmptyLoad(), loadType)
+				: null;
 	}
 
 	static double[] computeSlackTimes(DvrpVehicle vehicle, double now, Waypoint.Stop[] stops, Waypoint.Stop start, List<Double> precedingStayTimes) {
-		double[] slackTimes = new double[stops.length + 2];
+		return computeSlackTimes(vehicle, now, Arrays.asList(stops), start, precedingStayTimes);
+	}
+
+	static double[] computeSlackTimes(DvrpVehicle vehicle, double now, List<Waypoint.Stop> stops, Waypoint.Stop start, List<Double> precedingStayTimes) {
+		double[] slackTimes = new double[stops.size() + 2];
 
 		//vehicle
 		double slackTime = calcVehicleSlackTime(vehicle, now);
-		slackTimes[stops.length + 1] = slackTime;
+		slackTimes[stops.size() + 1] = slackTime;
 
 		//stops
-		for (int i = stops.length - 1; i >= 0; i--) {
-			var stop = stops[i];
+		for (int i = stops.size() - 1; i >= 0; i--) {
+			var stop = stops.get(i);
 			slackTime = Math.min(stop.latestArrivalTime - stop.task.getBeginTime(), slackTime);
 			slackTime = Math.min(stop.latestDepartureTime - stop.task.getEndTime(), slackTime);
 			slackTime += precedingStayTimes.get(i); // reset slack before prebooked request
@@ -148,4 +184,71 @@ public class VehicleDataEntryFactoryImpl implements VehicleEntry.EntryFactory {
 		//for an already delayed vehicle, assume slack is 0 (instead of a negative number)
 		return Math.max(0, vehicle.getServiceEndTime() - availableFromTime);
 	}
+
+	private static final class RefreshableVehicleEntry extends VehicleEntry {
+		private final ScheduleSnapshot snapshot;
+
+		private RefreshableVehicleEntry(DvrpVehicle vehicle, Waypoint.Start start, ImmutableList<Waypoint.Stop> stops,
+				double[] slackTimes, List<Double> precedingStayTimes, double createTime, ScheduleSnapshot snapshot) {
+			super(vehicle, start, stops, slackTimes, precedingStayTimes, createTime);
+			this.snapshot = snapshot;
+		}
+	}
+
+	/**
+	 * The upcoming tasks of a schedule with their timing and the number of requests served at stops. Checking it is much
+	 * cheaper than re-creating the stops of a vehicle entry.
+	 */
+	private static final class ScheduleSnapshot {
+		private final Task currentTask;
+		private final int taskCount;
+		private final Task[] upcomingTasks;
+		private final double[] beginTimes;
+		private final double[] endTimes;
+		private final int[] requestCounts;
+
+		private ScheduleSnapshot(Schedule schedule, int nextTaskIdx) {
+			this.currentTask = schedule.getCurrentTask();
+			this.taskCount = schedule.getTaskCount();
+			List<? extends Task> tasks = schedule.getTasks();
+			int count = taskCount - nextTaskIdx;
+			this.upcomingTasks = new Task[count];
+			this.beginTimes = new double[count];
+			this.endTimes = new double[count];
+			this.requestCounts = new int[count];
+			for (int i = 0; i < count; i++) {
+				Task task = tasks.get(nextTaskIdx + i);
+				upcomingTasks[i] = task;
+				beginTimes[i] = task.getBeginTime();
+				endTimes[i] = task.getEndTime();
+				requestCounts[i] = countRequests(task);
+			}
+		}
+
+		private boolean isUpToDate(Schedule schedule) {
+			if (schedule.getStatus() != ScheduleStatus.STARTED
+					|| schedule.getCurrentTask() != currentTask
+					|| schedule.getTaskCount() != taskCount) {
+				return false;
+			}
+			List<? extends Task> tasks = schedule.getTasks();
+			int nextTaskIdx = taskCount - upcomingTasks.length;
+			for (int i = 0; i < upcomingTasks.length; i++) {
+				Task task = tasks.get(nextTaskIdx + i);
+				if (task != upcomingTasks[i]
+						|| task.getBeginTime() != beginTimes[i]
+						|| task.getEndTime() != endTimes[i]
+						|| countRequests(task) != requestCounts[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int countRequests(Task task) {
+			return task instanceof DrtStopTask stopTask ?
+					stopTask.getPickupRequests().size() + stopTask.getDropoffRequests().size() :
+					0;
+		}
+	}
 }
@@ -32,6 +32,15 @@ import com.google.common.collect.ImmutableList;
 public class VehicleEntry {
 	public interface EntryFactory {
 		VehicleEntry create(DvrpVehicle vehicle, double currentTime);
+
+		/**
+		 * Returns an entry for the current time, given an entry created earlier for the same vehicle by this factory.
+		 * Factories may reuse the parts of the previous entry that do not depend on time if the schedule has not
+		 * changed in the meantime. By default, a new entry is created.
+		 */
+		default VehicleEntry refresh(VehicleEntry previous, DvrpVehicle vehicle, double currentTime) {
+			return create(vehicle, currentTime);
+		}
 	}
 
 	public final DvrpVehicle vehicle;
@@ -39,7 +48,7 @@ public class VehicleEntry {
 	public final ImmutableList<Waypoint.Stop> stops;
 	public final Waypoint.End end;
 	private final double[] slackTimes;// for all insertion points (start, stops, end)
-	private final List<Double> precedingStayTimes;// for all stops
+	final List<Double> precedingStayTimes;// for all stops (taken over by VehicleDataEntryFactoryImpl.refresh())
 	public final double createTime;
 
 	public VehicleEntry(DvrpVehicle vehicle, Waypoint.Start start, ImmutableList<Waypoint.Stop> stops,
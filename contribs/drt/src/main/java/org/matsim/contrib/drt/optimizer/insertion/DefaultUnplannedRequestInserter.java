@@ -19,12 +19,15 @@
 
 package org.matsim.contrib.drt.optimizer.insertion;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
 import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
@@ -68,6 +71,10 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 	private final ForkJoinPool forkJoinPool;
 	private final PassengerStopDurationProvider stopDurationProvider;
 	private final RequestFleetFilter requestFleetFilter;
+	private final boolean batchInsertion;
+
+	// entries from the previous call, refreshed by the entry factory in the next call
+	private Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries = Collections.emptyMap();
 
 	public DefaultUnplannedRequestInserter(DrtConfigGroup drtCfg, Fleet fleet, MobsimTimer mobsimTimer,
                                            EventsManager eventsManager, RequestInsertionScheduler insertionScheduler,
@@ -75,14 +82,16 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
                                            DrtRequestInsertionRetryQueue insertionRetryQueue, DrtOfferAcceptor drtOfferAcceptor,
                                            ForkJoinPool forkJoinPool, PassengerStopDurationProvider stopDurationProvider, RequestFleetFilter requestFleetFilter) {
 		this(drtCfg.getMode(), fleet, mobsimTimer::getTimeOfDay, eventsManager, insertionScheduler, vehicleEntryFactory,
-				insertionRetryQueue, insertionSearch, drtOfferAcceptor, forkJoinPool, stopDurationProvider, requestFleetFilter);
+				insertionRetryQueue, insertionSearch, drtOfferAcceptor, forkJoinPool, stopDurationProvider, requestFleetFilter,
+				drtCfg.batchInsertion);
 	}
 
 	@VisibleForTesting
 	DefaultUnplannedRequestInserter(String mode, Fleet fleet, DoubleSupplier timeOfDay, EventsManager eventsManager,
                                     RequestInsertionScheduler insertionScheduler, VehicleEntry.EntryFactory vehicleEntryFactory,
                                     DrtRequestInsertionRetryQueue insertionRetryQueue, DrtInsertionSearch insertionSearch,
-                                    DrtOfferAcceptor drtOfferAcceptor, ForkJoinPool forkJoinPool, PassengerStopDurationProvider stopDurationProvider, RequestFleetFilter requestFleetFilter) {
+                                    DrtOfferAcceptor drtOfferAcceptor, ForkJoinPool forkJoinPool, PassengerStopDurationProvider stopDurationProvider, RequestFleetFilter requestFleetFilter,
+                                    boolean batchInsertion) {
 		this.mode = mode;
 		this.fleet = fleet;
 		this.timeOfDay = timeOfDay;
@@ -95,6 +104,7 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 		this.forkJoinPool = forkJoinPool;
 		this.stopDurationProvider = stopDurationProvider;
         this.requestFleetFilter = requestFleetFilter;
+        this.batchInsertion = batchInsertion;
     }
 
 	@Override
@@ -106,12 +116,23 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 			return;
 		}
 
+		var previousVehicleEntries = this.vehicleEntries;
 		var vehicleEntries = forkJoinPool.submit(() -> fleet.getVehicles()
 				.values()
 				.parallelStream()
-				.map(v -> vehicleEntryFactory.create(v, now))
+				.map(v -> createOrRefreshEntry(previousVehicleEntries.get(v.getId()), v, now))
 				.filter(Objects::nonNull)
 				.collect(Collectors.toMap(e -> e.vehicle.getId(), e -> e))).join();
+		this.vehicleEntries = vehicleEntries;
+		requestFleetFilter.updateVehicleEntries(vehicleEntries);
+
+		if (batchInsertion) {
+			List<DrtRequest> requests = new ArrayList<>(requestsToRetry);
+			requests.addAll(unplannedRequests);
+			unplannedRequests.clear();
+			scheduleUnplannedRequestsInBatches(requests, vehicleEntries, now);
+			return;
+		}
 
 		//first retry scheduling old requests
 		requestsToRetry.forEach(req -> scheduleUnplannedRequest(req, vehicleEntries, now));
@@ -123,13 +144,84 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 		}
 	}
 
+	private VehicleEntry createOrRefreshEntry(VehicleEntry previousEntry, DvrpVehicle vehicle, double now) {
+		return previousEntry == null ?
+				vehicleEntryFactory.create(vehicle, now) :
+				vehicleEntryFactory.refresh(previousEntry, vehicle, now);
+	}
+
+	/**
+	 * Finds the best insertions of all requests in parallel, all based on the same vehicle entries. The insertions are
+	 * then scheduled in the order of the requests, unless the vehicle has already been modified by a preceding insertion
+	 * in the same round. These conflicting requests are evaluated again in the next round, against the updated vehicle
+	 * entries.
+	 * <p>
+	 * The searches do not modify any state shared between requests (see
+	 * {@link DrtInsertionSearch#findBestInsertionDeferred}). Their deferred updates are run in the order of the
+	 * requests, each right before the request is scheduled or rejected. The updates of a conflicting evaluation are
+	 * dropped, so that every request contributes once, as in the sequential mode. Hence, the results only depend on the
+	 * order of the requests, not on the number of threads.
+	 * <p>
+	 * Requests without any insertion are rejected (or queued for retry) in the round they are evaluated in, even if
+	 * an insertion scheduled later in the same round might have made them feasible.
+	 */
+	private void scheduleUnplannedRequestsInBatches(List<DrtRequest> requests,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
+		List<DrtRequest> pendingRequests = requests;
+		while (!pendingRequests.isEmpty()) {
+			List<DrtRequest> evaluatedRequests = pendingRequests;
+			List<DrtInsertionSearch.DeferredSearchResult> results = forkJoinPool.submit(() -> evaluatedRequests
+					.parallelStream()
+					.map(req -> findBestInsertionDeferred(req, vehicleEntries, now))
+					.toList()).join();
+
+			Set<Id<DvrpVehicle>> modifiedVehicles = new HashSet<>();
+			List<DrtRequest> conflictingRequests = new ArrayList<>();
+			for (int i = 0; i < evaluatedRequests.size(); i++) {
+				DrtRequest req = evaluatedRequests.get(i);
+				Optional<InsertionWithDetourData> best = results.get(i).insertion();
+				if (best.isPresent() && modifiedVehicles.contains(getVehicleId(best.get()))) {
+					conflictingRequests.add(req);
+					continue;
+				}
+				results.get(i).deferredUpdate().run();
+				if (scheduleInsertion(req, best, vehicleEntries, now)) {
+					modifiedVehicles.add(getVehicleId(best.get()));
+				}
+			}
+			pendingRequests = conflictingRequests;
+		}
+	}
+
+	private static Id<DvrpVehicle> getVehicleId(InsertionWithDetourData insertion) {
+		return insertion.insertion.vehicleEntry.vehicle.getId();
+	}
+
 	private void scheduleUnplannedRequest(DrtRequest req, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries,
 			double now) {
+		scheduleInsertion(req, findBestInsertion(req, vehicleEntries, now), vehicleEntries, now);
+	}
+
+	private Optional<InsertionWithDetourData> findBestInsertion(DrtRequest req,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
 		Collection<VehicleEntry> filteredFleet = requestFleetFilter.filter(req, vehicleEntries, now);
-		Optional<InsertionWithDetourData> best = insertionSearch.findBestInsertion(req,
-				Collections.unmodifiableCollection(filteredFleet));
+		return insertionSearch.findBestInsertion(req, Collections.unmodifiableCollection(filteredFleet));
+	}
+
+	private DrtInsertionSearch.DeferredSearchResult findBestInsertionDeferred(DrtRequest req,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
+		Collection<VehicleEntry> filteredFleet = requestFleetFilter.filter(req, vehicleEntries, now);
+		return insertionSearch.findBestInsertionDeferred(req, Collections.unmodifiableCollection(filteredFleet));
+	}
+
+	/**
+	 * @return true if the request has been inserted (and so the vehicle entry has been updated)
+	 */
+	private boolean scheduleInsertion(DrtRequest req, Optional<InsertionWithDetourData> best,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
 		if (best.isEmpty()) {
 			retryOrReject(req, now, NO_INSERTION_FOUND_CAUSE);
+			return false;
 		} else {
 			InsertionWithDetourData insertion = best.get();
 
@@ -148,6 +240,7 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 				} else {
 					vehicleEntries.remove(vehicle.getId());
 				}
+				requestFleetFilter.updateVehicleEntry(vehicle.getId(), newVehicleEntry);
 
 				double expectedPickupTime = pickupDropoffTaskPair.pickupTask.getBeginTime();
 				expectedPickupTime = Math.max(expectedPickupTime, acceptedRequest.get().getEarliestStartTime());
@@ -159,8 +252,10 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 				eventsManager.processEvent(
 						new PassengerRequestScheduledEvent(now, mode, req.getId(), req.getPassengerIds(), vehicle.getId(),
 								expectedPickupTime, expectedDropoffTime));
+				return true;
 			} else {
 				retryOrReject(req, now, OFFER_REJECTED_CAUSE);
+				return false;
 			}
 		}
 	}
@@ -29,4 +29,22 @@ import org.matsim.contrib.drt.passenger.DrtRequest;
  */
 public interface DrtInsertionSearch {
 	Optional<InsertionWithDetourData> findBestInsertion(DrtRequest drtRequest, Collection<VehicleEntry> vehicleEntries);
+
+	/**
+	 * Used by the batch insertion, which searches for insertions of several requests concurrently. Unlike
+	 * {@link #findBestInsertion}, it must not modify any state shared between requests (e.g. statistics or an adaptive
+	 * travel time matrix). Such updates are returned instead, and the caller runs them sequentially, in the order of the
+	 * requests.
+	 * <p>
+	 * The default implementation delegates to {@link #findBestInsertion}, so it is only valid for searches that do not
+	 * modify any shared state.
+	 */
+	default DeferredSearchResult findBestInsertionDeferred(DrtRequest drtRequest,
+			Collection<VehicleEntry> vehicleEntries) {
+		return new DeferredSearchResult(findBestInsertion(drtRequest, vehicleEntries), () -> {
+		});
+	}
+
+	record DeferredSearchResult(Optional<InsertionWithDetourData> insertion, Runnable deferredUpdate) {
+	}
 }
@@ -0,0 +1,189 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.Waypoint;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.core.network.NetworkChangeEvent;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.TimeDependentNetwork;
+import org.matsim.core.utils.collections.QuadTree;
+import org.matsim.core.utils.geometry.CoordUtils;
+
+/**
+ * Keeps only the vehicles that may reach the pickup location of a request before its latest start time. A vehicle can
+ * serve the request only if it can get to the pickup from its current position or from one of its planned stops. This
+ * is (optimistically) estimated with the beeline distance and the maximum free speed in the network, including the
+ * free speeds set by network change events. So no vehicle that could actually serve the request in time is filtered
+ * out. Since the latest start time is treated as a hard constraint, the filter must only be used if requests violating
+ * the max wait or travel time are rejected.
+ * <p>
+ * The start and the stops of all vehicle entries are kept in a quad tree, which is updated whenever the vehicle entries
+ * change. Entries whose stops have not changed (see {@link VehicleEntry.EntryFactory#refresh}) only need their start
+ * to be updated.
+ */
+public class ReachableVehiclesFleetFilter implements RequestFleetFilter {
+	private static final class IndexedWaypoint {
+		private final Id<DvrpVehicle> vehicleId;
+		private final Coord coord;
+		private final double departureTime;
+
+		private IndexedWaypoint(Id<DvrpVehicle> vehicleId, Link link, double departureTime) {
+			this.vehicleId = vehicleId;
+			this.coord = link.getToNode().getCoord();
+			this.departureTime = departureTime;
+		}
+	}
+
+	private record IndexedEntry(VehicleEntry entry, IndexedWaypoint start, List<IndexedWaypoint> stops) {
+	}
+
+	private final QuadTree<IndexedWaypoint> waypoints;
+	private final Map<Id<DvrpVehicle>, IndexedEntry> indexedEntries = new HashMap<>();
+	private final double maxSpeed;
+
+	public ReachableVehiclesFleetFilter(Network network) {
+		double[] boundingBox = NetworkUtils.getBoundingBox(network.getNodes().values());
+		this.waypoints = new QuadTree<>(boundingBox[0], boundingBox[1], boundingBox[2], boundingBox[3]);
+		this.maxSpeed = getMaxFreespeed(network);
+	}
+
+	private static double getMaxFreespeed(Network network) {
+		double maxSpeed = network.getLinks().values().stream().mapToDouble(Link::getFreespeed).max().orElseThrow();
+		if (network instanceof TimeDependentNetwork timeDependentNetwork) {
+			// the free speed of a link changes only at the start times of its change events
+			for (NetworkChangeEvent event : timeDependentNetwork.getNetworkChangeEvents()) {
+				for (Link link : event.getLinks()) {
+					maxSpeed = Math.max(maxSpeed, link.getFreespeed(event.getStartTime()));
+				}
+			}
+		}
+		return maxSpeed;
+	}
+
+	@Override
+	public Collection<VehicleEntry> filter(DrtRequest req, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries,
+			double now) {
+		double latestStartTime = req.getLatestStartTime();
+		if (Double.isInfinite(latestStartTime)) {
+			return vehicleEntries.values();
+		}
+		if (latestStartTime < now) {
+			return Collections.emptyList();
+		}
+
+		Coord pickup = req.getFromLink().getToNode().getCoord();
+		double maxDistance = (latestStartTime - now) * maxSpeed;
+		Set<Id<DvrpVehicle>> vehicleIds = new LinkedHashSet<>();
+		for (IndexedWaypoint waypoint : waypoints.getDisk(pickup.getX(), pickup.getY(), maxDistance)) {
+			double departureTime = Math.max(waypoint.departureTime, now);
+			double travelTime = CoordUtils.calcEuclideanDistance(waypoint.coord, pickup) / maxSpeed;
+			if (departureTime + travelTime <= latestStartTime) {
+				vehicleIds.add(waypoint.vehicleId);
+			}
+		}
+
+		List<VehicleEntry> filteredEntries = new ArrayList<>(vehicleIds.size());
+		for (Id<DvrpVehicle> vehicleId : vehicleIds) {
+			filteredEntries.add(vehicleEntries.get(vehicleId));
+		}
+		return filteredEntries;
+	}
+
+	@Override
+	public void updateVehicleEntries(Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries) {
+		for (Iterator<Map.Entry<Id<DvrpVehicle>, IndexedEntry>> iter = indexedEntries.entrySet().iterator(); iter.hasNext(); ) {
+			var indexedEntry = iter.next();
+			if (!vehicleEntries.containsKey(indexedEntry.getKey())) {
+				removeStart(indexedEntry.getValue());
+				removeStops(indexedEntry.getValue());
+				iter.remove();
+			}
+		}
+		vehicleEntries.forEach(this::updateVehicleEntry);
+	}
+
+	@Override
+	public void updateVehicleEntry(Id<DvrpVehicle> vehicleId, @Nullable VehicleEntry vehicleEntry) {
+		IndexedEntry oldEntry = vehicleEntry == null ?
+				indexedEntries.remove(vehicleId) :
+				indexedEntries.get(vehicleId);
+		if (oldEntry != null && oldEntry.entry == vehicleEntry) {
+			return;
+		}
+
+		List<IndexedWaypoint> stops = null;
+		if (oldEntry != null) {
+			removeStart(oldEntry);
+			if (vehicleEntry != null && oldEntry.entry.stops == vehicleEntry.stops) {
+				stops = oldEntry.stops;
+			} else {
+				removeStops(oldEntry);
+			}
+		}
+		if (vehicleEntry == null) {
+			return;
+		}
+
+		if (stops == null) {
+			stops = new ArrayList<>(vehicleEntry.stops.size());
+			for (Waypoint.Stop stop : vehicleEntry.stops) {
+				IndexedWaypoint waypoint = new IndexedWaypoint(vehicleId, stop.getLink(), stop.getDepartureTime());
+				put(waypoint);
+				stops.add(waypoint);
+			}
+		}
+		IndexedWaypoint start = new IndexedWaypoint(vehicleId, vehicleEntry.start.link, vehicleEntry.start.time);
+		put(start);
+		indexedEntries.put(vehicleId, new IndexedEntry(vehicleEntry, start, stops));
+	}
+
+	private void put(IndexedWaypoint waypoint) {
+		waypoints.put(waypoint.coord.getX(), waypoint.coord.getY(), waypoint);
+	}
+
+	private void removeStart(IndexedEntry indexedEntry) {
+		IndexedWaypoint start = indexedEntry.start;
+		waypoints.remove(start.coord.getX(), start.coord.getY(), start);
+	}
+
+	private void removeStops(IndexedEntry indexedEntry) {
+		for (IndexedWaypoint stop : indexedEntry.stops) {
+			waypoints.remove(stop.coord.getX(), stop.coord.getY(), stop);
+		}
+	}
+}
@@ -8,6 +8,8 @@ import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
 import java.util.Collection;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 /**
  * @author nkuehnel / MOIA
  */
@@ -17,6 +19,20 @@ public interface RequestFleetFilter {
         return vehicleEntries.values();
     }
 
+    /**
+     * Called after the vehicle entries have been created (or refreshed) for the current time step.
+     */
+    default void updateVehicleEntries(Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries) {
+    }
+
+    /**
+     * Called after the entry of a single vehicle has been changed (e.g. after scheduling a request).
+     *
+     * @param vehicleEntry the new entry, or null if the vehicle is not available anymore
+     */
+    default void updateVehicleEntry(Id<DvrpVehicle> vehicleId, @Nullable VehicleEntry vehicleEntry) {
+    }
+
     RequestFleetFilter none = new RequestFleetFilter() {};
 
 }
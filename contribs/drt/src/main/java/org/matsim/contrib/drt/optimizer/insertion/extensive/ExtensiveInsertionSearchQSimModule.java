@@ -20,6 +20,8 @@
 
 package org.matsim.contrib.drt.optimizer.insertion.extensive;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.optimizer.QSimScopeForkJoinPoolHolder;
 import org.matsim.contrib.drt.optimizer.insertion.DetourTimeEstimator;
@@ -73,8 +75,27 @@ public class ExtensiveInsertionSearchQSimModule extends AbstractDvrpModeQSimModu
 						Network network = getModalInstance(Network.class);
 						TravelDisutility travelDisutility = getModalInstance(
 								TravelDisutilityFactory.class).createTravelDisutility(travelTime);
-						return new MultiInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg);
+						return new MultiInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg,
+								getModalInstance(QSimScopeForkJoinPoolHolder.class).getPool());
 					}
 				});
 	}
+
+	/**
+	 * Creates the extensive insertion search outside the QSim (e.g. for benchmarks), with the same components as bound
+	 * in {@link #configureQSim()}.
+	 */
+	public static DrtInsertionSearch createInsertionSearch(DrtConfigGroup drtCfg, Network network, TravelTime travelTime,
+			TravelDisutility travelDisutility, TravelTimeMatrix travelTimeMatrix,
+			InsertionCostCalculator insertionCostCalculator, StopTimeCalculator stopTimeCalculator,
+			ForkJoinPool forkJoinPool) {
+		var insertionParams = (ExtensiveInsertionSearchParams) drtCfg.getDrtInsertionSearchParams();
+		var admissibleTimeEstimator = DetourTimeEstimator.createMatrixBasedEstimator(
+				insertionParams.admissibleBeelineSpeedFactor, travelTimeMatrix, travelTime);
+		var provider = ExtensiveInsertionProvider.create(drtCfg, insertionCostCalculator, forkJoinPool,
+				stopTimeCalculator, admissibleTimeEstimator);
+		return new ExtensiveInsertionSearch(provider,
+				new MultiInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg, forkJoinPool),
+				insertionCostCalculator, stopTimeCalculator);
+	}
 }
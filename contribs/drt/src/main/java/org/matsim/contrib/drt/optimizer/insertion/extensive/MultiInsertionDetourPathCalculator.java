@@ -23,90 +23,108 @@ package org.matsim.contrib.drt.optimizer.insertion.extensive;
 import static org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator.Insertion;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
-import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.drt.optimizer.Waypoint;
 import org.matsim.contrib.drt.passenger.DrtRequest;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
-import org.matsim.contrib.dvrp.path.OneToManyPathSearch;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearchPool;
 import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
 import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
-import org.matsim.core.router.speedy.SpeedyGraph;
-import org.matsim.core.router.speedy.SpeedyGraphBuilder;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 
 import com.google.common.annotations.VisibleForTesting;
 
 /**
+ * Calculates the detour paths of all insertions of a request with four one-to-many searches (to/from pickup, to/from
+ * dropoff), which are run in parallel on the fork-join pool of the DRT mode. Each thread of the pool uses its own path
+ * search (see {@link OneToManyPathSearchPool}), so the paths of multiple requests can be calculated at the same time
+ * (e.g. in batch insertion). Since the least cost path tree of a thread is overwritten by the next search on that
+ * thread (possibly another of the four searches of the same request), the paths are created eagerly and do not refer
+ * to the tree once a search task is finished.
+ * <p>
+ * If requests violating the max wait or travel time are rejected anyway, the searches to the pickup and to the dropoff
+ * are stopped as soon as none of the remaining detour links can be left early enough to reach the pickup (dropoff)
+ * within the time window of the request.
+ *
  * @author michalm
  */
 class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener {
-	public static final int MAX_THREADS = 4;
+	private static final Logger log = LogManager.getLogger(MultiInsertionDetourPathCalculator.class);
 
-	private final OneToManyPathSearch toPickupPathSearch;
-	private final OneToManyPathSearch fromPickupPathSearch;
-	private final OneToManyPathSearch toDropoffPathSearch;
-	private final OneToManyPathSearch fromDropoffPathSearch;
+	private final String mode;
+	private final OneToManyPathSearchPool pathSearchPool;
+	private final ForkJoinPool forkJoinPool;
+	private final boolean stopSearchesOutsideTimeWindows;
 
-	private final ExecutorService executorService;
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
 
 	MultiInsertionDetourPathCalculator(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
-			DrtConfigGroup drtCfg) {
-		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
-		IdMap<Node, Node> nodeMap = new IdMap<>(Node.class);
-		nodeMap.putAll(network.getNodes());
-
-		toPickupPathSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, true);
-		fromPickupPathSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, true);
-		toDropoffPathSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, true);
-		fromDropoffPathSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, true);
-		executorService = Executors.newFixedThreadPool(Math.min(drtCfg.numberOfThreads, MAX_THREADS));
+			DrtConfigGroup drtCfg, ForkJoinPool forkJoinPool) {
+		this(drtCfg.getMode(), OneToManyPathSearchPool.create(network, travelTime, travelDisutility, false),
+				forkJoinPool, drtCfg.addOrGetDrtOptimizationConstraintsParams()
+						.addOrGetDefaultDrtOptimizationConstraintsSet().rejectRequestIfMaxWaitOrTravelTimeViolated);
 	}
 
 	@VisibleForTesting
-	MultiInsertionDetourPathCalculator(OneToManyPathSearch toPickupPathSearch, OneToManyPathSearch fromPickupPathSearch,
-			OneToManyPathSearch toDropoffPathSearch, OneToManyPathSearch fromDropoffPathSearch, int numberOfThreads) {
-		this.toPickupPathSearch = toPickupPathSearch;
-		this.fromPickupPathSearch = fromPickupPathSearch;
-		this.toDropoffPathSearch = toDropoffPathSearch;
-		this.fromDropoffPathSearch = fromDropoffPathSearch;
-		executorService = Executors.newFixedThreadPool(Math.min(numberOfThreads, MAX_THREADS));
+	MultiInsertionDetourPathCalculator(String mode, OneToManyPathSearchPool pathSearchPool, ForkJoinPool forkJoinPool,
+			boolean stopSearchesOutsideTimeWindows) {
+		this.mode = mode;
+		this.pathSearchPool = pathSearchPool;
+		this.forkJoinPool = forkJoinPool;
+		this.stopSearchesOutsideTimeWindows = stopSearchesOutsideTimeWindows;
 	}
 
 	DetourPathDataCache calculatePaths(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
+		long startNanos = System.nanoTime();
+
 		// with vehicle insertion filtering -- pathsToPickup is the most computationally demanding task, while
 		// pathsFromDropoff is the least demanding one
-		var pathsToPickupFuture = executorService.submit(() -> calcPathsToPickup(drtRequest, filteredInsertions));
-		var pathsFromPickupFuture = executorService.submit(() -> calcPathsFromPickup(drtRequest, filteredInsertions));
-		var pathsToDropoffFuture = executorService.submit(() -> calcPathsToDropoff(drtRequest, filteredInsertions));
-		var pathsFromDropoffFuture = executorService.submit(() -> calcPathsFromDropoff(drtRequest, filteredInsertions));
-
-		try {
-			return new DetourPathDataCache(pathsToPickupFuture.get(), pathsFromPickupFuture.get(),
-					pathsToDropoffFuture.get(), pathsFromDropoffFuture.get(), PathData.EMPTY);
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e);
-		}
+		var pathsToPickupTask = forkJoinPool.submit(() -> calcPathsToPickup(drtRequest, filteredInsertions));
+		var pathsFromPickupTask = forkJoinPool.submit(() -> calcPathsFromPickup(drtRequest, filteredInsertions));
+		var pathsToDropoffTask = forkJoinPool.submit(() -> calcPathsToDropoff(drtRequest, filteredInsertions));
+		var pathsFromDropoffTask = forkJoinPool.submit(() -> calcPathsFromDropoff(drtRequest, filteredInsertions));
+
+		var detourPathDataCache = new DetourPathDataCache(pathsToPickupTask.join(), pathsFromPickupTask.join(),
+				pathsToDropoffTask.join(), pathsFromDropoffTask.join(), PathData.EMPTY);
+
+		long nanos = System.nanoTime() - startNanos;
+		requestCount.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+		return detourPathDataCache;
 	}
 
 	private Map<Link, PathData> calcPathsToPickup(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
 		// calc backward dijkstra from pickup to ends of selected stops + starts
 		double earliestPickupTime = drtRequest.getEarliestStartTime(); // optimistic
+		if (stopSearchesOutsideTimeWindows) {
+			var maxTravelTimes = getMaxTravelTimes(filteredInsertions.stream(),
+					insertion -> insertion.pickup.previousWaypoint, drtRequest.getLatestStartTime());
+			return pathSearchPool.get()
+					.calcPathDataMap(drtRequest.getFromLink(), maxTravelTimes, earliestPickupTime, false);
+		}
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream(),
 				insertion -> insertion.pickup.previousWaypoint.getLink());
-		return toPickupPathSearch.calcPathDataMap(drtRequest.getFromLink(), toLinks, earliestPickupTime, false);
+		return pathSearchPool.get()
+				.calcPathDataMap(drtRequest.getFromLink(), toLinks, earliestPickupTime, false, Double.POSITIVE_INFINITY);
 	}
 
 	private Map<Link, PathData> calcPathsFromPickup(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
@@ -114,16 +132,23 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		double earliestPickupTime = drtRequest.getEarliestStartTime(); // optimistic
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream(),
 				insertion -> insertion.pickup.nextWaypoint.getLink());
-		return fromPickupPathSearch.calcPathDataMap(drtRequest.getFromLink(), toLinks, earliestPickupTime, true);
+		return pathSearchPool.get()
+				.calcPathDataMap(drtRequest.getFromLink(), toLinks, earliestPickupTime, true, Double.POSITIVE_INFINITY);
 	}
 
 	private Map<Link, PathData> calcPathsToDropoff(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
 		// calc backward dijkstra from dropoff to ends of selected stops
 		double latestDropoffTime = drtRequest.getLatestArrivalTime(); // pessimistic
-		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream()
-						.filter(insertion -> !(insertion.dropoff.previousWaypoint instanceof Waypoint.Pickup)),
-				insertion -> insertion.dropoff.previousWaypoint.getLink());
-		return toDropoffPathSearch.calcPathDataMap(drtRequest.getToLink(), toLinks, latestDropoffTime, false);
+		var insertions = filteredInsertions.stream()
+				.filter(insertion -> !(insertion.dropoff.previousWaypoint instanceof Waypoint.Pickup));
+		if (stopSearchesOutsideTimeWindows) {
+			var maxTravelTimes = getMaxTravelTimes(insertions, insertion -> insertion.dropoff.previousWaypoint,
+					latestDropoffTime);
+			return pathSearchPool.get().calcPathDataMap(drtRequest.getToLink(), maxTravelTimes, latestDropoffTime, false);
+		}
+		Collection<Link> toLinks = getDetourLinks(insertions, insertion -> insertion.dropoff.previousWaypoint.getLink());
+		return pathSearchPool.get()
+				.calcPathDataMap(drtRequest.getToLink(), toLinks, latestDropoffTime, false, Double.POSITIVE_INFINITY);
 	}
 
 	private Map<Link, PathData> calcPathsFromDropoff(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
@@ -132,7 +157,19 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream()
 						.filter(insertion -> !(insertion.dropoff.nextWaypoint instanceof Waypoint.End)),
 				insertion -> insertion.dropoff.nextWaypoint.getLink());
-		return fromDropoffPathSearch.calcPathDataMap(drtRequest.getToLink(), toLinks, latestDropoffTime, true);
+		return pathSearchPool.get()
+				.calcPathDataMap(drtRequest.getToLink(), toLinks, latestDropoffTime, true, Double.POSITIVE_INFINITY);
+	}
+
+	// Insertions can only delay the departure from the preceding waypoint, so the currently planned departure time
+	// gives an upper bound for the travel time to the pickup (dropoff) within the time window.
+	private Map<Link, Double> getMaxTravelTimes(Stream<Insertion> filteredInsertions,
+			Function<Insertion, Waypoint> precedingWaypointExtractor, double latestArrivalTime) {
+		Map<Link, Double> maxTravelTimes = new HashMap<>();
+		filteredInsertions.map(precedingWaypointExtractor)
+				.forEach(waypoint -> maxTravelTimes.merge(waypoint.getLink(),
+						latestArrivalTime - waypoint.getDepartureTime(), Math::max));
+		return maxTravelTimes;
 	}
 
 	private Collection<Link> getDetourLinks(Stream<Insertion> filteredInsertions,
@@ -144,6 +181,11 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 
 	@Override
 	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent e) {
-		executorService.shutdown();
+		long count = requestCount.sumThenReset();
+		if (count > 0) {
+			log.info("Detour paths ({}): {} requests, mean latency: {} ms, max latency: {} ms", mode, count,
+					TimeUnit.NANOSECONDS.toMillis(totalNanos.sumThenReset() / count),
+					TimeUnit.NANOSECONDS.toMillis(maxNanos.getThenReset()));
+		}
 	}
 }
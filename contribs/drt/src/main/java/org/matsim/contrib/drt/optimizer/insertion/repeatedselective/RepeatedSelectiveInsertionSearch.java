@@ -38,6 +38,7 @@ import org.matsim.core.router.util.LeastCostPathCalculator;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -78,38 +79,53 @@ final class RepeatedSelectiveInsertionSearch implements DrtInsertionSearch, Mobs
 	@Override
 	public Optional<InsertionWithDetourData> findBestInsertion(DrtRequest drtRequest,
 			Collection<VehicleEntry> vehicleEntries) {
-	      List<InsertionWithDetourData> sortedInsertions = insertionProvider.getInsertions(drtRequest, vehicleEntries);
+		var result = findBestInsertionDeferred(drtRequest, vehicleEntries);
+		result.deferredUpdate().run();
+		return result.insertion();
+	}
+
+	@Override
+	public DeferredSearchResult findBestInsertionDeferred(DrtRequest drtRequest,
+			Collection<VehicleEntry> vehicleEntries) {
+		List<InsertionWithDetourData> sortedInsertions = insertionProvider.getInsertions(drtRequest, vehicleEntries);
 		if (sortedInsertions.isEmpty()) {
-			return Optional.empty();
+			return new DeferredSearchResult(Optional.empty(), () -> {
+			});
 		}
-        return validateInsertionWithPathCalculation(sortedInsertions, drtRequest, insertionSearchParams.retryInsertion);
+		// the statistics and the adaptive matrix are shared between requests, so their updates are left to the caller
+		List<Runnable> updates = new ArrayList<>();
+		var bestInsertion = validateInsertionWithPathCalculation(sortedInsertions, drtRequest,
+				insertionSearchParams.retryInsertion, updates);
+		return new DeferredSearchResult(bestInsertion, () -> updates.forEach(Runnable::run));
 	}
 
-    Optional<InsertionWithDetourData> validateInsertionWithPathCalculation(List<InsertionWithDetourData> selectedInsertionList,
-            DrtRequest drtRequest, int tryKBest) {
-        int n = Math.min(selectedInsertionList.size(), tryKBest);
-        for (int i = 0; i < n; i++) {
-            var selectedInsertion = selectedInsertionList.get(i);
-            var insertion = selectedInsertion.insertion;
-            var insertionDetourData = detourPathCalculator.calculatePaths(drtRequest, insertion);
-            var insertionWithDetourData = new InsertionWithDetourData(insertion, insertionDetourData,
-                    detourTimeCalculator.calculateDetourTimeInfo(insertion, insertionDetourData, drtRequest));
+	Optional<InsertionWithDetourData> validateInsertionWithPathCalculation(List<InsertionWithDetourData> selectedInsertionList,
+			DrtRequest drtRequest, int tryKBest, List<Runnable> updates) {
+		int n = Math.min(selectedInsertionList.size(), tryKBest);
+		for (int i = 0; i < n; i++) {
+			var selectedInsertion = selectedInsertionList.get(i);
+			var insertion = selectedInsertion.insertion;
+			var insertionDetourData = detourPathCalculator.calculatePaths(drtRequest, insertion);
+			var insertionWithDetourData = new InsertionWithDetourData(insertion, insertionDetourData,
+					detourTimeCalculator.calculateDetourTimeInfo(insertion, insertionDetourData, drtRequest));
 
-            collectDifferences(drtRequest, selectedInsertion.detourTimeInfo, insertionWithDetourData.detourTimeInfo);
+			updates.add(() -> collectDifferences(drtRequest, selectedInsertion.detourTimeInfo,
+					insertionWithDetourData.detourTimeInfo));
 
-            double insertionCost = insertionCostCalculator.calculate(drtRequest, insertion,
-                    insertionWithDetourData.detourTimeInfo);
+			double insertionCost = insertionCostCalculator.calculate(drtRequest, insertion,
+					insertionWithDetourData.detourTimeInfo);
 
-            // For each realized routing, we update the adaptiveTravelTimeMatrix
+			// For each realized routing, we update the adaptiveTravelTimeMatrix
 			// The idea is to get a passively updated travel time estimation, without additional routing costs
-            updateMatrix(drtRequest, travelTimeMatrix, adaptiveTravelTimeMatrix, insertionWithDetourData);
+			updates.add(() -> updateMatrix(drtRequest, travelTimeMatrix, adaptiveTravelTimeMatrix,
+					insertionWithDetourData));
 
-            if (insertionCost < INFEASIBLE_SOLUTION_COST) {
-                return Optional.of(insertionWithDetourData);
-            }
-        }
-        return Optional.empty();
-    }
+			if (insertionCost < INFEASIBLE_SOLUTION_COST) {
+				return Optional.of(insertionWithDetourData);
+			}
+		}
+		return Optional.empty();
+	}
 
 	private final Map<Integer, SummaryStatistics> pickupTimeLossStats = new LinkedHashMap<>();
 	private final Map<Integer, SummaryStatistics> dropoffTimeLossStats = new LinkedHashMap<>();
@@ -152,6 +168,9 @@ final class RepeatedSelectiveInsertionSearch implements DrtInsertionSearch, Mobs
 
 	@Override
 	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent event) {
+		if (matsimServices == null) {
+			return; // created outside a controler, see RepeatedSelectiveInsertionSearchQSimModule.createInsertionSearch()
+		}
 		String filename = matsimServices.getControlerIO()
 				.getIterationFilename(matsimServices.getIterationNumber(),
 						mode + "_selective_insertion_detour_time_estimation_errors.csv");
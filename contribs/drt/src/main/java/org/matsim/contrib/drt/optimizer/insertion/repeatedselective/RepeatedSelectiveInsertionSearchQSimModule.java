@@ -20,6 +20,8 @@
 
 package org.matsim.contrib.drt.optimizer.insertion.repeatedselective;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.optimizer.QSimScopeForkJoinPoolHolder;
 import org.matsim.contrib.drt.optimizer.insertion.DetourTimeEstimator;
@@ -85,4 +87,21 @@ public class RepeatedSelectiveInsertionSearchQSimModule extends AbstractDvrpMode
                     }
                 });
     }
+
+    /**
+     * Creates the repeated selective insertion search outside the QSim (e.g. for benchmarks), with the same components
+     * as bound in {@link #configureQSim()}. The caller is responsible for shutting down the detour path calculator. No
+     * detour time estimation stats are written.
+     */
+    public static DrtInsertionSearch createInsertionSearch(DrtConfigGroup drtCfg, TravelTime travelTime,
+            TravelTimeMatrix travelTimeMatrix, AdaptiveTravelTimeMatrix adaptiveTravelTimeMatrix,
+            SingleInsertionDetourPathCalculator detourPathCalculator, InsertionCostCalculator insertionCostCalculator,
+            StopTimeCalculator stopTimeCalculator, ForkJoinPool forkJoinPool) {
+        var detourTimeEstimator = DetourTimeEstimatorWithAdaptiveTravelTimes.create(SPEED_FACTOR,
+                adaptiveTravelTimeMatrix, travelTime);
+        RepeatedSelectiveInsertionProvider provider = RepeatedSelectiveInsertionProvider.create(insertionCostCalculator,
+                forkJoinPool, stopTimeCalculator, detourTimeEstimator);
+        return new RepeatedSelectiveInsertionSearch(provider, detourPathCalculator, insertionCostCalculator, drtCfg, null,
+                stopTimeCalculator, travelTimeMatrix, adaptiveTravelTimeMatrix);
+    }
 }
@@ -69,9 +69,18 @@ final class SelectiveInsertionSearch implements DrtInsertionSearch, MobsimBefore
 	@Override
 	public Optional<InsertionWithDetourData> findBestInsertion(DrtRequest drtRequest,
 			Collection<VehicleEntry> vehicleEntries) {
+		var result = findBestInsertionDeferred(drtRequest, vehicleEntries);
+		result.deferredUpdate().run();
+		return result.insertion();
+	}
+
+	@Override
+	public DeferredSearchResult findBestInsertionDeferred(DrtRequest drtRequest,
+			Collection<VehicleEntry> vehicleEntries) {
 		var selectedInsertion = insertionProvider.getInsertion(drtRequest, vehicleEntries);
 		if (selectedInsertion.isEmpty()) {
-			return Optional.empty();
+			return new DeferredSearchResult(Optional.empty(), () -> {
+			});
 		}
 
 		var insertion = selectedInsertion.get().insertion;
@@ -79,11 +88,15 @@ final class SelectiveInsertionSearch implements DrtInsertionSearch, MobsimBefore
 		var insertionWithDetourData = new InsertionWithDetourData(insertion, insertionDetourData,
 				detourTimeCalculator.calculateDetourTimeInfo(insertion, insertionDetourData, drtRequest));
 
-		collectDifferences(drtRequest, selectedInsertion.get().detourTimeInfo, insertionWithDetourData.detourTimeInfo);
+		// the statistics are shared between requests, so their update is left to the caller
+		Runnable collectDifferences = () -> collectDifferences(drtRequest, selectedInsertion.get().detourTimeInfo,
+				insertionWithDetourData.detourTimeInfo);
 
 		double insertionCost = insertionCostCalculator.calculate(drtRequest, insertion,
 				insertionWithDetourData.detourTimeInfo);
-		return insertionCost >= INFEASIBLE_SOLUTION_COST ? Optional.empty() : Optional.of(insertionWithDetourData);
+		return new DeferredSearchResult(
+				insertionCost >= INFEASIBLE_SOLUTION_COST ? Optional.empty() : Optional.of(insertionWithDetourData),
+				collectDifferences);
 	}
 
 	private final Map<Integer, SummaryStatistics> pickupTimeLossStats = new LinkedHashMap<>();
@@ -110,6 +123,9 @@ final class SelectiveInsertionSearch implements DrtInsertionSearch, MobsimBefore
 
 	@Override
 	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent event) {
+		if (matsimServices == null) {
+			return; // created outside a controler, see SelectiveInsertionSearchQSimModule.createInsertionSearch()
+		}
 		String filename = matsimServices.getControlerIO()
 				.getIterationFilename(matsimServices.getIterationNumber(),
 						mode + "_selective_insertion_detour_time_estimation_errors.csv");
@@ -20,6 +20,8 @@
 
 package org.matsim.contrib.drt.optimizer.insertion.selective;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.optimizer.QSimScopeForkJoinPoolHolder;
 import org.matsim.contrib.drt.optimizer.insertion.DetourTimeEstimator;
@@ -86,4 +88,23 @@ public class SelectiveInsertionSearchQSimModule extends AbstractDvrpModeQSimModu
 					}
 				});
 	}
+
+	/**
+	 * Creates the selective insertion search outside the QSim (e.g. for benchmarks), with the same components as bound
+	 * in {@link #configureQSim()}. The caller is responsible for shutting down the detour path calculator. No detour
+	 * time estimation stats are written.
+	 */
+	public static DrtInsertionSearch createInsertionSearch(DrtConfigGroup drtCfg, TravelTime travelTime,
+			TravelTimeMatrix travelTimeMatrix, SingleInsertionDetourPathCalculator detourPathCalculator,
+			InsertionCostCalculator insertionCostCalculator, StopTimeCalculator stopTimeCalculator,
+			ForkJoinPool forkJoinPool) {
+		var insertionParams = (SelectiveInsertionSearchParams) drtCfg.getDrtInsertionSearchParams();
+		var restrictiveDetourTimeEstimator = DetourTimeEstimator.createMatrixBasedEstimator(
+				insertionParams.restrictiveBeelineSpeedFactor, travelTimeMatrix, travelTime);
+		SelectiveInsertionProvider provider = SelectiveInsertionProvider.create(insertionCostCalculator, forkJoinPool,
+				stopTimeCalculator, restrictiveDetourTimeEstimator);
+		// 0 as the cost for the selected insertion, see configureQSim()
+		return new SelectiveInsertionSearch(provider, detourPathCalculator, (drtRequest, insertion, detourTimeInfo) -> 0,
+				drtCfg, null, stopTimeCalculator);
+	}
 }
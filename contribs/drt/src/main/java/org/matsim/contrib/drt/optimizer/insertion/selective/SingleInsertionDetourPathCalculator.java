@@ -57,10 +57,8 @@ public class SingleInsertionDetourPathCalculator implements MobsimBeforeCleanupL
 
 	private final TravelTime travelTime;
 
-	private final LeastCostPathCalculator toPickupPathSearch;
-	private final LeastCostPathCalculator fromPickupPathSearch;
-	private final LeastCostPathCalculator toDropoffPathSearch;
-	private final LeastCostPathCalculator fromDropoffPathSearch;
+	// one router per executor thread, so that the paths of several requests can be calculated at the same time
+	private final ThreadLocal<LeastCostPathCalculator> pathSearch;
 
 	private final ExecutorService executorService;
 
@@ -74,10 +72,8 @@ public class SingleInsertionDetourPathCalculator implements MobsimBeforeCleanupL
 			int numberOfThreads, LeastCostPathCalculatorFactory pathCalculatorFactory) {
 		this.travelTime = travelTime;
 
-		toPickupPathSearch = pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime);
-		fromPickupPathSearch = pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime);
-		toDropoffPathSearch = pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime);
-		fromDropoffPathSearch = pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime);
+		pathSearch = ThreadLocal.withInitial(
+				() -> pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime));
 		executorService = Executors.newFixedThreadPool(Math.min(numberOfThreads, MAX_THREADS));
 	}
 
@@ -92,23 +88,23 @@ public class SingleInsertionDetourPathCalculator implements MobsimBeforeCleanupL
 		//  passing it as an argument, instead of Insertion)
 
 		Future<PathData> toPickupFuture = executorService.submit(
-				() -> calcPathData(toPickupPathSearch, insertion.pickup.previousWaypoint.getLink(), pickup,
+				() -> calcPathData(pathSearch.get(), insertion.pickup.previousWaypoint.getLink(), pickup,
 						earliestPickupTime));
 
 		Future<PathData> fromPickupFuture = executorService.submit(
-				() -> calcPathData(fromPickupPathSearch, pickup, insertion.pickup.nextWaypoint.getLink(),
+				() -> calcPathData(pathSearch.get(), pickup, insertion.pickup.nextWaypoint.getLink(),
 						earliestPickupTime));
 
 		Future<PathData> toDropoffFuture = insertion.dropoff.previousWaypoint instanceof Waypoint.Pickup ?
 				Futures.immediateFuture(null) :
 				executorService.submit(
-						() -> calcPathData(toDropoffPathSearch, insertion.dropoff.previousWaypoint.getLink(), dropoff,
+						() -> calcPathData(pathSearch.get(), insertion.dropoff.previousWaypoint.getLink(), dropoff,
 								latestDropoffTime));
 
 		Future<PathData> fromDropoffFuture = insertion.dropoff.nextWaypoint instanceof Waypoint.End ?
 				Futures.immediateFuture(PathData.EMPTY) :
 				executorService.submit(
-						() -> calcPathData(fromDropoffPathSearch, dropoff, insertion.dropoff.nextWaypoint.getLink(),
+						() -> calcPathData(pathSearch.get(), dropoff, insertion.dropoff.nextWaypoint.getLink(),
 								latestDropoffTime));
 
 		try {
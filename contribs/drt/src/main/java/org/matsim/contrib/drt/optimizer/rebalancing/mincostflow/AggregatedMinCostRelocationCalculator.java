@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.network.Link;
@@ -49,15 +50,22 @@ public class AggregatedMinCostRelocationCalculator implements ZonalRelocationCal
 	}
 
 	private final DrtZoneTargetLinkSelector targetLinkSelector;
+	private final Function<List<DrtZoneVehicleSurplus>, List<TransportProblem.Flow<Zone, Zone>>> transportProblem;
 
 	public AggregatedMinCostRelocationCalculator(DrtZoneTargetLinkSelector targetLinkSelector) {
+		this(targetLinkSelector, TransportProblem::solveForVehicleSurplus);
+	}
+
+	public AggregatedMinCostRelocationCalculator(DrtZoneTargetLinkSelector targetLinkSelector,
+			Function<List<DrtZoneVehicleSurplus>, List<TransportProblem.Flow<Zone, Zone>>> transportProblem) {
 		this.targetLinkSelector = targetLinkSelector;
+		this.transportProblem = transportProblem;
 	}
 
 	@Override
 	public List<Relocation> calcRelocations(List<DrtZoneVehicleSurplus> vehicleSurplus,
 			Map<Zone, List<DvrpVehicle>> rebalancableVehiclesPerZone) {
-		return calcRelocations(rebalancableVehiclesPerZone, TransportProblem.solveForVehicleSurplus(vehicleSurplus));
+		return calcRelocations(rebalancableVehiclesPerZone, transportProblem.apply(vehicleSurplus));
 	}
 
 	private List<Relocation> calcRelocations(Map<Zone, List<DvrpVehicle>> rebalancableVehiclesPerZone,
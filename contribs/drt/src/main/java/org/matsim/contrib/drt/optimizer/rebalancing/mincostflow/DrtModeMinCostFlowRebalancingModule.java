@@ -20,7 +20,9 @@
 
 package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
 
+import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.population.Population;
+import org.matsim.contrib.common.zones.Zone;
 import org.matsim.contrib.common.zones.ZoneSystem;
 import org.matsim.contrib.drt.analysis.zonal.DrtZoneTargetLinkSelector;
 import org.matsim.contrib.drt.optimizer.rebalancing.RebalancingParams;
@@ -33,6 +35,7 @@ import org.matsim.contrib.dvrp.fleet.Fleet;
 import org.matsim.contrib.dvrp.fleet.FleetSpecification;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeModule;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeQSimModule;
+import org.matsim.contrib.zone.skims.TravelTimeMatrix;
 
 /**
  * @author michalm
@@ -88,9 +91,20 @@ public class DrtModeMinCostFlowRebalancingModule extends AbstractDvrpModeModule
 								+ strategyParams.zonalDemandEstimatorType);
 				}
 
-				bindModal(ZonalRelocationCalculator.class).toProvider(modalProvider(
-						getter -> new AggregatedMinCostRelocationCalculator(
-								getter.getModal(DrtZoneTargetLinkSelector.class)))).asEagerSingleton();
+				bindModal(ZonalRelocationCalculator.class).toProvider(modalProvider(getter -> {
+					DrtZoneTargetLinkSelector targetLinkSelector = getter.getModal(DrtZoneTargetLinkSelector.class);
+					if (Double.isInfinite(strategyParams.maxRelocationTravelTime)) {
+						return new AggregatedMinCostRelocationCalculator(targetLinkSelector);
+					}
+
+					var candidates = new TravelTimeRelocationCandidates(getter.getModal(ZoneSystem.class),
+							getter.getModal(Network.class), getter.getModal(TravelTimeMatrix.class),
+							strategyParams.maxRelocationTravelTime);
+					var transportProblem = new SparseTransportProblem<Zone, Zone>(candidates, true);
+					return new AggregatedMinCostRelocationCalculator(targetLinkSelector,
+							vehicleSurplus -> TransportProblem.solveForVehicleSurplus(vehicleSurplus,
+									transportProblem::solve));
+				})).asEagerSingleton();
 			}
 		});
 
@@ -22,6 +22,7 @@ import org.matsim.contrib.drt.optimizer.rebalancing.RebalancingParams;
 import org.matsim.core.config.ReflectiveConfigGroup;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 
 /**
@@ -84,6 +85,16 @@ public final class MinCostFlowRebalancingStrategyParams extends ReflectiveConfig
 	@PositiveOrZero
 	public int demandEstimationPeriod = 1800;
 
+	@Parameter
+	@Comment("If finite, vehicles are relocated only between zones that are at most maxRelocationTravelTime apart"
+			+ " (free-speed travel time between the most central nodes of the zones, taken from the DVRP travel time"
+			+ " matrix), and relocation costs are travel times instead of beeline distances. The resulting sparse"
+			+ " transport problem is solved with a cost scaling algorithm, warm-started with the solution from the"
+			+ " previous rebalancing. Recommended for zone systems with thousands of zones."
+			+ " Default is Infinity (all pairs of zones, beeline distances).")
+	@Positive
+	public double maxRelocationTravelTime = Double.POSITIVE_INFINITY;
+
 	public MinCostFlowRebalancingStrategyParams() {
 		super(SET_NAME);
 	}
@@ -0,0 +1,190 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.TransportProblem.Flow;
+
+import graphs.flows.CostScalingMinCostFlow;
+
+/**
+ * Sparse variant of {@link TransportProblem}: each producer is connected only to its candidate consumers (e.g. the
+ * ones within a maximum relocation travel time) instead of to all consumers. As in {@link TransportProblem}, the
+ * flow is maximised first and then its cost is minimised; supply that cannot reach any candidate consumer stays
+ * where it is. The problem is solved with {@link CostScalingMinCostFlow}.
+ * <p>
+ * If warm start is enabled, the flows and node potentials of the previous solution are the initial solution of the
+ * next problem. Supplies and demands change only a bit between subsequent rebalancing intervals, so only local
+ * corrections are needed.
+ */
+public class SparseTransportProblem<P, C> {
+	public record Candidate<C>(C consumer, int cost) {
+	}
+
+	private record TransportArc(int producer, int consumer, int arc) {
+	}
+
+	private final Function<P, ? extends Iterable<Candidate<C>>> candidateFunction;
+	private final boolean warmStart;
+
+	// previous solution (for warm starts)
+	private boolean solved = false;
+	private final Map<P, Map<C, Integer>> previousFlows = new HashMap<>();
+	private final Map<P, Double> producerPotentials = new HashMap<>();// relative to the source
+	private final Map<C, Double> consumerPotentials = new HashMap<>();// relative to the sink
+	private double sinkPotential;// relative to the source
+
+	public SparseTransportProblem(Function<P, ? extends Iterable<Candidate<C>>> candidateFunction, boolean warmStart) {
+		this.candidateFunction = candidateFunction;
+		this.warmStart = warmStart;
+	}
+
+	public List<Flow<P, C>> solve(List<Pair<P, Integer>> supply, List<Pair<C, Integer>> demand) {
+		if (supply.isEmpty() || demand.isEmpty()) {
+			return List.of();
+		}
+
+		final int P = supply.size();
+		final int C = demand.size();
+		final int N = P + C + 2;
+
+		// N nodes, which indices are:
+		// 0 - source
+		// 1..P - producers 1..P
+		// P+1..P+C - consumers 1..C
+		// P+C+1 - sink
+		CostScalingMinCostFlow minCostFlow = new CostScalingMinCostFlow(N);
+
+		Map<C, Integer> consumerIndices = new HashMap<>();
+		for (int j = 0; j < C; j++) {
+			consumerIndices.put(demand.get(j).getKey(), j);
+		}
+
+		// source -> producers
+		int totalSupply = 0;
+		int[] supplyArcs = new int[P];
+		for (int i = 0; i < P; i++) {
+			int supplyValue = supply.get(i).getValue();
+			supplyArcs[i] = minCostFlow.addArc(0, 1 + i, supplyValue, 0);
+			totalSupply += supplyValue;
+		}
+
+		// consumers -> sink
+		int totalDemand = 0;
+		int[] demandArcs = new int[C];
+		for (int j = 0; j < C; j++) {
+			int demandValue = demand.get(j).getValue();
+			demandArcs[j] = minCostFlow.addArc(1 + P + j, N - 1, demandValue, 0);
+			totalDemand += demandValue;
+		}
+
+		// producers --> candidate consumers (initial flows: previous flows limited by the current supply and demand)
+		boolean useWarmStart = warmStart && solved;
+		int[] producerFlows = new int[P];
+		int[] consumerFlows = new int[C];
+		List<TransportArc> transportArcs = new ArrayList<>();
+		int maxCost = 0;
+		for (int i = 0; i < P; i++) {
+			Pair<P, Integer> producer = supply.get(i);
+			Map<C, Integer> producerPreviousFlows = useWarmStart ?
+					previousFlows.getOrDefault(producer.getKey(), Map.of()) :
+					Map.of();
+
+			for (Candidate<C> candidate : candidateFunction.apply(producer.getKey())) {
+				Integer j = consumerIndices.get(candidate.consumer());
+				if (j == null) {
+					continue;
+				}
+				int supplyValue = producer.getValue();
+				int demandValue = demand.get(j).getValue();
+				int arc = minCostFlow.addArc(1 + i, 1 + P + j, Math.min(supplyValue, demandValue), candidate.cost());
+				transportArcs.add(new TransportArc(i, j, arc));
+				maxCost = Math.max(maxCost, candidate.cost());
+
+				int previousFlow = producerPreviousFlows.getOrDefault(candidate.consumer(), 0);
+				int initialFlow = Math.min(previousFlow,
+						Math.min(supplyValue - producerFlows[i], demandValue - consumerFlows[j]));
+				if (initialFlow > 0) {
+					minCostFlow.setFlow(arc, initialFlow);
+					producerFlows[i] += initialFlow;
+					consumerFlows[j] += initialFlow;
+				}
+			}
+		}
+
+		// source -> sink: the flow that cannot be sent via the producers and consumers; its cost is higher than the cost
+		// of any path via the producers and consumers, so that the total flow between them is maximised
+		int flow = Math.min(totalSupply, totalDemand);
+		int bypassArc = minCostFlow.addArc(0, N - 1, flow, (long)N * maxCost + 1);
+		minCostFlow.setSupply(0, flow);
+		minCostFlow.setSupply(N - 1, -flow);
+
+		if (useWarmStart) {
+			int initialFlow = 0;
+			for (int i = 0; i < P; i++) {
+				minCostFlow.setFlow(supplyArcs[i], producerFlows[i]);
+				minCostFlow.setPotential(1 + i, producerPotentials.getOrDefault(supply.get(i).getKey(), 0.));
+				initialFlow += producerFlows[i];
+			}
+			for (int j = 0; j < C; j++) {
+				minCostFlow.setFlow(demandArcs[j], consumerFlows[j]);
+				minCostFlow.setPotential(1 + P + j,
+						sinkPotential + consumerPotentials.getOrDefault(demand.get(j).getKey(), 0.));
+			}
+			minCostFlow.setFlow(bypassArc, flow - initialFlow);
+			minCostFlow.setPotential(0, 0);
+			minCostFlow.setPotential(N - 1, sinkPotential);
+		}
+
+		minCostFlow.solve();
+
+		// extract flows
+		previousFlows.clear();
+		List<Flow<P, C>> flows = new ArrayList<>();
+		for (TransportArc transportArc : transportArcs) {
+			int arcFlow = minCostFlow.getFlow(transportArc.arc);
+			if (arcFlow > 0) {
+				P from = supply.get(transportArc.producer).getKey();
+				C to = demand.get(transportArc.consumer).getKey();
+				flows.add(new Flow<>(from, to, arcFlow));
+				previousFlows.computeIfAbsent(from, p -> new HashMap<>()).put(to, arcFlow);
+			}
+		}
+
+		// store potentials
+		double sourcePotential = minCostFlow.getPotential(0);
+		sinkPotential = minCostFlow.getPotential(N - 1) - sourcePotential;
+		for (int i = 0; i < P; i++) {
+			producerPotentials.put(supply.get(i).getKey(), minCostFlow.getPotential(1 + i) - sourcePotential);
+		}
+		for (int j = 0; j < C; j++) {
+			consumerPotentials.put(demand.get(j).getKey(),
+					minCostFlow.getPotential(1 + P + j) - minCostFlow.getPotential(N - 1));
+		}
+		solved = true;
+
+		return flows;
+	}
+}
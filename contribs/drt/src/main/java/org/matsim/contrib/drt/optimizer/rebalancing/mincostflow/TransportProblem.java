@@ -21,6 +21,7 @@ package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.ToIntBiFunction;
 import java.util.stream.Stream;
 
@@ -37,6 +38,13 @@ import org.matsim.contrib.common.zones.Zone;
 public class TransportProblem<P, C> {
 	public static List<Flow<Zone, Zone>> solveForVehicleSurplus(
 			List<AggregatedMinCostRelocationCalculator.DrtZoneVehicleSurplus> vehicleSurplus) {
+		return solveForVehicleSurplus(vehicleSurplus,
+				new TransportProblem<Zone, Zone>(TransportProblem::calcStraightLineDistance)::solve);
+	}
+
+	public static List<Flow<Zone, Zone>> solveForVehicleSurplus(
+			List<AggregatedMinCostRelocationCalculator.DrtZoneVehicleSurplus> vehicleSurplus,
+			BiFunction<List<Pair<Zone, Integer>>, List<Pair<Zone, Integer>>, List<Flow<Zone, Zone>>> solver) {
 		List<Pair<Zone, Integer>> supply = new ArrayList<>();
 		List<Pair<Zone, Integer>> demand = new ArrayList<>();
 		for (AggregatedMinCostRelocationCalculator.DrtZoneVehicleSurplus s : vehicleSurplus) {
@@ -46,7 +54,7 @@ public class TransportProblem<P, C> {
 				demand.add(Pair.of(s.zone, -s.surplus));
 			}
 		}
-		return new TransportProblem<Zone, Zone>(TransportProblem::calcStraightLineDistance).solve(supply, demand);
+		return solver.apply(supply, demand);
 	}
 
 	private static int calcStraightLineDistance(Zone zone1, Zone zone2) {
@@ -0,0 +1,87 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.common.zones.Zone;
+import org.matsim.contrib.common.zones.ZoneSystem;
+import org.matsim.contrib.common.zones.ZoneSystemUtils;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.SparseTransportProblem.Candidate;
+import org.matsim.contrib.zone.skims.TravelTimeMatrix;
+
+/**
+ * For each origin zone, lists the destination zones that can be reached within the maximum relocation travel time.
+ * Travel times are taken from the (free-speed) DVRP travel time matrix, between the most central nodes of the zones.
+ * The lists are calculated lazily and cached, as mostly the same zones have a surplus of vehicles in subsequent
+ * rebalancing intervals. They are sorted by travel time and zone id, so that the rebalancing is reproducible.
+ */
+class TravelTimeRelocationCandidates implements Function<Zone, List<Candidate<Zone>>> {
+	private static final Comparator<Candidate<Zone>> CANDIDATE_COMPARATOR = Comparator.<Candidate<Zone>>comparingInt(
+			Candidate::cost).thenComparing(c -> c.consumer().getId());
+
+	private final ZoneSystem zoneSystem;
+	private final Map<Zone, Node> centralNodes;
+	private final TravelTimeMatrix travelTimeMatrix;
+	private final double maxTravelTime;
+	private final Map<Zone, List<Candidate<Zone>>> candidates = new HashMap<>();
+
+	TravelTimeRelocationCandidates(ZoneSystem zoneSystem, Network network, TravelTimeMatrix travelTimeMatrix,
+			double maxTravelTime) {
+		this.zoneSystem = zoneSystem;
+		this.centralNodes = ZoneSystemUtils.computeMostCentralNodes(network.getNodes().values(), zoneSystem);
+		this.travelTimeMatrix = travelTimeMatrix;
+		this.maxTravelTime = maxTravelTime;
+	}
+
+	@Override
+	public List<Candidate<Zone>> apply(Zone origin) {
+		return candidates.computeIfAbsent(origin, this::calculateCandidates);
+	}
+
+	private List<Candidate<Zone>> calculateCandidates(Zone origin) {
+		Node fromNode = centralNodes.get(origin);
+		if (fromNode == null) {
+			return List.of();
+		}
+
+		// centralNodes is hashed by zone identity, so its iteration order differs between runs
+		List<Candidate<Zone>> destinations = new ArrayList<>();
+		for (Zone destination : zoneSystem.getZones().values()) {
+			Node toNode = centralNodes.get(destination);
+			if (toNode == null || destination == origin) {
+				continue;
+			}
+			int travelTime = travelTimeMatrix.getTravelTime(fromNode, toNode, 0);
+			if (travelTime <= maxTravelTime) {
+				destinations.add(new Candidate<>(destination, travelTime));
+			}
+		}
+		// the arc order decides between equally expensive relocations
+		destinations.sort(CANDIDATE_COMPARATOR);
+		return destinations;
+	}
+}
@@ -43,6 +43,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Preplanned requests can be submitted any time before the planned
  * departure/submission times.
  *
+ * If a batch submission interval is set, new bookings are held back and
+ * submitted to the optimizer together at the end of each interval, ordered by
+ * their earliest departure times (rolling horizon). Requests that depart too
+ * soon to wait for the next batch are submitted right away.
+ *
  * Internally, the prebooking manager will create a request identifier and
  * return the request once the agent actually wants to depart on the planned
  * leg. The link between a leg and a request is managed by inserting a special
@@ -60,6 +65,7 @@ public class PrebookingManager implements MobsimEngine, MobsimAfterSimStepListen
 	private final VrpOptimizer optimizer;
 	private final RequestUnscheduler unscheduler;
 	private final boolean abortRejectedPrebookings;
+	private final double batchSubmissionInterval;
 
 	private final MobsimTimer mobsimTimer;
 
@@ -68,7 +74,8 @@ public class PrebookingManager implements MobsimEngine, MobsimAfterSimStepListen
 
 	public PrebookingManager(String mode, Network network, PassengerRequestCreator requestCreator,
 							 VrpOptimizer optimizer, MobsimTimer mobsimTimer, PassengerRequestValidator requestValidator,
-							 EventsManager eventsManager, RequestUnscheduler unscheduler, boolean abortRejectedPrebookings) {
+							 EventsManager eventsManager, RequestUnscheduler unscheduler, boolean abortRejectedPrebookings,
+							 double batchSubmissionInterval) {
 		this.network = network;
 		this.mode = mode;
 		this.requestCreator = requestCreator;
@@ -79,6 +86,8 @@ public class PrebookingManager implements MobsimEngine, MobsimAfterSimStepListen
 		this.eventsManager = eventsManager;
 		this.unscheduler = unscheduler;
 		this.abortRejectedPrebookings = abortRejectedPrebookings;
+		this.batchSubmissionInterval = batchSubmissionInterval;
+		this.nextBatchTime = batchSubmissionInterval;
 	}
 
 	// Functionality for ID management
@@ -203,17 +212,54 @@ public class PrebookingManager implements MobsimEngine, MobsimAfterSimStepListen
 		}
 	}
 
+	// collects bookings that are submitted with the next batch
+	private final List<PassengerRequest> batchQueue = new ArrayList<>();
+
+	// batches are submitted at multiples of the interval, or at the first time step after them
+	private double nextBatchTime;
+
 	private void processBookingQueue(double now) {
 		for (PassengerRequest request : bookingQueue) {
-
-			synchronized (optimizer) { // needed?
-				optimizer.requestSubmitted(request);
+			if (batchSubmissionInterval > 0
+					&& request.getEarliestStartTime() >= nextBatchTime + batchSubmissionInterval) {
+				batchQueue.add(request);
+			} else {
+				submit(request);
 			}
 
 			requests.put(request.getId(), new RequestItem(request));
 		}
 
 		bookingQueue.clear();
+
+		if (batchSubmissionInterval > 0 && now >= nextBatchTime) {
+			processBatchQueue();
+
+			while (nextBatchTime <= now) {
+				nextBatchTime += batchSubmissionInterval;
+			}
+		}
+	}
+
+	private void processBatchQueue() {
+		batchQueue.sort(Comparator.comparingDouble(PassengerRequest::getEarliestStartTime));
+
+		for (PassengerRequest request : batchQueue) {
+			if (requests.containsKey(request.getId())) {
+				submit(request);
+			} else {
+				// canceled (or the passengers got stuck) before submission
+				unscheduleUponVehicleAssignment.remove(request.getId());
+			}
+		}
+
+		batchQueue.clear();
+	}
+
+	private void submit(PassengerRequest request) {
+		synchronized (optimizer) { // needed?
+			optimizer.requestSubmitted(request);
+		}
 	}
 
 	private Link getLink(Id<Link> linkId) {
@@ -65,7 +65,8 @@ public class PrebookingModeQSimModule extends AbstractDvrpModeQSimModule {
 			MobsimTimer mobsimTimer = getter.get(MobsimTimer.class);
 
 			return new PrebookingManager(getMode(), network, requestCreator, optimizer, mobsimTimer, requestValidator,
-					eventsManager, requestUnscheduler, prebookingParams.abortRejectedPrebookings);
+					eventsManager, requestUnscheduler, prebookingParams.abortRejectedPrebookings,
+					prebookingParams.batchSubmissionInterval);
 		})).in(Singleton.class);
 		addModalQSimComponentBinding().to(modalKey(PrebookingManager.class));
 
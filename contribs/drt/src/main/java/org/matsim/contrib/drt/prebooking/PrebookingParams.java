@@ -1,9 +1,13 @@
 package org.matsim.contrib.drt.prebooking;
 
+import org.matsim.core.config.Config;
 import org.matsim.core.config.ReflectiveConfigGroup;
 
+import com.google.common.base.Preconditions;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public class PrebookingParams extends ReflectiveConfigGroup {
 	public static final String SET_NAME = "prebooking";
@@ -44,4 +48,23 @@ public class PrebookingParams extends ReflectiveConfigGroup {
 			"Note that additional passenger events for submission, scheduling etc. will occur for re-attempts.")
 	public boolean abortRejectedPrebookings = true;
 
+	@Parameter
+	@Comment("If positive, prebooked requests are not submitted to the optimizer one by one as they are booked,"
+			+ " but collected and submitted together every batchSubmissionInterval seconds (rolling horizon),"
+			+ " ordered by their earliest departure times. Requests that depart before the end of the next interval"
+			+ " are submitted immediately. Combine with batchInsertion of the DRT mode to insert the requests of"
+			+ " a batch in parallel. Default is 0 (no batches).")
+	@PositiveOrZero
+	public double batchSubmissionInterval = 0;
+
+	@Override
+	protected void checkConsistency(Config config) {
+		super.checkConsistency(config);
+
+		Preconditions.checkArgument(batchSubmissionInterval == 0
+						|| (Double.isFinite(batchSubmissionInterval)
+						&& batchSubmissionInterval >= config.qsim().getTimeStepSize()),
+				"batchSubmissionInterval must be 0 (no batches) or a finite value not smaller than the QSim time step size");
+	}
+
 }
\ No newline at end of file
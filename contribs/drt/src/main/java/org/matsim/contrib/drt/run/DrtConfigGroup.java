@@ -154,6 +154,22 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 	@Positive
 	public int numberOfThreads = Runtime.getRuntime().availableProcessors();
 
+	@Parameter
+	@Comment("If true, the insertions of all requests submitted in the same time step are searched for in parallel."
+			+ " Requests whose best vehicle has been taken by a preceding request are searched for again."
+			+ " Statistics and adaptive travel time matrix updates of the built-in insertion searches are applied"
+			+ " afterwards, in the order of the requests, so the results do not depend on the number of threads."
+			+ " Custom insertion searches must be thread-safe or defer their updates in the same way. False by default.")
+	public boolean batchInsertion = false;
+
+	@Parameter
+	@Comment("If true, the insertion search only considers vehicles that may reach the pickup location before the"
+			+ " latest start time of a request, either from their current position or from one of their planned stops"
+			+ " (estimated with the beeline distance and the maximum free speed in the network)."
+			+ " Vehicle positions and stops are kept in a spatial index."
+			+ " Requires rejectRequestIfMaxWaitOrTravelTimeViolated to be true. False by default.")
+	public boolean filterUnreachableVehicles = false;
+
 	@Parameter
 	@Comment("Store planned unshared drt route as a link sequence")
 	public boolean storeUnsharedPath = false; // If true, the planned unshared path is stored and exported in plans
@@ -302,6 +318,10 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 		for (DrtOptimizationConstraintsSet constraintsSet : drtOptimizationConstraintsSets) {
 			Verify.verify(constraintsSet.maxWaitTime >= stopDuration,
 					"maxWaitTime must not be smaller than stopDuration");
+			Verify.verify(!filterUnreachableVehicles || constraintsSet.rejectRequestIfMaxWaitOrTravelTimeViolated,
+					"filterUnreachableVehicles requires rejectRequestIfMaxWaitOrTravelTimeViolated to be true"
+							+ " (in all optimization constraints sets), otherwise a late pickup is only penalised"
+							+ " and vehicles would be wrongly filtered out");
 		}
 
 		Verify.verify(operationalScheme != OperationalScheme.stopbased || transitStopFile != null,
@@ -0,0 +1,137 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package graphs.flows;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class CostScalingMinCostFlowTest {
+	@Test
+	void solve_sameResultAsMinCostFlow() {
+		Random random = new Random(4711);
+		for (int instance = 0; instance < 200; instance++) {
+			TransportInstance transportInstance = new TransportInstance(random);
+			int[] expected = transportInstance.solveWithMinCostFlow();
+
+			// cold start
+			assertThat(transportInstance.solveWithCostScaling(null)).containsExactly(expected);
+
+			// warm start with arbitrary potentials
+			double[] potentials = random.doubles(transportInstance.nodeCount, -1000, 1000).toArray();
+			assertThat(transportInstance.solveWithCostScaling(potentials)).containsExactly(expected);
+		}
+	}
+
+	@Test
+	void solve_infeasible() {
+		CostScalingMinCostFlow minCostFlow = new CostScalingMinCostFlow(3);
+		minCostFlow.addArc(0, 1, 5, 1);
+		minCostFlow.addArc(1, 0, 5, 1);
+		minCostFlow.setSupply(0, 1);
+		minCostFlow.setSupply(2, -1);
+		assertThatThrownBy(minCostFlow::solve).isExactlyInstanceOf(IllegalStateException.class);
+	}
+
+	// transport problem with producers connected to random subsets of consumers
+	private static class TransportInstance {
+		private static final int MAX_COST = 1000;
+
+		private final int producerCount;
+		private final int consumerCount;
+		private final int nodeCount;
+		private final int[] supply;
+		private final int[] demand;
+		private final int[][] costs;// -1 if not connected
+
+		private TransportInstance(Random random) {
+			producerCount = 1 + random.nextInt(15);
+			consumerCount = 1 + random.nextInt(15);
+			nodeCount = producerCount + consumerCount + 2;
+			supply = random.ints(producerCount, 1, 10).toArray();
+			demand = random.ints(consumerCount, 1, 10).toArray();
+			costs = new int[producerCount][consumerCount];
+			for (int i = 0; i < producerCount; i++) {
+				for (int j = 0; j < consumerCount; j++) {
+					costs[i][j] = random.nextInt(3) > 0 ? random.nextInt(MAX_COST) : -1;
+				}
+			}
+		}
+
+		private int maxFlow() {
+			return Math.min(Arrays.stream(supply).sum(), Arrays.stream(demand).sum());
+		}
+
+		private int[] solveWithMinCostFlow() {
+			@SuppressWarnings("unchecked")
+			List<MinCostFlow.Edge>[] graph = new List[nodeCount];
+			for (int v = 0; v < nodeCount; v++) {
+				graph[v] = new ArrayList<>();
+			}
+			for (int i = 0; i < producerCount; i++) {
+				MinCostFlow.addEdge(graph, 0, 1 + i, supply[i], 0);
+				for (int j = 0; j < consumerCount; j++) {
+					if (costs[i][j] >= 0) {
+						MinCostFlow.addEdge(graph, 1 + i, 1 + producerCount + j, Math.min(supply[i], demand[j]),
+								costs[i][j]);
+					}
+				}
+			}
+			for (int j = 0; j < consumerCount; j++) {
+				MinCostFlow.addEdge(graph, 1 + producerCount + j, nodeCount - 1, demand[j], 0);
+			}
+			return MinCostFlow.minCostFlow(graph, 0, nodeCount - 1, maxFlow(), false);
+		}
+
+		// the flow that cannot be sent via producers and consumers goes through an expensive source -> sink arc
+		private int[] solveWithCostScaling(double[] potentials) {
+			CostScalingMinCostFlow minCostFlow = new CostScalingMinCostFlow(nodeCount);
+			for (int i = 0; i < producerCount; i++) {
+				minCostFlow.addArc(0, 1 + i, supply[i], 0);
+				for (int j = 0; j < consumerCount; j++) {
+					if (costs[i][j] >= 0) {
+						minCostFlow.addArc(1 + i, 1 + producerCount + j, Math.min(supply[i], demand[j]), costs[i][j]);
+					}
+				}
+			}
+			for (int j = 0; j < consumerCount; j++) {
+				minCostFlow.addArc(1 + producerCount + j, nodeCount - 1, demand[j], 0);
+			}
+			long bypassCost = (long)nodeCount * MAX_COST + 1;
+			int bypassArc = minCostFlow.addArc(0, nodeCount - 1, maxFlow(), bypassCost);
+			minCostFlow.setSupply(0, maxFlow());
+			minCostFlow.setSupply(nodeCount - 1, -maxFlow());
+			if (potentials != null) {
+				for (int v = 0; v < nodeCount; v++) {
+					minCostFlow.setPotential(v, potentials[v]);
+				}
+			}
+
+			long totalCost = minCostFlow.solve();
+			int bypassFlow = minCostFlow.getFlow(bypassArc);
+			return new int[] { maxFlow() - bypassFlow, (int)(totalCost - bypassFlow * bypassCost) };
+		}
+	}
+}
@@ -126,6 +126,42 @@ public class VehicleDataEntryFactoryImplTest {
 		assertThat(computeSlackTimes(vehicle(500, 490), 100, new Stop[] { stop0, stop1 }, null, precedingStayTimes)).containsExactly(20, 20, 43, 10);
 	}
 
+	@Test
+	void refresh_reusesStopsUntilScheduleChanges() {
+		var vehicle = vehicle(500, 200);
+		var schedule = vehicle.getSchedule();
+		schedule.addTask(0, new DefaultDrtStopTask(0, 100, depot));
+		schedule.addTask(1, new DefaultDrtStopTask(100, 200, depot));
+		schedule.nextTask();// vehicle is at the first stop
+
+		var factory = new VehicleDataEntryFactoryImpl(loadType);
+		VehicleEntry entry = factory.create(vehicle, 50);
+
+		//schedule not changed - stops are taken over
+		VehicleEntry refreshed = factory.refresh(entry, vehicle, 80);
+		assertThat(refreshed.stops).isSameAs(entry.stops);
+		assertSameEntry(refreshed, factory.create(vehicle, 80));
+
+		//timing of the upcoming stop updated - stops are re-created
+		schedule.getTasks().get(1).setEndTime(250);
+		schedule.getTasks().get(2).setBeginTime(250);
+		VehicleEntry updated = factory.refresh(refreshed, vehicle, 90);
+		assertThat(updated.stops).isNotSameAs(entry.stops);
+		assertSameEntry(updated, factory.create(vehicle, 90));
+	}
+
+	private void assertSameEntry(VehicleEntry actual, VehicleEntry expected) {
+		assertThat(actual.start.time).isEqualTo(expected.start.time);
+		assertThat(actual.stops).hasSameSizeAs(expected.stops);
+		assertThat(actual.getStartSlackTime()).isEqualTo(expected.getStartSlackTime());
+		for (int i = 0; i <= actual.stops.size(); i++) {
+			assertThat(actual.getSlackTime(i)).isEqualTo(expected.getSlackTime(i));
+		}
+		for (int i = 0; i < actual.stops.size(); i++) {
+			assertThat(actual.getPrecedingStayTime(i)).isEqualTo(expected.getPrecedingStayTime(i));
+		}
+	}
+
 	private Stop stop(double beginTime, double latestArrivalTime, double endTime, double latestDepartureTime) {
 		return new Waypoint.Stop(new DefaultDrtStopTask(beginTime, endTime, null), latestArrivalTime, latestDepartureTime, loadType.getEmptyLoad(), loadType);
 	}
@@ -32,14 +32,18 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Identifiable;
+import org.matsim.api.core.v01.events.Event;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryParams;
 import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
@@ -261,6 +265,63 @@ public class DefaultUnplannedRequestInserterTest {
 		assertThat(createEntryCounter.getValue()).isEqualTo(2);
 	}
 
+	@Test
+	void batchInsertion_conflictingRequestsAreEvaluatedAgain() {
+		var vehicle1 = vehicle("1");
+		var vehicle2 = vehicle("2");
+		var fleet = fleet(vehicle1, vehicle2);
+		var request2 = request("r2", "from2", "to2");
+		var request3 = request("r3", "from3", "to3");
+		var unplannedRequests = requests(request1, request2, request3);
+		double now = 15;
+
+		VehicleEntry.EntryFactory entryFactory = (vehicle, currentTime) -> new VehicleEntry(vehicle, null, null, null,
+				null, currentTime);
+
+		DrtRequestInsertionRetryQueue retryQueue = new DrtRequestInsertionRetryQueue(
+				new DrtRequestInsertionRetryParams());//retry OFF, empty queue
+
+		//each vehicle can serve only one request, the insertion search picks the first free vehicle
+		Set<DvrpVehicle> usedVehicles = ConcurrentHashMap.newKeySet();
+		DrtInsertionSearch insertionSearch = (drtRequest, vEntries) -> vEntries.stream()
+				.filter(e -> !usedVehicles.contains(e.vehicle))
+				.min(Comparator.comparing(e -> e.vehicle.getId()))
+				.map(e -> new InsertionWithDetourData(new InsertionGenerator.Insertion(e, null, null, loadType.fromInt(1)),
+						null, new InsertionDetourTimeCalculator.DetourTimeInfo(
+						mock(InsertionDetourTimeCalculator.PickupDetourInfo.class),
+						mock(InsertionDetourTimeCalculator.DropoffDetourInfo.class))));
+
+		RequestInsertionScheduler insertionScheduler = (request, insertion) -> {
+			usedVehicles.add(insertion.insertion.vehicleEntry.vehicle);
+			var pickupTask = new DefaultDrtStopTask(now, now + 10, request.getFromLink());
+			var dropoffTask = new DefaultDrtStopTask(now + 30, now + 40, request.getToLink());
+			return new PickupDropoffTaskPair(pickupTask, dropoffTask);
+		};
+
+		//call insertion
+		newInserter(fleet, now, entryFactory, retryQueue, insertionSearch, insertionScheduler,
+				true).scheduleUnplannedRequests(unplannedRequests);
+
+		//requests are removed from unplanned requests
+		assertThat(unplannedRequests).isEmpty();
+
+		//1st round: all requests pick vehicle 1, only r1 gets it
+		//2nd round: r2 and r3 pick vehicle 2, only r2 gets it
+		//3rd round: r3 is rejected
+		ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+		verify(eventsManager, times(3)).processEvent(captor.capture());
+		var events = captor.getAllValues();
+		assertThat(events.get(0)).isEqualToComparingFieldByField(
+				new PassengerRequestScheduledEvent(now, mode, request1.getId(), request1.getPassengerIds(),
+						vehicle1.getId(), now + 10, now + 30));
+		assertThat(events.get(1)).isEqualToComparingFieldByField(
+				new PassengerRequestScheduledEvent(now, mode, request2.getId(), request2.getPassengerIds(),
+						vehicle2.getId(), now + 10, now + 30));
+		assertThat(events.get(2)).isEqualToComparingFieldByField(
+				new PassengerRequestRejectedEvent(now, mode, request3.getId(), request3.getPassengerIds(),
+						NO_INSERTION_FOUND_CAUSE));
+	}
+
 	private Collection<DrtRequest> requests(DrtRequest... requests) {
 		return new ArrayList<>(Arrays.asList(requests));//returned collection needs to be modifiable
 	}
@@ -290,10 +351,17 @@ public class DefaultUnplannedRequestInserterTest {
 	private DefaultUnplannedRequestInserter newInserter(Fleet fleet, double now,
 			VehicleEntry.EntryFactory vehicleEntryFactory, DrtRequestInsertionRetryQueue insertionRetryQueue,
 			DrtInsertionSearch insertionSearch, RequestInsertionScheduler insertionScheduler) {
+		return newInserter(fleet, now, vehicleEntryFactory, insertionRetryQueue, insertionSearch, insertionScheduler,
+				false);
+	}
+
+	private DefaultUnplannedRequestInserter newInserter(Fleet fleet, double now,
+			VehicleEntry.EntryFactory vehicleEntryFactory, DrtRequestInsertionRetryQueue insertionRetryQueue,
+			DrtInsertionSearch insertionSearch, RequestInsertionScheduler insertionScheduler, boolean batchInsertion) {
 		return new DefaultUnplannedRequestInserter(mode, fleet, () -> now, eventsManager, insertionScheduler,
 				vehicleEntryFactory, insertionRetryQueue, insertionSearch, new DefaultOfferAcceptor(),
 				forkJoinPoolExtension.forkJoinPool, StaticPassengerStopDurationProvider.of(10.0, 0.0),
-				RequestFleetFilter.none);
+				RequestFleetFilter.none, batchInsertion);
 	}
 
 	private Link link(String id) {
@@ -0,0 +1,139 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.Waypoint;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.schedule.DefaultDrtStopTask;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.load.IntegerLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.core.config.groups.NetworkConfigGroup;
+import org.matsim.core.network.NetworkChangeEvent;
+import org.matsim.core.network.NetworkChangeEvent.ChangeType;
+import org.matsim.core.network.NetworkChangeEvent.ChangeValue;
+import org.matsim.core.network.NetworkUtils;
+
+import com.google.common.collect.ImmutableList;
+
+public class ReachableVehiclesFleetFilterTest {
+	private static final IntegerLoadType loadType = new IntegerLoadType("passengers");
+
+	private final Network network = NetworkUtils.createNetwork();
+	private final Node node0 = NetworkUtils.createAndAddNode(network, Id.createNodeId("0"), new Coord(0, 0));
+	private final Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("1"), new Coord(1000, 0));
+	private final Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("2"), new Coord(10000, 0));
+	// max speed in the network: 10 m/s
+	private final Link link01 = NetworkUtils.createAndAddLink(network, Id.createLinkId("01"), node0, node1, 1000, 10, 1000, 1);
+	private final Link link12 = NetworkUtils.createAndAddLink(network, Id.createLinkId("12"), node1, node2, 9000, 5, 1000, 1);
+
+	@Test
+	void filter_keepsVehiclesThatMayReachPickupFromStartOrStop() {
+		var vehicleA = entry("A", link01, List.of());// at the pickup
+		var vehicleB = entry("B", link12, List.of());// 9 km away
+		var vehicleC = entry("C", link12, List.of(stop(link01, 500)));// will be at the pickup at 500
+
+		Map<Id<DvrpVehicle>, VehicleEntry> entries = new HashMap<>();
+		List.of(vehicleA, vehicleB, vehicleC).forEach(e -> entries.put(e.vehicle.getId(), e));
+
+		var filter = new ReachableVehiclesFleetFilter(network);
+		filter.updateVehicleEntries(entries);
+		// 600 s at 10 m/s: 6 km from the pickup
+		assertThat(filter.filter(request(600), entries, 0)).containsExactlyInAnyOrder(vehicleA, vehicleC);
+		// the stop of vehicle C is too late
+		assertThat(filter.filter(request(400), entries, 0)).containsExactlyInAnyOrder(vehicleA);
+
+		// vehicle C has no stops anymore
+		var newVehicleC = entry("C", link12, List.of());
+		entries.put(newVehicleC.vehicle.getId(), newVehicleC);
+		filter.updateVehicleEntry(newVehicleC.vehicle.getId(), newVehicleC);
+		assertThat(filter.filter(request(600), entries, 0)).containsExactlyInAnyOrder(vehicleA);
+
+		// vehicle A is not available anymore
+		entries.remove(vehicleA.vehicle.getId());
+		filter.updateVehicleEntries(entries);
+		assertThat(filter.filter(request(600), entries, 0)).isEmpty();
+	}
+
+	@Test
+	void filter_takesFreespeedRaisedByNetworkChangeEventsIntoAccount() {
+		var networkConfigGroup = new NetworkConfigGroup();
+		networkConfigGroup.setTimeVariantNetwork(true);
+		Network timeVariantNetwork = NetworkUtils.createNetwork(networkConfigGroup);
+		Node node0 = NetworkUtils.createAndAddNode(timeVariantNetwork, Id.createNodeId("0"), new Coord(0, 0));
+		Node node1 = NetworkUtils.createAndAddNode(timeVariantNetwork, Id.createNodeId("1"), new Coord(1000, 0));
+		Node node2 = NetworkUtils.createAndAddNode(timeVariantNetwork, Id.createNodeId("2"), new Coord(10000, 0));
+		NetworkUtils.createAndAddLink(timeVariantNetwork, Id.createLinkId("01"), node0, node1, 1000, 10, 1000, 1);
+		Link link12 = NetworkUtils.createAndAddLink(timeVariantNetwork, Id.createLinkId("12"), node1, node2, 9000, 5,
+				1000, 1);
+		// link 12 gets 30 m/s at 100 s
+		var event = new NetworkChangeEvent(100);
+		event.addLink(link12);
+		event.setFreespeedChange(new ChangeValue(ChangeType.ABSOLUTE_IN_SI_UNITS, 30));
+		NetworkUtils.addNetworkChangeEvent(timeVariantNetwork, event);
+
+		var vehicleB = entry("B", link12, List.of());// 9 km away
+		Map<Id<DvrpVehicle>, VehicleEntry> entries = new HashMap<>();
+		entries.put(vehicleB.vehicle.getId(), vehicleB);
+
+		var filter = new ReachableVehiclesFleetFilter(timeVariantNetwork);
+		filter.updateVehicleEntries(entries);
+		// 600 s at 30 m/s: 18 km from the pickup
+		assertThat(filter.filter(request(600), entries, 0)).containsExactly(vehicleB);
+		// 200 s at 30 m/s: 6 km from the pickup
+		assertThat(filter.filter(request(200), entries, 0)).isEmpty();
+	}
+
+	private VehicleEntry entry(String vehicleId, Link startLink, List<Waypoint.Stop> stops) {
+		var vehicle = mock(DvrpVehicle.class);
+		when(vehicle.getId()).thenReturn(Id.create(vehicleId, DvrpVehicle.class));
+		var start = new Waypoint.Start(null, startLink, 0, loadType.getEmptyLoad());
+		return new VehicleEntry(vehicle, start, ImmutableList.copyOf(stops), null, null, 0);
+	}
+
+	private Waypoint.Stop stop(Link link, double departureTime) {
+		return new Waypoint.Stop(new DefaultDrtStopTask(departureTime - 60, departureTime, link), departureTime,
+				departureTime, loadType.getEmptyLoad(), loadType);
+	}
+
+	private DrtRequest request(double latestStartTime) {
+		return DrtRequest.newBuilder()
+				.id(Id.create("r", Request.class))
+				.passengerIds(List.of(Id.createPersonId("p")))
+				.fromLink(link01)
+				.toLink(link12)
+				.latestStartTime(latestStartTime)
+				.build();
+	}
+}
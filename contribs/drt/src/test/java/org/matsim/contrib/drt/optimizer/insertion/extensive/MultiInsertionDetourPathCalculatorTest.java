@@ -21,27 +21,38 @@
 package org.matsim.contrib.drt.optimizer.insertion.extensive;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.drt.optimizer.Waypoint;
 import org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator;
 import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.run.DrtConfigGroup;
 import org.matsim.contrib.dvrp.load.IntegerLoadType;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearchPool;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
 import org.matsim.testcases.fakes.FakeLink;
 import org.matsim.testcases.fakes.FakeNode;
 import org.mockito.ArgumentMatchers;
@@ -70,12 +81,15 @@ public class MultiInsertionDetourPathCalculatorTest {
 
 	private final OneToManyPathSearch pathSearch = mock(OneToManyPathSearch.class);
 
+	private final ForkJoinPool forkJoinPool = new ForkJoinPool(1);
+
 	private final MultiInsertionDetourPathCalculator detourPathCalculator = new MultiInsertionDetourPathCalculator(
-			pathSearch, pathSearch, pathSearch, pathSearch, 1);
+			"drt", new OneToManyPathSearchPool(() -> pathSearch), forkJoinPool, false);
 
 	@AfterEach
 	public void after() {
 		detourPathCalculator.notifyMobsimBeforeCleanup(null);
+		forkJoinPool.shutdown();
 	}
 
 	@Test
@@ -125,9 +139,11 @@ public class MultiInsertionDetourPathCalculatorTest {
 		// (unless the stop criterion terminates computations earlier)
 		// If fromLink is in toLinks than PathData.EMPTY is mapped for such a link
 		when(pathSearch.calcPathDataMap(eq(pickupLink), eqSingleLinkCollection(pickupLink),
-				eq(request.getEarliestStartTime()), anyBoolean())).thenReturn(Map.of(pickupLink, PathData.EMPTY));
+				eq(request.getEarliestStartTime()), anyBoolean(), anyDouble())).thenReturn(
+				Map.of(pickupLink, PathData.EMPTY));
 		when(pathSearch.calcPathDataMap(eq(dropoffLink), eqSingleLinkCollection(dropoffLink),
-				eq(request.getLatestArrivalTime()), anyBoolean())).thenReturn(Map.of(dropoffLink, PathData.EMPTY));
+				eq(request.getLatestArrivalTime()), anyBoolean(), anyDouble())).thenReturn(
+				Map.of(dropoffLink, PathData.EMPTY));
 
 		var pickup = insertionPoint(waypoint(pickupLink), waypoint(pickupLink));
 		var dropoff = insertionPoint(waypoint(dropoffLink), waypoint(dropoffLink));
@@ -142,14 +158,94 @@ public class MultiInsertionDetourPathCalculatorTest {
 		assertThat(insertionWithDetourData.detourFromDropoff).isEqualTo(PathData.EMPTY);
 	}
 
+	@Test
+	void calculatePaths_stopSearchesOutsideTimeWindows() {
+		var boundedDetourPathCalculator = new MultiInsertionDetourPathCalculator("drt",
+				new OneToManyPathSearchPool(() -> pathSearch), forkJoinPool, true);
+
+		var beforePickupLink2 = link("before_pickup_2");
+		var pickup1 = insertionPoint(waypoint(beforePickupLink, 120), waypoint(afterPickupLink));
+		var pickup2 = insertionPoint(waypoint(beforePickupLink2, 150), waypoint(afterPickupLink));
+		var dropoff = insertionPoint(waypoint(beforeDropoffLink, 300), waypoint(afterDropoffLink));
+		var insertion1 = new InsertionGenerator.Insertion(null, pickup1, dropoff, loadType.fromInt(1));
+		var insertion2 = new InsertionGenerator.Insertion(null, pickup2, dropoff, loadType.fromInt(1));
+		boundedDetourPathCalculator.calculatePaths(request, List.of(insertion1, insertion2));
+
+		// to pickup: from the departure from the preceding waypoints to the latest start time (200)
+		verify(pathSearch).calcPathDataMap(pickupLink, Map.of(beforePickupLink, 80., beforePickupLink2, 50.),
+				request.getEarliestStartTime(), false);
+		// to dropoff: from the departure from the preceding waypoint to the latest arrival time (500)
+		verify(pathSearch).calcPathDataMap(dropoffLink, Map.of(beforeDropoffLink, 200.),
+				request.getLatestArrivalTime(), false);
+		// from pickup/dropoff: not bounded
+		verify(pathSearch).calcPathDataMap(eq(pickupLink), any(), eq(request.getEarliestStartTime()), eq(true),
+				eq(Double.POSITIVE_INFINITY));
+		verify(pathSearch).calcPathDataMap(eq(dropoffLink), any(), eq(request.getLatestArrivalTime()), eq(true),
+				eq(Double.POSITIVE_INFINITY));
+	}
+
+	@Test
+	void calculatePaths_realSearchesOnSingleThread() {
+		// a straight road with links in both directions: i_j goes from node i to node j
+		Network network = NetworkUtils.createNetwork();
+		for (int i = 0; i < 10; i++) {
+			NetworkUtils.createAndAddNode(network, Id.createNodeId(i), new Coord(i * 100, 0));
+		}
+		for (int i = 0; i < 9; i++) {
+			addLink(network, i, i + 1);
+			addLink(network, i + 1, i);
+		}
+		Link pickup = network.getLinks().get(Id.createLinkId("3_4"));
+		Link dropoff = network.getLinks().get(Id.createLinkId("5_4"));
+		DrtRequest drtRequest = DrtRequest.newBuilder()
+				.fromLink(pickup)
+				.toLink(dropoff)
+				.earliestStartTime(100)
+				.latestStartTime(200)
+				.latestArrivalTime(500)
+				.build();
+
+		var travelTime = new FreeSpeedTravelTime();
+		// all four searches run one after another on the same thread (and least cost path tree)
+		var calculator = new MultiInsertionDetourPathCalculator(network, travelTime,
+				new TimeAsTravelDisutility(travelTime), new DrtConfigGroup(), forkJoinPool);
+
+		var pickupPoint = insertionPoint(waypoint(network.getLinks().get(Id.createLinkId("0_1"))),
+				waypoint(network.getLinks().get(Id.createLinkId("6_7"))));
+		var dropoffPoint = insertionPoint(waypoint(network.getLinks().get(Id.createLinkId("8_7"))),
+				waypoint(network.getLinks().get(Id.createLinkId("2_1"))));
+		var insertion = new InsertionGenerator.Insertion(null, pickupPoint, dropoffPoint, loadType.fromInt(1));
+
+		var detourData = calculator.calculatePaths(drtRequest, List.of(insertion));
+		// paths are read after all searches are done (as when the insertion is scheduled)
+		var insertionWithDetourData = detourData.createInsertionDetourData(insertion);
+
+		assertThat(linkIds(insertionWithDetourData.detourToPickup)).containsExactly("1_2", "2_3");
+		assertThat(linkIds(insertionWithDetourData.detourFromPickup)).containsExactly("4_5", "5_6");
+		assertThat(linkIds(insertionWithDetourData.detourToDropoff)).containsExactly("7_6", "6_5");
+		assertThat(linkIds(insertionWithDetourData.detourFromDropoff)).containsExactly("4_3", "3_2");
+
+		calculator.notifyMobsimBeforeCleanup(null);
+	}
+
+	private void addLink(Network network, int from, int to) {
+		NetworkUtils.createAndAddLink(network, Id.createLinkId(from + "_" + to),
+				network.getNodes().get(Id.createNodeId(from)), network.getNodes().get(Id.createNodeId(to)), 100, 10,
+				1800, 1);
+	}
+
+	private List<String> linkIds(PathData pathData) {
+		return pathData.getPath().links.stream().map(link -> link.getId().toString()).toList();
+	}
+
 	private PathData mockCalcPathData(Link fromLink, Link toLink, double startTimeArg, boolean forward,
 			double pathTravelTime) {
 		var fromNode = fromLink.getToNode();
 		var toNode = toLink.getFromNode();
 		var path = new Path(List.of(fromNode, toNode), List.of(), pathTravelTime, pathTravelTime + 1000);
 		var pathData = new PathData(path, 99);
-		when(pathSearch.calcPathDataMap(eq(fromLink), eqSingleLinkCollection(toLink), eq(startTimeArg),
-				eq(forward))).thenReturn(Map.of(toLink, pathData));
+		when(pathSearch.calcPathDataMap(eq(fromLink), eqSingleLinkCollection(toLink), eq(startTimeArg), eq(forward),
+				anyDouble())).thenReturn(Map.of(toLink, pathData));
 		return pathData;
 	}
 
@@ -173,6 +269,12 @@ public class MultiInsertionDetourPathCalculatorTest {
 		return waypoint(afterLink, Waypoint.class);
 	}
 
+	private Waypoint waypoint(Link afterLink, double departureTime) {
+		var waypoint = waypoint(afterLink, Waypoint.class);
+		when(waypoint.getDepartureTime()).thenReturn(departureTime);
+		return waypoint;
+	}
+
 	private Waypoint waypoint(Link afterLink, Class<? extends Waypoint> clazz) {
 		var waypoint = mock(clazz);
 		when(waypoint.getLink()).thenReturn(afterLink);
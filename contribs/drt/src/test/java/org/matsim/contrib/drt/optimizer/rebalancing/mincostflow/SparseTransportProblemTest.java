@@ -0,0 +1,116 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.SparseTransportProblem.Candidate;
+import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.TransportProblem.Flow;
+
+public class SparseTransportProblemTest {
+	// locations on a line
+	private static final List<Integer> LOCATIONS = List.of(0, 100, 200, 300, 400, 500, 600, 700, 800, 900);
+
+	@Test
+	void solve_allCandidates_sameCostAsTransportProblem() {
+		var problem = new SparseTransportProblem<Integer, Integer>(candidates(Integer.MAX_VALUE), false);
+		var denseProblem = new TransportProblem<Integer, Integer>(SparseTransportProblemTest::distance);
+
+		Random random = new Random(4711);
+		for (int i = 0; i < 100; i++) {
+			List<Pair<Integer, Integer>> supply = new ArrayList<>();
+			List<Pair<Integer, Integer>> demand = new ArrayList<>();
+			createSurplus(random, supply, demand);
+
+			var flows = problem.solve(supply, demand);
+			var denseFlows = denseProblem.solve(supply, demand);
+			assertThat(amount(flows)).isEqualTo(amount(denseFlows));
+			assertThat(cost(flows)).isEqualTo(cost(denseFlows));
+		}
+	}
+
+	@Test
+	void solve_onlyCandidatesWithinMaxDistance() {
+		var problem = new SparseTransportProblem<Integer, Integer>(candidates(200), false);
+
+		var supply = List.of(Pair.of(0, 2), Pair.of(800, 1));
+		var demand = List.of(Pair.of(100, 1), Pair.of(300, 3));
+		// 300 and 800 are too far from each other
+		assertThat(problem.solve(supply, demand)).containsExactlyInAnyOrder(new Flow<>(0, 100, 1));
+
+		assertThat(problem.solve(List.of(Pair.of(800, 1)), demand)).isEmpty();
+		assertThat(problem.solve(List.of(), demand)).isEmpty();
+	}
+
+	@Test
+	void solve_warmStart_sameCostAsColdStart() {
+		var warmStartProblem = new SparseTransportProblem<Integer, Integer>(candidates(300), true);
+
+		Random random = new Random(4711);
+		for (int i = 0; i < 100; i++) {
+			List<Pair<Integer, Integer>> supply = new ArrayList<>();
+			List<Pair<Integer, Integer>> demand = new ArrayList<>();
+			createSurplus(random, supply, demand);
+
+			var coldStartFlows = new SparseTransportProblem<Integer, Integer>(candidates(300), false).solve(supply,
+					demand);
+			var warmStartFlows = warmStartProblem.solve(supply, demand);
+			assertThat(amount(warmStartFlows)).isEqualTo(amount(coldStartFlows));
+			assertThat(cost(warmStartFlows)).isEqualTo(cost(coldStartFlows));
+		}
+	}
+
+	private static void createSurplus(Random random, List<Pair<Integer, Integer>> supply,
+			List<Pair<Integer, Integer>> demand) {
+		for (int location : LOCATIONS) {
+			int surplus = random.nextInt(11) - 5;
+			if (surplus > 0) {
+				supply.add(Pair.of(location, surplus));
+			} else if (surplus < 0) {
+				demand.add(Pair.of(location, -surplus));
+			}
+		}
+	}
+
+	private static Function<Integer, List<Candidate<Integer>>> candidates(int maxDistance) {
+		return origin -> LOCATIONS.stream()
+				.filter(destination -> distance(origin, destination) <= maxDistance)
+				.map(destination -> new Candidate<>(destination, distance(origin, destination)))
+				.toList();
+	}
+
+	private static int distance(int location1, int location2) {
+		return Math.abs(location1 - location2);
+	}
+
+	private static int amount(List<Flow<Integer, Integer>> flows) {
+		return flows.stream().mapToInt(Flow::amount).sum();
+	}
+
+	private static int cost(List<Flow<Integer, Integer>> flows) {
+		return flows.stream().mapToInt(f -> f.amount() * distance(f.origin(), f.destination())).sum();
+	}
+}
@@ -2,6 +2,9 @@ package org.matsim.contrib.drt.prebooking;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.matsim.api.core.v01.Coord;
@@ -16,7 +19,10 @@ import org.matsim.contrib.drt.run.DrtConfigGroup;
 import org.matsim.contrib.drt.stops.PassengerStopDurationProvider;
 import org.matsim.contrib.drt.stops.StaticPassengerStopDurationProvider;
 import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEventHandler;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeModule;
+import org.matsim.core.controler.AbstractModule;
 import org.matsim.core.controler.Controler;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.testcases.MatsimTestUtils;
@@ -229,6 +235,107 @@ public class PrebookingTest {
 		}
 	}
 
+	@Test
+	void twoSequentialRequests_batchSubmission() {
+		/*-
+		 * Two requests that are scheduled in advance, with a batch submission interval.
+		 * - First the late one is booked, then the early one.
+		 * - Both are submitted together at the end of the interval, the early one first.
+		 */
+
+		PrebookingTestEnvironment environment = new PrebookingTestEnvironment(utils) //
+				.addVehicle("vehicleA", 1, 1) //
+				.addRequest("earlyRequest", 0, 0, 5, 5, 2000.0, 100.0) //
+				.addRequest("lateRequest", 2, 2, 3, 3, 4000.0, 0.0) //
+				.configure(600.0, 1.3, 600.0, 60.0) //
+				.endTime(10.0 * 3600.0);
+
+		Controler controller = environment.build();
+
+		PrebookingParams prebookingParams = new PrebookingParams();
+		prebookingParams.batchSubmissionInterval = 600.0;
+		installPrebooking(controller, prebookingParams);
+
+		List<PassengerRequestScheduledEvent> scheduledEvents = new ArrayList<>();
+		controller.addOverridingModule(new AbstractModule() {
+			@Override
+			public void install() {
+				addEventHandlerBinding().toInstance((PassengerRequestScheduledEventHandler)scheduledEvents::add);
+			}
+		});
+
+		controller.run();
+
+		// submitted at 600, scheduled in the next time step
+		assertEquals(2, scheduledEvents.size());
+		assertEquals(601.0, scheduledEvents.get(0).getTime(), 1e-3);
+		assertEquals("earlyRequest", scheduledEvents.get(0).getPersonIds().get(0).toString());
+		assertEquals(601.0, scheduledEvents.get(1).getTime(), 1e-3);
+		assertEquals("lateRequest", scheduledEvents.get(1).getPersonIds().get(0).toString());
+
+		{
+			RequestInfo requestInfo = environment.getRequestInfo().get("earlyRequest");
+			assertEquals(100.0, requestInfo.submissionTime, 1e-3);
+			assertEquals(2000.0 + 60.0 + 1.0, requestInfo.pickupTime, 1e-3);
+		}
+
+		{
+			RequestInfo requestInfo = environment.getRequestInfo().get("lateRequest");
+			assertEquals(0.0, requestInfo.submissionTime, 1e-3);
+			assertEquals(4000.0 + 60.0 + 1.0, requestInfo.pickupTime, 1e-3);
+		}
+	}
+
+	@Test
+	void twoSequentialRequests_nonAlignedBatchSubmission() {
+		/*-
+		 * Two requests that are scheduled in advance, with a batch submission interval
+		 * that is not a multiple of the time step size.
+		 * - Batches are due at 250.5, 501.0, ... and submitted at the first time step after.
+		 * - The early one is booked before the first batch, the late one before the second.
+		 */
+
+		PrebookingTestEnvironment environment = new PrebookingTestEnvironment(utils) //
+				.addVehicle("vehicleA", 1, 1) //
+				.addRequest("earlyRequest", 0, 0, 5, 5, 2000.0, 100.0) //
+				.addRequest("lateRequest", 2, 2, 3, 3, 4000.0, 300.0) //
+				.configure(600.0, 1.3, 600.0, 60.0) //
+				.endTime(10.0 * 3600.0);
+
+		Controler controller = environment.build();
+
+		PrebookingParams prebookingParams = new PrebookingParams();
+		prebookingParams.batchSubmissionInterval = 250.5;
+		installPrebooking(controller, prebookingParams);
+
+		List<PassengerRequestScheduledEvent> scheduledEvents = new ArrayList<>();
+		controller.addOverridingModule(new AbstractModule() {
+			@Override
+			public void install() {
+				addEventHandlerBinding().toInstance((PassengerRequestScheduledEventHandler)scheduledEvents::add);
+			}
+		});
+
+		controller.run();
+
+		// submitted at 251 and 501, scheduled in the next time step
+		assertEquals(2, scheduledEvents.size());
+		assertEquals(252.0, scheduledEvents.get(0).getTime(), 1e-3);
+		assertEquals("earlyRequest", scheduledEvents.get(0).getPersonIds().get(0).toString());
+		assertEquals(502.0, scheduledEvents.get(1).getTime(), 1e-3);
+		assertEquals("lateRequest", scheduledEvents.get(1).getPersonIds().get(0).toString());
+
+		{
+			RequestInfo requestInfo = environment.getRequestInfo().get("earlyRequest");
+			assertEquals(2000.0 + 60.0 + 1.0, requestInfo.pickupTime, 1e-3);
+		}
+
+		{
+			RequestInfo requestInfo = environment.getRequestInfo().get("lateRequest");
+			assertEquals(4000.0 + 60.0 + 1.0, requestInfo.pickupTime, 1e-3);
+		}
+	}
+
 	@Test
 	void sameTrip_differentDepartureTime() {
 		/*-
@@ -54,6 +54,29 @@ class DrtConfigGroupTest {
 		Assertions.assertDoesNotThrow(() -> drtConfig.checkConsistency(config));
 	}
 
+	@Test
+	void testFilterUnreachableVehiclesRequiresRejectionInAllConstraintsSets() {
+		Config config = ConfigUtils.createConfig();
+		DrtConfigGroup drtConfig = new DrtConfigGroup();
+		config.addModule(drtConfig);
+		drtConfig.filterUnreachableVehicles = true;
+		drtConfig.stopDuration = 0;
+
+		DrtOptimizationConstraintsParams optimizationConstraintsParams = drtConfig.addOrGetDrtOptimizationConstraintsParams();
+		DrtOptimizationConstraintsSet defaultConstraints = optimizationConstraintsParams.addOrGetDefaultDrtOptimizationConstraintsSet();
+		defaultConstraints.maxWaitTime = drtConfig.stopDuration;
+
+		DrtOptimizationConstraintsSet params = new DefaultDrtOptimizationConstraintsSet();
+		params.name = "test";
+		params.maxWaitTime = drtConfig.stopDuration;
+		optimizationConstraintsParams.addParameterSet(params);
+		Assertions.assertDoesNotThrow(() -> drtConfig.checkConsistency(config));
+
+		// late pickups are only penalised in the non-default set
+		params.rejectRequestIfMaxWaitOrTravelTimeViolated = false;
+		Assertions.assertThrows(VerifyException.class, () -> drtConfig.checkConsistency(config));
+	}
+
 	@Test
 	void testNoDuplicateDrtDrtOptimizationConstraintsParams() {
 		Config config = ConfigUtils.createConfig();
@@ -204,6 +204,50 @@ public class RunDrtExampleIT {
 		verifyDrtCustomerStatsCloseToExpectedStats(utils.getOutputDirectory(), expectedStats);
 	}
 
+	@Test
+	void testRunDrtExampleWithBatchInsertion_RepeatedSelectiveSearch() throws IOException {
+		// the repeated selective search updates its statistics and the adaptive matrix while searching,
+		// in batch mode these updates must not depend on the number of threads
+		String singleThreadOutput = runDrtExampleWithBatchInsertion_RepeatedSelectiveSearch(1);
+		String multiThreadOutput = runDrtExampleWithBatchInsertion_RepeatedSelectiveSearch(
+				Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+		String errorsFile = "/ITERS/it.1/1.drt_selective_insertion_detour_time_estimation_errors.csv";
+		assertThat(Files.readAllLines(Paths.get(multiThreadOutput + errorsFile))).isNotEmpty()
+				.isEqualTo(Files.readAllLines(Paths.get(singleThreadOutput + errorsFile)));
+		String customerStatsFile = "/drt_customer_stats_drt.csv";
+		assertThat(Files.readAllLines(Paths.get(multiThreadOutput + customerStatsFile))).isEqualTo(
+				Files.readAllLines(Paths.get(singleThreadOutput + customerStatsFile)));
+	}
+
+	private String runDrtExampleWithBatchInsertion_RepeatedSelectiveSearch(int numberOfThreads) {
+		Id.resetCaches();
+		URL configUrl = IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("mielec"), "mielec_drt_config.xml");
+
+		DvrpConfigGroup dvrpConfigGroup = new DvrpConfigGroup();
+		DvrpTravelTimeMatrixParams matrixParams = dvrpConfigGroup.getTravelTimeMatrixParams();
+		matrixParams.addParameterSet(matrixParams.createParameterSet(SquareGridZoneSystemParams.SET_NAME));
+
+		Config config = ConfigUtils.loadConfig(configUrl, new MultiModeDrtConfigGroup(), dvrpConfigGroup,
+			new OTFVisConfigGroup());
+
+		for (var drtCfg : MultiModeDrtConfigGroup.get(config).getModalElements()) {
+			drtCfg.removeParameterSet(drtCfg.getDrtInsertionSearchParams());
+			var repeatedSelectiveInsertionSearchParams = new RepeatedSelectiveInsertionSearchParams();
+			repeatedSelectiveInsertionSearchParams.retryInsertion = 5;
+			drtCfg.addParameterSet(repeatedSelectiveInsertionSearchParams);
+			drtCfg.batchInsertion = true;
+			drtCfg.numberOfThreads = numberOfThreads;
+		}
+
+		String outputDirectory = utils.getOutputDirectory() + "threads_" + numberOfThreads;
+		config.controller().setLastIteration(1);
+		config.controller().setOverwriteFileSetting(OverwriteFileSetting.deleteDirectoryIfExists);
+		config.controller().setOutputDirectory(outputDirectory);
+		RunDrtExample.run(config, false);
+		return outputDirectory;
+	}
+
 	@Test
 	void testRunDrtExampleWithRequestRetry() {
 		Id.resetCaches();
@@ -22,6 +22,9 @@ package org.matsim.contrib.dvrp.path;
 
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import java.util.function.IntToDoubleFunction;
 
@@ -79,6 +82,49 @@ public class LeastCostPathTreeStopCriteria {
 		};
 	}
 
+	/**
+	 * Stops once all end nodes are reached or the remaining ones cannot be reached within their max travel times (i.e.
+	 * the travel time to the current node exceeds the max travel times of all end nodes not reached so far).
+	 */
+	public static StopCriterion allEndNodesReachedOrTooFar(Map<Node, Double> maxTravelTimeByEndNode) {
+		Preconditions.checkArgument(!maxTravelTimeByEndNode.isEmpty(), "At least one end node must be provided.");
+
+		// end nodes sorted by decreasing max travel time
+		List<Map.Entry<Node, Double>> endNodes = maxTravelTimeByEndNode.entrySet()
+				.stream()
+				.sorted(Map.Entry.<Node, Double>comparingByValue(Comparator.reverseOrder()))
+				.toList();
+		final int[] endNodeIndices = endNodes.stream().mapToInt(e -> e.getKey().getId().index()).toArray();
+		final double[] maxTravelTimes = endNodes.stream().mapToDouble(Map.Entry::getValue).toArray();
+
+		final BitSet nodesToVisit = new BitSet(Id.getNumberOfIds(Node.class));
+		for (int nodeIndex : endNodeIndices) {
+			nodesToVisit.set(nodeIndex);
+		}
+
+		return new StopCriterion() {
+			private int counter = endNodeIndices.length;
+			private int farthestEndNode = 0; // not reached end node with the highest max travel time
+
+			public boolean stop(int nodeIndex, double arrivalTime, double travelCost, double distance,
+					double departureTime) {
+				if (nodesToVisit.get(nodeIndex)) {
+					nodesToVisit.clear(nodeIndex);
+					counter--;
+				}
+				if (counter == 0) {
+					return true; // stop if all end nodes reached
+				}
+
+				while (!nodesToVisit.get(endNodeIndices[farthestEndNode])) {
+					farthestEndNode++;
+				}
+				// abs() so it works for backward searches as well
+				return Math.abs(arrivalTime - departureTime) > maxTravelTimes[farthestEndNode];
+			}
+		};
+	}
+
 	public static class LeastCostEndNodeReached implements StopCriterion {
 		// zero or positive values allowed
 		private final IntToDoubleFunction additionalCostByNodeIndex;
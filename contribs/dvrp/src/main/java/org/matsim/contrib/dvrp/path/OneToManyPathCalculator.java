@@ -22,14 +22,17 @@ package org.matsim.contrib.dvrp.path;
 
 import static java.util.stream.Collectors.toList;
 import static org.matsim.contrib.dvrp.path.LeastCostPathTreeStopCriteria.allEndNodesReached;
+import static org.matsim.contrib.dvrp.path.LeastCostPathTreeStopCriteria.allEndNodesReachedOrTooFar;
 import static org.matsim.contrib.dvrp.path.LeastCostPathTreeStopCriteria.withMaxTravelTime;
 import static org.matsim.contrib.dvrp.path.VrpPaths.FIRST_LINK_TT;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -43,6 +46,7 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
 import org.matsim.core.router.speedy.LeastCostPathTree;
+import org.matsim.core.router.speedy.LeastCostPathTree.StopCriterion;
 import org.matsim.core.router.util.LeastCostPathCalculator.Path;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.misc.OptionalTime;
@@ -79,9 +83,25 @@ class OneToManyPathCalculator {
 			return;
 		}
 
-		int fromNodeIdx = getStartNode(fromLink).getId().index();
-		var stopCriterion = withMaxTravelTime(allEndNodesReached(toNodes), maxTravelTime);
+		calculateDijkstraTree(withMaxTravelTime(allEndNodesReached(toNodes), maxTravelTime));
+	}
 
+	void calculateDijkstraTree(Map<Link, Double> maxTravelTimeByToLink) {
+		Map<Node, Double> maxTravelTimeByToNode = new HashMap<>();
+		maxTravelTimeByToLink.forEach((toLink, maxTravelTime) -> {
+			if (toLink != fromLink) {
+				maxTravelTimeByToNode.merge(getEndNode(toLink), maxTravelTime, Math::max);
+			}
+		});
+		if (maxTravelTimeByToNode.isEmpty()) {
+			return;
+		}
+
+		calculateDijkstraTree(allEndNodesReachedOrTooFar(maxTravelTimeByToNode));
+	}
+
+	private void calculateDijkstraTree(StopCriterion stopCriterion) {
+		int fromNodeIdx = getStartNode(fromLink).getId().index();
 		if (forwardSearch) {
 			dijkstraTree.calculate(fromNodeIdx, startTime, null, null, stopCriterion);
 		} else {
@@ -121,6 +121,20 @@ public class OneToManyPathSearch {
 		return createPathDataMap(toLinks, pathCalculator);
 	}
 
+	/**
+	 * Searches the paths to all links in <code>maxTravelTimeByToLink</code>. The search stops once all of them are
+	 * reached or the remaining ones cannot be reached within their own max travel times. For the remaining links,
+	 * {@link PathData#INFEASIBLE} or a path longer than the max travel time is returned (provided that the travel
+	 * disutility grows with the travel time).
+	 */
+	public Map<Link, PathData> calcPathDataMap(Link fromLink, Map<Link, Double> maxTravelTimeByToLink,
+			double startTime, boolean forward) {
+		OneToManyPathCalculator pathCalculator = new OneToManyPathCalculator(nodeMap, dijkstraTree, travelTime, forward,
+				fromLink, startTime);
+		pathCalculator.calculateDijkstraTree(maxTravelTimeByToLink);
+		return createPathDataMap(maxTravelTimeByToLink.keySet(), pathCalculator);
+	}
+
 	private PathData[] createPathDataArray(List<Link> toLinks, OneToManyPathCalculator pathCalculator) {
 		PathData[] pathDataArray = new PathData[toLinks.size()];
 		for (int i = 0; i < pathDataArray.length; i++) {
@@ -0,0 +1,63 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.dvrp.path;
+
+import java.util.function.Supplier;
+
+import org.matsim.api.core.v01.IdMap;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.router.speedy.SpeedyGraph;
+import org.matsim.core.router.speedy.SpeedyGraphBuilder;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+
+/**
+ * Provides one {@link OneToManyPathSearch} per thread, so that many path searches (e.g. for different requests) can be
+ * run concurrently without synchronisation. All searches share the same graph; the least cost path trees are created
+ * lazily, once per thread that uses the pool.
+ * <p>
+ * Paths created lazily ({@code lazyPathCreation}) are read from the tree of the thread only when requested, so they are
+ * only valid until the next search on the same thread. If the path data outlives the task that calculated it, the
+ * paths must be created eagerly.
+ */
+public class OneToManyPathSearchPool {
+	public static OneToManyPathSearchPool create(Network network, TravelTime travelTime,
+			TravelDisutility travelDisutility, boolean lazyPathCreation) {
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		IdMap<Node, Node> nodeMap = new IdMap<>(Node.class);
+		nodeMap.putAll(network.getNodes());
+		return new OneToManyPathSearchPool(
+				() -> OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, lazyPathCreation));
+	}
+
+	private final ThreadLocal<OneToManyPathSearch> pathSearches;
+
+	public OneToManyPathSearchPool(Supplier<OneToManyPathSearch> pathSearchFactory) {
+		this.pathSearches = ThreadLocal.withInitial(pathSearchFactory);
+	}
+
+	/**
+	 * @return the path search of the current thread
+	 */
+	public OneToManyPathSearch get() {
+		return pathSearches.get();
+	}
+}
@@ -25,25 +25,38 @@ import org.matsim.contrib.common.util.DistanceUtils;
 import org.matsim.contrib.common.zones.Zone;
 import org.matsim.contrib.common.zones.ZoneSystem;
 import org.matsim.contrib.common.zones.ZoneSystemUtils;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.contrib.zone.skims.SparseMatrix.NodeAndTime;
+import org.matsim.contrib.zone.skims.SparseMatrix.SparseRow;
+import org.matsim.core.router.util.TravelTime;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 /**
+ * Time-dependent zonal travel times (one bin per hour). Travel times between the central nodes of neighbouring zones
+ * (within <code>maxNeighborDistance</code>) are kept separately in sparse matrices. Like in {@link Matrix} and
+ * {@link SparseMatrix}, all values are stored as whole seconds in (unsigned) shorts. Updated values are rounded
+ * (not truncated, which would bias the estimates downwards over many updates) and capped at the largest storable value.
+ *
  * @author steffenaxer
  */
 public class AdaptiveTravelTimeMatrixImpl implements AdaptiveTravelTimeMatrix {
 	private final double TIME_INTERVAL = 3600.;
-	private final List<Matrix> timeDependentMatrix;
+	private final Matrix[] timeDependentMatrix;
+	private final SparseMatrix[] timeDependentSparseMatrix;
 	private final ZoneSystem gridSystem;
 	private final double alpha;
 	private final Map<Zone, Node> centralNodes;
+	private final Map<Node, List<Node>> neighbouringCentralNodes = new HashMap<>();
 	private final int numberOfBins;
-	private final DvrpTravelTimeMatrixParams params;
-	private final Map<SparseTravelTimeKey, Double> sparseTravelTimeCache = new ConcurrentHashMap<>();
+
+	private interface CentralNodesTravelTime {
+		double getTravelTime(Node fromNode, Node toNode);
+	}
 
 	public AdaptiveTravelTimeMatrixImpl(double maxTime, Network dvrpNetwork, ZoneSystem zoneSystem, DvrpTravelTimeMatrixParams params,
 										TravelTimeMatrix freeSpeedMatrix, double alpha) {
@@ -51,92 +64,117 @@ public class AdaptiveTravelTimeMatrixImpl implements AdaptiveTravelTimeMatrix {
 		this.numberOfBins = numberOfBins(maxTime);
 		this.gridSystem = zoneSystem;
 		this.centralNodes = ZoneSystemUtils.computeMostCentralNodes(dvrpNetwork.getNodes().values(), this.gridSystem);
-		this.timeDependentMatrix = IntStream.range(0, numberOfBins).mapToObj(i -> new Matrix(centralNodes.keySet()))
-				.toList();
-		this.params = params;
-		this.initializeRegularMatrix(freeSpeedMatrix);
-		this.initializeSparseTravelTimeCache(freeSpeedMatrix);
-	}
+		this.initializeNeighbouringCentralNodes(params.maxNeighborDistance);
 
-	record SparseTravelTimeKey(Node fromNode, Node toNode, double timeBin) {
+		// Matrix needs to be filled otherwise we have -1 exceptions
+		// We fill the matrix with already calculated free speed travel times
+		CentralNodesTravelTime freeSpeedTravelTime = (fromNode, toNode) -> freeSpeedMatrix.getTravelTime(fromNode, toNode, Double.NaN);
+		this.timeDependentMatrix = new Matrix[numberOfBins];
+		this.timeDependentSparseMatrix = new SparseMatrix[numberOfBins];
+		for (int i = 0; i < numberOfBins; i++) {
+			this.timeDependentMatrix[i] = createMatrix(freeSpeedTravelTime);
+			this.timeDependentSparseMatrix[i] = createSparseMatrix(freeSpeedTravelTime);
+		}
 	}
 
 	int numberOfBins(double maxTime) {
 		return (int) (maxTime / TIME_INTERVAL);
 	}
 
-	// SparseTravelTimeCache is a poor man's version of the SparseMatrix
-	// Much less code, but probably not so memory efficient?
-	void initializeSparseTravelTimeCache(TravelTimeMatrix freeSpeedMatrix) {
-		for (int i = 0; i < numberOfBins; i++) {
-			int bin = i;
-			centralNodes.entrySet().stream().parallel().forEach(originZoneEntry -> {
-				for (Entry<Zone, Node> destinationZoneEntry : centralNodes.entrySet()) {
-					Node originNode = originZoneEntry.getValue();
-					Node destinationNode = destinationZoneEntry.getValue();
-					if (DistanceUtils.calculateSquaredDistance(originNode.getCoord(),
-							destinationNode.getCoord()) < (params.maxNeighborDistance * params.maxNeighborDistance)) {
-						SparseTravelTimeKey key = getSparseTravelTimeKey(originNode, destinationNode, bin);
-						double freeSpeedTravelTime = freeSpeedMatrix.getTravelTime(originNode, destinationNode, Double.NaN);
-						this.sparseTravelTimeCache.computeIfAbsent(key, k -> freeSpeedTravelTime);
-					}
+	private void initializeNeighbouringCentralNodes(double maxNeighborDistance) {
+		for (Node originNode : centralNodes.values()) {
+			List<Node> neighbours = new ArrayList<>();
+			for (Node destinationNode : centralNodes.values()) {
+				if (DistanceUtils.calculateSquaredDistance(originNode.getCoord(),
+						destinationNode.getCoord()) < (maxNeighborDistance * maxNeighborDistance)) {
+					neighbours.add(destinationNode);
 				}
-			});
+			}
+			if (!neighbours.isEmpty()) {
+				neighbouringCentralNodes.put(originNode, neighbours);
+			}
 		}
 	}
 
-	SparseTravelTimeKey getSparseTravelTimeKey(Node originNode, Node destinationNode, int bin) {
-		return new SparseTravelTimeKey(originNode, destinationNode, bin);
+	private Matrix createMatrix(CentralNodesTravelTime travelTime) {
+		Matrix matrix = new Matrix(centralNodes.keySet());
+		centralNodes.entrySet().stream().parallel().forEach(originZoneEntry -> {
+			for (Map.Entry<Zone, Node> destinationZoneEntry : centralNodes.entrySet()) {
+				matrix.set(originZoneEntry.getKey(), destinationZoneEntry.getKey(),
+						travelTime.getTravelTime(originZoneEntry.getValue(), destinationZoneEntry.getValue()));
+			}
+		});
+		return matrix;
+	}
+
+	private SparseMatrix createSparseMatrix(CentralNodesTravelTime travelTime) {
+		SparseMatrix sparseMatrix = new SparseMatrix();
+		neighbouringCentralNodes.entrySet().stream().parallel().forEach(originEntry -> {
+			Node originNode = originEntry.getKey();
+			List<NodeAndTime> nodeAndTimes = originEntry.getValue()
+					.stream()
+					.map(destinationNode -> new NodeAndTime(destinationNode.getId().index(),
+							travelTime.getTravelTime(originNode, destinationNode)))
+					.toList();
+			sparseMatrix.setRow(originNode, new SparseRow(nodeAndTimes));
+		});
+		return sparseMatrix;
 	}
 
-	// Matrix needs to be filled otherwise we have -1 exceptions
-	// We fill the matrix with already calculated free speed travel times
-	void initializeRegularMatrix(TravelTimeMatrix freeSpeedMatrix) {
+	/**
+	 * Replaces the travel times of all bins with the ones calculated with the given travel time (e.g. the latest
+	 * estimates at the beginning of an iteration). The departure time used for each bin is the middle of the bin. The
+	 * zones are routed in parallel.
+	 */
+	public void refresh(Network dvrpNetwork, TravelTime travelTime, int numberOfThreads) {
+		var routingParams = new TravelTimeMatrices.RoutingParams(dvrpNetwork, travelTime,
+				new TimeAsTravelDisutility(travelTime), numberOfThreads);
+		double[] departureTimes = IntStream.range(0, numberOfBins).mapToDouble(i -> (i + 0.5) * TIME_INTERVAL).toArray();
+		List<Matrix> matrices = TravelTimeMatrices.calculateTravelTimeMatrices(routingParams, centralNodes, departureTimes);
+
 		for (int i = 0; i < numberOfBins; i++) {
-			int bin = i;
-			centralNodes.entrySet().stream().parallel().forEach(originZoneEntry -> {
-				for (Entry<Zone, Node> destinationZoneEntry : centralNodes.entrySet()) {
-					Node originNode = originZoneEntry.getValue();
-					Node destinationNode = destinationZoneEntry.getValue();
-					double freeSpeedTravelTime = freeSpeedMatrix.getTravelTime(originNode, destinationNode, Double.NaN);
-					this.timeDependentMatrix.get(bin).set(originZoneEntry.getKey(), destinationZoneEntry.getKey(),
-							freeSpeedTravelTime);
-				}
-			});
+			Matrix matrix = matrices.get(i);
+			this.timeDependentSparseMatrix[i] = createSparseMatrix(
+					(fromNode, toNode) -> matrix.get(getZone(fromNode), getZone(toNode)));
+			this.timeDependentMatrix[i] = matrix;
 		}
 	}
 
 	@Override
 	public double getTravelTime(Node fromNode, Node toNode, double departureTime) {
 		int bin = this.getBin(departureTime);
-		Double sparseValue = this.sparseTravelTimeCache.get(this.getSparseTravelTimeKey(fromNode, toNode, bin));
-		if (sparseValue != null) {
+		int sparseValue = this.timeDependentSparseMatrix[bin].get(fromNode, toNode);
+		if (sparseValue >= 0) {
 			return sparseValue;
 		}
-		return this.timeDependentMatrix.get(bin).get(this.gridSystem.getZoneForNodeId(fromNode.getId()).orElseThrow(), this.gridSystem.getZoneForNodeId(toNode.getId()).orElseThrow());
+		return this.timeDependentMatrix[bin].get(getZone(fromNode), getZone(toNode));
 	}
 
 	int getBin(double departureTime) {
 		return Math.min((int) (departureTime / TIME_INTERVAL), this.numberOfBins-1);
 	}
 
+	private Zone getZone(Node node) {
+		return this.gridSystem.getZoneForNodeId(node.getId()).orElseThrow();
+	}
+
 	@Override
 	public void setTravelTime(Node fromNode, Node toNode, double routeEstimate, double departureTime) {
 		int bin = this.getBin(departureTime);
-		SparseTravelTimeKey key = this.getSparseTravelTimeKey(fromNode, toNode, bin);
-		Double sparseValue = this.sparseTravelTimeCache.get(this.getSparseTravelTimeKey(fromNode, toNode, bin));
+		SparseMatrix sparseMatrix = this.timeDependentSparseMatrix[bin];
+		int sparseValue = sparseMatrix.get(fromNode, toNode);
 
-		// Update sparseTravelTimeCache
-		if (sparseValue != null) {
-			double value = getUpdatedValue(sparseValue, routeEstimate, this.alpha);
-			this.sparseTravelTimeCache.put(key, value);
+		// Update sparse matrix
+		if (sparseValue >= 0) {
+			sparseMatrix.set(fromNode, toNode, toStoredValue(getUpdatedValue(sparseValue, routeEstimate, this.alpha)));
 
 			// Update regular matrix for long distances
 		} else {
-			double currentTravelTimeEstimate = this.getTravelTime(fromNode, toNode, departureTime);
-			double value = getUpdatedValue(currentTravelTimeEstimate, routeEstimate, this.alpha);
-			this.timeDependentMatrix.get(bin).set(this.gridSystem.getZoneForNodeId(fromNode.getId()).orElseThrow(), this.gridSystem.getZoneForNodeId(toNode.getId()).orElseThrow(),
-					value);
+			Matrix matrix = this.timeDependentMatrix[bin];
+			Zone fromZone = getZone(fromNode);
+			Zone toZone = getZone(toNode);
+			matrix.set(fromZone, toZone,
+					toStoredValue(getUpdatedValue(matrix.get(fromZone, toZone), routeEstimate, this.alpha)));
 		}
 
 	}
@@ -145,4 +183,8 @@ public class AdaptiveTravelTimeMatrixImpl implements AdaptiveTravelTimeMatrix {
 		return currentValue * (1 - alpha) + alpha * newValue;
 	}
 
+	static double toStoredValue(double travelTime) {
+		return Math.min(Math.round(travelTime), Matrix.MAX_VALUE);
+	}
+
 }
@@ -27,6 +27,7 @@ import org.matsim.contrib.common.zones.ZoneSystemUtils;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeModule;
 import org.matsim.contrib.dvrp.run.DvrpConfigGroup;
 import org.matsim.core.config.groups.QSimConfigGroup;
+import org.matsim.core.router.util.TravelTime;
 
 /**
  * @author steffenaxer
@@ -47,7 +48,7 @@ public class AdaptiveTravelTimeMatrixModule extends AbstractDvrpModeModule {
 
     @Override
     public void install() {
-        bindModal(AdaptiveTravelTimeMatrix.class).toProvider(modalProvider(
+        bindModal(AdaptiveTravelTimeMatrixImpl.class).toProvider(modalProvider(
                 getter -> {
 					Network network = getter.getModal(Network.class);
 					DvrpTravelTimeMatrixParams matrixParams = dvrpConfigGroup.getTravelTimeMatrixParams();
@@ -60,5 +61,13 @@ public class AdaptiveTravelTimeMatrixModule extends AbstractDvrpModeModule {
                             getter.getModal(TravelTimeMatrix.class), SMOOTHING_ALPHA);
                 }))
                 .in(Singleton.class);
+        bindModal(AdaptiveTravelTimeMatrix.class).to(modalKey(AdaptiveTravelTimeMatrixImpl.class));
+
+        if (DvrpConfigGroup.get(getConfig()).getTravelTimeMatrixParams().refreshAdaptiveMatrixAtIterationStart) {
+            addControlerListenerBinding().toProvider(modalProvider(
+                    getter -> new AdaptiveTravelTimeMatrixRefresher(getter.getModal(AdaptiveTravelTimeMatrixImpl.class),
+                            getter.getModal(Network.class), getter.getModal(TravelTime.class),
+                            getConfig().global().getNumberOfThreads(), getConfig().controller().getFirstIteration())));
+        }
     }
 }
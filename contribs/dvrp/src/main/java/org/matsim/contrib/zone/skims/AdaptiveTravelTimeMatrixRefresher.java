@@ -0,0 +1,53 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.zone.skims;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.router.util.TravelTime;
+
+/**
+ * Recalculates the {@link AdaptiveTravelTimeMatrixImpl} with the latest travel times at the beginning of each iteration,
+ * except for the first one (in which the matrix has just been initialised with the free-speed travel times).
+ */
+class AdaptiveTravelTimeMatrixRefresher implements IterationStartsListener {
+	private final AdaptiveTravelTimeMatrixImpl matrix;
+	private final Network dvrpNetwork;
+	private final TravelTime travelTime;
+	private final int numberOfThreads;
+	private final int firstIteration;
+
+	AdaptiveTravelTimeMatrixRefresher(AdaptiveTravelTimeMatrixImpl matrix, Network dvrpNetwork, TravelTime travelTime,
+			int numberOfThreads, int firstIteration) {
+		this.matrix = matrix;
+		this.dvrpNetwork = dvrpNetwork;
+		this.travelTime = travelTime;
+		this.numberOfThreads = numberOfThreads;
+		this.firstIteration = firstIteration;
+	}
+
+	@Override
+	public void notifyIterationStarts(IterationStartsEvent event) {
+		if (event.getIteration() > firstIteration) {
+			matrix.refresh(dvrpNetwork, travelTime, numberOfThreads);
+		}
+	}
+}
@@ -64,6 +64,13 @@ public class DvrpTravelTimeMatrixParams extends ReflectiveConfigGroupWithConfigu
 	@Comment("Caches the travel time matrix data into a binary file. If the file exists, the matrix will be read from the file, if not, the file will be created.")
 	public String cachePath = null;
 
+	@Parameter
+	@Comment("If true, the adaptive travel time matrix (used e.g. by the repeated selective DRT insertion search) is"
+			+ " recalculated from the latest DVRP travel time estimates at the beginning of each iteration (except for the"
+			+ " first one). The matrix has one time bin per hour; the bins are calculated in parallel."
+			+ " Default value is false.")
+	public boolean refreshAdaptiveMatrixAtIterationStart = false;
+
 	public DvrpTravelTimeMatrixParams() {
 		super(SET_NAME);
 		initSingletonParameterSets();
@@ -23,10 +23,13 @@ package org.matsim.contrib.zone.skims;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.IdSet;
+import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.common.zones.Zone;
@@ -51,17 +54,34 @@ public class FreeSpeedTravelTimeMatrix implements TravelTimeMatrix {
 
 	private final static Logger log = LogManager.getLogger(FreeSpeedTravelTimeMatrix.class);
 
+	// marks cache files that start with the cache key (older files start with the number of zones)
+	private static final int CACHE_FILE_MAGIC = 0xD7C0FFEE;
+
 	public static FreeSpeedTravelTimeMatrix createFreeSpeedMatrix(Network dvrpNetwork, ZoneSystem zoneSystem, DvrpTravelTimeMatrixParams params, int numberOfThreads,
 		double qSimTimeStepSize) {
-		return new FreeSpeedTravelTimeMatrix(dvrpNetwork, zoneSystem, params, numberOfThreads, new QSimFreeSpeedTravelTime(qSimTimeStepSize));
+		return new FreeSpeedTravelTimeMatrix(dvrpNetwork, zoneSystem, params, numberOfThreads, new QSimFreeSpeedTravelTime(qSimTimeStepSize),
+			qSimTimeStepSize);
 	}
 
 	private final ZoneSystem zoneSystem;
 	private final Matrix freeSpeedTravelTimeMatrix;
 	private final SparseMatrix freeSpeedTravelTimeSparseMatrix;
 
+	// settings the matrix was calculated with, part of the cache key (qSimTimeStepSize is NaN for other travel times)
+	private final double maxNeighborDistance;
+	private final double maxNeighborTravelTime;
+	private final double qSimTimeStepSize;
+
 	public FreeSpeedTravelTimeMatrix(Network dvrpNetwork, ZoneSystem zoneSystem, DvrpTravelTimeMatrixParams params, int numberOfThreads, TravelTime travelTime) {
+		this(dvrpNetwork, zoneSystem, params, numberOfThreads, travelTime, Double.NaN);
+	}
+
+	private FreeSpeedTravelTimeMatrix(Network dvrpNetwork, ZoneSystem zoneSystem, DvrpTravelTimeMatrixParams params, int numberOfThreads,
+		TravelTime travelTime, double qSimTimeStepSize) {
 		this.zoneSystem = zoneSystem;
+		this.maxNeighborDistance = params.maxNeighborDistance;
+		this.maxNeighborTravelTime = params.maxNeighborTravelTime;
+		this.qSimTimeStepSize = qSimTimeStepSize;
 		var centralNodes = ZoneSystemUtils.computeMostCentralNodes(dvrpNetwork.getNodes().values(), zoneSystem);
 		var travelDisutility = new TimeAsTravelDisutility(travelTime);
 		var routingParams = new TravelTimeMatrices.RoutingParams(dvrpNetwork, travelTime, travelDisutility, numberOfThreads);
@@ -105,14 +125,72 @@ public class FreeSpeedTravelTimeMatrix implements TravelTimeMatrix {
 			throw new UncheckedIOException(e);
 		}
 
+		long cacheKey = computeCacheKey(dvrpNetwork, zoneSystem, params.maxNeighborDistance, params.maxNeighborTravelTime, qSimTimeStepSize);
+		if (!isCacheValid(cachePath, cacheKey)) {
+			log.warn("Freespeed matrix cache file was created for a different network, zone system or matrix settings"
+				+ " (or in an old format), will recreate it on-the-fly.");
+
+			var matrix = createFreeSpeedMatrix(dvrpNetwork, zoneSystem, params, numberOfThreads, qSimTimeStepSize);
+			matrix.write(cachePath, dvrpNetwork);
+			return matrix;
+		}
+
 		InputStream inputStream = IOUtils.getInputStream(cachePath);
 		return new FreeSpeedTravelTimeMatrix(dvrpNetwork, zoneSystem, inputStream);
 	}
 
+	private static boolean isCacheValid(URL cachePath, long cacheKey) {
+		try (DataInputStream dataStream = new DataInputStream(IOUtils.getInputStream(cachePath))) {
+			return dataStream.readInt() == CACHE_FILE_MAGIC && dataStream.readLong() == cacheKey;
+		} catch (EOFException e) {
+			return false;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The key identifies the network (topology, lengths and free speeds) and the zone system (incl. the assignment of
+	 * nodes to zones) the matrix was calculated for, as well as the settings that change its values: the sparse matrix
+	 * limits and the QSim time step used for the link travel times. It is stored in the cache file, so that a cache
+	 * created for another scenario (or an outdated version of the same scenario) is not used.
+	 */
+	static long computeCacheKey(Network dvrpNetwork, ZoneSystem zoneSystem, double maxNeighborDistance, double maxNeighborTravelTime,
+		double qSimTimeStepSize) {
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		hasher.putDouble(maxNeighborDistance).putDouble(maxNeighborTravelTime).putDouble(qSimTimeStepSize);
+		for (Zone zone : zoneSystem.getZones().values()) {
+			hasher.putUnencodedChars(zone.getId().toString());
+		}
+		for (Node node : dvrpNetwork.getNodes().values()) {
+			hasher.putUnencodedChars(node.getId().toString())
+				.putDouble(node.getCoord().getX())
+				.putDouble(node.getCoord().getY());
+			zoneSystem.getZoneForNodeId(node.getId()).ifPresent(zone -> hasher.putUnencodedChars(zone.getId().toString()));
+		}
+		for (Link link : dvrpNetwork.getLinks().values()) {
+			hasher.putUnencodedChars(link.getId().toString())
+				.putUnencodedChars(link.getFromNode().getId().toString())
+				.putUnencodedChars(link.getToNode().getId().toString())
+				.putDouble(link.getLength())
+				.putDouble(link.getFreespeed());
+		}
+		return hasher.hash().asLong();
+	}
+
 	public FreeSpeedTravelTimeMatrix(Network dvrpNetwork, ZoneSystem zoneSystem, InputStream inputStream) {
 		this.zoneSystem = zoneSystem;
 
 		try (DataInputStream dataStream = new DataInputStream(inputStream)) {
+			// cache key
+			Verify.verify(dataStream.readInt() == CACHE_FILE_MAGIC, "Not a freespeed matrix cache file (or an old format)");
+			long cacheKey = dataStream.readLong();
+			maxNeighborDistance = dataStream.readDouble();
+			maxNeighborTravelTime = dataStream.readDouble();
+			qSimTimeStepSize = dataStream.readDouble();
+			Verify.verify(cacheKey == computeCacheKey(dvrpNetwork, zoneSystem, maxNeighborDistance, maxNeighborTravelTime, qSimTimeStepSize),
+				"Freespeed matrix cache file was created for a different network or zone system");
+
 			// number of zones
 			int numberOfZones = dataStream.readInt();
 			Verify.verify(numberOfZones == zoneSystem.getZones().size());
@@ -197,6 +275,13 @@ public class FreeSpeedTravelTimeMatrix implements TravelTimeMatrix {
 		try (DataOutputStream outputStream = new DataOutputStream(
 				new BufferedOutputStream(IOUtils.getOutputStream(outputPath, false)))) {
 
+			// Write cache key
+			outputStream.writeInt(CACHE_FILE_MAGIC);
+			outputStream.writeLong(computeCacheKey(dvrpNetwork, zoneSystem, maxNeighborDistance, maxNeighborTravelTime, qSimTimeStepSize));
+			outputStream.writeDouble(maxNeighborDistance);
+			outputStream.writeDouble(maxNeighborTravelTime);
+			outputStream.writeDouble(qSimTimeStepSize);
+
 			// Obtain fixed order of zones
 			List<Zone> zones = new ArrayList<>(zoneSystem.getZones().values());
 			outputStream.writeInt(zones.size());
@@ -38,6 +38,8 @@ public final class Matrix {
 	//Range of unsigned short: 0-65535 (18:12:15)
 	//In case 18 hours is not enough, we can reduce the resolution from seconds to tens of seconds
 	private static final int MAX_UNSIGNED_SHORT = Short.MAX_VALUE - Short.MIN_VALUE;
+	//the max value is reserved for "no value set"
+	static final int MAX_VALUE = MAX_UNSIGNED_SHORT - 1;
 
 	//there are usually not so many Zone objects, so not a problem if zoneIndex2localIndex is sparse
 	private final int[] zoneIndex2matrixIndex = new int[Id.getNumberOfIds(Zone.class)];
@@ -62,7 +62,12 @@ public final class SparseMatrix {
 		}
 
 		private int get(int toNodeIndex) {
-			return values[Arrays.binarySearch(nodeIndices, toNodeIndex)];
+			return Short.toUnsignedInt(values[Arrays.binarySearch(nodeIndices, toNodeIndex)]);
+		}
+
+		private void set(int toNodeIndex, double value) {
+			Preconditions.checkArgument(Double.isFinite(value) && value >= 0 && value < MAX_UNSIGNED_SHORT);
+			values[Arrays.binarySearch(nodeIndices, toNodeIndex)] = (short)value;
 		}
 	}
 
@@ -112,6 +117,15 @@ public final class SparseMatrix {
 		int get(int toNodeIndex) {
 			return presentNodes.get(toNodeIndex) ? buckets[toNodeIndex & mask].get(toNodeIndex) : -1; // value not present in the row
 		}
+
+		// only values present in the row can be updated
+		boolean set(int toNodeIndex, double value) {
+			if (!presentNodes.get(toNodeIndex)) {
+				return false;
+			}
+			buckets[toNodeIndex & mask].set(toNodeIndex, value);
+			return true;
+		}
 	}
 
 	private final SparseRow[] rows = new SparseRow[Id.getNumberOfIds(Node.class)];
@@ -126,6 +140,15 @@ public final class SparseMatrix {
 		return get(fromNode.getId().index(), toNode.getId().index());
 	}
 
+	/**
+	 * Updates a value that is already present in the matrix.
+	 */
+	void set(Node fromNode, Node toNode, double value) {
+		var row = rows[fromNode.getId().index()];
+		Preconditions.checkArgument(row != null && row.set(toNode.getId().index(), value),
+			"No value present for nodes: %s -> %s", fromNode.getId(), toNode.getId());
+	}
+
 	void setRow(Node fromNode, SparseRow row) {
 		rows[fromNode.getId().index()] = row;
 	}
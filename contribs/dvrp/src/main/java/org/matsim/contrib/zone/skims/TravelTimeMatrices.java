@@ -20,6 +20,7 @@
 package org.matsim.contrib.zone.skims;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -52,13 +53,31 @@ public final class TravelTimeMatrices {
 
 	public static Matrix calculateTravelTimeMatrix(RoutingParams params, Map<Zone, Node> centralNodes, double departureTime) {
 		Matrix travelTimeMatrix = new Matrix(centralNodes.keySet());
-		Calculation<Zone> calculation = (lcpTree, z) -> computeForDepartureZone(z, centralNodes, departureTime, travelTimeMatrix, lcpTree);
+		Calculation<Zone> calculation = (lcpTree, z) -> computeForDepartureZone(z, centralNodes, departureTime, travelTimeMatrix, lcpTree,
+			Double.POSITIVE_INFINITY);
 		calculate(params, centralNodes.keySet(), calculation, "DVRP free-speed TT matrix: zone ");
 		return travelTimeMatrix;
 	}
 
+	/**
+	 * Calculates one zonal matrix per departure time. The zones are processed in parallel, each zone for all departure
+	 * times in a row. Travel times that do not fit into a {@link Matrix} (e.g. due to heavy congestion) are
+	 * capped.
+	 */
+	public static List<Matrix> calculateTravelTimeMatrices(RoutingParams params, Map<Zone, Node> centralNodes,
+		double[] departureTimes) {
+		List<Matrix> travelTimeMatrices = Arrays.stream(departureTimes).mapToObj(t -> new Matrix(centralNodes.keySet())).toList();
+		Calculation<Zone> calculation = (lcpTree, z) -> {
+			for (int i = 0; i < departureTimes.length; i++) {
+				computeForDepartureZone(z, centralNodes, departureTimes[i], travelTimeMatrices.get(i), lcpTree, Matrix.MAX_VALUE);
+			}
+		};
+		calculate(params, centralNodes.keySet(), calculation, "DVRP time-dependent TT matrices: zone ");
+		return travelTimeMatrices;
+	}
+
 	private static void computeForDepartureZone(Zone fromZone, Map<Zone, Node> centralNodes, double departureTime, Matrix travelTimeMatrix,
-		LeastCostPathTree lcpTree) {
+		LeastCostPathTree lcpTree, double maxTravelTime) {
 		Node fromNode = centralNodes.get(fromZone);
 		lcpTree.calculate(fromNode.getId().index(), departureTime, null, null);
 
@@ -69,7 +88,7 @@ public final class TravelTimeMatrices {
 			double currTime = currOptionalTime.orElseThrow(() -> new RuntimeException(
 				"Undefined Time. Reason could be that the dvrp network is not fully connected. Please check and/or clean."));
 			double tt = currTime - departureTime;
-			travelTimeMatrix.set(fromZone, toZone, tt);
+			travelTimeMatrix.set(fromZone, toZone, Math.min(tt, maxTravelTime));
 		}
 	}
 
@@ -118,6 +118,49 @@ public class LeastCostPathTreeStopCriteriaTest {
 		assertThat(sc.stop(otherNode.getId().index(), 0, 0, 0, 0)).isTrue();
 	}
 
+	@Test
+	void testAllEndNodesReachedOrTooFar_noEndNodes() {
+		assertThatThrownBy(() -> allEndNodesReachedOrTooFar(Map.of())).isExactlyInstanceOf(
+				IllegalArgumentException.class).hasMessage("At least one end node must be provided.");
+	}
+
+	@Test
+	void testAllEndNodesReachedOrTooFar_twoEndNodes() {
+		var endNode1 = new FakeNode(Id.createNodeId("end_node_1"));
+		var endNode2 = new FakeNode(Id.createNodeId("end_node_2"));
+		var otherNode = new FakeNode(Id.createNodeId("other_node"));
+		StopCriterion sc = allEndNodesReachedOrTooFar(Map.of(endNode1, 100., endNode2, 50.));
+
+		//TT is 100 - both end nodes may still be reached
+		assertThat(sc.stop(otherNode.getId().index(), 500, 0, 0, 400)).isFalse();
+
+		//endNode1 now reached
+		assertThat(sc.stop(endNode1.getId().index(), 500, 0, 0, 400)).isFalse();
+
+		//TT is 51 - endNode2 is too far (also in backward search)
+		assertThat(sc.stop(otherNode.getId().index(), 349, 0, 0, 400)).isTrue();
+	}
+
+	@Test
+	void testAllEndNodesReachedOrTooFar_allEndNodesReached() {
+		var endNode1 = new FakeNode(Id.createNodeId("end_node_1"));
+		var endNode2 = new FakeNode(Id.createNodeId("end_node_2"));
+		var otherNode = new FakeNode(Id.createNodeId("other_node"));
+		StopCriterion sc = allEndNodesReachedOrTooFar(Map.of(endNode1, 100., endNode2, 50.));
+
+		//endNode2 reached
+		assertThat(sc.stop(endNode2.getId().index(), 0, 0, 0, 0)).isFalse();
+
+		//TT is 100 - endNode1 may still be reached
+		assertThat(sc.stop(otherNode.getId().index(), 100, 0, 0, 0)).isFalse();
+
+		//endNode1 now reached
+		assertThat(sc.stop(endNode1.getId().index(), 100, 0, 0, 0)).isTrue();
+
+		//both end nodes already reached
+		assertThat(sc.stop(otherNode.getId().index(), 100, 0, 0, 0)).isTrue();
+	}
+
 	@Test
 	void testLeastCostEndNodeReached_noEndNodes() {
 		assertThatThrownBy(() -> new LeastCostEndNodeReached(List.of(), value -> 0)).isExactlyInstanceOf(
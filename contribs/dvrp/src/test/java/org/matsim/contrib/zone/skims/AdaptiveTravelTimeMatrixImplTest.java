@@ -0,0 +1,88 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.zone.skims;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.common.zones.ZoneSystem;
+import org.matsim.contrib.common.zones.systems.grid.square.SquareGridZoneSystem;
+import org.matsim.core.network.NetworkUtils;
+
+public class AdaptiveTravelTimeMatrixImplTest {
+	private static final double ALPHA = 0.75;
+
+	private final Network network = NetworkUtils.createNetwork();
+	private final Node nodeA = NetworkUtils.createAndAddNode(network, Id.createNodeId("A"), new Coord(0, 0));
+	private final Node nodeB = NetworkUtils.createAndAddNode(network, Id.createNodeId("B"), new Coord(150, 150));
+
+	public AdaptiveTravelTimeMatrixImplTest() {
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("AB"), nodeA, nodeB, 150, 15, 20, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("BA"), nodeB, nodeA, 300, 15, 40, 1);
+	}
+
+	@Test
+	void matrix() {
+		var matrix = createMatrix(0);
+		assertUpdates(matrix);
+	}
+
+	@Test
+	void sparseMatrix() {
+		var matrix = createMatrix(9999);
+		assertUpdates(matrix);
+	}
+
+	private void assertUpdates(AdaptiveTravelTimeMatrixImpl matrix) {
+		// initialised with the free-speed travel times in all bins
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(10 + 1); // 1 s for moving over nodes
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 3600)).isEqualTo(10 + 1);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 0)).isEqualTo(20 + 1);
+
+		// 0.25 * 11 + 0.75 * 20 = 17.75 is rounded (not truncated)
+		matrix.setTravelTime(nodeA, nodeB, 20, 0);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(18);
+		// 0.25 * 18 + 0.75 * 20 = 19.5
+		matrix.setTravelTime(nodeA, nodeB, 20, 100);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(20);
+
+		// other bins and directions are not affected
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 3600)).isEqualTo(10 + 1);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 0)).isEqualTo(20 + 1);
+
+		// values beyond the range of unsigned short are capped
+		matrix.setTravelTime(nodeB, nodeA, 1_000_000, 3600);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 3600)).isEqualTo(Matrix.MAX_VALUE);
+		matrix.setTravelTime(nodeB, nodeA, 0, 3600);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 3600)).isEqualTo(Math.round(0.25 * Matrix.MAX_VALUE));
+	}
+
+	private AdaptiveTravelTimeMatrixImpl createMatrix(double maxNeighborDistance) {
+		DvrpTravelTimeMatrixParams params = new DvrpTravelTimeMatrixParams();
+		params.maxNeighborDistance = maxNeighborDistance;
+		ZoneSystem zoneSystem = new SquareGridZoneSystem(network, 100.);
+		var freeSpeedMatrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(network, zoneSystem, params, 1, 1);
+		return new AdaptiveTravelTimeMatrixImpl(2 * 3600, network, zoneSystem, params, freeSpeedMatrix, ALPHA);
+	}
+}
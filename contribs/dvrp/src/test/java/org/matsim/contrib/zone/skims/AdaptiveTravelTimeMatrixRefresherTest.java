@@ -0,0 +1,88 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.zone.skims;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.common.zones.ZoneSystem;
+import org.matsim.contrib.common.zones.systems.grid.square.SquareGridZoneSystem;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelTime;
+
+public class AdaptiveTravelTimeMatrixRefresherTest {
+	private final Network network = NetworkUtils.createNetwork();
+	private final Node nodeA = NetworkUtils.createAndAddNode(network, Id.createNodeId("A"), new Coord(0, 0));
+	private final Node nodeB = NetworkUtils.createAndAddNode(network, Id.createNodeId("B"), new Coord(150, 150));
+
+	public AdaptiveTravelTimeMatrixRefresherTest() {
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("AB"), nodeA, nodeB, 150, 15, 20, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("BA"), nodeB, nodeA, 300, 15, 40, 1);
+	}
+
+	@Test
+	void matrix() {
+		assertRefresh(0);
+	}
+
+	@Test
+	void sparseMatrix() {
+		assertRefresh(9999);
+	}
+
+	private void assertRefresh(double maxNeighborDistance) {
+		var matrix = createMatrix(maxNeighborDistance);
+
+		// AB: 100 s in the first hour, 200 s afterwards; BA: beyond the range of unsigned short
+		TravelTime travelTime = (link, time, person, vehicle) -> link.getId().equals(Id.createLinkId("AB")) ?
+				(time < 3600 ? 100 : 200) :
+				100_000;
+		var refresher = new AdaptiveTravelTimeMatrixRefresher(matrix, network, travelTime, 1, 0);
+
+		// the matrix is not refreshed in the first iteration
+		refresher.notifyIterationStarts(new IterationStartsEvent(null, 0, false));
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(10 + 1); // 1 s for moving over nodes
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 0)).isEqualTo(20 + 1);
+
+		// ... but in all the following ones
+		refresher.notifyIterationStarts(new IterationStartsEvent(null, 1, false));
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(100);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 3600)).isEqualTo(200);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 0)).isEqualTo(Matrix.MAX_VALUE);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 3600)).isEqualTo(Matrix.MAX_VALUE);
+
+		// refreshed values are updated as before
+		matrix.setTravelTime(nodeA, nodeB, 110, 0);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(108); // 0.25 * 100 + 0.75 * 110 = 107.5
+	}
+
+	private AdaptiveTravelTimeMatrixImpl createMatrix(double maxNeighborDistance) {
+		DvrpTravelTimeMatrixParams params = new DvrpTravelTimeMatrixParams();
+		params.maxNeighborDistance = maxNeighborDistance;
+		ZoneSystem zoneSystem = new SquareGridZoneSystem(network, 100.);
+		var freeSpeedMatrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(network, zoneSystem, params, 1, 1);
+		return new AdaptiveTravelTimeMatrixImpl(2 * 3600, network, zoneSystem, params, freeSpeedMatrix, 0.75);
+	}
+}
@@ -92,7 +92,7 @@ public class FreeSpeedTravelTimeMatrixTest {
 		// write and read cache
 		URL cachePath = new File(utils.getOutputDirectory(), "cache.bin").toURI().toURL();
 		matrix.write(cachePath, network);
-		matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, null, 1, 1, cachePath);
+		matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, params, 1, 1, cachePath);
 
 		// distances between central nodes: A and B
 		assertThat(matrix.getTravelTime(nodeA, nodeA, 0)).isEqualTo(0);
@@ -130,7 +130,7 @@ public class FreeSpeedTravelTimeMatrixTest {
 		// write and read cache
 		URL cachePath = new File(utils.getOutputDirectory(), "cache.bin").toURI().toURL();
 		matrix.write(cachePath, network);
-		matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, null, 1, 1, cachePath);
+		matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, params, 1, 1, cachePath);
 
 		// distances between central nodes: A and B
 		assertThat(matrix.getTravelTime(nodeA, nodeA, 0)).isEqualTo(0);
@@ -145,6 +145,44 @@ public class FreeSpeedTravelTimeMatrixTest {
 		assertThat(matrix.getTravelTime(nodeC, nodeB, 0)).isEqualTo(10 + 9 + 2); // 2 s for moving over nodes
 	}
 
+	@Test
+	void cacheOfAnotherNetworkIsRecreated() throws MalformedURLException {
+		DvrpTravelTimeMatrixParams params = new DvrpTravelTimeMatrixParams();
+		params.maxNeighborDistance = 0;
+		ZoneSystem zoneSystem = new SquareGridZoneSystem(network, 100.);
+
+		URL cachePath = new File(utils.getOutputDirectory(), "cache.bin").toURI().toURL();
+		FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(network, zoneSystem, params, 1, 1).write(cachePath, network);
+
+		// the network changes after the cache has been written
+		network.getLinks().get(Id.createLinkId("AB")).setFreespeed(7.5);
+		var matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, params, 1, 1, cachePath);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(20 + 1); // 1 s for moving over nodes
+
+		// the recreated cache is used from now on
+		matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, params, 1, 1, cachePath);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(20 + 1); // 1 s for moving over nodes
+	}
+
+	@Test
+	void cacheOfOtherSettingsIsRecreated() throws MalformedURLException {
+		DvrpTravelTimeMatrixParams params = new DvrpTravelTimeMatrixParams();
+		params.maxNeighborDistance = 0;
+		ZoneSystem zoneSystem = new SquareGridZoneSystem(network, 100.);
+
+		URL cachePath = new File(utils.getOutputDirectory(), "cache.bin").toURI().toURL();
+		FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(network, zoneSystem, params, 1, 1).write(cachePath, network);
+
+		// the sparse matrix is requested after the cache has been written
+		params.maxNeighborDistance = 9999;
+		var matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, params, 1, 1, cachePath);
+		assertThat(matrix.getTravelTime(nodeA, nodeC, 0)).isEqualTo(11 + 1); // 1 s for moving over nodes
+
+		// another QSim time step
+		matrix = FreeSpeedTravelTimeMatrix.createFreeSpeedMatrixFromCache(network, zoneSystem, params, 1, 2, cachePath);
+		assertThat(matrix.getTravelTime(nodeA, nodeC, 0)).isEqualTo(10 + 2); // 2 s steps: 10 s on the link, 2 s for moving over nodes
+	}
+
 	@Test
 	void cacheViaConfig() {
 		// need to get an absolute path, otherwise will try to generate the cache relative to the config
@@ -21,6 +21,7 @@
 package org.matsim.contrib.zone.skims;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.matsim.contrib.zone.skims.SparseMatrix.SparseRow;
 
 import java.util.List;
@@ -89,6 +90,22 @@ public class SparseMatrixTest {
 		}
 	}
 
+	@Test
+	void setPresentValue() {
+		var matrix = new SparseMatrix();
+		//A -> A, B
+		matrix.setRow(nodeA, new SparseRow(List.of(nodeAndTime(nodeA, 0), nodeAndTime(nodeB, 1))));
+
+		matrix.set(nodeA, nodeB, 7);
+		assertThat(matrix.get(nodeA, nodeB)).isEqualTo(7);
+		assertThat(matrix.get(nodeA, nodeA)).isEqualTo(0);
+
+		// only present values can be updated
+		assertThatThrownBy(() -> matrix.set(nodeA, nodeC, 3)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> matrix.set(nodeB, nodeA, 3)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(matrix.get(nodeA, nodeC)).isEqualTo(-1);
+	}
+
 	private NodeAndTime nodeAndTime(Node node, double time) {
 		return new NodeAndTime(node.getId().index(), time);
 	}
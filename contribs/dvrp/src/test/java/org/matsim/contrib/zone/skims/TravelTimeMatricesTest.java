@@ -33,6 +33,7 @@ import org.matsim.contrib.common.zones.Zone;
 import org.matsim.contrib.common.zones.ZoneImpl;
 import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
 import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
 
 /**
@@ -58,6 +59,34 @@ public class TravelTimeMatricesTest {
 		assertThat(matrix.get(zoneB, zoneB)).isEqualTo(0);
 	}
 
+	@Test
+	void travelTimeMatrices_timeDependent() {
+		Network network = NetworkUtils.createNetwork();
+		Node nodeA = NetworkUtils.createAndAddNode(network, Id.createNodeId("A"), new Coord(0, 0));
+		Node nodeB = NetworkUtils.createAndAddNode(network, Id.createNodeId("B"), new Coord(150, 150));
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("AB"), nodeA, nodeB, 150, 15, 20, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("BA"), nodeB, nodeA, 300, 15, 40, 1);
+		Zone zoneA = new ZoneImpl(Id.create("Zone_A", Zone.class), null, null, null);
+		Zone zoneB = new ZoneImpl(Id.create("Zone_Z", Zone.class), null, null, null);
+
+		// travel times double after 1 h
+		TravelTime travelTime = (link, time, person, vehicle) -> (time < 3600 ? 1 : 2) * link.getLength()
+				/ link.getFreespeed();
+		var routingParams = new TravelTimeMatrices.RoutingParams(network, travelTime,
+				new TimeAsTravelDisutility(travelTime), 1);
+
+		var centralNodes = Map.of(zoneA, nodeA, zoneB, nodeB);
+		var matrices = TravelTimeMatrices.calculateTravelTimeMatrices(routingParams, centralNodes,
+				new double[] { 0, 3600 });
+
+		assertThat(matrices).hasSize(2);
+		assertThat(matrices.get(0).get(zoneA, zoneB)).isEqualTo(10);
+		assertThat(matrices.get(0).get(zoneB, zoneA)).isEqualTo(20);
+		assertThat(matrices.get(1).get(zoneA, zoneB)).isEqualTo(20);
+		assertThat(matrices.get(1).get(zoneB, zoneA)).isEqualTo(40);
+		assertThat(matrices.get(1).get(zoneB, zoneB)).isEqualTo(0);
+	}
+
 	@Test
 	void travelTimeSparseMatrix_maxDistance() {
 		Network network = NetworkUtils.createNetwork();
@@ -519,7 +519,7 @@ public class CalculateSkimMatrices {
 
         log.info("calc PT matrices for " + Time.writeTime(startTime) + " - " + Time.writeTime(endTime));
         PTSkimMatrices.PtIndicators<String> matrices = PTSkimMatrices.calculateSkimMatrices(
-			raptorData, this.coordsPerZone, startTime, endTime, 120, raptorParameters, this.numberOfThreads, trainDetector, coordAggregator);
+			raptorData, this.coordsPerZone, startTime, endTime, raptorParameters, this.numberOfThreads, trainDetector, coordAggregator);
         return matrices;
 
     }
@@ -25,6 +25,8 @@ import ch.sbb.matsim.routing.pt.raptor.RaptorRoute;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptor;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorCore.TravelInfo;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.core.config.Config;
@@ -58,8 +60,9 @@ import java.util.stream.Collectors;
  * combination. - average the n x n adaption times and store this value as the zone-to-zone adaption time.
  * <p>
  * A basic implementation for calculating the travel times between m zones would result in m^2 * n^2 pt route calculations, which could take a very long time. The actual algorithm makes use of
- * LeastCostPathTrees, reducing the computational effort down to the calculation of m*n LeastCostPathTrees. In addition, it supports running the calculation in parallel to reduce the time required to
- * compute one matrix.
+ * LeastCostPathTrees, reducing the computational effort down to the calculation of m*n LeastCostPathTrees. The trees for all departure times of one point are calculated in a single range query
+ * (see {@link SwissRailRaptor#calcTreeProfile}), and the egress stops of each point are only searched once. In addition, it supports running the calculation in parallel to reduce the time
+ * required to compute one matrix.
  * <p>
  * If no connection can be found between two zones (can happen when there is no transit stop in a zone), the corresponding matrix cells contain the value "0" for the perceived frequency, and
  * "Infinity" for all other skim matrices.
@@ -68,16 +71,48 @@ import java.util.stream.Collectors;
  */
 public class PTSkimMatrices {
 
+    private static final Logger log = LogManager.getLogger(PTSkimMatrices.class);
+
+    // the step size CalculateSkimMatrices used to pass, before every departure was taken into account
+    private static final double DEFAULT_STEP_SIZE = 120;
+
     private PTSkimMatrices() {
     }
 
+    /**
+     * @deprecated the step size is no longer used, use the overload without <code>stepSize_seconds</code>. Instead of calculating trees in fixed steps, every actual
+     * departure within the time window is taken into account.
+     */
+    @Deprecated
     public static <T> PTSkimMatrices.PtIndicators<T> calculateSkimMatrices(SwissRailRaptorData raptorData, Map<T, Coord[]> coordsPerZone, double minDepartureTime, double maxDepartureTime,
             double stepSize_seconds, RaptorParameters parameters, int numberOfThreads, BiPredicate<TransitLine, TransitRoute> trainDetector, CoordAggregator coordAggregator) {
+        if (stepSize_seconds != DEFAULT_STEP_SIZE) {
+            log.warn("stepSize_seconds={} is ignored, every departure between {} and {} is taken into account.", stepSize_seconds, Time.writeTime(minDepartureTime),
+                    Time.writeTime(maxDepartureTime));
+        }
+        return calculateSkimMatrices(raptorData, coordsPerZone, minDepartureTime, maxDepartureTime, parameters, numberOfThreads, trainDetector, coordAggregator);
+    }
+
+    /**
+     * Calculates the pt skim matrices for all pairs of zones, taking into account every departure within the time window.
+     */
+    public static <T> PTSkimMatrices.PtIndicators<T> calculateSkimMatrices(SwissRailRaptorData raptorData, Map<T, Coord[]> coordsPerZone, double minDepartureTime, double maxDepartureTime,
+            RaptorParameters parameters, int numberOfThreads, BiPredicate<TransitLine, TransitRoute> trainDetector, CoordAggregator coordAggregator) {
         // prepare calculation
         Set<T> zoneIds = coordsPerZone.keySet();
         PtIndicators<T> pti = new PtIndicators<>(zoneIds);
         Config config = ConfigUtils.createConfig();
 
+        // the egress stops of each point do not depend on the origin, so only search them once
+        Map<T, List<Map<Id<TransitStopFacility>, Double>>> egressTimesPerZone = new HashMap<>();
+        for (Map.Entry<T, Coord[]> e : coordsPerZone.entrySet()) {
+            List<Map<Id<TransitStopFacility>, Double>> egressTimesPerCoord = new ArrayList<>(e.getValue().length);
+            for (Coord toCoord : e.getValue()) {
+                egressTimesPerCoord.add(RowWorker.calcEgressTimes(toCoord, raptorData, parameters));
+            }
+            egressTimesPerZone.put(e.getKey(), egressTimesPerCoord);
+        }
+
         // do calculation
         ConcurrentLinkedQueue<T> originZones = new ConcurrentLinkedQueue<>(zoneIds);
 
@@ -85,7 +120,7 @@ public class PTSkimMatrices {
         Thread[] threads = new Thread[numberOfThreads];
         for (int i = 0; i < numberOfThreads; i++) {
             SwissRailRaptor raptor = new SwissRailRaptor.Builder(raptorData, config).build();
-            RowWorker<T> worker = new RowWorker<>(originZones, zoneIds, coordsPerZone, pti, raptor, parameters, minDepartureTime, maxDepartureTime, stepSize_seconds, counter, trainDetector, coordAggregator);
+            RowWorker<T> worker = new RowWorker<>(originZones, zoneIds, coordsPerZone, egressTimesPerZone, pti, raptor, parameters, minDepartureTime, maxDepartureTime, counter, trainDetector, coordAggregator);
             threads[i] = new Thread(worker, "PT-FrequencyMatrix-" + Time.writeTime(minDepartureTime) + "-" + Time.writeTime(maxDepartureTime) + "-" + i);
             threads[i].start();
         }
@@ -136,42 +171,56 @@ public class PTSkimMatrices {
         private final ConcurrentLinkedQueue<T> originZones;
         private final Set<T> destinationZones;
         private final Map<T, Coord[]> coordsPerZone;
+        private final Map<T, List<Map<Id<TransitStopFacility>, Double>>> egressTimesPerZone;
         private final PtIndicators<T> pti;
         private final SwissRailRaptor raptor;
         private final RaptorParameters parameters;
         private final double minDepartureTime;
         private final double maxDepartureTime;
-        private final double stepSize;
         private final Counter counter;
         private final BiPredicate<TransitLine, TransitRoute> trainDetector;
 		private final CoordAggregator coordAggregator;
 
-		RowWorker(ConcurrentLinkedQueue<T> originZones, Set<T> destinationZones, Map<T, Coord[]> coordsPerZone, PtIndicators<T> pti, SwissRailRaptor raptor, RaptorParameters parameters,
-				  double minDepartureTime, double maxDepartureTime, double stepSize, Counter counter, BiPredicate<TransitLine, TransitRoute> trainDetector, CoordAggregator coordAggregator) {
+		RowWorker(ConcurrentLinkedQueue<T> originZones, Set<T> destinationZones, Map<T, Coord[]> coordsPerZone, Map<T, List<Map<Id<TransitStopFacility>, Double>>> egressTimesPerZone,
+				  PtIndicators<T> pti, SwissRailRaptor raptor, RaptorParameters parameters,
+				  double minDepartureTime, double maxDepartureTime, Counter counter, BiPredicate<TransitLine, TransitRoute> trainDetector, CoordAggregator coordAggregator) {
             this.originZones = originZones;
             this.destinationZones = destinationZones;
             this.coordsPerZone = coordsPerZone;
+            this.egressTimesPerZone = egressTimesPerZone;
             this.pti = pti;
             this.raptor = raptor;
             this.parameters = parameters;
             this.minDepartureTime = minDepartureTime;
             this.maxDepartureTime = maxDepartureTime;
-            this.stepSize = stepSize;
             this.counter = counter;
             this.trainDetector = trainDetector;
 			this.coordAggregator = coordAggregator;
         }
 
-        private static Collection<TransitStopFacility> findStopCandidates(Coord coord, SwissRailRaptor raptor, RaptorParameters parameters) {
-            Collection<TransitStopFacility> stops = raptor.getUnderlyingData().findNearbyStops(coord.getX(), coord.getY(), parameters.getSearchRadius());
+        private static Collection<TransitStopFacility> findStopCandidates(Coord coord, SwissRailRaptorData raptorData, RaptorParameters parameters) {
+            Collection<TransitStopFacility> stops = raptorData.findNearbyStops(coord.getX(), coord.getY(), parameters.getSearchRadius());
             if (stops.isEmpty()) {
-                TransitStopFacility nearest = raptor.getUnderlyingData().findNearestStop(coord.getX(), coord.getY());
+                TransitStopFacility nearest = raptorData.findNearestStop(coord.getX(), coord.getY());
                 double nearestStopDistance = CoordUtils.calcEuclideanDistance(coord, nearest.getCoord());
-                stops = raptor.getUnderlyingData().findNearbyStops(coord.getX(), coord.getY(), nearestStopDistance + parameters.getExtensionRadius());
+                stops = raptorData.findNearbyStops(coord.getX(), coord.getY(), nearestStopDistance + parameters.getExtensionRadius());
             }
             return stops;
         }
 
+        static Map<Id<TransitStopFacility>, Double> calcEgressTimes(Coord toCoord, SwissRailRaptorData raptorData, RaptorParameters parameters) {
+            double walkSpeed = parameters.getBeelineWalkSpeed();
+
+            Collection<TransitStopFacility> toStops = findStopCandidates(toCoord, raptorData, parameters);
+            Map<Id<TransitStopFacility>, Double> egressTimes = new HashMap<>();
+            for (TransitStopFacility stop : toStops) {
+                double distance = CoordUtils.calcEuclideanDistance(stop.getCoord(), toCoord);
+                double egressTime = distance / walkSpeed;
+                egressTimes.put(stop.getId(), egressTime);
+            }
+            return egressTimes;
+        }
+
         @Override
         public void run() {
             while (true) {
@@ -194,7 +243,7 @@ public class PTSkimMatrices {
         private void calcForRow(T fromZoneId, Coord fromCoord, double fromCoordWeight) {
             double walkSpeed = this.parameters.getBeelineWalkSpeed();
 
-            Collection<TransitStopFacility> fromStops = findStopCandidates(fromCoord, this.raptor, this.parameters);
+            Collection<TransitStopFacility> fromStops = findStopCandidates(fromCoord, this.raptor.getUnderlyingData(), this.parameters);
             Map<Id<TransitStopFacility>, Double> accessTimes = new HashMap<>();
             for (TransitStopFacility stop : fromStops) {
                 double distance = CoordUtils.calcEuclideanDistance(fromCoord, stop.getCoord());
@@ -202,36 +251,21 @@ public class PTSkimMatrices {
                 accessTimes.put(stop.getId(), accessTime);
             }
 
-            List<Map<Id<TransitStopFacility>, TravelInfo>> trees = new ArrayList<>();
-
+            // one range query covers every departure in the extended time window, the trees only contain the improved stops per departure
             double timeWindow = this.maxDepartureTime - this.minDepartureTime;
-            double endTime = this.maxDepartureTime + timeWindow;
-            for (double time = this.minDepartureTime - timeWindow; time < endTime; time += this.stepSize) {
-                Map<Id<TransitStopFacility>, TravelInfo> tree = this.raptor.calcTree(fromStops, time, this.parameters, null);
-                trees.add(tree);
-            }
+            List<Map<Id<TransitStopFacility>, TravelInfo>> trees = this.raptor.calcTreeProfile(fromStops, this.minDepartureTime - timeWindow, this.maxDepartureTime + timeWindow, this.parameters, null);
 
             for (T toZoneId : this.destinationZones) {
-                Coord[] toCoords = this.coordsPerZone.get(toZoneId);
-                if (toCoords != null) {
-                    for (Coord toCoord : toCoords) {
-                        calcForOD(fromZoneId, toZoneId, toCoord, accessTimes, trees, (float) fromCoordWeight);
+                List<Map<Id<TransitStopFacility>, Double>> egressTimesPerCoord = this.egressTimesPerZone.get(toZoneId);
+                if (egressTimesPerCoord != null) {
+                    for (Map<Id<TransitStopFacility>, Double> egressTimes : egressTimesPerCoord) {
+                        calcForOD(fromZoneId, toZoneId, egressTimes, accessTimes, trees, (float) fromCoordWeight);
                     }
                 }
             }
         }
 
-        private void calcForOD(T fromZoneId, T toZoneId, Coord toCoord, Map<Id<TransitStopFacility>, Double> accessTimes, List<Map<Id<TransitStopFacility>, TravelInfo>> trees, float fromCoordWeight) {
-            double walkSpeed = this.parameters.getBeelineWalkSpeed();
-
-            Collection<TransitStopFacility> toStops = findStopCandidates(toCoord, this.raptor, this.parameters);
-            Map<Id<TransitStopFacility>, Double> egressTimes = new HashMap<>();
-            for (TransitStopFacility stop : toStops) {
-                double distance = CoordUtils.calcEuclideanDistance(stop.getCoord(), toCoord);
-                double egressTime = distance / walkSpeed;
-                egressTimes.put(stop.getId(), egressTime);
-            }
-
+        private void calcForOD(T fromZoneId, T toZoneId, Map<Id<TransitStopFacility>, Double> egressTimes, Map<Id<TransitStopFacility>, Double> accessTimes, List<Map<Id<TransitStopFacility>, TravelInfo>> trees, float fromCoordWeight) {
             List<ODConnection> connections = buildODConnections(trees, accessTimes, egressTimes);
             if (connections.isEmpty()) {
                 return;
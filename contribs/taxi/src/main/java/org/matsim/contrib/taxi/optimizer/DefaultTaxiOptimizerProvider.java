@@ -20,6 +20,7 @@
 package org.matsim.contrib.taxi.optimizer;
 
 import java.net.URL;
+import java.util.concurrent.ForkJoinPool;
 
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.common.zones.ZoneSystem;
@@ -59,10 +60,12 @@ public class DefaultTaxiOptimizerProvider implements Provider<TaxiOptimizer> {
 	private final TaxiScheduler scheduler;
 	private final URL context;
 	private final ScheduleTimingUpdater scheduleTimingUpdater;
+	private final ForkJoinPool forkJoinPool;
 
 	public DefaultTaxiOptimizerProvider(EventsManager eventsManager, TaxiConfigGroup taxiCfg, Fleet fleet,
 			Network network, MobsimTimer timer, TravelTime travelTime, TravelDisutility travelDisutility,
-			TaxiScheduler scheduler, ScheduleTimingUpdater scheduleTimingUpdater, URL context) {
+			TaxiScheduler scheduler, ScheduleTimingUpdater scheduleTimingUpdater, URL context,
+			ForkJoinPool forkJoinPool) {
 		this.eventsManager = eventsManager;
 		this.taxiCfg = taxiCfg;
 		this.fleet = fleet;
@@ -73,6 +76,7 @@ public class DefaultTaxiOptimizerProvider implements Provider<TaxiOptimizer> {
 		this.scheduler = scheduler;
 		this.scheduleTimingUpdater = scheduleTimingUpdater;
 		this.context = context;
+		this.forkJoinPool = forkJoinPool;
 	}
 
 	@Override
@@ -80,7 +84,7 @@ public class DefaultTaxiOptimizerProvider implements Provider<TaxiOptimizer> {
 		return switch (taxiCfg.getTaxiOptimizerParams().getName()) {
 			case AssignmentTaxiOptimizerParams.SET_NAME -> {
 				var requestInserter = new AssignmentRequestInserter(fleet, network, timer, travelTime, travelDisutility,
-						scheduler, (AssignmentTaxiOptimizerParams)taxiCfg.getTaxiOptimizerParams());
+						scheduler, (AssignmentTaxiOptimizerParams)taxiCfg.getTaxiOptimizerParams(), forkJoinPool);
 				yield new DefaultTaxiOptimizer(eventsManager, taxiCfg, fleet, scheduler, scheduleTimingUpdater,
 						requestInserter);
 			}
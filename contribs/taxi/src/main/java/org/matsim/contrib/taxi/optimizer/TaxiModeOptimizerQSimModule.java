@@ -23,6 +23,7 @@ package org.matsim.contrib.taxi.optimizer;
 import java.util.function.Supplier;
 
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.optimizer.QSimScopeForkJoinPoolHolder;
 import org.matsim.contrib.dvrp.fleet.Fleet;
 import org.matsim.contrib.dvrp.optimizer.VrpOptimizer;
 import org.matsim.contrib.dvrp.passenger.PassengerHandler;
@@ -83,7 +84,8 @@ public class TaxiModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 
 						ScheduleTimingUpdater scheduleTimingUpdater = getModalInstance(ScheduleTimingUpdater.class);
 						return new DefaultTaxiOptimizerProvider(events, taxiCfg, fleet, network, timer, travelTime,
-								travelDisutility, taxiScheduler, scheduleTimingUpdater, getConfig().getContext()).get();
+								travelDisutility, taxiScheduler, scheduleTimingUpdater, getConfig().getContext(),
+								getModalInstance(QSimScopeForkJoinPoolHolder.class).getPool()).get();
 					}
 				});
 
@@ -111,6 +113,9 @@ public class TaxiModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 					}
 				});
 
+		addModalComponent(QSimScopeForkJoinPoolHolder.class,
+				() -> new QSimScopeForkJoinPoolHolder(taxiCfg.numberOfThreads));
+
 		bindModal(ScheduleTimingUpdater.class).toProvider(modalProvider(
 				getter -> new ScheduleTimingUpdater(getter.get(MobsimTimer.class),
 						new TaxiStayTaskEndTimeCalculator(taxiCfg), DriveTaskUpdater.NOOP))).asEagerSingleton();
@@ -20,6 +20,9 @@ package org.matsim.contrib.taxi.optimizer.assignment;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
 
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.passenger.DrtRequest;
@@ -48,21 +51,31 @@ public class AssignmentRequestInserter implements UnplannedRequestInserter {
 	private final TaxiToRequestAssignmentCostProvider assignmentCostProvider;
 
 	public AssignmentRequestInserter(Fleet fleet, Network network, MobsimTimer timer, TravelTime travelTime,
-			TravelDisutility travelDisutility, TaxiScheduler scheduler, AssignmentTaxiOptimizerParams params) {
+			TravelDisutility travelDisutility, TaxiScheduler scheduler, AssignmentTaxiOptimizerParams params,
+			@Nullable ForkJoinPool forkJoinPool) {
 		this(fleet, timer, network, travelTime, travelDisutility, scheduler, params,
-				new SpeedyALTFactory().createPathCalculator(network, travelDisutility, travelTime));
+				new SpeedyALTFactory().createPathCalculator(network, travelDisutility, travelTime), forkJoinPool);
 	}
 
 	public AssignmentRequestInserter(Fleet fleet, MobsimTimer timer, Network network, TravelTime travelTime,
 			TravelDisutility travelDisutility, TaxiScheduler scheduler, AssignmentTaxiOptimizerParams params,
 			LeastCostPathCalculator router) {
+		this(fleet, timer, network, travelTime, travelDisutility, scheduler, params, router, null);
+	}
+
+	/**
+	 * @param forkJoinPool if not null, the paths for the assignment problem are calculated in parallel in this pool
+	 */
+	public AssignmentRequestInserter(Fleet fleet, MobsimTimer timer, Network network, TravelTime travelTime,
+			TravelDisutility travelDisutility, TaxiScheduler scheduler, AssignmentTaxiOptimizerParams params,
+			LeastCostPathCalculator router, @Nullable ForkJoinPool forkJoinPool) {
 		this.fleet = fleet;
 		this.scheduler = scheduler;
 		this.timer = timer;
 		this.params = params;
 
 		assignmentProblem = new VehicleAssignmentProblem<>(network, travelTime, travelDisutility, router,
-				params.nearestRequestsLimit, params.nearestVehiclesLimit);
+				params.nearestRequestsLimit, params.nearestVehiclesLimit, forkJoinPool, params.assignmentAlgorithm);
 
 		assignmentCostProvider = new TaxiToRequestAssignmentCostProvider(params);
 	}
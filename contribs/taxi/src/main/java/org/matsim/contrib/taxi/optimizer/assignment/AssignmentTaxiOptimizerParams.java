@@ -21,6 +21,7 @@ package org.matsim.contrib.taxi.optimizer.assignment;
 
 import org.matsim.contrib.taxi.optimizer.AbstractTaxiOptimizerParams;
 import org.matsim.contrib.taxi.optimizer.assignment.TaxiToRequestAssignmentCostProvider.Mode;
+import org.matsim.contrib.taxi.optimizer.assignment.VehicleAssignmentProblem.AssignmentAlgorithm;
 import org.matsim.core.config.Config;
 
 import jakarta.validation.constraints.NotNull;
@@ -86,6 +87,17 @@ public final class AssignmentTaxiOptimizerParams extends AbstractTaxiOptimizerPa
 	@Positive
 	public double nullPathCost = 48 * 3600;
 
+	@Parameter
+	@Comment("Specifies the algorithm used to solve the assignment problem."
+			+ " HUNGARIAN solves the dense (vehicles x requests) problem in O(n^3), where the costs of pairs outside"
+			+ " 'nearestRequestsLimit'/'nearestVehiclesLimit' are based on 'nullPathCost'."
+			+ " MIN_COST_FLOW solves the sparse problem, which contains only the kNN pairs; requests and vehicles"
+			+ " without kNN pairs are not assigned (requests are considered again in the next reoptimisation)."
+			+ " Recommended for large fleets (thousands of vehicles)."
+			+ " The default value is HUNGARIAN.")
+	@NotNull
+	public AssignmentAlgorithm assignmentAlgorithm = AssignmentAlgorithm.HUNGARIAN;
+
 	/**
 	 * {@value #REOPTIMIZATION_TIME_STEP_EXP}
 	 */
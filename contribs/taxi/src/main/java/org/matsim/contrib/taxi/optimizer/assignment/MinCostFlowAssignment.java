@@ -0,0 +1,115 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.taxi.optimizer.assignment;
+
+import java.util.Arrays;
+
+import graphs.flows.CostScalingMinCostFlow;
+
+/**
+ * Sparse alternative to {@link HungarianAlgorithm}: only the candidate vehicle-destination pairs (e.g. the kNN pairs
+ * for which paths have been calculated) are considered. Among the assignments with the maximum number of assigned
+ * pairs, the one with the minimum total cost is chosen. Vehicles (or destinations) without candidates are not assigned.
+ * <p>
+ * The assignment is solved as a min cost flow problem (source -> vehicles -> destinations -> sink) with
+ * {@link CostScalingMinCostFlow}. Its runtime depends on the number of candidate pairs, not on the product of the
+ * numbers of vehicles and destinations. Costs are rounded to integers (i.e. to full seconds for time-based costs).
+ */
+class MinCostFlowAssignment {
+	private final int vehicleCount;
+	private final int destinationCount;
+
+	private int candidateCount = 0;
+	private int[] vehicles = new int[16];
+	private int[] destinations = new int[16];
+	private double[] costs = new double[16];
+
+	MinCostFlowAssignment(int vehicleCount, int destinationCount) {
+		this.vehicleCount = vehicleCount;
+		this.destinationCount = destinationCount;
+	}
+
+	void addCandidate(int vehicle, int destination, double cost) {
+		if (!Double.isFinite(cost)) {
+			throw new IllegalArgumentException("Cost is not finite: " + cost);
+		}
+		if (candidateCount == vehicles.length) {
+			vehicles = Arrays.copyOf(vehicles, 2 * candidateCount);
+			destinations = Arrays.copyOf(destinations, 2 * candidateCount);
+			costs = Arrays.copyOf(costs, 2 * candidateCount);
+		}
+		vehicles[candidateCount] = vehicle;
+		destinations[candidateCount] = destination;
+		costs[candidateCount] = cost;
+		candidateCount++;
+	}
+
+	/**
+	 * @return the assigned destination for each vehicle (-1 if not assigned)
+	 */
+	int[] execute() {
+		int[] assignments = new int[vehicleCount];
+		Arrays.fill(assignments, -1);
+		if (candidateCount == 0) {
+			return assignments;
+		}
+
+		// N nodes, which indices are:
+		// 0 - source
+		// 1..V - vehicles
+		// V+1..V+D - destinations
+		// V+D+1 - sink
+		final int V = vehicleCount;
+		final int N = vehicleCount + destinationCount + 2;
+		CostScalingMinCostFlow minCostFlow = new CostScalingMinCostFlow(N);
+
+		for (int v = 0; v < vehicleCount; v++) {
+			minCostFlow.addArc(0, 1 + v, 1, 0);
+		}
+		for (int d = 0; d < destinationCount; d++) {
+			minCostFlow.addArc(1 + V + d, N - 1, 1, 0);
+		}
+
+		// only cost differences matter (the number of assigned pairs is maximised first)
+		double minCost = Arrays.stream(costs, 0, candidateCount).min().getAsDouble();
+		long maxCost = 0;
+		int[] candidateArcs = new int[candidateCount];
+		for (int c = 0; c < candidateCount; c++) {
+			long cost = Math.round(costs[c] - minCost);
+			candidateArcs[c] = minCostFlow.addArc(1 + vehicles[c], 1 + V + destinations[c], 1, cost);
+			maxCost = Math.max(maxCost, cost);
+		}
+
+		// source -> sink: vehicles and destinations that are not assigned; its cost is higher than the cost of any path
+		// via vehicles and destinations, so that the number of assigned pairs is maximised
+		int flow = Math.min(vehicleCount, destinationCount);
+		minCostFlow.addArc(0, N - 1, flow, N * maxCost + 1);
+		minCostFlow.setSupply(0, flow);
+		minCostFlow.setSupply(N - 1, -flow);
+
+		minCostFlow.solve();
+
+		for (int c = 0; c < candidateCount; c++) {
+			if (minCostFlow.getFlow(candidateArcs[c]) > 0) {
+				assignments[vehicles[c]] = destinations[c];
+			}
+		}
+		return assignments;
+	}
+}
@@ -21,21 +21,22 @@ package org.matsim.contrib.taxi.optimizer.assignment;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
 
-import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
-import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.common.util.StraightLineKnnFinder;
-import org.matsim.contrib.dvrp.path.OneToManyPathSearch;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearchPool;
 import org.matsim.contrib.dvrp.path.VrpPathWithTravelData;
 import org.matsim.contrib.dvrp.path.VrpPaths;
 import org.matsim.contrib.taxi.optimizer.BestDispatchFinder.Dispatch;
 import org.matsim.contrib.taxi.optimizer.VehicleData;
 import org.matsim.contrib.taxi.optimizer.assignment.AssignmentDestinationData.DestEntry;
-import org.matsim.core.router.speedy.SpeedyGraph;
-import org.matsim.core.router.speedy.SpeedyGraphBuilder;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
@@ -48,10 +49,21 @@ public class VehicleAssignmentProblem<D> {
 		double calc(VehicleData.Entry departure, DestEntry<D> dest, PathData pathData);
 	}
 
+	public enum AssignmentAlgorithm {
+		// dense vehicle x destination cost matrix (pairs without paths cost 'nullPathCost')
+		HUNGARIAN,
+
+		// only the vehicle-destination pairs with paths (kNN filtering), see MinCostFlowAssignment
+		MIN_COST_FLOW
+	}
+
 	private final TravelTime travelTime;
 	private final LeastCostPathCalculator router;
 
-	private final OneToManyPathSearch pathSearch;
+	private final OneToManyPathSearchPool pathSearchPool;
+	@Nullable
+	private final ForkJoinPool forkJoinPool;
+	private final AssignmentAlgorithm assignmentAlgorithm;
 
 	private final StraightLineKnnFinder<VehicleData.Entry, DestEntry<D>> destinationFinder;
 	private final StraightLineKnnFinder<DestEntry<D>, VehicleData.Entry> vehicleFinder;
@@ -67,13 +79,22 @@ public class VehicleAssignmentProblem<D> {
 
 	public VehicleAssignmentProblem(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
 			LeastCostPathCalculator router, int nearestDestinationLimit, int nearestVehicleLimit) {
+		this(network, travelTime, travelDisutility, router, nearestDestinationLimit, nearestVehicleLimit, null,
+				AssignmentAlgorithm.HUNGARIAN);
+	}
+
+	/**
+	 * @param forkJoinPool if not null, the paths are calculated in parallel in this pool
+	 */
+	public VehicleAssignmentProblem(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
+			LeastCostPathCalculator router, int nearestDestinationLimit, int nearestVehicleLimit,
+			@Nullable ForkJoinPool forkJoinPool, AssignmentAlgorithm assignmentAlgorithm) {
 		this.travelTime = travelTime;
 		this.router = router;
+		this.forkJoinPool = forkJoinPool;
+		this.assignmentAlgorithm = assignmentAlgorithm;
 
-		IdMap<Node, Node> nodeMap = new IdMap<>(Node.class);
-		nodeMap.putAll(network.getNodes());
-		pathSearch = OneToManyPathSearch.createSearch(SpeedyGraphBuilder.build(network), nodeMap, travelTime, travelDisutility,
-				false);
+		pathSearchPool = OneToManyPathSearchPool.create(network, travelTime, travelDisutility, false);
 
 		// TODO this kNN is slow
 		destinationFinder = nearestDestinationLimit < 0 ?
@@ -84,6 +105,11 @@ public class VehicleAssignmentProblem<D> {
 				null :
 				new StraightLineKnnFinder<>(nearestVehicleLimit, dest -> dest.link.getFromNode().getCoord(),
 						veh -> veh.link.getToNode().getCoord());
+
+		if (assignmentAlgorithm == AssignmentAlgorithm.MIN_COST_FLOW && (destinationFinder == null
+				|| vehicleFinder == null)) {
+			throw new IllegalArgumentException("MIN_COST_FLOW assignment requires kNN filtering");
+		}
 	}
 
 	public List<Dispatch<D>> findAssignments(VehicleData vData, AssignmentDestinationData<D> dData,
@@ -92,60 +118,94 @@ public class VehicleAssignmentProblem<D> {
 		this.dData = dData;
 		this.assignmentCost = assignmentCost;
 
-		PathData[][] pathDataMatrix = createPathDataMatrix();
-		double[][] costMatrix = createCostMatrix(pathDataMatrix);
-		int[] assignments = new HungarianAlgorithm(costMatrix).execute();
-		return createDispatches(assignments, pathDataMatrix, travelTime);
+		List<PathEntry> pathEntries = calcPaths();
+		return switch (assignmentAlgorithm) {
+			case HUNGARIAN -> {
+				PathData[][] pathDataMatrix = createPathDataMatrix(pathEntries);
+				double[][] costMatrix = createCostMatrix(pathDataMatrix);
+				int[] assignments = new HungarianAlgorithm(costMatrix).execute();
+				yield createDispatches(assignments, (v, d) -> pathDataMatrix[v][d]);
+			}
+			case MIN_COST_FLOW -> {
+				int[] assignments = createMinCostFlowAssignment(pathEntries).execute();
+				PathData[] assignedPaths = new PathData[vData.getSize()];
+				for (PathEntry entry : pathEntries) {
+					if (assignments[entry.v] == entry.d) {
+						assignedPaths[entry.v] = entry.pathData;
+					}
+				}
+				yield createDispatches(assignments, (v, d) -> assignedPaths[v]);
+			}
+		};
+	}
+
+	// vehicle-destination pair for which the path has been calculated
+	private record PathEntry(int v, int d, PathData pathData) {
+	}
+
+	private interface PathDataProvider {
+		PathData get(int v, int d);
 	}
 
 	// private static int calcPathsForVehiclesCount = 0;
 	// private static int calcPathsForDestinationsCount = 0;
 
-	private PathData[][] createPathDataMatrix() {
-		PathData[][] pathDataMatrix = new PathData[vData.getSize()][dData.getSize()];
+	private List<PathEntry> calcPaths() {
+		// one-to-many searches are independent of each other, so they are run in parallel (if a pool is provided),
+		// each thread using its own search
+		return dData.getSize() > vData.getSize() ?
+				calcInParallel(vData.getSize(), this::calcPathsForVehicle) :
+				calcInParallel(dData.getSize(), this::calcPathsForDestination);
+	}
 
-		if (dData.getSize() > vData.getSize()) {
-			calcPathsForVehicles(pathDataMatrix);
-		} else {
-			calcPathsForDestinations(pathDataMatrix);
+	private List<PathEntry> calcInParallel(int size, IntFunction<List<PathEntry>> task) {
+		if (forkJoinPool == null) {
+			return IntStream.range(0, size).mapToObj(task).flatMap(List::stream).toList();
 		}
-
-		return pathDataMatrix;
+		// encounter order is kept, so the results do not depend on the number of threads
+		return forkJoinPool.submit(
+				() -> IntStream.range(0, size).parallel().mapToObj(task).flatMap(List::stream).toList()).join();
 	}
 
-	private void calcPathsForVehicles(PathData[][] pathDataMatrix) {
-		for (int v = 0; v < vData.getSize(); v++) {
-			VehicleData.Entry departure = vData.getEntry(v);
+	private List<PathEntry> calcPathsForVehicle(int v) {
+		VehicleData.Entry departure = vData.getEntry(v);
 
-			List<DestEntry<D>> filteredDests = destinationFinder == null ?
-					dData.getEntries() :
-					destinationFinder.findNearest(departure, dData.getEntries().stream());
-			List<Link> toLinks = filteredDests.stream().map(dest -> dest.link).toList();
-			PathData[] paths = pathSearch.calcPathDataArray(departure.link, toLinks, departure.time, true);
+		List<DestEntry<D>> filteredDests = destinationFinder == null ?
+				dData.getEntries() :
+				destinationFinder.findNearest(departure, dData.getEntries().stream());
+		List<Link> toLinks = filteredDests.stream().map(dest -> dest.link).toList();
+		PathData[] paths = pathSearchPool.get().calcPathDataArray(departure.link, toLinks, departure.time, true);
 
-			for (int i = 0; i < filteredDests.size(); i++) {
-				int d = filteredDests.get(i).idx;
-				pathDataMatrix[v][d] = paths[i];
-			}
+		List<PathEntry> entries = new ArrayList<>(filteredDests.size());
+		for (int i = 0; i < filteredDests.size(); i++) {
+			entries.add(new PathEntry(v, filteredDests.get(i).idx, paths[i]));
 		}
+		return entries;
 	}
 
 	// TODO does not support adv reqs
-	private void calcPathsForDestinations(PathData[][] pathDataMatrix) {
-		for (int d = 0; d < dData.getSize(); d++) {
-			DestEntry<D> dest = dData.getEntry(d);
-
-			List<VehicleData.Entry> filteredVehs = vehicleFinder == null ?
-					vData.getEntries() :
-					vehicleFinder.findNearest(dest, vData.getEntries().stream());
-			List<Link> toLinks = filteredVehs.stream().map(veh -> veh.link).toList();
-			PathData[] paths = pathSearch.calcPathDataArray(dest.link, toLinks, dest.time, false);
+	private List<PathEntry> calcPathsForDestination(int d) {
+		DestEntry<D> dest = dData.getEntry(d);
+
+		List<VehicleData.Entry> filteredVehs = vehicleFinder == null ?
+				vData.getEntries() :
+				vehicleFinder.findNearest(dest, vData.getEntries().stream());
+		List<Link> toLinks = filteredVehs.stream().map(veh -> veh.link).toList();
+		PathData[] paths = pathSearchPool.get().calcPathDataArray(dest.link, toLinks, dest.time, false);
+
+		List<PathEntry> entries = new ArrayList<>(filteredVehs.size());
+		for (int i = 0; i < filteredVehs.size(); i++) {
+			entries.add(new PathEntry(filteredVehs.get(i).idx, d, paths[i]));
+		}
+		return entries;
+	}
 
-			for (int i = 0; i < filteredVehs.size(); i++) {
-				int v = filteredVehs.get(i).idx;
-				pathDataMatrix[v][d] = paths[i];
-			}
+	private PathData[][] createPathDataMatrix(List<PathEntry> pathEntries) {
+		PathData[][] pathDataMatrix = new PathData[vData.getSize()][dData.getSize()];
+		for (PathEntry entry : pathEntries) {
+			pathDataMatrix[entry.v][entry.d] = entry.pathData;
 		}
+		return pathDataMatrix;
 	}
 
 	private double[][] createCostMatrix(PathData[][] pathDataMatrix) {
@@ -162,7 +222,19 @@ public class VehicleAssignmentProblem<D> {
 		return costMatrix;
 	}
 
-	private List<Dispatch<D>> createDispatches(int[] assignments, PathData[][] pathDataMatrix, TravelTime travelTime) {
+	private MinCostFlowAssignment createMinCostFlowAssignment(List<PathEntry> pathEntries) {
+		MinCostFlowAssignment assignment = new MinCostFlowAssignment(vData.getSize(), dData.getSize());
+		for (PathEntry entry : pathEntries) {
+			// unreachable destinations are not assigned
+			if (entry.pathData != null && entry.pathData != PathData.INFEASIBLE) {
+				double cost = assignmentCost.calc(vData.getEntry(entry.v), dData.getEntry(entry.d), entry.pathData);
+				assignment.addCandidate(entry.v, entry.d, cost);
+			}
+		}
+		return assignment;
+	}
+
+	private List<Dispatch<D>> createDispatches(int[] assignments, PathDataProvider pathDataProvider) {
 		List<Dispatch<D>> dispatches = new ArrayList<>(Math.min(vData.getSize(), dData.getSize()));
 		for (int v = 0; v < assignments.length; v++) {
 			int d = assignments[v];
@@ -173,7 +245,7 @@ public class VehicleAssignmentProblem<D> {
 
 			VehicleData.Entry departure = vData.getEntry(v);
 			DestEntry<D> dest = dData.getEntry(d);
-			PathData pathData = pathDataMatrix[v][d];
+			PathData pathData = pathDataProvider.get(v, d);
 
 			// TODO if null is frequent we may be more efficient by increasing the neighbourhood
 			VrpPathWithTravelData vrpPath = pathData == null ?
@@ -130,7 +130,8 @@ public final class TaxiConfigGroup extends ReflectiveConfigGroupWithConfigurable
 	public boolean breakSimulationIfNotAllRequestsServed = true;
 
 	@Parameter
-	@Comment("Number of threads used for parallel computation of paths (occupied drive tasks)."
+	@Comment("Number of threads used for parallel computation of paths (occupied drive tasks, and the paths"
+			+ " considered by the assignment optimizer)."
 			+ " 4-6 threads is usually enough. It's recommended to specify a higher number than that if possible"
 			+ " - of course, threads will probably be not 100% busy."
 			+ " Default value is the number of cores available to JVM")
@@ -0,0 +1,79 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.taxi.optimizer.assignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class MinCostFlowAssignmentTest {
+	@Test
+	void execute_allCandidates_sameCostAsHungarianAlgorithm() {
+		Random random = new Random(4711);
+		for (int instance = 0; instance < 100; instance++) {
+			int vehicleCount = 1 + random.nextInt(20);
+			int destinationCount = 1 + random.nextInt(20);
+			double[][] costMatrix = new double[vehicleCount][destinationCount];
+			MinCostFlowAssignment assignment = new MinCostFlowAssignment(vehicleCount, destinationCount);
+			for (int v = 0; v < vehicleCount; v++) {
+				for (int d = 0; d < destinationCount; d++) {
+					costMatrix[v][d] = random.nextInt(1000);
+					assignment.addCandidate(v, d, costMatrix[v][d]);
+				}
+			}
+
+			int[] assignments = assignment.execute();
+			int[] expectedAssignments = new HungarianAlgorithm(costMatrix).execute();
+			assertThat(assignedCount(assignments)).isEqualTo(Math.min(vehicleCount, destinationCount));
+			assertThat(totalCost(assignments, costMatrix)).isEqualTo(totalCost(expectedAssignments, costMatrix));
+		}
+	}
+
+	@Test
+	void execute_onlyCandidates() {
+		MinCostFlowAssignment assignment = new MinCostFlowAssignment(3, 2);
+		assignment.addCandidate(0, 0, 100);
+		assignment.addCandidate(0, 1, 50);
+		assignment.addCandidate(1, 0, 200);
+		// vehicle 2 has no candidates
+
+		// assigning both destinations is preferred over the cheapest pair (vehicle 0 -> destination 1)
+		assertThat(assignment.execute()).containsExactly(1, 0, -1);
+
+		assertThat(new MinCostFlowAssignment(3, 2).execute()).containsExactly(-1, -1, -1);
+	}
+
+	private static int assignedCount(int[] assignments) {
+		return (int)Arrays.stream(assignments).filter(d -> d >= 0).count();
+	}
+
+	private static double totalCost(int[] assignments, double[][] costMatrix) {
+		double totalCost = 0;
+		for (int v = 0; v < assignments.length; v++) {
+			int d = assignments[v];
+			if (d >= 0 && d < costMatrix[v].length) {
+				totalCost += costMatrix[v][d];
+			}
+		}
+		return totalCost;
+	}
+}
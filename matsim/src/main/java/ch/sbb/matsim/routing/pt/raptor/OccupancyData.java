@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * @author mrieser / Simunto GmbH
@@ -50,6 +51,7 @@ public class OccupancyData {
 	final Map<Id<Vehicle>, VehicleData> vehicleData = new HashMap<>();
 	final Map<Id<Person>, PassengerData> paxData = new HashMap<>();
 	private CacheData cache = null;
+	private volatile PaxCountStore paxCountStore = null;
 
 	public void reset() {
 		LOG.info("[SwissRailRaptor] Resetting ExecutionData");
@@ -57,6 +59,11 @@ public class OccupancyData {
 		this.vehicleData.clear();
 		this.paxData.clear();
 		this.cache = null;
+		PaxCountStore store = this.paxCountStore;
+		if (store != null) {
+			// keep the index, it only depends on the schedule
+			Arrays.fill(store.paxCounts, 0);
+		}
 	}
 
 	public DepartureData getNextAvailableDeparture(Id<TransitLine> transitLine, Id<TransitRoute> transitRoute, Id<TransitStopFacility> stopFacility, double time) {
@@ -148,6 +155,76 @@ public class OccupancyData {
 		return offset + pos;
 	}
 
+	/**
+	 * Returns the number of passengers in the vehicle of the given departure when it departed at the given route stop,
+	 * or 0 if no such departure was observed.
+	 */
+	int getPaxCountAtDeparture(SwissRailRaptorData data, int routeStopIndex, int departureIndex) {
+		PaxCountStore store = this.paxCountStore;
+		if (store == null || store.data != data) {
+			store = buildPaxCountStore(data);
+		}
+		return store.paxCounts[store.slot(routeStopIndex, departureIndex)];
+	}
+
+	/**
+	 * Updates the primitive pax count store (if already in use by a router) with the current load of the vehicle
+	 * departing at its current stop. This keeps the store up to date during the mobsim instead of rebuilding it
+	 * from the maps after every iteration.
+	 */
+	void recordPaxCountAtDeparture(VehicleData vehData) {
+		PaxCountStore store = this.paxCountStore;
+		if (store == null) {
+			return;
+		}
+		if (vehData.store != store) {
+			vehData.store = store;
+			vehData.routeIndex = store.getRouteIndex(vehData.lineId, vehData.routeId);
+			vehData.departureIndex = vehData.routeIndex < 0 ? -1 : store.getDepartureIndex(vehData.routeIndex, vehData.departureId);
+			vehData.routeStopIndex = -1;
+		}
+		if (vehData.departureIndex < 0) {
+			return;
+		}
+		int routeStopIndex = store.getNextRouteStopIndex(vehData.routeIndex, vehData.routeStopIndex, vehData.stopFacilityId);
+		if (routeStopIndex < 0) {
+			return;
+		}
+		vehData.routeStopIndex = routeStopIndex;
+		store.paxCounts[store.slot(routeStopIndex, vehData.departureIndex)] = vehData.currentPaxCount;
+	}
+
+	private synchronized PaxCountStore buildPaxCountStore(SwissRailRaptorData data) {
+		PaxCountStore store = this.paxCountStore;
+		if (store != null && store.data == data) {
+			return store;
+		}
+		LOG.info("[SwissRailRaptor] build pax count store for ExecutionData");
+		PaxCountStore newStore = new PaxCountStore(data);
+		// catch up with what was collected before the store was in use
+		IntStream.range(0, data.routes.length).parallel().forEach(routeIndex -> {
+			SwissRailRaptorData.RRoute route = data.routes[routeIndex];
+			for (int routeStopIndex = route.indexFirstRouteStop; routeStopIndex < route.indexFirstRouteStop + route.countRouteStops; routeStopIndex++) {
+				SwissRailRaptorData.RRouteStop routeStop = data.routeStops[routeStopIndex];
+				LineData lineData = this.lineData.get(routeStop.line.getId());
+				RouteData routeData = lineData == null ? null : lineData.routeData.get(routeStop.route.getId());
+				StopData stopData = routeData == null ? null : routeData.stopData.get(routeStop.routeStop.getStopFacility().getId());
+				if (stopData == null) {
+					continue;
+				}
+				for (int depIndex = route.indexFirstDeparture; depIndex < route.indexFirstDeparture + route.countDepartures; depIndex++) {
+					DepartureData dd = stopData.depData.get(data.departureIds[depIndex]);
+					if (dd != null) {
+						newStore.paxCounts[newStore.slot(routeStopIndex, depIndex)] = dd.paxCountAtDeparture;
+					}
+				}
+			}
+		});
+		this.paxCountStore = newStore;
+		LOG.info("[SwissRailRaptor] done (build pax count store for ExecutionData)");
+		return newStore;
+	}
+
 	private CacheData getCache(SwissRailRaptorData data) {
 		CacheData cache = this.cache;
 		if (cache == null) {
@@ -163,9 +240,10 @@ public class OccupancyData {
 		}
 		LOG.info("[SwissRailRaptor] build query-cache for ExecutionData");
 
-		cache = new CacheData(data.routeStops.length);
+		CacheData newCache = new CacheData(data.routeStops.length);
 		SwissRailRaptorData.RRouteStop[] routeStops = data.routeStops;
-		for (int routeStopIdx = 0; routeStopIdx < routeStops.length; routeStopIdx++) {
+		// the route stops are independent of each other, which helps with large schedules
+		IntStream.range(0, routeStops.length).parallel().forEach(routeStopIdx -> {
 			SwissRailRaptorData.RRouteStop routeStop = routeStops[routeStopIdx];
 			SwissRailRaptorData.RRoute route = data.routes[routeStop.transitRouteIndex];
 			int departuresCount = route.countDepartures;
@@ -193,11 +271,11 @@ public class OccupancyData {
 				departures[depIdx + 1] = latestWaitStart;
 				lastValue = latestWaitStart;
 			}
-			cache.latestWaitingTimeStartPerRouteStopPerDeparture[routeStopIdx] = departures;
-		}
-		this.cache = cache;
+			newCache.latestWaitingTimeStartPerRouteStopPerDeparture[routeStopIdx] = departures;
+		});
+		this.cache = newCache;
 		LOG.info("[SwissRailRaptor] done (build query-cache for ExecutionData)");
-		return cache;
+		return newCache;
 	}
 
 	private static class CacheData {
@@ -208,6 +286,71 @@ public class OccupancyData {
 		}
 	}
 
+	/**
+	 * Passenger counts upon departure, stored per route stop and departure of the {@link SwissRailRaptorData}, so the
+	 * router can look them up by index instead of going through the maps for every route segment.
+	 */
+	static final class PaxCountStore {
+		final SwissRailRaptorData data;
+		final int[] firstSlotPerRouteStop;
+		final int[] paxCounts;
+		private final IdMap<TransitLine, Map<Id<TransitRoute>, Integer>> routeIndices = new IdMap<>(TransitLine.class);
+
+		PaxCountStore(SwissRailRaptorData data) {
+			this.data = data;
+			this.firstSlotPerRouteStop = new int[data.routeStops.length];
+			int slots = 0;
+			for (int routeIndex = 0; routeIndex < data.routes.length; routeIndex++) {
+				SwissRailRaptorData.RRoute route = data.routes[routeIndex];
+				for (int i = 0; i < route.countRouteStops; i++) {
+					this.firstSlotPerRouteStop[route.indexFirstRouteStop + i] = slots;
+					slots += route.countDepartures;
+				}
+				if (route.countRouteStops > 0) {
+					SwissRailRaptorData.RRouteStop routeStop = data.routeStops[route.indexFirstRouteStop];
+					this.routeIndices.computeIfAbsent(routeStop.line.getId(), id -> new HashMap<>()).put(routeStop.route.getId(), routeIndex);
+				}
+			}
+			this.paxCounts = new int[slots];
+		}
+
+		int slot(int routeStopIndex, int departureIndex) {
+			SwissRailRaptorData.RRoute route = this.data.routes[this.data.routeStops[routeStopIndex].transitRouteIndex];
+			return this.firstSlotPerRouteStop[routeStopIndex] + departureIndex - route.indexFirstDeparture;
+		}
+
+		int getRouteIndex(Id<TransitLine> lineId, Id<TransitRoute> routeId) {
+			Map<Id<TransitRoute>, Integer> routes = this.routeIndices.get(lineId);
+			Integer routeIndex = routes == null ? null : routes.get(routeId);
+			return routeIndex == null ? -1 : routeIndex;
+		}
+
+		int getDepartureIndex(int routeIndex, Id<Departure> departureId) {
+			SwissRailRaptorData.RRoute route = this.data.routes[routeIndex];
+			for (int i = route.indexFirstDeparture; i < route.indexFirstDeparture + route.countDepartures; i++) {
+				if (this.data.departureIds[i].equals(departureId)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns the index of the first route stop after <code>previousRouteStopIndex</code> served at the given stop
+		 * facility, which also works for routes visiting the same stop facility more than once.
+		 */
+		int getNextRouteStopIndex(int routeIndex, int previousRouteStopIndex, Id<TransitStopFacility> stopFacilityId) {
+			SwissRailRaptorData.RRoute route = this.data.routes[routeIndex];
+			int end = route.indexFirstRouteStop + route.countRouteStops;
+			for (int i = Math.max(previousRouteStopIndex + 1, route.indexFirstRouteStop); i < end; i++) {
+				if (this.data.routeStops[i].routeStop.getStopFacility().getId().equals(stopFacilityId)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
 	static class LineData {
 		Map<Id<TransitRoute>, RouteData> routeData = new HashMap<>();
 	}
@@ -299,6 +442,10 @@ public class OccupancyData {
 		final Id<Departure> departureId;
 		Id<TransitStopFacility> stopFacilityId = null;
 		int currentPaxCount = 0;
+		PaxCountStore store = null;
+		int routeIndex = -1;
+		int departureIndex = -1;
+		int routeStopIndex = -1;
 
 		public VehicleData(Vehicle vehicle, Id<TransitLine> lineId, Id<TransitRoute> routeId, Id<Departure> departureId) {
 			this.vehicle = vehicle;
@@ -133,6 +133,7 @@ public class OccupancyTracker implements PersonDepartureEventHandler, AgentWaiti
 			DepartureData dep = stop.getOrCreate(vehData.departureId);
 			dep.vehDepTime = event.getTime();
 			dep.paxCountAtDeparture = vehData.currentPaxCount;
+			this.data.recordPaxCountAtDeparture(vehData);
 		}
 	}
 
@@ -281,6 +281,23 @@ public class SwissRailRaptor implements TransitRouter {
 			}
 		}
 
+    /**
+     * Calculates the least cost trees for all actual departures at the given stops between <code>earliestDepartureTime</code>
+     * and <code>latestDepartureTime</code> in one pass. This is much faster than calculating a tree for each departure time
+     * separately. See {@link SwissRailRaptorCore#calcLeastCostTreeProfile} for details about the returned trees.
+     */
+    public List<Map<Id<TransitStopFacility>, SwissRailRaptorCore.TravelInfo>> calcTreeProfile(Collection<TransitStopFacility> fromStops, double earliestDepartureTime, double latestDepartureTime, RaptorParameters parameters, Person person) {
+        if (this.data.config.getOptimization() != RaptorStaticConfig.RaptorOptimization.OneToAllRouting && !this.treeWarningShown) {
+            log.warn("SwissRailRaptorData was not initialized with full support for tree calculations and may result in unexpected results. Use `RaptorStaticConfig.setOptimization(RaptorOptimization.OneToAllRouting)` to fix this issue.");
+            this.treeWarningShown = true;
+        }
+        List<InitialStop> accessStops = new ArrayList<>();
+        for (TransitStopFacility stop : fromStops) {
+            accessStops.add(new InitialStop(stop, 0, 0, 0, null));
+        }
+        return this.raptor.calcLeastCostTreeProfile(earliestDepartureTime, latestDepartureTime, accessStops, parameters, person);
+    }
+
     private Map<Id<TransitStopFacility>, SwissRailRaptorCore.TravelInfo> calcLeastCostTree(Collection<InitialStop> accessStops, double departureTime, RaptorParameters parameters, Person person, RaptorObserver observer) {
         return this.raptor.calcLeastCostTree(departureTime, accessStops, parameters, person, observer);
     }
@@ -20,19 +20,16 @@
 package ch.sbb.matsim.routing.pt.raptor;
 
 import ch.sbb.matsim.config.SwissRailRaptorConfigGroup;
-import ch.sbb.matsim.routing.pt.raptor.OccupancyData.DepartureData;
 import ch.sbb.matsim.routing.pt.raptor.RaptorInVehicleCostCalculator.RouteSegmentIterator;
 import ch.sbb.matsim.routing.pt.raptor.RaptorStaticConfig.RaptorTransferCalculation;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptor.RaptorObserver;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.CachingTransferProvider;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RRoute;
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RRouteStop;
-import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RTransfer;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.TransportMode;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.facilities.Facility;
-import org.matsim.pt.transitSchedule.api.Departure;
 import org.matsim.pt.transitSchedule.api.TransitLine;
 import org.matsim.pt.transitSchedule.api.TransitRoute;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
@@ -179,7 +176,7 @@ public class SwissRailRaptorCore {
                     double waitingCost = waitingTime * -parameters.getMarginalUtilityOfWaitingPt_utl_s();
 
                     RRouteStop toRouteStop = this.data.routeStops[routeStopIndex];
-                    PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, nextDepartureTimeAtStop, nextDepartureTimeAtStop, arrivalTime, arrivalCost, 0, stop.distance, 0, true, null, stop);
+                    PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, nextDepartureTimeAtStop, nextDepartureTimeAtStop, arrivalTime, arrivalCost, 0, stop.distance, 0, true, TIME_UNDEFINED, stop);
 
                     /* okay, the following is not very nice...
                      * we want to find the least-cost access leg including the waiting time
@@ -207,7 +204,7 @@ public class SwissRailRaptorCore {
                 } else if (isIntermodalAccess) {
                     // there is no more departure, but we start here by intermodal access, so still register to allow transfers to other (non-)intermodal stops.
                     RRouteStop toRouteStop = this.data.routeStops[routeStopIndex];
-                    PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, TIME_UNDEFINED, TIME_UNDEFINED,arrivalTime, arrivalCost, 0, stop.distance, 0, true, null, stop);
+                    PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, TIME_UNDEFINED, TIME_UNDEFINED,arrivalTime, arrivalCost, 0, stop.distance, 0, true, TIME_UNDEFINED, stop);
 
                     /* okay, the following is not very nice...
                      * ... see long comment above, it's the same
@@ -372,7 +369,7 @@ public class SwissRailRaptorCore {
                 double arrivalCost = depAtRouteStop.accessStop.accessCost + depAtRouteStop.costOffset;
                 RRouteStop toRouteStop = depAtRouteStop.routeStop;
                 int routeStopIndex = depAtRouteStop.routeStopIndex;
-                PathElement pe = new PathElement(null, toRouteStop, depAtRouteStop.depTime, depAtRouteStop.depTime, depAtRouteStop.depTime, arrivalTime, arrivalCost, 0, depAtRouteStop.accessStop.distance, 0, true, null, depAtRouteStop.accessStop);
+                PathElement pe = new PathElement(null, toRouteStop, depAtRouteStop.depTime, depAtRouteStop.depTime, depAtRouteStop.depTime, arrivalTime, arrivalCost, 0, depAtRouteStop.accessStop.distance, 0, true, TIME_UNDEFINED, depAtRouteStop.accessStop);
                 this.arrivalPathPerRouteStop[routeStopIndex] = pe;
                 this.leastArrivalCostAtRouteStop[routeStopIndex] = arrivalCost;
                 this.arrivalPathPerStop[toRouteStop.stopFacilityIndex] = pe;
@@ -526,7 +523,7 @@ public class SwissRailRaptorCore {
 								int arrivalTime = (int) (depTime + stop.accessTime);
 								double arrivalCost = stop.accessCost;
 								RRouteStop toRouteStop = this.data.routeStops[routeStopIndex];
-								PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, TIME_UNDEFINED, TIME_UNDEFINED, arrivalTime, arrivalCost, 0, stop.distance, 0, true, null, stop);
+								PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, TIME_UNDEFINED, TIME_UNDEFINED, arrivalTime, arrivalCost, 0, stop.distance, 0, true, TIME_UNDEFINED, stop);
 								this.arrivalPathPerRouteStop[routeStopIndex] = pe;
 								this.arrivalPathPerStop[toRouteStop.stopFacilityIndex] = pe;
 								this.leastArrivalCostAtRouteStop[routeStopIndex] = arrivalCost;
@@ -603,6 +600,120 @@ public class SwissRailRaptorCore {
         return result;
     }
 
+    /**
+     * Calculates the least cost trees for all departures at the start stops between <code>earliestDepTime</code>
+     * and <code>latestDepTime</code> (measured at the origin, i.e. before the access) in one pass, based on the
+     * range query ("rRAPTOR") of Delling et al.
+     *
+     * The departures are handled from the latest to the earliest one. The labels are not reset in between, as any
+     * connection found for a later departure is still available for an earlier one, just with additional waiting
+     * at the start. To make this work with costs instead of times, each departure gets a cost offset corresponding
+     * to the waiting cost from <code>earliestDepTime</code> to its departure time. Thus only the part of the network
+     * where the earlier departure leads to an improvement has to be explored again.
+     *
+     * @return one map per departure time, ordered from the latest to the earliest departure, containing only the
+     * stops that are reached better than with any later departure. Combining the maps results in all relevant
+     * connections within the time window, similar to calculating a tree for every departure time.
+     */
+    public List<Map<Id<TransitStopFacility>, TravelInfo>> calcLeastCostTreeProfile(double earliestDepTime, double latestDepTime, Collection<InitialStop> startStops, RaptorParameters parameters, Person person) {
+        reset();
+
+        CachingTransferProvider transferProvider = this.data.new CachingTransferProvider();
+        double waitingCostPerSecond = -parameters.getMarginalUtilityOfWaitingPt_utl_s();
+
+        // collect all departures at the start stops, grouped by the time one has to leave at the origin
+        NavigableMap<Double, List<DepartureAtRouteStop>> departuresPerTime = new TreeMap<>(Comparator.reverseOrder());
+        for (InitialStop stop : startStops) {
+            int[] routeStopIndices = this.data.routeStopsPerStopFacility.get(stop.stop);
+            if (routeStopIndices == null) {
+                continue;
+            }
+            for (int routeStopIndex : routeStopIndices) {
+                RRouteStop routeStop = this.data.routeStops[routeStopIndex];
+                if (!routeStop.routeStop.isAllowBoarding()) {
+                    continue;
+                }
+                RRoute route = this.data.routes[routeStop.transitRouteIndex];
+                for (int depIndex = route.indexFirstDeparture; depIndex < route.indexFirstDeparture + route.countDepartures; depIndex++) {
+                    int depTimeAtStop = this.data.departures[depIndex] + routeStop.departureOffset;
+                    double depTimeAtOrigin = depTimeAtStop - stop.accessTime;
+                    if (depTimeAtOrigin >= earliestDepTime && depTimeAtOrigin <= latestDepTime) {
+                        double costOffset = (depTimeAtOrigin - earliestDepTime) * waitingCostPerSecond;
+                        departuresPerTime.computeIfAbsent(depTimeAtOrigin, t -> new ArrayList<>()).add(new DepartureAtRouteStop(routeStop, routeStopIndex, depIndex, depTimeAtStop, costOffset, stop));
+                    }
+                }
+            }
+        }
+
+        List<Map<Id<TransitStopFacility>, TravelInfo>> trees = new ArrayList<>(departuresPerTime.size());
+        BitSet reachedStops = new BitSet(this.data.countStops);
+        int maxTransfers = parameters.getMaxTransfers();
+        for (List<DepartureAtRouteStop> departures : departuresPerTime.values()) {
+            this.improvedStops.clear();
+            this.improvedRouteStopIndices.clear();
+            reachedStops.clear();
+            BitSet initialRouteStopIndices = new BitSet();
+            BitSet initialStopIndices = new BitSet();
+            for (DepartureAtRouteStop departure : departures) {
+                // only the departure itself is initialized, all other departures at the start stops are already covered by later departures
+                int routeStopIndex = departure.routeStopIndex;
+                double arrivalCost = departure.accessStop.accessCost + departure.costOffset;
+                if (arrivalCost < this.leastArrivalCostAtRouteStop[routeStopIndex]) {
+                    RRouteStop toRouteStop = departure.routeStop;
+                    PathElement pe = new PathElement(null, toRouteStop, TIME_UNDEFINED, TIME_UNDEFINED, TIME_UNDEFINED, departure.depTime, arrivalCost, 0, departure.accessStop.distance, 0, true, TIME_UNDEFINED, departure.accessStop);
+                    this.arrivalPathPerRouteStop[routeStopIndex] = pe;
+                    this.leastArrivalCostAtRouteStop[routeStopIndex] = arrivalCost;
+                    if (arrivalCost < this.leastArrivalCostAtStop[toRouteStop.stopFacilityIndex]) {
+                        this.arrivalPathPerStop[toRouteStop.stopFacilityIndex] = pe;
+                        this.leastArrivalCostAtStop[toRouteStop.stopFacilityIndex] = arrivalCost;
+                    }
+                    this.improvedRouteStopIndices.set(routeStopIndex);
+                    initialRouteStopIndices.set(routeStopIndex);
+                    initialStopIndices.set(toRouteStop.stopFacilityIndex);
+                }
+            }
+
+            // the main loop, as in calcLeastCostTree
+            int transfers = 0;
+            while (true) {
+                exploreRoutes(parameters, person, transferProvider);
+                reachedStops.or(this.improvedStops);
+
+                if (this.improvedStops.isEmpty()) {
+                    break;
+                }
+
+                if (initialRouteStopIndices != null) {
+                    // make sure we can transfer even at the start stop
+                    this.improvedRouteStopIndices.or(initialRouteStopIndices);
+                    this.improvedStops.or(initialStopIndices);
+                    initialRouteStopIndices = null;
+                    initialStopIndices = null;
+                }
+
+                if (transfers > maxTransfers) {
+                    break;
+                }
+
+                handleTransfers(true, parameters, transferProvider);
+                reachedStops.or(this.tmpImprovedStops);
+                transfers++;
+
+                if (this.improvedRouteStopIndices.isEmpty()) {
+                    break;
+                }
+            }
+
+            Map<Id<TransitStopFacility>, TravelInfo> tree = new HashMap<>();
+            for (int stopIndex = reachedStops.nextSetBit(0); stopIndex >= 0; stopIndex = reachedStops.nextSetBit(stopIndex + 1)) {
+                PathElement destination = this.arrivalPathPerStop[stopIndex];
+                tree.put(destination.toRouteStop.routeStop.getStopFacility().getId(), getTravelInfo(destination, parameters));
+            }
+            trees.add(tree);
+        }
+        return trees;
+    }
+
 		private void observeArrival(PathElement pe, RaptorObserver observer) {
 			PathElement backpointer = pe.comingFrom;
 			if (backpointer != null) {
@@ -695,7 +806,11 @@ public class SwissRailRaptorCore {
 
                 double marginalUtilityOfTravelTime_utl_s = parameters.getMarginalUtilityOfTravelTime_utl_s(
                 		 !useTransportModeUtilities ? boardingPE.toRouteStop.mode : boardingPE.toRouteStop.route.getTransportMode());
-                transferProvider.reset(boardingPE.transfer);
+                if (boardingPE.transferTime != TIME_UNDEFINED) {
+                    transferProvider.reset(boardingPE.comingFrom.toRouteStop.index, boardingPE.toRouteStop.index, boardingPE.transferTime, (int) boardingPE.distance);
+                } else {
+                    transferProvider.clear();
+                }
 
                 for (int toRouteStopIndex = firstRouteStopIndex + 1; toRouteStopIndex < route.indexFirstRouteStop + route.countRouteStops; toRouteStopIndex++) {
                     RRouteStop toRouteStop = this.data.routeStops[toRouteStopIndex];
@@ -712,7 +827,7 @@ public class SwissRailRaptorCore {
                     double totalArrivalCost = arrivalTravelCost + arrivalTransferCost;
                     if (totalArrivalCost <= previousArrivalCost) {
                         double distance = toRouteStop.distanceAlongRoute - boardingPE.toRouteStop.distanceAlongRoute;
-                        PathElement pe = new PathElement(boardingPE, toRouteStop, firstDepartureTime, currentAgentBoardingTime, currentDepartureTime + firstRouteStop.departureOffset, arrivalTime, arrivalTravelCost, arrivalTransferCost, distance, boardingPE.transferCount, false, null, null);
+                        PathElement pe = new PathElement(boardingPE, toRouteStop, firstDepartureTime, currentAgentBoardingTime, currentDepartureTime + firstRouteStop.departureOffset, arrivalTime, arrivalTravelCost, arrivalTransferCost, distance, boardingPE.transferCount, false, TIME_UNDEFINED, null);
                         this.arrivalPathPerRouteStop[toRouteStopIndex] = pe;
                         this.leastArrivalCostAtRouteStop[toRouteStopIndex] = totalArrivalCost;
                         if (totalArrivalCost <= this.leastArrivalCostAtStop[toRouteStop.stopFacilityIndex]) {
@@ -826,13 +941,13 @@ public class SwissRailRaptorCore {
 
             final int firstTransferIndex;
             final int lastTransferIndex;
-            final RTransfer[] transfers;
+            final int[] transfers;
 
             if (!useAdaptiveTransferCalculation) {
             	// efficient lookup from the precomputed transfer candidates
             	transfers = this.data.transfers;
-            	firstTransferIndex = fromRouteStop.indexFirstTransfer;
-            	lastTransferIndex = firstTransferIndex + fromRouteStop.countTransfers;
+            	firstTransferIndex = this.data.transferOffsets[fromRouteStop.index];
+            	lastTransferIndex = this.data.transferOffsets[fromRouteStop.index + 1];
             } else {
             	// more costly calculation and caching of transfer canddiates
             	transfers = this.data.calculateTransfers(fromRouteStop);
@@ -840,19 +955,20 @@ public class SwissRailRaptorCore {
             	lastTransferIndex = transfers.length;
             }
 
-            for (int transferIndex = firstTransferIndex; transferIndex < lastTransferIndex; transferIndex++) {
-                RTransfer transfer = transfers[transferIndex];
+            for (int transferIndex = firstTransferIndex; transferIndex < lastTransferIndex; transferIndex += SwissRailRaptorData.TRANSFER_SIZE) {
+                int toRouteStopIndex = transfers[transferIndex + SwissRailRaptorData.TRANSFER_TO_ROUTE_STOP];
+                int transferTime = transfers[transferIndex + SwissRailRaptorData.TRANSFER_TIME];
+                int transferDistance = transfers[transferIndex + SwissRailRaptorData.TRANSFER_DISTANCE];
 
-                int toRouteStopIndex = transfer.toRouteStop;
-                transferProvider.reset(transfer);
-                int newArrivalTime = arrivalTime + transfer.transferTime;
-                double newArrivalTravelCost = arrivalTravelCost - transfer.transferTime * margUtilityTransitWalk;
+                transferProvider.reset(fromRouteStop.index, toRouteStopIndex, transferTime, transferDistance);
+                int newArrivalTime = arrivalTime + transferTime;
+                double newArrivalTravelCost = arrivalTravelCost - transferTime * margUtilityTransitWalk;
                 double newArrivalTransferCost = (fromPE.firstDepartureTime != TIME_UNDEFINED) ? (arrivalTransferCost + this.transferCostCalculator.calcTransferCost(fromPE, transferProvider, data.config, raptorParams, newArrivalTime - fromPE.firstDepartureTime, fromPE.transferCount + 1, arrivalTransferCost, arrivalTime)) : 0;
                 double newTotalArrivalCost = newArrivalTravelCost + newArrivalTransferCost;
                 double prevLeastArrivalCost = this.leastArrivalCostAtRouteStop[toRouteStopIndex];
                 if (newTotalArrivalCost < prevLeastArrivalCost || (!strict && newTotalArrivalCost <= prevLeastArrivalCost)) {
                     RRouteStop toRouteStop = this.data.routeStops[toRouteStopIndex];
-                    PathElement pe = new PathElement(fromPE, toRouteStop, fromPE.firstDepartureTime, TIME_UNDEFINED, TIME_UNDEFINED, newArrivalTime, newArrivalTravelCost, newArrivalTransferCost, transfer.transferDistance, fromPE.transferCount + 1, true, transfer, null);
+                    PathElement pe = new PathElement(fromPE, toRouteStop, fromPE.firstDepartureTime, TIME_UNDEFINED, TIME_UNDEFINED, newArrivalTime, newArrivalTravelCost, newArrivalTransferCost, transferDistance, fromPE.transferCount + 1, true, transferTime, null);
                     this.arrivalPathPerRouteStop[toRouteStopIndex] = pe;
                     this.leastArrivalCostAtRouteStop[toRouteStopIndex] = newTotalArrivalCost;
                     this.improvedRouteStopIndices.set(toRouteStopIndex);
@@ -892,7 +1008,7 @@ public class SwissRailRaptorCore {
 					double arrivalTravelCost = pe.arrivalTravelCost + egressStop.accessCost;
 					double totalCost = arrivalTravelCost + pe.arrivalTransferCost;
 					if ((totalCost < leastCost) || (totalCost == leastCost && pe.transferCount < leastCostPath.transferCount)) {
-						PathElement egressLegCandidate = new PathElement(pe, null, pe.firstDepartureTime, TIME_UNDEFINED, TIME_UNDEFINED, arrivalTime, arrivalTravelCost, pe.arrivalTransferCost, egressStop.distance, pe.transferCount, true, null, egressStop);
+						PathElement egressLegCandidate = new PathElement(pe, null, pe.firstDepartureTime, TIME_UNDEFINED, TIME_UNDEFINED, arrivalTime, arrivalTravelCost, pe.arrivalTransferCost, egressStop.distance, pe.transferCount, true, TIME_UNDEFINED, egressStop);
 
 						if (pe.comingFrom == null && checkBothPtAndPurelyIntermodalRoutes) {
 							if (totalCost < leastCostFeederOnly) {
@@ -984,10 +1100,10 @@ public class SwissRailRaptorCore {
         final double distance;
         final int transferCount;
         final boolean isTransfer;
-        final RTransfer transfer;
+        final int transferTime; // only set for transfers from comingFrom.toRouteStop to toRouteStop, TIME_UNDEFINED otherwise
         final InitialStop initialStop;
 
-        PathElement(PathElement comingFrom, RRouteStop toRouteStop, int firstDepartureTime, int boardingTime, int vehDeparturetime, int arrivalTime, double arrivalTravelCost, double arrivalTransferCost, double distance, int transferCount, boolean isTransfer, RTransfer transfer, InitialStop initialStop) {
+        PathElement(PathElement comingFrom, RRouteStop toRouteStop, int firstDepartureTime, int boardingTime, int vehDeparturetime, int arrivalTime, double arrivalTravelCost, double arrivalTransferCost, double distance, int transferCount, boolean isTransfer, int transferTime, InitialStop initialStop) {
             this.comingFrom = comingFrom;
             this.toRouteStop = toRouteStop;
             this.firstDepartureTime = firstDepartureTime;
@@ -999,7 +1115,7 @@ public class SwissRailRaptorCore {
             this.distance = distance;
             this.transferCount = transferCount;
             this.isTransfer = isTransfer;
-            this.transfer = transfer;
+            this.transferTime = transferTime;
             this.initialStop = initialStop;
         }
     }
@@ -1099,7 +1215,7 @@ public class SwissRailRaptorCore {
         private double currentInVehicleTime = -1;
         private double currentPassengerCount = -1;
         private double currentTimeOfDay = -1;
-        private Id<Departure> currentDepartureId = null;
+        private int currentDepartureIndex = -1;
 
         public RouteSegmentIteratorImpl(SwissRailRaptorData data) {
             this.data = data;
@@ -1115,7 +1231,7 @@ public class SwissRailRaptorCore {
             this.currentInVehicleTime = -1;
             this.currentPassengerCount = -1;
             this.currentTimeOfDay = -1;
-            this.currentDepartureId = this.data.departureIds[departureIndex];
+            this.currentDepartureIndex = departureIndex;
         }
 
         @Override
@@ -1145,8 +1261,7 @@ public class SwissRailRaptorCore {
             this.currentInVehicleTime = endTime - startTime;
             this.currentTimeOfDay = startTime;
 
-            DepartureData depData = this.data.occupancyData.getDepartureData(nextRouteStop.line.getId(), nextRouteStop.route.getId(), depRouteStop.routeStop.getStopFacility().getId(), this.currentDepartureId);
-            this.currentPassengerCount = depData == null ? 0 : depData.paxCountAtDeparture;
+            this.currentPassengerCount = this.data.occupancyData.getPaxCountAtDeparture(this.data, departureRouteStopIndex, this.currentDepartureIndex);
         }
 
         @Override
@@ -65,7 +65,8 @@ public class SwissRailRaptorData {
     final Vehicle[] departureVehicles; // the vehicle used for each departure
     final Id<Departure>[] departureIds;
     final RRouteStop[] routeStops; // list of all route stops
-    final RTransfer[] transfers;
+    final int[] transferOffsets; // the transfers of route stop i are stored in transfers[transferOffsets[i]] up to (excluding) transfers[transferOffsets[i + 1]]
+    final int[] transfers; // TRANSFER_SIZE ints per transfer, see TRANSFER_TO_ROUTE_STOP etc.
     final Map<TransitStopFacility, Integer> stopFacilityIndices;
     final Map<TransitStopFacility, int[]> routeStopsPerStopFacility;
     final QuadTree<TransitStopFacility> stopsQT;
@@ -74,11 +75,17 @@ public class SwissRailRaptorData {
 
     // data needed if cached transfer construction is activated
     final IdMap<TransitStopFacility, Map<TransitStopFacility, Double>> staticTransferTimes;
-    final RTransfer[][] transferCache;
+    final int[][] transferCache;
+
+    // layout of a transfer in transfers and transferCache
+    static final int TRANSFER_TO_ROUTE_STOP = 0;
+    static final int TRANSFER_TIME = 1;
+    static final int TRANSFER_DISTANCE = 2;
+    static final int TRANSFER_SIZE = 3;
 
     private SwissRailRaptorData(RaptorStaticConfig config, int countStops,
                                 RRoute[] routes, int[] departures, Vehicle[] departureVehicles, Id<Departure>[] departureIds, RRouteStop[] routeStops,
-                                RTransfer[] transfers, Map<TransitStopFacility, Integer> stopFacilityIndices,
+                                int[] transferOffsets, int[] transfers, Map<TransitStopFacility, Integer> stopFacilityIndices,
                                 Map<TransitStopFacility, int[]> routeStopsPerStopFacility, QuadTree<TransitStopFacility> stopsQT,
                                 OccupancyData occupancyData, IdMap<TransitStopFacility, Map<TransitStopFacility, Double>> staticTransferTimes) {
         this.config = config;
@@ -89,6 +96,7 @@ public class SwissRailRaptorData {
         this.departureVehicles = departureVehicles;
         this.departureIds = departureIds;
         this.routeStops = routeStops;
+        this.transferOffsets = transferOffsets;
         this.transfers = transfers;
         this.stopFacilityIndices = stopFacilityIndices;
         this.routeStopsPerStopFacility = routeStopsPerStopFacility;
@@ -98,7 +106,7 @@ public class SwissRailRaptorData {
 
         // data needed if cached transfer construction is activated
         this.staticTransferTimes = staticTransferTimes;
-        this.transferCache = new RTransfer[routeStops.length][];
+        this.transferCache = new int[routeStops.length][];
     }
 
     public static SwissRailRaptorData create(TransitSchedule schedule, @Nullable Vehicles transitVehicles, RaptorStaticConfig staticConfig, Network network, OccupancyData occupancyData) {
@@ -219,22 +227,21 @@ public class SwissRailRaptorData {
         for (RTransfer[] transfers : allTransfers.values()) {
             countTransfers += transfers.length;
         }
-        if (countTransfers > Integer.MAX_VALUE) {
+        if (countTransfers * TRANSFER_SIZE > Integer.MAX_VALUE) {
             throw new RuntimeException("TransitSchedule has too many Transfers: " + countTransfers);
         }
-        RTransfer[] transfers = new RTransfer[(int) countTransfers];
+        // store the transfers in compressed sparse row layout, a transfer object would take about 3 times the memory
+        int[] transferOffsets = new int[routeStops.length + 1];
+        int[] transfers = new int[(int) countTransfers * TRANSFER_SIZE];
         int indexTransfer = 0;
         for (int routeStopIndex = 0; routeStopIndex < routeStops.length; routeStopIndex++) {
+            transferOffsets[routeStopIndex] = indexTransfer;
             RTransfer[] stopTransfers = allTransfers.get(routeStopIndex);
-            int transferCount = stopTransfers == null ? 0 : stopTransfers.length;
-            if (transferCount > 0) {
-                RRouteStop routeStop = routeStops[routeStopIndex];
-                routeStop.indexFirstTransfer = indexTransfer;
-                routeStop.countTransfers = transferCount;
-                System.arraycopy(stopTransfers, 0, transfers, indexTransfer, transferCount);
-                indexTransfer += transferCount;
+            if (stopTransfers != null) {
+                indexTransfer = packTransfers(stopTransfers, transfers, indexTransfer);
             }
         }
+        transferOffsets[routeStops.length] = indexTransfer;
 
         // if adaptive transfer calculation is used, build a map for quick lookup of and collection of minimal transfer times
 		IdMap<TransitStopFacility, Map<TransitStopFacility, Double>> staticTransferTimes = null;
@@ -252,7 +259,7 @@ public class SwissRailRaptorData {
 			}
 		}
 
-        SwissRailRaptorData data = new SwissRailRaptorData(staticConfig, countStopFacilities, routes, departures, departureVehicles, departureIds, routeStops, transfers, stopFacilityIndices, routeStopsPerStopFacility, stopsQT, occupancyData, staticTransferTimes);
+        SwissRailRaptorData data = new SwissRailRaptorData(staticConfig, countStopFacilities, routes, departures, departureVehicles, departureIds, routeStops, transferOffsets, transfers, stopFacilityIndices, routeStopsPerStopFacility, stopsQT, occupancyData, staticTransferTimes);
 
         long endMillis = System.currentTimeMillis();
         log.info("SwissRailRaptor data preparation done. Took " + (endMillis - startMillis) / 1000 + " seconds.");
@@ -260,10 +267,36 @@ public class SwissRailRaptorData {
         log.info("SwissRailRaptor statistics:  #departures = " + departures.length);
         log.info("SwissRailRaptor statistics:  #routeStops = " + routeStops.length);
         log.info("SwissRailRaptor statistics:  #stopFacilities = " + countStopFacilities);
-        log.info("SwissRailRaptor statistics:  #transfers (between routeStops) = " + transfers.length);
+        log.info("SwissRailRaptor statistics:  #transfers (between routeStops) = " + countTransfers);
+        log.info("SwissRailRaptor statistics:  memory used by transfers = " + ((transferOffsets.length + (long) transfers.length) * Integer.BYTES / 1024) + " KB");
         return data;
     }
 
+    private static int packTransfers(RTransfer[] stopTransfers, int[] transfers, int indexTransfer) {
+        int index = indexTransfer;
+        for (RTransfer transfer : stopTransfers) {
+            transfers[index + TRANSFER_TO_ROUTE_STOP] = transfer.toRouteStop;
+            transfers[index + TRANSFER_TIME] = transfer.transferTime;
+            transfers[index + TRANSFER_DISTANCE] = transfer.transferDistance;
+            index += TRANSFER_SIZE;
+        }
+        return index;
+    }
+
+    /**
+     * Materializes all precomputed transfers as objects, e.g. for tests or analyses. The router itself
+     * uses the compact representation in {@link #transfers}.
+     */
+    List<RTransfer> getAllTransfers() {
+        List<RTransfer> allTransfers = new ArrayList<>(this.transfers.length / TRANSFER_SIZE);
+        for (int routeStopIndex = 0; routeStopIndex < this.countRouteStops; routeStopIndex++) {
+            for (int i = this.transferOffsets[routeStopIndex]; i < this.transferOffsets[routeStopIndex + 1]; i += TRANSFER_SIZE) {
+                allTransfers.add(new RTransfer(routeStopIndex, this.transfers[i + TRANSFER_TO_ROUTE_STOP], this.transfers[i + TRANSFER_TIME], this.transfers[i + TRANSFER_DISTANCE]));
+            }
+        }
+        return allTransfers;
+    }
+
     // calculate possible transfers between TransitRouteStops
     private static Map<Integer, RTransfer[]> calculateRouteStopTransfers(TransitSchedule schedule, QuadTree<TransitStopFacility> stopsQT, Map<TransitStopFacility, int[]> routeStopsPerStopFacility, RRouteStop[] routeStops, RaptorStaticConfig config) {
         Map<Integer, RTransfer[]> transfers = new HashMap<>(stopsQT.size() * 5);
@@ -561,8 +594,6 @@ public class SwissRailRaptorData {
         final int arrivalOffset;
         final int departureOffset;
         final double distanceAlongRoute;
-        int indexFirstTransfer = -1;
-        int countTransfers = 0;
 
         RRouteStop(int index, TransitRouteStop routeStop, TransitLine line, TransitRoute route, String mode, int transitRouteIndex, int stopFacilityIndex, double distanceAlongRoute) {
             this.index = index;
@@ -620,28 +651,51 @@ public class SwissRailRaptorData {
 
 	public class CachingTransferProvider implements Supplier<Transfer> {
 
-	    private RTransfer raptorTransfer = null;
+	    private int fromRouteStop = -1;
+	    private int toRouteStop = -1;
+	    private int transferTime = 0;
+	    private int transferDistance = 0;
+	    private boolean isTransferUpToDate = false;
 	    private final Transfer transfer = new Transfer();
 
       public CachingTransferProvider() {
       }
 
       void reset(RTransfer raptorTransfer) {
-          this.raptorTransfer = raptorTransfer;
+          reset(raptorTransfer.fromRouteStop, raptorTransfer.toRouteStop, raptorTransfer.transferTime, raptorTransfer.transferDistance);
+      }
+
+      /**
+       * Resets the provider to no transfer, {@link #get()} then returns <code>null</code>.
+       */
+      void clear() {
+          reset(-1, -1, 0, 0);
+      }
+
+      void reset(int fromRouteStop, int toRouteStop, int transferTime, int transferDistance) {
+          this.fromRouteStop = fromRouteStop;
+          this.toRouteStop = toRouteStop;
+          this.transferTime = transferTime;
+          this.transferDistance = transferDistance;
+          this.isTransferUpToDate = false;
       }
 
       @Override
       public Transfer get() {
-          if (this.transfer.rTransfer != this.raptorTransfer) {
-              RRouteStop fromStop = SwissRailRaptorData.this.routeStops[this.raptorTransfer.fromRouteStop];
-              RRouteStop toStop = SwissRailRaptorData.this.routeStops[this.raptorTransfer.toRouteStop];
-              this.transfer.reset(this.raptorTransfer, fromStop, toStop);
+          if (this.fromRouteStop < 0) {
+              return null;
+          }
+          if (!this.isTransferUpToDate) {
+              RRouteStop fromStop = SwissRailRaptorData.this.routeStops[this.fromRouteStop];
+              RRouteStop toStop = SwissRailRaptorData.this.routeStops[this.toRouteStop];
+              this.transfer.reset(fromStop, toStop, this.transferTime, this.transferDistance);
+              this.isTransferUpToDate = true;
           }
           return this.transfer;
       }
   }
 
-	RTransfer[] calculateTransfers(RRouteStop fromRouteStop) {
+	int[] calculateTransfers(RRouteStop fromRouteStop) {
 		// We tested this in a parallel set-up and things seem to work as they are
 		// implemented. The routing threads will access the cache as read-only an
 		// retrieve the cached stop connections. It can happen that two of them try to
@@ -654,7 +708,7 @@ public class SwissRailRaptorData {
 		// using a lock in some way. But so far, we didn't experience any problem. /sh
 		// may 2024
 
-    	RTransfer[] cache = transferCache[fromRouteStop.index];
+    	int[] cache = transferCache[fromRouteStop.index];
     	if (cache != null) return cache; // we had a cache hit
 
     	// setting up useful constants
@@ -702,8 +756,9 @@ public class SwissRailRaptorData {
         	}
         }
 
-        // convert to array
-        RTransfer[] stopTransfers = transfers.toArray(new RTransfer[transfers.size()]);
+        // convert to the compact representation
+        int[] stopTransfers = new int[transfers.size() * TRANSFER_SIZE];
+        packTransfers(transfers.toArray(new RTransfer[transfers.size()]), stopTransfers, 0);
 
         // save to cache (no issue regarding parallel execution because we simply set an element)
         transferCache[fromRouteStop.index] = stopTransfers;
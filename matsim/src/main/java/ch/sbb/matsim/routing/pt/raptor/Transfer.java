@@ -20,7 +20,6 @@
 package ch.sbb.matsim.routing.pt.raptor;
 
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RRouteStop;
-import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RTransfer;
 import org.matsim.pt.transitSchedule.api.TransitLine;
 import org.matsim.pt.transitSchedule.api.TransitRoute;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
@@ -29,14 +28,16 @@ import org.matsim.pt.transitSchedule.api.TransitStopFacility;
  * @author mrieser / Simunto
  */
 public class Transfer {
-	RTransfer rTransfer = null;
 	RRouteStop fromStop = null;
 	RRouteStop toStop = null;
+	int transferTime = 0;
+	int transferDistance = 0;
 
-	void reset(RTransfer transfer, RRouteStop rFromStop, RRouteStop rToStop) {
-		this.rTransfer = transfer;
+	void reset(RRouteStop rFromStop, RRouteStop rToStop, int transferTime, int transferDistance) {
 		this.fromStop = rFromStop;
 		this.toStop = rToStop;
+		this.transferTime = transferTime;
+		this.transferDistance = transferDistance;
 	}
 
 	public TransitStopFacility getFromStop() {
@@ -48,11 +49,11 @@ public class Transfer {
 	}
 
 	public double getTransferTime() {
-		return this.rTransfer.transferTime;
+		return this.transferTime;
 	}
 
 	public double getTransferDistance() {
-		return this.rTransfer.transferDistance;
+		return this.transferDistance;
 	}
 
 	public TransitLine getFromTransitLine() {
@@ -86,6 +86,31 @@ public class CalcLinkStats {
 		this.volScaleFactor = vol_scale_factor;
 	}
 
+	private CalcLinkStats(final CalcLinkStats other) {
+		this.network = other.network;
+		this.volScaleFactor = other.volScaleFactor;
+		this.nofHours = other.nofHours;
+		this.count = other.count;
+		this.linkData = new IdMap<>(Link.class);
+		for (Map.Entry<Id<Link>, LinkData> e : other.linkData.entrySet()) {
+			LinkData data = e.getValue();
+			double[][] volumes = new double[NOF_STATS][];
+			double[][] ttimes = new double[NOF_STATS][];
+			for (int i = 0; i < NOF_STATS; i++) {
+				volumes[i] = data.volumes[i].clone();
+				ttimes[i] = data.ttimes[i].clone();
+			}
+			this.linkData.put(e.getKey(), new LinkData(volumes, ttimes));
+		}
+	}
+
+	/**
+	 * @return a deep copy of the data collected so far, e.g. to write it while this instance is reset and used further
+	 */
+	public CalcLinkStats copy() {
+		return new CalcLinkStats(this);
+	}
+
 	public void addData(final VolumesAnalyzer analyzer, final TravelTime ttimes) {
 		this.count++;
 		// TODO verify ttimes has hourly timeBin-Settings
@@ -0,0 +1,71 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.analysis;
+
+import org.matsim.core.config.Config;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.events.ShutdownEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.controler.listener.ShutdownListener;
+import org.matsim.core.utils.instrumentation.Instrumentation;
+
+import jakarta.inject.Inject;
+
+/**
+ * Switches {@link Instrumentation} on for the iterations configured by
+ * {@link org.matsim.core.config.groups.ControllerConfigGroup#getWriteInstrumentationInterval()}, and writes the
+ * collected metrics to <code>instrumentation.csv</code> of those iterations.
+ */
+final class InstrumentationControlerListener implements IterationStartsListener, IterationEndsListener, ShutdownListener {
+
+	private final int interval;
+	private final String delimiter;
+	private final OutputDirectoryHierarchy controlerIO;
+
+	@Inject
+	InstrumentationControlerListener(Config config, OutputDirectoryHierarchy controlerIO) {
+		this.interval = config.controller().getWriteInstrumentationInterval();
+		this.delimiter = config.global().getDefaultDelimiter();
+		this.controlerIO = controlerIO;
+	}
+
+	@Override
+	public void notifyIterationStarts(IterationStartsEvent event) {
+		Instrumentation.reset();
+		Instrumentation.setEnabled(interval > 0 && event.getIteration() % interval == 0);
+	}
+
+	@Override
+	public void notifyIterationEnds(IterationEndsEvent event) {
+		if (Instrumentation.isEnabled()) {
+			Instrumentation.setEnabled(false);
+			Instrumentation.write(controlerIO.getIterationFilename(event.getIteration(), "instrumentation.csv"), delimiter);
+		}
+	}
+
+	@Override
+	public void notifyShutdown(ShutdownEvent event) {
+		Instrumentation.setEnabled(false);
+	}
+
+}
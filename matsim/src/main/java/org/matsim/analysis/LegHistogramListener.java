@@ -26,7 +26,7 @@ import org.matsim.core.config.groups.ControllerConfigGroup;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.IterationStartsEvent;
-import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.AsyncIterationEndsListener;
 import org.matsim.core.controler.listener.IterationStartsListener;
 
 import jakarta.inject.Inject;
@@ -38,7 +38,7 @@ import jakarta.inject.Inject;
  *
  * @author mrieser
  */
-final class LegHistogramListener implements IterationEndsListener, IterationStartsListener {
+final class LegHistogramListener implements AsyncIterationEndsListener, IterationStartsListener {
 
 	@Inject private LegHistogram histogram;
 	@Inject private ControllerConfigGroup controllerConfigGroup;
@@ -52,28 +52,32 @@ final class LegHistogramListener implements IterationEndsListener, IterationStar
 	}
 
 	@Override
-	public void notifyIterationEnds(final IterationEndsEvent event) {
-		this.histogram.write(controlerIO.getIterationFilename(event.getIteration(), "legHistogram.txt"));
-		this.printStats();
-		int createGraphsInterval = event.getServices().getConfig().controller().getCreateGraphsInterval();
-		if (createGraphsInterval > 0 && event.getIteration() % createGraphsInterval == 0) {
-			LegHistogramChart.writeGraphic(this.histogram, controlerIO.getIterationFilename(event.getIteration(), "legHistogram_all.png"));
-			for (String legMode : this.histogram.getLegModes()) {
-				LegHistogramChart.writeGraphic(this.histogram, controlerIO.getIterationFilename(event.getIteration(), "legHistogram_" + legMode + ".png"), legMode);
+	public Runnable prepareIterationEnds(final IterationEndsEvent event) {
+		// the histogram is reset at the beginning of the next iteration, so the (background) output works on a copy:
+		final LegHistogram histogram = this.histogram.copy();
+		final int iteration = event.getIteration();
+		final int createGraphsInterval = event.getServices().getConfig().controller().getCreateGraphsInterval();
+		return () -> {
+			histogram.write(controlerIO.getIterationFilename(iteration, "legHistogram.txt"));
+			printStats(histogram);
+			if (createGraphsInterval > 0 && iteration % createGraphsInterval == 0) {
+				LegHistogramChart.writeGraphic(histogram, controlerIO.getIterationFilename(iteration, "legHistogram_all.png"));
+				for (String legMode : histogram.getLegModes()) {
+					LegHistogramChart.writeGraphic(histogram, controlerIO.getIterationFilename(iteration, "legHistogram_" + legMode + ".png"), legMode);
+				}
 			}
-		}
-
+		};
 	}
 
-	private void printStats() {
+	private static void printStats(LegHistogram histogram) {
 		int nofLegs = 0;
-		for (int nofDepartures : this.histogram.getDepartures()) {
+		for (int nofDepartures : histogram.getDepartures()) {
 			nofLegs += nofDepartures;
 		}
 		log.info("number of legs:\t"  + nofLegs + "\t100%");
-		for (String legMode : this.histogram.getLegModes()) {
+		for (String legMode : histogram.getLegModes()) {
 			int nofModeLegs = 0;
-			for (int nofDepartures : this.histogram.getDepartures(legMode)) {
+			for (int nofDepartures : histogram.getDepartures(legMode)) {
 				nofModeLegs += nofDepartures;
 			}
 			if (nofModeLegs != 0) {
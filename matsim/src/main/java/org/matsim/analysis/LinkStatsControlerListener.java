@@ -32,7 +32,7 @@ import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.IterationStartsEvent;
 import org.matsim.core.controler.events.ShutdownEvent;
-import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.AsyncIterationEndsListener;
 import org.matsim.core.controler.listener.IterationStartsListener;
 import org.matsim.core.controler.listener.ShutdownListener;
 import org.matsim.core.router.util.TravelTime;
@@ -46,7 +46,7 @@ import java.util.*;
 /**
  * @author mrieser
  */
-final class LinkStatsControlerListener implements IterationEndsListener, IterationStartsListener, ShutdownListener {
+final class LinkStatsControlerListener implements AsyncIterationEndsListener, IterationStartsListener, ShutdownListener {
 
 	@Inject
 	private LinkStatsConfigGroup linkStatsConfigGroup;
@@ -68,7 +68,7 @@ final class LinkStatsControlerListener implements IterationEndsListener, Iterati
 	private boolean doReset = false;
 
 	@Override
-	public void notifyIterationEnds(IterationEndsEvent event) {
+	public Runnable prepareIterationEnds(IterationEndsEvent event) {
 		int iteration = event.getIteration();
 
 		if (useVolumesOfIteration(iteration, controllerConfigGroup.getFirstIteration())) {
@@ -77,9 +77,13 @@ final class LinkStatsControlerListener implements IterationEndsListener, Iterati
 		}
 
 		if (createLinkStatsInIteration(iteration)) {
-			linkStats.writeFile(this.controlerIO.getIterationFilename(iteration, Controler.DefaultFiles.linkstats));
 			this.doReset = true;
+			// the link stats are reset at the beginning of the next iteration, so the (background) output works on a copy:
+			final CalcLinkStats linkStatsToWrite = this.linkStats.copy();
+			final String filename = this.controlerIO.getIterationFilename(iteration, Controler.DefaultFiles.linkstats);
+			return () -> linkStatsToWrite.writeFile(filename);
 		}
+		return () -> {};
 	}
 
 	@Override
@@ -39,7 +39,7 @@ import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.StartupEvent;
-import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.AsyncIterationEndsListener;
 import org.matsim.core.controler.listener.StartupListener;
 import org.matsim.core.router.AnalysisMainModeIdentifier;
 import org.matsim.core.router.MainModeIdentifier;
@@ -58,7 +58,7 @@ import org.matsim.core.utils.io.IOUtils;
  *
  * @author mrieser
  */
-public final class ModeStatsControlerListener implements StartupListener, IterationEndsListener {
+public final class ModeStatsControlerListener implements StartupListener, AsyncIterationEndsListener {
 
 	private final static String FILENAME_MODESTATS = "modestats";
 
@@ -96,9 +96,17 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 	}
 
 	@Override
-	public void notifyIterationEnds(final IterationEndsEvent event) {
+	public Runnable prepareIterationEnds(final IterationEndsEvent event) {
 		collectModeShareInfo(event);
-		writeOutput(event);
+		// the histories grow in the next iteration, so the (background) output works on a copy:
+		final ModeHistories histories = new ModeHistories(this.modes, this.modeHistories, this.firstIteration, event.getIteration());
+		final boolean writeGraphs = isWriteGraphs(event);
+		return () -> {
+			writeCsv(histories);
+			if (writeGraphs) {
+				writePngs(histories);
+			}
+		};
 	}
 
 	private void collectModeShareInfo(final IterationEndsEvent event) {
@@ -152,24 +160,16 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 		modeCnt.clear();
 	}
 
-	void writeOutput(IterationEndsEvent event) {
-		writeCsv(event);
-
-		if (isWriteGraphs(event)) {
-			writePngs();
-		}
-	}
-
 	private boolean isWriteGraphs(IterationEndsEvent event) {
 		return this.controllerConfigGroup.getCreateGraphsInterval() > 0 &&
 			event.getIteration() % this.controllerConfigGroup.getCreateGraphsInterval() == 0 &&
 			event.getIteration() > this.minIteration;
 	}
 
-	private void writePngs() {
+	private void writePngs(ModeHistories histories) {
 		// create chart when data of more than one iteration is available.
 		XYLineChart chart = new XYLineChart("Mode Statistics", "iteration", "mode");
-		for ( Entry<String, Map<Integer, Double>> entry : this.modeHistories.entrySet() ) {
+		for ( Entry<String, Map<Integer, Double>> entry : histories.modeHistories().entrySet() ) {
 			String mode = entry.getKey() ;
 			Map<Integer, Double> history = entry.getValue() ;
 			chart.addSeries(mode, history ) ;
@@ -180,7 +180,7 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 		/////// EDIT: STACKED_BAR ///////////////////////////////////////////////////////
 		// create chart when data of more than one iteration is available.
 		StackedBarChart chart2 = new StackedBarChart("Mode Statistics", "iteration", "share");
-		for (Entry<String, Map<Integer, Double>> entry : this.modeHistories.entrySet()) {
+		for (Entry<String, Map<Integer, Double>> entry : histories.modeHistories().entrySet()) {
 			String mode = entry.getKey();
 			Map<Integer, Double> history = entry.getValue();
 			double[] historyArray = new double[history.size()];
@@ -195,18 +195,18 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 		chart2.saveAsPng(this.modeFileName + "_stackedbar.png", 800, 600);
 	}
 
-	private void writeCsv(IterationEndsEvent event) {
+	private void writeCsv(ModeHistories histories) {
 		try (BufferedWriter modeOut = IOUtils.getBufferedWriter(this.modeFileName + ".csv")) {
 			modeOut.write("iteration");
-			for ( String mode : modes ) {
+			for ( String mode : histories.modes() ) {
 				modeOut.write(this.delimiter);
 				modeOut.write(mode);
 			}
 			modeOut.write("\n");
-			for (int iter = firstIteration; iter <= event.getIteration(); iter++) {
+			for (int iter = histories.firstIteration(); iter <= histories.iteration(); iter++) {
 				modeOut.write( String.valueOf(iter) ) ;
-				for ( String mode : modes ) {
-					modeOut.write(this.delimiter + modeHistories.get(mode).get(iter));
+				for ( String mode : histories.modes() ) {
+					modeOut.write(this.delimiter + histories.modeHistories().get(mode).get(iter));
 				}
 				modeOut.write( "\n" ) ;
 			}
@@ -216,4 +216,16 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 			throw new UncheckedIOException(e);
 		}
 	}
+
+	/**
+	 * Copy of the mode shares up to (and including) the given iteration.
+	 */
+	private record ModeHistories(Set<String> modes, Map<String, Map<Integer, Double>> modeHistories, int firstIteration, int iteration) {
+		ModeHistories {
+			modes = new TreeSet<>(modes);
+			Map<String, Map<Integer, Double>> copy = new HashMap<>();
+			modeHistories.forEach((mode, history) -> copy.put(mode, new TreeMap<>(history)));
+			modeHistories = copy;
+		}
+	}
 }
@@ -38,7 +38,7 @@ import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.ShutdownEvent;
 import org.matsim.core.controler.events.StartupEvent;
-import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.AsyncIterationEndsListener;
 import org.matsim.core.controler.listener.ShutdownListener;
 import org.matsim.core.controler.listener.StartupListener;
 import org.matsim.core.population.PersonUtils;
@@ -60,7 +60,7 @@ import org.matsim.core.utils.io.IOUtils;
  *
  * @author mrieser
  */
-public class ScoreStatsControlerListener implements StartupListener, IterationEndsListener, ShutdownListener, ScoreStats {
+public class ScoreStatsControlerListener implements StartupListener, AsyncIterationEndsListener, ShutdownListener, ScoreStats {
 
 	public enum ScoreItem { worst, best, average, executed }
 
@@ -123,11 +123,18 @@ public class ScoreStatsControlerListener implements StartupListener, IterationEn
 	}
 
 	@Override
-	public void notifyIterationEnds(final IterationEndsEvent event) {
-		collectScoreInfo(event);
+	public Runnable prepareIterationEnds(final IterationEndsEvent event) {
+		final Runnable writeScoreInfo = collectScoreInfo(event);
 		if (isWriteGraph(event)) {
-			writePng();
+			// the history grows in the next iteration, so the (background) output works on a copy:
+			final Map<ScoreItem, Map<Integer, Double>> history = new EnumMap<>(ScoreItem.class);
+			this.scoreHistory.forEach((item, values) -> history.put(item, new TreeMap<>(values)));
+			return () -> {
+				writeScoreInfo.run();
+				writePng(history);
+			};
 		}
+		return writeScoreInfo;
 	}
 
 	private boolean isWriteGraph(IterationEndsEvent event) {
@@ -137,7 +144,10 @@ public class ScoreStatsControlerListener implements StartupListener, IterationEn
 			event.getIteration() > this.minIteration;
 	}
 
-	private void collectScoreInfo(final IterationEndsEvent event) {
+	/**
+	 * @return the writing of the collected values to the csv files
+	 */
+	private Runnable collectScoreInfo(final IterationEndsEvent event) {
 		ScoreInfo info = new ScoreInfo();
 
 		Map<String, ScoreInfo> perSubpop = new HashMap<>();
@@ -156,30 +166,34 @@ public class ScoreStatsControlerListener implements StartupListener, IterationEn
 		log.info("-- avg. of the avg. plan score per agent: " + (info.sumAvgScores / info.nofAvgScores));
 		log.info("-- avg. score of the best plan of each agent: " + (info.sumScoreBest / info.nofScoreBest));
 
-		try {
-			info.write(event.getIteration(), this.out, this.delimiter);
-			for (Map.Entry<String, ScoreHist> e : this.perSubpop.entrySet()) {
-				perSubpop.get(e.getKey()).write(event.getIteration(), e.getValue().out, this.delimiter);
-			}
-
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-
 //		int index = event.getIteration() - this.minIteration;
 
 		this.scoreHistory.get( ScoreItem.worst ).put( event.getIteration(), info.sumScoreWorst / info.nofScoreWorst ) ;
 		this.scoreHistory.get( ScoreItem.best ).put( event.getIteration(), info.sumScoreBest / info.nofScoreBest ) ;
 		this.scoreHistory.get( ScoreItem.average ).put( event.getIteration(), info.sumAvgScores / info.nofAvgScores ) ;
 		this.scoreHistory.get( ScoreItem.executed ).put( event.getIteration(), info.sumExecutedScores / info.nofExecutedScores ) ;
+
+		// the score infos are not changed anymore, and the writers are only used from here (in iteration order)
+		final int iteration = event.getIteration();
+		return () -> {
+			try {
+				info.write(iteration, this.out, this.delimiter);
+				for (Map.Entry<String, ScoreHist> e : this.perSubpop.entrySet()) {
+					perSubpop.get(e.getKey()).write(iteration, e.getValue().out, this.delimiter);
+				}
+
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		};
 	}
 
-	private void writePng() {
+	private void writePng(Map<ScoreItem, Map<Integer, Double>> history) {
 		XYLineChart chart = new XYLineChart("Score Statistics", "iteration", "score");
-		chart.addSeries("avg. worst score", this.scoreHistory.get( ScoreItem.worst ) ) ;
-		chart.addSeries("avg. best score", this.scoreHistory.get( ScoreItem.best) );
-		chart.addSeries("avg. of plans' average score", this.scoreHistory.get( ScoreItem.average) );
-		chart.addSeries("avg. executed score", this.scoreHistory.get( ScoreItem.executed ) );
+		chart.addSeries("avg. worst score", history.get( ScoreItem.worst ) ) ;
+		chart.addSeries("avg. best score", history.get( ScoreItem.best) );
+		chart.addSeries("avg. of plans' average score", history.get( ScoreItem.average) );
+		chart.addSeries("avg. executed score", history.get( ScoreItem.executed ) );
 		chart.addMatsimLogo();
 		chart.saveAsPng(this.controllerIO.getOutputFilename("scorestats.png"), 800, 600);
 	}
@@ -80,6 +80,8 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 	private static final String EVENT_TYPE_TO_CREATE_SCORING_FUNCTIONS = "createScoringFunctionType";
 
 	private static final String MEMORY_OBSERVER_INTERVAL = "memoryObserverInterval";
+	private static final String WRITE_INSTRUMENTATION_INTERVAL = "writeInstrumentationInterval";
+	private static final String ASYNC_ITERATION_ENDS_BACKLOG = "asyncIterationEndsBacklog";
 
 	/*package*/ static final String MOBSIM = "mobsim";
 	public enum MobsimType {qsim, JDEQSim, hermes}
@@ -112,6 +114,8 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 	private CleanIterations cleanItersAtEnd = CleanIterations.keep;
 
 	private int memoryObserverInterval = 60;
+	private int writeInstrumentationInterval = 0;
+	private int asyncIterationEndsBacklog = 0;
 
 	public ControllerConfigGroup() {
 		super(GROUP_NAME);
@@ -156,6 +160,13 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 		map.put(DUMP_DATA_AT_END, "true if at the end of a run, plans, network, config etc should be dumped to a file");
 		map.put(CLEAN_ITERS_AT_END, "Defines what should be done with the ITERS directory when a simulation finished successfully");
 		map.put(MEMORY_OBSERVER_INTERVAL, "Defines the interval for printing memory usage to the log in [seconds]. Must be positive. Defaults to 60.");
+		map.put(WRITE_INSTRUMENTATION_INTERVAL, "iterationNumber % " + WRITE_INSTRUMENTATION_INTERVAL + " == 0 defines in which iterations " +
+				"timings and counters of the mobsim, events processing, routing and replanning are collected and written to instrumentation.csv " +
+				"(and emitted as JFR events if a flight recording is running). `0' disables instrumentation completely. Default is 0.");
+		map.put(ASYNC_ITERATION_ENDS_BACKLOG, "Number of iterations for which the (output writing) work of listeners that support it may still run " +
+				"in the background while the next iterations proceed (e.g. link stats, mode stats, score stats, counts comparison " +
+				"and the plans dumped before the mobsim, which are kept in memory until written). All of it is finished " +
+				"before the run ends. `0' runs all of these listeners synchronously. Default is 0.");
 		return map;
 	}
 
@@ -443,6 +454,26 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 		this.memoryObserverInterval = memoryObserverInterval;
 	}
 
+	@StringGetter(WRITE_INSTRUMENTATION_INTERVAL)
+	public int getWriteInstrumentationInterval() {
+		return writeInstrumentationInterval;
+	}
+
+	@StringSetter(WRITE_INSTRUMENTATION_INTERVAL)
+	public void setWriteInstrumentationInterval(int writeInstrumentationInterval) {
+		this.writeInstrumentationInterval = writeInstrumentationInterval;
+	}
+
+	@StringGetter(ASYNC_ITERATION_ENDS_BACKLOG)
+	public int getAsyncIterationEndsBacklog() {
+		return asyncIterationEndsBacklog;
+	}
+
+	@StringSetter(ASYNC_ITERATION_ENDS_BACKLOG)
+	public void setAsyncIterationEndsBacklog(int asyncIterationEndsBacklog) {
+		this.asyncIterationEndsBacklog = asyncIterationEndsBacklog;
+	}
+
 	// ---
 	int writePlansUntilIteration = 1 ;
 	public int getWritePlansUntilIteration() {
@@ -152,6 +152,9 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 	private final static String FAST_CAPACITY_UPDATE = "usingFastCapacityUpdate";
 	private boolean usingFastCapacityUpdate = true;
 	// ---
+	private final static String EVENT_DRIVEN_LINK_WAKE_UP = "usingEventDrivenLinkWakeUp";
+	private boolean usingEventDrivenLinkWakeUp = false;
+	// ---
 	private static final String VEHICLES_SOURCE = "vehiclesSource";
 	private VehiclesSource vehiclesSource = VehiclesSource.defaultVehicle;
 	private Collection<String> seepModes = Collections.singletonList(TransportMode.bike);
@@ -214,6 +217,11 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		map.put(FAST_CAPACITY_UPDATE, "If false, the qsim accumulates fractional flows up to one flow unit in every time step.  If true, "
 				+ "flows are updated only if an agent wants to enter the link or an agent is added to buffer. "
 				+ "Default is true.");
+		map.put(EVENT_DRIVEN_LINK_WAKE_UP, "If true, links whose first vehicle cannot leave yet are not visited in every time step, but put "
+				+ "aside until the earliest link exit time of that vehicle.  Only has an effect together with "
+				+ FAST_CAPACITY_UPDATE + ", " + TrafficDynamics.queue + " traffic dynamics and " + LinkDynamics.FIFO + " link dynamics, "
+				+ "without lanes.  Links that are woken up are visited at their old position, so the events are the same as "
+				+ "without it.  Default is false.");
 		map.put(USE_LANES, "Set this parameter to true if lanes should be used, false if not.");
 		{
 			StringBuilder stb = new StringBuilder();
@@ -413,6 +421,16 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		this.usingFastCapacityUpdate = val;
 	}
 
+	@StringGetter(EVENT_DRIVEN_LINK_WAKE_UP)
+	public final boolean isUsingEventDrivenLinkWakeUp() {
+		return this.usingEventDrivenLinkWakeUp;
+	}
+
+	@StringSetter(EVENT_DRIVEN_LINK_WAKE_UP)
+	public final void setUsingEventDrivenLinkWakeUp(boolean val) {
+		this.usingEventDrivenLinkWakeUp = val;
+	}
+
 	@StringGetter(SNAPSHOT_STYLE)
 	public SnapshotStyle getSnapshotStyle() {
 		return this.snapshotStyle;
@@ -23,6 +23,7 @@
 package org.matsim.core.controler;
 
 import com.google.inject.Inject;
+import org.matsim.analysis.InstrumentationModule;
 import org.matsim.analysis.IterationTravelStatsModule;
 import org.matsim.analysis.LegHistogramModule;
 import org.matsim.analysis.LegTimesModule;
@@ -71,6 +72,7 @@ public final class ControlerDefaultsModule extends AbstractModule {
         install(new VolumesAnalyzerModule());
         install(new LegHistogramModule());
         install(new LegTimesModule());
+        install(new InstrumentationModule());
         install(new IterationTravelStatsModule());
         install(new ScoreStatsModule());
         install(new ModeStatsModule());
@@ -27,8 +27,16 @@ import org.matsim.core.controler.listener.*;
 import org.matsim.core.utils.misc.ClassUtils;
 
 import javax.swing.event.EventListenerList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Class encapsulating all behavior concerning the ControlerEvents/Listeners
@@ -54,6 +62,14 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 	private final EventListenerList coreListenerList = new EventListenerList();
 	private final EventListenerList listenerList = new EventListenerList();
 
+	/*
+	 * Background work of AsyncBeforeMobsimListeners and AsyncIterationEndsListeners, one entry per iteration.  A single
+	 * thread, so that the work is done in the same order as without pipelining.
+	 */
+	private ExecutorService asyncIterationEndsExecutor = null;
+	private List<Future<?>> currentIterationWork = new ArrayList<>();
+	private final Deque<List<Future<?>>> pendingIterationEnds = new ArrayDeque<>();
+
 
 	/**
 	 * Add a core ControlerListener to the Controler instance
@@ -120,6 +136,7 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 	 * @param unexpected Whether the shutdown is unexpected or not.
 	 */
 	public void fireControlerShutdownEvent(final boolean unexpected, int iteration) {
+		finishAsyncIterationEnds(unexpected);
 		ShutdownEvent event = new ShutdownEvent(this.controler, unexpected, iteration);
         ShutdownListener[] listener = this.coreListenerList.getListeners(ShutdownListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
@@ -165,12 +182,13 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 	 */
 	public void fireControlerIterationEndsEvent(final int iteration, boolean isLastIteration) {
 		IterationEndsEvent event = new IterationEndsEvent(this.controler, iteration, isLastIteration);
+		int backlog = getAsyncIterationEndsBacklog();
 		{
 			IterationEndsListener[] listener = this.coreListenerList.getListeners(IterationEndsListener.class);
 			Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
 			for (IterationEndsListener aListener : listener) {
                 log.info("calling notifyIterationEnds on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-                aListener.notifyIterationEnds(event);
+                notifyIterationEnds(aListener, event, backlog);
             }
 		}
 		{
@@ -178,12 +196,94 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 			Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
             for (IterationEndsListener aListener : listener) {
                 log.info("calling notifyIterationEnds on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-                aListener.notifyIterationEnds(event);
+                notifyIterationEnds(aListener, event, backlog);
             }
 		}
+		if (!this.currentIterationWork.isEmpty()) {
+			this.pendingIterationEnds.add(this.currentIterationWork);
+			this.currentIterationWork = new ArrayList<>();
+		}
+		// bound the backlog; the next iteration proceeds once the work of the oldest iteration(s) is done:
+		while (this.pendingIterationEnds.size() > backlog) {
+			awaitIterationEnds(this.pendingIterationEnds.poll());
+		}
 		log.info("[it." + iteration + "] all ControlerIterationEndsListeners called.");
 	}
 
+	private int getAsyncIterationEndsBacklog() {
+		return this.controler == null ? 0 : this.controler.getConfig().controller().getAsyncIterationEndsBacklog();
+	}
+
+	private void notifyIterationEnds(IterationEndsListener listener, IterationEndsEvent event, int backlog) {
+		if (backlog > 0 && listener instanceof AsyncIterationEndsListener asyncListener) {
+			submitAsyncWork(asyncListener.prepareIterationEnds(event));
+		} else {
+			listener.notifyIterationEnds(event);
+		}
+	}
+
+	private void notifyBeforeMobsim(BeforeMobsimListener listener, BeforeMobsimEvent event, int backlog) {
+		if (backlog > 0 && listener instanceof AsyncBeforeMobsimListener asyncListener) {
+			submitAsyncWork(asyncListener.prepareBeforeMobsim(event));
+		} else {
+			listener.notifyBeforeMobsim(event);
+		}
+	}
+
+	private void submitAsyncWork(Runnable work) {
+		if (this.asyncIterationEndsExecutor == null) {
+			this.asyncIterationEndsExecutor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "AsyncIterationEnds");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		this.currentIterationWork.add(this.asyncIterationEndsExecutor.submit(work));
+	}
+
+	private static void awaitIterationEnds(List<Future<?>> asyncWork) {
+		for (Future<?> future : asyncWork) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Exception in background work of an asynchronous controler listener", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Waits until all background work of {@link AsyncBeforeMobsimListener}s and {@link AsyncIterationEndsListener}s is
+	 * done.  After an unexpected shutdown, exceptions of that work are only logged, so that the shutdown listeners are
+	 * still called.
+	 */
+	private void finishAsyncIterationEnds(boolean unexpected) {
+		if (!this.currentIterationWork.isEmpty()) {
+			// e.g. the plans dumped before a mobsim which failed
+			this.pendingIterationEnds.add(this.currentIterationWork);
+			this.currentIterationWork = new ArrayList<>();
+		}
+		try {
+			while (!this.pendingIterationEnds.isEmpty()) {
+				try {
+					awaitIterationEnds(this.pendingIterationEnds.poll());
+				} catch (RuntimeException e) {
+					if (!unexpected) {
+						throw e;
+					}
+					log.error("background work of an asynchronous controler listener failed", e);
+				}
+			}
+		} finally {
+			if (this.asyncIterationEndsExecutor != null) {
+				this.asyncIterationEndsExecutor.shutdown();
+				this.asyncIterationEndsExecutor = null;
+			}
+		}
+	}
+
 	/**
 	 * Notifies all ControlerScoringListeners
 	 *
@@ -236,17 +336,18 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 	 */
 	public void fireControlerBeforeMobsimEvent(final int iteration, boolean isLastIteration) {
 		BeforeMobsimEvent event = new BeforeMobsimEvent(this.controler, iteration, isLastIteration);
+		int backlog = getAsyncIterationEndsBacklog();
 		BeforeMobsimListener[] listener = this.coreListenerList.getListeners(BeforeMobsimListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (BeforeMobsimListener aListener : listener) {
             log.info("calling notifyBeforeMobsim on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyBeforeMobsim(event);
+            notifyBeforeMobsim(aListener, event, backlog);
         }
 		listener = this.listenerList.getListeners(BeforeMobsimListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (BeforeMobsimListener aListener : listener) {
             log.info("calling notifyBeforeMobsim on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyBeforeMobsim(event);
+            notifyBeforeMobsim(aListener, event, backlog);
         }
 		log.info("[it." + iteration + "] all ControlerBeforeMobsimListeners called.");
 	}
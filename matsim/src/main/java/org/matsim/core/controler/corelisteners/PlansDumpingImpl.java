@@ -31,12 +31,18 @@ import org.matsim.core.config.groups.ControllerConfigGroup;
 import org.matsim.core.controler.Controler;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.BeforeMobsimEvent;
-import org.matsim.core.controler.listener.BeforeMobsimListener;
+import org.matsim.core.controler.listener.AsyncBeforeMobsimListener;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.matsim.core.utils.geometry.CoordinateTransformation;
 import org.matsim.core.utils.geometry.transformations.TransformationFactory;
+import org.matsim.core.utils.io.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 /**
  * {@link org.matsim.core.controler.listener.ControlerListener} that dumps the
@@ -48,7 +54,7 @@ import org.matsim.core.utils.geometry.transformations.TransformationFactory;
  * @author mrieser
  */
 @Singleton
-final class PlansDumpingImpl implements PlansDumping, BeforeMobsimListener {
+final class PlansDumpingImpl implements PlansDumping, AsyncBeforeMobsimListener {
 
 	static final private Logger log = LogManager.getLogger(PlansDumpingImpl.class);
 
@@ -69,30 +75,61 @@ final class PlansDumpingImpl implements PlansDumping, BeforeMobsimListener {
 
 	@Override
 	public void notifyBeforeMobsim(final BeforeMobsimEvent event) {
-		final boolean writingPlansAtAll = writePlansInterval > 0;
-		final boolean regularWritePlans = writingPlansAtAll && (event.getIteration()>0 && event.getIteration() % writePlansInterval== 0);
-		final boolean earlyIteration = event.getIteration() <= writeMoreUntilIteration ;
-		if ( writingPlansAtAll && (regularWritePlans || earlyIteration) ) {
+		if ( isDumpPlans(event.getIteration()) ) {
 			stopwatch.beginOperation("dump all plans");
 			log.info("dumping plans...");
-			final String inputCRS = config.plans().getInputCRS();
-			final String internalCRS = config.global().getCoordinateSystem();
+			createPopulationWriter().write(controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population));
+			log.info("finished plans dump.");
+			stopwatch.endOperation("dump all plans");
+		}
+	}
 
-			if ( inputCRS == null ) {
-				new PopulationWriter(population, network).write(controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population));
+	@Override
+	public Runnable prepareBeforeMobsim(final BeforeMobsimEvent event) {
+		if ( !isDumpPlans(event.getIteration()) ) {
+			return () -> {};
+		}
+		// the mobsim and scoring change the population, so it is serialized right away; only compressing and writing
+		// the file is left to the background:
+		stopwatch.beginOperation("dump all plans");
+		log.info("dumping plans to memory...");
+		final ByteArrayOutputStream plans = new ByteArrayOutputStream();
+		createPopulationWriter().write(plans);
+		stopwatch.endOperation("dump all plans");
+		final String filename = controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population);
+		return () -> {
+			try (OutputStream out = IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false)) {
+				plans.writeTo(out);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
-			else {
-				log.info( "re-projecting population from "+internalCRS+" back to "+inputCRS+" for export" );
+			log.info("finished plans dump to " + filename);
+		};
+	}
 
-				final CoordinateTransformation transformation =
-						TransformationFactory.getCoordinateTransformation(
-								internalCRS,
-								inputCRS );
+	private boolean isDumpPlans(int iteration) {
+		final boolean writingPlansAtAll = writePlansInterval > 0;
+		final boolean regularWritePlans = writingPlansAtAll && (iteration>0 && iteration % writePlansInterval== 0);
+		final boolean earlyIteration = iteration <= writeMoreUntilIteration ;
+		return writingPlansAtAll && (regularWritePlans || earlyIteration);
+	}
 
-				new PopulationWriter(transformation, population, network).write(controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population));
-			}
-			log.info("finished plans dump.");
-			stopwatch.endOperation("dump all plans");
+	private PopulationWriter createPopulationWriter() {
+		final String inputCRS = config.plans().getInputCRS();
+		final String internalCRS = config.global().getCoordinateSystem();
+
+		if ( inputCRS == null ) {
+			return new PopulationWriter(population, network);
+		}
+		else {
+			log.info( "re-projecting population from "+internalCRS+" back to "+inputCRS+" for export" );
+
+			final CoordinateTransformation transformation =
+					TransformationFactory.getCoordinateTransformation(
+							internalCRS,
+							inputCRS );
+
+			return new PopulationWriter(transformation, population, network);
 		}
 	}
 
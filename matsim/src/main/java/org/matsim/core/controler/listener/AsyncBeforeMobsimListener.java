@@ -0,0 +1,41 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.listener;
+
+import org.matsim.core.controler.events.BeforeMobsimEvent;
+
+/**
+ * A {@link BeforeMobsimListener} whose work (typically writing output) may run in the background while the mobsim
+ * and the rest of the iteration proceed.  Works like an {@link AsyncIterationEndsListener}:
+ * {@link #prepareBeforeMobsim(BeforeMobsimEvent)} is called before the mobsim and has to copy all data that the
+ * returned task needs.  The task counts towards the backlog of the iteration in which it was created.
+ */
+public interface AsyncBeforeMobsimListener extends BeforeMobsimListener {
+
+	/**
+	 * @return the part of the work that may be done in the background
+	 */
+	Runnable prepareBeforeMobsim(BeforeMobsimEvent event);
+
+	@Override
+	default void notifyBeforeMobsim(BeforeMobsimEvent event) {
+		prepareBeforeMobsim(event).run();
+	}
+}
@@ -0,0 +1,48 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.listener;
+
+import org.matsim.core.controler.events.IterationEndsEvent;
+
+/**
+ * An {@link IterationEndsListener} whose work (typically writing analysis output) may run in the background while the
+ * next iteration proceeds.  It is split into two parts:<ul>
+ * <li> {@link #prepareIterationEnds(IterationEndsEvent)} is called at the end of the iteration, as any other
+ * {@link IterationEndsListener}.  It has to copy all data that the second part needs, since that data (event handlers,
+ * population, ...) may change as soon as it returns.</li>
+ * <li> The returned task does the rest.  It may not touch anything but the copied data.</li>
+ * </ul>
+ * If pipelining is switched off (see
+ * {@link org.matsim.core.config.groups.ControllerConfigGroup#getAsyncIterationEndsBacklog()}), the task is run right
+ * away, i.e. the listener behaves as a normal {@link IterationEndsListener}.  Otherwise, tasks are run one after the
+ * other on a background thread, and all of them are finished before the shutdown listeners are called.
+ */
+public interface AsyncIterationEndsListener extends IterationEndsListener {
+
+	/**
+	 * @return the part of the work that may be done in the background
+	 */
+	Runnable prepareIterationEnds(IterationEndsEvent event);
+
+	@Override
+	default void notifyIterationEnds(IterationEndsEvent event) {
+		prepareIterationEnds(event).run();
+	}
+}
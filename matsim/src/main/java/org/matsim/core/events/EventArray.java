@@ -38,6 +38,14 @@ public class EventArray {
 		return array[index];
 	}
 
+	/**
+	 * Drops the reference to the event at the given index, e.g. after it was passed on, so that it can be garbage
+	 * collected.  The size does not change.
+	 */
+	public void release(int index) {
+		array[index] = null;
+	}
+
 	public void clear() {
 		for (int i = 0; i < size; i++) {
 			array[i] = null;
@@ -42,6 +42,7 @@ import org.matsim.core.api.experimental.events.handler.VehicleArrivesAtFacilityE
 import org.matsim.core.api.experimental.events.handler.VehicleDepartsAtFacilityEventHandler;
 import org.matsim.core.events.handler.BasicEventHandler;
 import org.matsim.core.events.handler.EventHandler;
+import org.matsim.core.utils.instrumentation.Instrumentation;
 
 /**
  * EventHandling
@@ -82,12 +83,14 @@ public final class EventsManagerImpl implements EventsManager {
 		protected final Class<? extends Event> eventClass;
 		protected final EventHandler eventHandler;
 		protected final Method method;
+		protected final Instrumentation.Metric metric;
 
 		protected HandlerInfo(final Class<? extends Event> eventClass, final EventHandler eventHandler,
 				final Method method) {
 			this.eventClass = eventClass;
 			this.eventHandler = eventHandler;
 			this.method = method;
+			this.metric = Instrumentation.getMetric("events.handler." + eventHandler.getClass().getName());
 		}
 	}
 
@@ -116,16 +119,17 @@ public final class EventsManagerImpl implements EventsManager {
 		}
 		for (HandlerInfo info : getHandlersForClass( event.getClass() )) {
 			synchronized(info.eventHandler) {
-				if (callHandlerFast(info.eventClass, event, info.eventHandler )) {
-					continue;
-				}
-				try {
-					info.method.invoke(info.eventHandler, event );
-				} catch (IllegalArgumentException | IllegalAccessException e) {
-					throw new RuntimeException("problem invoking EventHandler " + info.eventHandler.getClass().getCanonicalName() + " for event-class " + info.eventClass.getCanonicalName(), e);
-				} catch (InvocationTargetException e) {
-					throw new RuntimeException("problem invoking EventHandler " + info.eventHandler.getClass().getCanonicalName() + " for event-class " + info.eventClass.getCanonicalName(), e.getCause());
+				long start = Instrumentation.startTime();
+				if (!callHandlerFast(info.eventClass, event, info.eventHandler )) {
+					try {
+						info.method.invoke(info.eventHandler, event );
+					} catch (IllegalArgumentException | IllegalAccessException e) {
+						throw new RuntimeException("problem invoking EventHandler " + info.eventHandler.getClass().getCanonicalName() + " for event-class " + info.eventClass.getCanonicalName(), e);
+					} catch (InvocationTargetException e) {
+						throw new RuntimeException("problem invoking EventHandler " + info.eventHandler.getClass().getCanonicalName() + " for event-class " + info.eventClass.getCanonicalName(), e.getCause());
+					}
 				}
+				info.metric.recordTime(start);
 			}
 		}
 	}
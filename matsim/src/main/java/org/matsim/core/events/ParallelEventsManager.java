@@ -34,6 +34,7 @@ import org.matsim.api.core.v01.events.Event;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.Config;
 import org.matsim.core.events.handler.EventHandler;
+import org.matsim.core.utils.instrumentation.Instrumentation;
 
 /**
  * @author cdobler
@@ -57,6 +58,10 @@ public final class ParallelEventsManager implements EventsManager {
 	//private final int eventsQueueSize = 1048576 * 32;
 	private final int eventsArraySize;
 
+	private final Instrumentation.Metric queueDepthMetric = Instrumentation.getMetric("events.parallel.queueDepth");
+	private final Instrumentation.Metric eventsPerSecondMetric = Instrumentation.getMetric("events.parallel.eventsPerSecond");
+	private long processingStartTime = Instrumentation.DISABLED;
+
 	@Inject
 	ParallelEventsManager(Config config) {
 		this(config.eventsManager().getSynchronizeOnSimSteps() != null ? config.eventsManager().getSynchronizeOnSimSteps() : true, config.eventsManager().getEventsQueueSize());
@@ -196,6 +201,7 @@ public final class ParallelEventsManager implements EventsManager {
 	public void initProcessing() {
 
 		initialize();
+		this.processingStartTime = Instrumentation.startTime();
 
 		for (EventsManager eventsManager : this.eventsManagers) {
 			eventsManager.initProcessing();
@@ -213,6 +219,11 @@ public final class ParallelEventsManager implements EventsManager {
 	public synchronized void finishProcessing() {
 		flush();
 
+		if (this.processingStartTime != Instrumentation.DISABLED) {
+			double seconds = (System.nanoTime() - this.processingStartTime) / 1e9;
+			this.eventsPerSecondMetric.recordValue(this.distributor.numberOfEvents / seconds);
+		}
+
 		for (EventsManager eventsManager : this.eventsManagers) {
 			eventsManager.finishProcessing();
 		}
@@ -256,6 +267,9 @@ public final class ParallelEventsManager implements EventsManager {
 		// events in the system.
 		private volatile boolean shouldFlush = false;
 
+		// (only written by the distributor thread; read after a flush)
+		private long numberOfEvents = 0;
+
 		public Distributor(ArrayList<ProcessEventsRunnable> runnables, BlockingQueue<EventArray> eventQueue) {
 			this.runnables = runnables;
 			this.eventQueue = eventQueue;
@@ -317,6 +331,11 @@ public final class ParallelEventsManager implements EventsManager {
 						continue;
 					}
 
+					this.numberOfEvents += earray.size();
+					if (Instrumentation.isEnabled()) {
+						queueDepthMetric.recordValue(this.eventQueue.size());
+					}
+
 					// this is an optimization, if we receive a large buffer, avoid copying it and send it directly.
 					if (earray.size() >= eventsArraySize) {
 						// make sure we don't miss events already buffered
@@ -71,6 +71,7 @@ import org.matsim.core.api.experimental.events.handler.VehicleArrivesAtFacilityE
 import org.matsim.core.api.experimental.events.handler.VehicleDepartsAtFacilityEventHandler;
 import org.matsim.core.events.handler.BasicEventHandler;
 import org.matsim.core.events.handler.EventHandler;
+import org.matsim.core.utils.instrumentation.Instrumentation;
 import org.matsim.core.utils.misc.ClassUtils;
 
 /**
@@ -117,9 +118,12 @@ public final class SingleHandlerEventsManager implements EventsManager {
 	private long nextCounterMsg = 1;
 
 	private boolean isActive = true;
+
+	private final Instrumentation.Metric handlerMetric;
 	
 	public SingleHandlerEventsManager(EventHandler eventHandler) {
 		this.eventHandler = eventHandler;
+		this.handlerMetric = Instrumentation.getMetric("events.handler." + eventHandler.getClass().getName());
 
 		this.isLeaveLinkHandler = this.eventHandler instanceof LinkLeaveEventHandler;
 		this.isLinkEnterHandler = this.eventHandler instanceof LinkEnterEventHandler;
@@ -180,7 +184,9 @@ public final class SingleHandlerEventsManager implements EventsManager {
 			this.nextCounterMsg *= 4;
 			log.info(" event # " + this.counter);
 		}
+		long start = Instrumentation.startTime();
 		computeEvent(event);
+		this.handlerMetric.recordTime(start);
 	}
 
 	@Override
@@ -106,6 +106,9 @@ class Agent {
 
     protected int eventsIndex;
 
+    // Events below this index were emitted and are no longer referenced by the agent (only used when streaming events).
+    protected int releasedEventsIndex;
+
     // Timestamp of when the agent will be ready to exit link.
     protected int linkFinishTime;
 
@@ -333,8 +336,16 @@ class Agent {
     public void reset() {
         plan.clear();
         events.clear();
+        resetState();
+    }
+
+    /*
+     * Resets the simulation state but keeps the encoded plan and its events, so that they can be simulated again.
+     */
+    void resetState() {
         planIndex = 0;
         eventsIndex = 0;
+        releasedEventsIndex = 0;
         linkFinishTime = 0;
         if (this.passengersByStop != null) {
             passengersInside = 0;
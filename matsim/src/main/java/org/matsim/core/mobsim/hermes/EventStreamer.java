@@ -0,0 +1,78 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.core.mobsim.hermes;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventArray;
+
+/**
+ * Passes chunks of (time ordered) events to the events manager from a background thread, so that the realm does not
+ * have to wait for the event handlers. Chunks are processed in the order in which they were submitted. The queue is
+ * bounded, i.e. the realm is slowed down if the event handlers cannot keep up, rather than piling up events in memory.
+ */
+final class EventStreamer {
+
+	private static final int MAX_PENDING_CHUNKS = 4;
+	private static final EventArray END = new EventArray(0);
+
+	private final BlockingQueue<EventArray> chunks = new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS);
+	private final Thread thread;
+	private volatile Throwable exception = null;
+
+	EventStreamer(EventsManager eventsManager) {
+		this.thread = new Thread(() -> {
+			try {
+				EventArray chunk;
+				while ((chunk = chunks.take()) != END) {
+					eventsManager.processEvents(chunk);
+				}
+			} catch (Throwable e) {
+				exception = e;
+				chunks.clear(); // unblock the realm
+			}
+		}, "HermesEventStreamer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	void submit(EventArray chunk) throws InterruptedException {
+		checkException();
+		chunks.put(chunk);
+	}
+
+	/**
+	 * Waits until all submitted chunks have been passed to the events manager.
+	 */
+	void finish() throws InterruptedException {
+		if (thread.isAlive()) {
+			chunks.put(END);
+			thread.join();
+		}
+		checkException();
+	}
+
+	private void checkException() {
+		if (exception != null) {
+			throw new RuntimeException("Exception while processing hermes events", exception);
+		}
+	}
+}
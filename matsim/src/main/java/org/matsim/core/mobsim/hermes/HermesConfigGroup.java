@@ -64,6 +64,25 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
 
     private static final String DETPTDESC = "treats PT as deterministic. PT vehicles will run with a steady speed. Should be used with separate network layers for PT and other network modes.";
     private boolean deterministicPt = false;
+
+    private static final String REUSE_ENCODED_PLANS = "reuseEncodedPlans";
+    private static final String REUSE_ENCODED_PLANS_DESC = "If true, the encoded plan (and the event objects) of a person are kept between iterations and only "
+            + "re-encoded if the selected plan changed, i.e. if it is another plan object or has a different number of plan elements. Plans that are "
+            + "modified in place between iterations are not detected. Note that the same event objects are then passed to the events manager in every "
+            + "iteration, so event handlers must not keep references to events across iterations.";
+    private boolean reuseEncodedPlans = false;
+
+    private static final String STREAM_EVENTS = "streamEvents";
+    private static final String STREAM_EVENTS_DESC = "If true, the events of each flush interval are passed to the events manager by a background thread, "
+            + "so that event handlers run while Hermes is still simulating, and agents drop their references to events once they are emitted. "
+            + "If false, the events are passed to the events manager by the simulation thread.";
+    private boolean streamEvents = false;
+
+    private static final String EVENT_FLUSH_INTERVAL = "eventFlushInterval";
+    private static final String EVENT_FLUSH_INTERVAL_DESC = "time in seconds. Simulated time after which the events collected so far are passed "
+            + "(in time order) to the events manager.";
+    @Positive
+    private int eventFlushInterval = 3600;
     public static final boolean DEBUG_REALMS = false;
     public static final boolean DEBUG_EVENTS = false;
     public static final boolean CONCURRENT_EVENT_PROCESSING = true;
@@ -113,6 +132,36 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
         this.deterministicPt = deterministicPt;
     }
 
+    @StringGetter(REUSE_ENCODED_PLANS)
+    public boolean isReuseEncodedPlans() {
+        return reuseEncodedPlans;
+    }
+
+    @StringSetter(REUSE_ENCODED_PLANS)
+    public void setReuseEncodedPlans(boolean reuseEncodedPlans) {
+        this.reuseEncodedPlans = reuseEncodedPlans;
+    }
+
+    @StringGetter(STREAM_EVENTS)
+    public boolean isStreamEvents() {
+        return streamEvents;
+    }
+
+    @StringSetter(STREAM_EVENTS)
+    public void setStreamEvents(boolean streamEvents) {
+        this.streamEvents = streamEvents;
+    }
+
+    @StringGetter(EVENT_FLUSH_INTERVAL)
+    public int getEventFlushInterval() {
+        return eventFlushInterval;
+    }
+
+    @StringSetter(EVENT_FLUSH_INTERVAL)
+    public void setEventFlushInterval(int eventFlushInterval) {
+        this.eventFlushInterval = eventFlushInterval;
+    }
+
     @StringGetter(STUCKTIMEPARAM)
     public int getStuckTime() {
         return stuckTime;
@@ -159,6 +208,9 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
         comments.put(END_TIME, "Simulation End Time");
         comments.put(STUCKTIMEPARAM, STUCKTIMEPARAMDESC);
         comments.put(DETPT, DETPTDESC);
+        comments.put(REUSE_ENCODED_PLANS, REUSE_ENCODED_PLANS_DESC);
+        comments.put(STREAM_EVENTS, STREAM_EVENTS_DESC);
+        comments.put(EVENT_FLUSH_INTERVAL, EVENT_FLUSH_INTERVAL_DESC);
         return comments;
     }
 
@@ -59,6 +59,11 @@ class Realm {
     private EventArray sortedEvents;
     // MATSim event manager.
     private final EventsManager eventsManager;
+    // Passes the events to the event manager in the background (only if streaming events).
+    private final EventStreamer eventStreamer;
+    // If true, agents drop emitted events. Encoded plans that are reused still need them in the next iteration.
+    private final boolean releaseEmittedEvents;
+    private final int eventFlushInterval;
     // Current timestamp
     private int secs;
     Logger log = LogManager.getLogger(Realm.class);
@@ -74,6 +79,9 @@ class Realm {
         this.line_of_route = scenario.lineOfRoute;
         this.sortedEvents = new EventArray();
         this.eventsManager = eventsManager;
+        this.eventStreamer = scenario.isStreamEvents() ? new EventStreamer(eventsManager) : null;
+        this.releaseEmittedEvents = scenario.isStreamEvents() && !scenario.isReuseEncodedPlans();
+        this.eventFlushInterval = scenario.getEventFlushInterval();
 
         // the last position is to store events that will not happen...
         for (int i = 0; i <= HermesConfigGroup.SIM_STEPS + 1; i++) {
@@ -349,9 +357,8 @@ class Realm {
             if (HermesConfigGroup.DEBUG_REALMS && routed > 0) {
                 log(secs, String.format("Processed %d agents", routed));
             }
-            if (HermesConfigGroup.CONCURRENT_EVENT_PROCESSING && secs % 3600 == 0 && sortedEvents.size() > 0) {
-                eventsManager.processEvents(sortedEvents);
-                sortedEvents = new EventArray();
+            if (HermesConfigGroup.CONCURRENT_EVENT_PROCESSING && secs % eventFlushInterval == 0 && sortedEvents.size() > 0) {
+                flushEvents();
             }
 
             routed = 0;
@@ -359,9 +366,35 @@ class Realm {
         }
     }
 
+    private void flushEvents() throws InterruptedException {
+        if (eventStreamer != null) {
+            eventStreamer.submit(sortedEvents);
+        } else {
+            eventsManager.processEvents(sortedEvents);
+        }
+        sortedEvents = new EventArray();
+    }
+
+    /**
+     * Passes the remaining events to the events manager, and waits until all events were passed on.
+     */
+    void finishEvents() throws InterruptedException {
+        flushEvents();
+        if (eventStreamer != null) {
+            eventStreamer.finish();
+        }
+    }
+
     public void setEventTime(Agent agent, int agentId, int time, boolean lastEvent) {
         if (agentId != 0) {
             EventArray agentEvents = agent.events();
+            if (releaseEmittedEvents) {
+                // The events emitted by the previous call are released only now, since the caller may still modify them
+                // (see setEventVehicle).
+                for (; agent.releasedEventsIndex < agent.eventsIndex; agent.releasedEventsIndex++) {
+                    agentEvents.release(agent.releasedEventsIndex);
+                }
+            }
             Event event = agentEvents.get(agentId);
 
             for (; agent.eventsIndex <= agentId; agent.eventsIndex++) {
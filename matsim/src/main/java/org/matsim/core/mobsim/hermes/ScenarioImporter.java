@@ -47,6 +47,9 @@ import org.matsim.vehicles.VehicleType;
 import org.matsim.vehicles.VehicleUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 class ScenarioImporter {
 
@@ -91,10 +94,18 @@ class ScenarioImporter {
 	protected final EventsManager eventsManager;
 	private final int numberOfThreads;
 	private final List<List<Event>> deterministicPtEvents;
+	// Selected plan (and its number of plan elements) from which the plan of a person agent was encoded. Only used
+	// with reuseEncodedPlans, to decide whether the encoded plan can be simulated again. Indexed by hermes id.
+	private final boolean reuseEncodedPlans;
+	private Plan[] encodedPlans;
+	private int[] encodedPlanSizes;
+	// number of person plans (re-)encoded by the last call to generate()
+	private int numberOfEncodedPersonPlans;
 
 	private ScenarioImporter(Scenario scenario, EventsManager eventsManager) {
-		numberOfThreads = Math.min(scenario.getConfig().global().getNumberOfThreads(), Runtime.getRuntime().availableProcessors());
+		numberOfThreads = Math.max(1, Math.min(scenario.getConfig().global().getNumberOfThreads(), Runtime.getRuntime().availableProcessors()));
 		this.deterministicPt = scenario.getConfig().hermes().isDeterministicPt();
+		this.reuseEncodedPlans = scenario.getConfig().hermes().isReuseEncodedPlans();
 		if (deterministicPt) {
 			deterministicPtEvents = new ArrayList<>(scenario.getConfig().hermes().getEndTime());
 			for (int i = 0; i < scenario.getConfig().hermes().getEndTime(); i++) {
@@ -172,9 +183,15 @@ class ScenarioImporter {
 						link.reset();
 					}
 				}
-				// reset agent plans and events
-				for (Agent hermes_agent : hermesAgents) {
-					if (hermes_agent != null) {
+				// reset agent plans and events; encoded person plans are only dropped once we know that the selected plan changed
+				for (int hermes_id = 0; hermes_id < hermesAgents.length; hermes_id++) {
+					Agent hermes_agent = hermesAgents[hermes_id];
+					if (hermes_agent == null) {
+						continue;
+					}
+					if (reuseEncodedPlans && hermes_id < agentPersons) {
+						hermes_agent.resetState();
+					} else {
 						hermes_agent.reset();
 					}
 				}
@@ -824,40 +841,75 @@ class ScenarioImporter {
 		flatevents.add(new PersonArrivalEvent(0, driverid, nr.getEndLinkId(), legmode));
 	}
 
+	private record VehicleTrip(TransitLine tl, TransitRoute tr, Departure depart) {
+	}
+
 	private void generateTransitVehiclePlans() {
 		Map<Id<Vehicle>, Vehicle> vehicles = scenario.getTransitVehicles().getVehicles();
-		scenario.getTransitSchedule().getTransitLines().values().stream().forEach((tl) -> {
+		// A vehicle may serve several departures, which are appended to its plan in schedule order.  Thus, trips are
+		// grouped by vehicle, and only the vehicles are encoded in parallel.
+		Map<Id<Vehicle>, List<VehicleTrip>> tripsByVehicle = new LinkedHashMap<>();
+		for (TransitLine tl : scenario.getTransitSchedule().getTransitLines().values()) {
 			for (TransitRoute tr : tl.getRoutes().values()) {
 				for (Departure depart : tr.getDepartures().values()) {
-					Vehicle v = vehicles.get(depart.getVehicleId());
-					int hermes_id = hermes_id(v.getId().index(), true);
-					Agent agent = hermesAgents[hermes_id];
-					float storageCapacityPCUE = deterministicPt ? 0.1f : (float) v.getType().getPcuEquivalents();
-					float flowCapacityPCUE = deterministicPt ? 0.1f : (float) (v.getType().getPcuEquivalents() / v.getType().getFlowEfficiencyFactor());
-					// for pt vehicles, storage and flow capacities are never updated
-					hermesAgents[hermes_id].setStorageCapacityPCUE(storageCapacityPCUE);
-					hermesAgents[hermes_id].setFlowCapacityPCUE(flowCapacityPCUE);
-					if (deterministicPt) {
-						generateDeterministicVehicleTrip(agent, tl, tr, depart);
-					} else {
-						generateVehicleTrip(agent, tl, tr, depart);
-					}
+					tripsByVehicle.computeIfAbsent(depart.getVehicleId(), k -> new ArrayList<>()).add(new VehicleTrip(tl, tr, depart));
 				}
 			}
-		});
+		}
 
+		Stream<List<VehicleTrip>> trips = tripsByVehicle.values().stream();
+		if (!deterministicPt) {
+			// deterministic pt writes the link events of all vehicles into shared lists
+			trips = trips.parallel();
+		}
+		trips.forEach(vehicleTrips -> {
+			for (VehicleTrip trip : vehicleTrips) {
+				Vehicle v = vehicles.get(trip.depart().getVehicleId());
+				int hermes_id = hermes_id(v.getId().index(), true);
+				Agent agent = hermesAgents[hermes_id];
+				float storageCapacityPCUE = deterministicPt ? 0.1f : (float) v.getType().getPcuEquivalents();
+				float flowCapacityPCUE = deterministicPt ? 0.1f : (float) (v.getType().getPcuEquivalents() / v.getType().getFlowEfficiencyFactor());
+				// for pt vehicles, storage and flow capacities are never updated
+				hermesAgents[hermes_id].setStorageCapacityPCUE(storageCapacityPCUE);
+				hermesAgents[hermes_id].setFlowCapacityPCUE(flowCapacityPCUE);
+				if (deterministicPt) {
+					generateDeterministicVehicleTrip(agent, trip.tl(), trip.tr(), trip.depart());
+				} else {
+					generateVehicleTrip(agent, trip.tl(), trip.tr(), trip.depart());
+				}
+			}
+		});
 	}
 
 	private void generatePersonPlans() {
 		Population population = scenario.getPopulation();
+		LongAdder encoded = new LongAdder();
 		population.getPersons().values().parallelStream().forEach((person) -> {
 			int hermes_id = hermes_id(person.getId().index(), false);
+			Plan selectedPlan = person.getSelectedPlan();
+			if (reuseEncodedPlans && isEncoded(hermes_id, selectedPlan)) {
+				return;
+			}
 			PlanArray plan = hermesAgents[hermes_id].plan();
 			EventArray events = hermesAgents[hermes_id].events();
-			for (PlanElement element : person.getSelectedPlan().getPlanElements()) {
+			// (only non-empty if the encoded plan was kept by reset())
+			plan.clear();
+			events.clear();
+			for (PlanElement element : selectedPlan.getPlanElements()) {
 				processPlanElement(person, plan, events, element, hermesAgents[hermes_id]);
 			}
+			if (reuseEncodedPlans) {
+				encodedPlans[hermes_id] = selectedPlan;
+				encodedPlanSizes[hermes_id] = selectedPlan.getPlanElements().size();
+			}
+			encoded.increment();
 		});
+		numberOfEncodedPersonPlans = encoded.intValue();
+		log.info(String.format("Hermes encoded %d of %d person plans", numberOfEncodedPersonPlans, population.getPersons().size()));
+	}
+
+	private boolean isEncoded(int hermes_id, Plan selectedPlan) {
+		return encodedPlans[hermes_id] == selectedPlan && encodedPlanSizes[hermes_id] == selectedPlan.getPlanElements().size();
 	}
 
 	private void generateAgents() {
@@ -866,6 +918,10 @@ class ScenarioImporter {
 		agentPersons = Id.getNumberOfIds(Person.class);
 		int nagents = agentPersons + Id.getNumberOfIds(Vehicle.class);
 		hermesAgents = new Agent[nagents];
+		if (reuseEncodedPlans) {
+			encodedPlans = new Plan[agentPersons];
+			encodedPlanSizes = new int[agentPersons];
+		}
 
 		// Generate persons
 		for (Person person : population.getPersons().values()) {
@@ -900,9 +956,15 @@ class ScenarioImporter {
 		}
 	}
 
-	private void generatePlans() {
-		generatePersonPlans();
-		generateTransitVehiclePlans();
+	private void generatePlans() throws Exception {
+		// the parallel streams inside run in this pool rather than in the common pool, so that the global number of threads is respected
+		ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			pool.submit(this::generatePersonPlans).get();
+			pool.submit(this::generateTransitVehiclePlans).get();
+		} finally {
+			pool.shutdown();
+		}
 	}
 
 	public float getFlowCapacityPCE(int index) {
@@ -920,4 +982,20 @@ class ScenarioImporter {
 	public boolean isDeterministicPt() {
 		return deterministicPt;
 	}
+
+	public boolean isStreamEvents() {
+		return scenario.getConfig().hermes().isStreamEvents();
+	}
+
+	public int getEventFlushInterval() {
+		return scenario.getConfig().hermes().getEventFlushInterval();
+	}
+
+	public boolean isReuseEncodedPlans() {
+		return reuseEncodedPlans;
+	}
+
+	int getNumberOfEncodedPersonPlans() {
+		return numberOfEncodedPersonPlans;
+	}
 }
@@ -0,0 +1,293 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CalendarQueue.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.jdeqsim;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Calendar queue for {@link Message}s, as an alternative to the binary heap in {@link java.util.PriorityQueue}.
+ * <p></p>
+ * Design thoughts:<ul>
+ * <li> Messages are put into buckets of fixed width (in seconds) by their arrival time.  The buckets form a ring which
+ * covers the next <code>numberOfBuckets</code> buckets starting at the current one; messages beyond that horizon
+ * (typically activity ends) are kept in an ordinary heap and moved into the ring once the horizon reaches them.</li>
+ * <li> Insertion into a future bucket is an append to the bucket's array; the bucket is only sorted once it becomes the
+ * current bucket.  Insertion into the current bucket keeps it sorted (binary search and array copy), since many
+ * messages are scheduled for the current time step, e.g. when lots of agents depart at the same time.</li>
+ * <li> Messages with the same arrival time and priority are returned in the order they were inserted.  With the
+ * {@link java.util.PriorityQueue} their order is not defined.</li>
+ * <li> Messages which are scheduled before the current bucket (e.g. when the simulation is initialized in arbitrary
+ * order) move the ring back, i.e. the buckets which then fall beyond the horizon are emptied into the heap.</li>
+ * </ul>
+ * The queue is not thread safe.
+ */
+public final class CalendarQueue extends AbstractQueue<Message> {
+
+	public static final double DEFAULT_BUCKET_WIDTH = 1.0;
+	public static final int DEFAULT_NUMBER_OF_BUCKETS = 4096;
+
+	private static final long MAX_BUCKET = Long.MAX_VALUE >> 2; // leaves room for currentBucket + numberOfBuckets
+
+	static final Comparator<Message> COMPARATOR = (m1, m2) -> {
+		int cmp = m1.compareTo(m2);
+		return cmp != 0 ? cmp : Long.compare(m1.sequence, m2.sequence);
+	};
+
+	private final double bucketWidth;
+	private final int numberOfBuckets;
+	private final int mask;
+	private final Bucket[] buckets;
+	private final PriorityQueue<Message> overflow = new PriorityQueue<>(COMPARATOR);
+
+	private long currentBucket = 0;
+	private int size = 0;
+	private long nextSequence = 0;
+
+	public CalendarQueue() {
+		this(DEFAULT_BUCKET_WIDTH, DEFAULT_NUMBER_OF_BUCKETS);
+	}
+
+	public CalendarQueue(double bucketWidth, int numberOfBuckets) {
+		if (!(bucketWidth > 0)) {
+			throw new IllegalArgumentException("bucket width needs to be positive, but was " + bucketWidth);
+		}
+		if (numberOfBuckets <= 0 || Integer.bitCount(numberOfBuckets) != 1) {
+			throw new IllegalArgumentException("number of buckets needs to be a power of two, but was " + numberOfBuckets);
+		}
+		this.bucketWidth = bucketWidth;
+		this.numberOfBuckets = numberOfBuckets;
+		this.mask = numberOfBuckets - 1;
+		this.buckets = new Bucket[numberOfBuckets];
+		for (int i = 0; i < numberOfBuckets; i++) {
+			this.buckets[i] = new Bucket();
+		}
+	}
+
+	@Override
+	public boolean offer(Message m) {
+		m.sequence = nextSequence++;
+		long bucket = bucketOf(m);
+		if (size == 0) {
+			currentBucket = bucket;
+		}
+		size++;
+		if (bucket < currentBucket) {
+			moveBackTo(bucket);
+		}
+		if (bucket >= currentBucket + numberOfBuckets) {
+			overflow.add(m);
+		} else if (bucket == currentBucket) {
+			buckets[(int) (bucket & mask)].insert(m);
+		} else {
+			buckets[(int) (bucket & mask)].add(m);
+		}
+		return true;
+	}
+
+	@Override
+	public Message peek() {
+		Bucket bucket = advance();
+		return bucket == null ? null : bucket.first();
+	}
+
+	@Override
+	public Message poll() {
+		Bucket bucket = advance();
+		if (bucket == null) {
+			return null;
+		}
+		size--;
+		return bucket.removeFirst();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (Bucket bucket : buckets) {
+			bucket.clear();
+		}
+		overflow.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the queue, in no particular order.  It does not support removal.
+	 */
+	@Override
+	public Iterator<Message> iterator() {
+		List<Message> messages = new ArrayList<>(size);
+		for (Bucket bucket : buckets) {
+			for (int i = bucket.head; i < bucket.tail; i++) {
+				messages.add(bucket.messages[i]);
+			}
+		}
+		messages.addAll(overflow);
+		return Collections.unmodifiableList(messages).iterator();
+	}
+
+	/**
+	 * Moves the current bucket forward to the first non-empty bucket, and sorts it if needed.
+	 */
+	private Bucket advance() {
+		if (size == 0) {
+			return null;
+		}
+		Bucket bucket = buckets[(int) (currentBucket & mask)];
+		while (bucket.isEmpty()) {
+			if (size == overflow.size()) {
+				// nothing left in the ring, jump directly to the next message
+				currentBucket = bucketOf(overflow.peek());
+			} else {
+				currentBucket++;
+			}
+			// the last bucket of the ring has (possibly) just come into range
+			long horizon = currentBucket + numberOfBuckets;
+			while (!overflow.isEmpty() && bucketOf(overflow.peek()) < horizon) {
+				buckets[(int) (bucketOf(overflow.peek()) & mask)].add(overflow.poll());
+			}
+			bucket = buckets[(int) (currentBucket & mask)];
+		}
+		bucket.sort();
+		return bucket;
+	}
+
+	/**
+	 * Moves the ring back so that it starts at the given bucket.  Messages which are then beyond the horizon are moved
+	 * to the overflow heap.
+	 */
+	private void moveBackTo(long bucket) {
+		long from = Math.max(bucket + numberOfBuckets, currentBucket);
+		for (long b = from; b < currentBucket + numberOfBuckets; b++) {
+			buckets[(int) (b & mask)].moveTo(overflow);
+		}
+		currentBucket = bucket;
+	}
+
+	private long bucketOf(Message m) {
+		double bucket = Math.floor(m.getMessageArrivalTime() / bucketWidth);
+		if (bucket >= MAX_BUCKET) {
+			return MAX_BUCKET;
+		} else if (bucket <= -MAX_BUCKET) {
+			return -MAX_BUCKET;
+		}
+		return (long) bucket;
+	}
+
+	private static final class Bucket {
+		private Message[] messages = new Message[4];
+		private int head = 0;
+		private int tail = 0;
+		private boolean sorted = true;
+
+		boolean isEmpty() {
+			return head == tail;
+		}
+
+		void add(Message m) {
+			if (tail == messages.length) {
+				grow();
+			}
+			if (sorted && head < tail && COMPARATOR.compare(messages[tail - 1], m) > 0) {
+				sorted = false;
+			}
+			messages[tail++] = m;
+		}
+
+		/**
+		 * Like {@link #add(Message)}, but keeps the bucket sorted if it already is.
+		 */
+		void insert(Message m) {
+			if (!sorted || head == tail || COMPARATOR.compare(messages[tail - 1], m) < 0) {
+				add(m);
+				return;
+			}
+			if (head > 0 && COMPARATOR.compare(m, messages[head]) < 0) {
+				messages[--head] = m;
+				return;
+			}
+			if (tail == messages.length) {
+				grow();
+			}
+			int pos = -Arrays.binarySearch(messages, head, tail, m, COMPARATOR) - 1; // (never found, sequence numbers are unique)
+			System.arraycopy(messages, pos, messages, pos + 1, tail - pos);
+			messages[pos] = m;
+			tail++;
+		}
+
+		void sort() {
+			if (!sorted) {
+				Arrays.sort(messages, head, tail, COMPARATOR);
+				sorted = true;
+			}
+		}
+
+		Message first() {
+			return messages[head];
+		}
+
+		Message removeFirst() {
+			Message m = messages[head];
+			messages[head++] = null;
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return m;
+		}
+
+		void moveTo(Collection<Message> collection) {
+			for (int i = head; i < tail; i++) {
+				collection.add(messages[i]);
+			}
+			clear();
+		}
+
+		void clear() {
+			Arrays.fill(messages, head, tail, null);
+			head = 0;
+			tail = 0;
+			sorted = true;
+		}
+
+		private void grow() {
+			if (head > 0) {
+				System.arraycopy(messages, head, messages, 0, tail - head);
+				Arrays.fill(messages, tail - head, tail, null);
+				tail -= head;
+				head = 0;
+			} else {
+				messages = Arrays.copyOf(messages, messages.length * 2);
+			}
+		}
+	}
+}
@@ -107,18 +107,18 @@ public class EndLegMessage extends EventMessage {
 			event = new LinkEnterEvent(this.getMessageArrivalTime(), Id.create(vehicle.getOwnerPerson().getId().toString(), org.matsim.vehicles.Vehicle.class),
 					vehicle.getCurrentLinkId());
 
-			eventsManager.processEvent(event);
+			events.accept(event);
 		}
 
 		// schedule VehicleLeavesTrafficEvent
 		Id<org.matsim.vehicles.Vehicle> vehicleId = Id.create( this.vehicle.getOwnerPerson().getId() , org.matsim.vehicles.Vehicle.class ) ;
 		event = new VehicleLeavesTrafficEvent(this.getMessageArrivalTime(), this.vehicle.getOwnerPerson().getId(), this.vehicle.getCurrentLinkId(),
 				vehicleId, this.vehicle.getCurrentLeg().getMode(), 1.0 );
-		eventsManager.processEvent(event);
+		events.accept(event);
 
 		// schedule AgentArrivalEvent
 		event = new PersonArrivalEvent(this.getMessageArrivalTime(), this.vehicle.getOwnerPerson().getId(), this.vehicle.getCurrentLinkId(), this.vehicle.getCurrentLeg().getMode());
-		eventsManager.processEvent(event);
+		events.accept(event);
 
 		// schedule ActStartEvent
 		Activity nextAct = this.vehicle.getNextActivity();
@@ -130,8 +130,13 @@ public class EndLegMessage extends EventMessage {
 				nextAct.getFacilityId(), nextAct.getType(), nextAct.getCoord() );
 		// mobsim needs to know where activity takes place.  jdeqsim does not have access/egress legs; thus using act.getCoord() seems justified.
 
-		eventsManager.processEvent(event);
+		events.accept(event);
 
 	}
 
+	@Override
+	void recycle() {
+		MessageFactory.disposeEndLegMessage(this);
+	}
+
 }
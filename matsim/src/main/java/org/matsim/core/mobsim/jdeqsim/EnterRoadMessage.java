@@ -54,7 +54,12 @@ public class EnterRoadMessage extends EventMessage {
 		} else {
 			event = new LinkEnterEvent(this.getMessageArrivalTime(), Id.create(vehicle.getOwnerPerson().getId(), org.matsim.vehicles.Vehicle.class), vehicle.getCurrentLinkId());
 		}
-		eventsManager.processEvent(event);
+		events.accept(event);
+	}
+
+	@Override
+	void recycle() {
+		MessageFactory.disposeEnterRoadMessage(this);
 	}
 
 }
@@ -58,6 +58,10 @@ public class JDEQSimConfigGroup extends ReflectiveConfigGroup {
 	public final static String CAR_SIZE = "carSize";
 	public final static String GAP_TRAVEL_SPEED = "gapTravelSpeed";
 	public final static String END_TIME = "endTime";
+	public final static String MESSAGE_QUEUE = "messageQueue";
+	public final static String NUMBER_OF_THREADS = "numberOfThreads";
+
+	public enum MessageQueueType {priorityQueue, calendarQueue}
 
 	// INPUT
 	private OptionalTime simulationEndTime = OptionalTime.undefined();
@@ -72,6 +76,8 @@ public class JDEQSimConfigGroup extends ReflectiveConfigGroup {
 	 * 'stuckTime' for entering next road, it will enter the next. in seconds
 	 */
 	private double squeezeTime = 1800;
+	private MessageQueueType messageQueueType = MessageQueueType.priorityQueue;
+	private int numberOfThreads = 1;
 
 	public JDEQSimConfigGroup() {
 		super(NAME);
@@ -162,4 +168,33 @@ public class JDEQSimConfigGroup extends ReflectiveConfigGroup {
 		this.squeezeTime = squeezeTime;
 	}
 
+	/**
+	 * The data structure for the pending messages.  The calendar queue is faster for large scenarios, and returns
+	 * messages with the same time and priority in a well-defined (insertion) order.
+	 */
+	@StringGetter(MESSAGE_QUEUE)
+	public MessageQueueType getMessageQueueType() {
+		return messageQueueType;
+	}
+
+	@StringSetter(MESSAGE_QUEUE)
+	public void setMessageQueueType(MessageQueueType messageQueueType) {
+		this.messageQueueType = messageQueueType;
+	}
+
+	/**
+	 * With more than one thread, the network is partitioned and the partitions are simulated in parallel, see
+	 * {@link ParallelScheduler}.  Results are deterministic, but not identical to the ones with one thread.  Only used
+	 * by {@link JDEQSimulation}, not by the JDEQSim engine of the QSim.
+	 */
+	@StringGetter(NUMBER_OF_THREADS)
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	@StringSetter(NUMBER_OF_THREADS)
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 }
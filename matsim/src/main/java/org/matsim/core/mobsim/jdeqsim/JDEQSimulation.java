@@ -66,7 +66,7 @@ public class JDEQSimulation implements Mobsim {
 		Timer t = new Timer();
 		t.startTimer();
 
-		Scheduler scheduler = new Scheduler(new MessageQueue(), config.getSimulationEndTime().orElse(Double.MAX_VALUE));
+		Scheduler scheduler = createScheduler();
 		Road.setAllRoads(new HashMap<Id<Link>, Road>());
 
 		// initialize network
@@ -75,6 +75,9 @@ public class JDEQSimulation implements Mobsim {
 			road = new Road(scheduler, link);
 			Road.getAllRoads().put(link.getId(), road);
 		}
+		if (scheduler instanceof ParallelScheduler parallelScheduler) {
+			parallelScheduler.assignPartitions(this.scenario.getNetwork(), Road.getAllRoads());
+		}
 
 		for (Person person : this.scenario.getPopulation().getPersons().values()) {
 			new Vehicle(scheduler, person, timeInterpretation); // the vehicle registers itself to the scheduler
@@ -86,4 +89,15 @@ public class JDEQSimulation implements Mobsim {
 		log.info("Time needed for one iteration (only JDEQSimulation part): " + t.getMeasuredTime() + "[ms]");
 		events.finishProcessing();
 	}
+
+	private Scheduler createScheduler() {
+		double simulationEndTime = config.getSimulationEndTime().orElse(Double.MAX_VALUE);
+		if (config.getNumberOfThreads() > 1) {
+			if (ParallelScheduler.hasContiguousRoutes(this.scenario.getPopulation(), this.scenario.getNetwork())) {
+				return new ParallelScheduler(config, simulationEndTime);
+			}
+			log.warn("Not all car routes are contiguous, which is needed for running JDEQSim with more than one thread. Using one thread.");
+		}
+		return new Scheduler(MessageQueue.create(config), simulationEndTime);
+	}
 }
@@ -26,147 +26,149 @@ import org.matsim.core.utils.timing.TimeInterpretation;
 /**
  * The message factory is used for creating and disposing messages - mainly for
  * performance gain to have lesser garbage collection.
+ * <br/>
+ * Messages are handed back by the {@link Scheduler} after they have been handled (see {@link Message#recycle()}), except
+ * for {@link DeadlockPreventionMessage}s, which are referenced by their road until they are unscheduled.  The pools are
+ * per thread, so that simulations running in parallel do not share message objects.
  * 
  * @author rashid_waraich
  */
 public class MessageFactory {
 
-	private static LinkedList<EndLegMessage> endLegMessageQueue = new LinkedList<EndLegMessage>();
-	private static LinkedList<EnterRoadMessage> enterRoadMessageQueue = new LinkedList<EnterRoadMessage>();
-	private static LinkedList<StartingLegMessage> startingLegMessageQueue = new LinkedList<StartingLegMessage>();
-	private static LinkedList<LeaveRoadMessage> leaveRoadMessageQueue = new LinkedList<LeaveRoadMessage>();
-	private static LinkedList<EndRoadMessage> endRoadMessageQueue = new LinkedList<EndRoadMessage>();
+	private static final class Pools {
+		private final LinkedList<EndLegMessage> endLegMessageQueue = new LinkedList<EndLegMessage>();
+		private final LinkedList<EnterRoadMessage> enterRoadMessageQueue = new LinkedList<EnterRoadMessage>();
+		private final LinkedList<StartingLegMessage> startingLegMessageQueue = new LinkedList<StartingLegMessage>();
+		private final LinkedList<LeaveRoadMessage> leaveRoadMessageQueue = new LinkedList<LeaveRoadMessage>();
+		private final LinkedList<EndRoadMessage> endRoadMessageQueue = new LinkedList<EndRoadMessage>();
 
-	private static LinkedList<DeadlockPreventionMessage> deadlockPreventionMessageQueue = new LinkedList<DeadlockPreventionMessage>();
+		private final LinkedList<DeadlockPreventionMessage> deadlockPreventionMessageQueue = new LinkedList<DeadlockPreventionMessage>();
+	}
+
+	private static ThreadLocal<Pools> pools = ThreadLocal.withInitial(Pools::new);
 
 	public static void disposeEndLegMessage(EndLegMessage message) {
 		if (!JDEQSimConfigGroup.isGC_MESSAGES()) {
-			endLegMessageQueue.add(message);
+			pools.get().endLegMessageQueue.add(message);
 		}
 	}
 
 	public static void disposeEnterRoadMessage(EnterRoadMessage message) {
 		if (!JDEQSimConfigGroup.isGC_MESSAGES()) {
-			enterRoadMessageQueue.add(message);
+			pools.get().enterRoadMessageQueue.add(message);
 		}
 	}
 
 	public static void disposeStartingLegMessage(StartingLegMessage message) {
 		if (!JDEQSimConfigGroup.isGC_MESSAGES()) {
-			startingLegMessageQueue.add(message);
+			pools.get().startingLegMessageQueue.add(message);
 		}
 	}
 
 	public static void disposeLeaveRoadMessage(LeaveRoadMessage message) {
 		if (!JDEQSimConfigGroup.isGC_MESSAGES()) {
-			leaveRoadMessageQueue.add(message);
+			pools.get().leaveRoadMessageQueue.add(message);
 		}
 	}
 
 	public static void disposeEndRoadMessage(EndRoadMessage message) {
 		if (!JDEQSimConfigGroup.isGC_MESSAGES()) {
-			endRoadMessageQueue.add(message);
+			pools.get().endRoadMessageQueue.add(message);
 		}
 	}
 
 	public static void disposeDeadlockPreventionMessage(DeadlockPreventionMessage message) {
 		if (!JDEQSimConfigGroup.isGC_MESSAGES()) {
-			deadlockPreventionMessageQueue.add(message);
+			pools.get().deadlockPreventionMessageQueue.add(message);
 		}
 	}
 
 	public static EndLegMessage getEndLegMessage(Scheduler scheduler, Vehicle vehicle, TimeInterpretation timeInterpretation) {
-		if (endLegMessageQueue.size() == 0) {
+		if (pools.get().endLegMessageQueue.size() == 0) {
 			return new EndLegMessage(scheduler, vehicle, timeInterpretation);
 		} else {
-			EndLegMessage message = endLegMessageQueue.poll();
+			EndLegMessage message = pools.get().endLegMessageQueue.poll();
 			message.resetMessage(scheduler, vehicle);
 			return message;
 		}
 	}
 
 	public static EnterRoadMessage getEnterRoadMessage(Scheduler scheduler, Vehicle vehicle) {
-		if (enterRoadMessageQueue.size() == 0) {
+		if (pools.get().enterRoadMessageQueue.size() == 0) {
 			return new EnterRoadMessage(scheduler, vehicle);
 		} else {
-			EnterRoadMessage message = enterRoadMessageQueue.poll();
+			EnterRoadMessage message = pools.get().enterRoadMessageQueue.poll();
 			message.resetMessage(scheduler, vehicle);
 			return message;
 		}
 	}
 
 	public static StartingLegMessage getStartingLegMessage(Scheduler scheduler, Vehicle vehicle) {
-		if (startingLegMessageQueue.size() == 0) {
+		if (pools.get().startingLegMessageQueue.size() == 0) {
 			return new StartingLegMessage(scheduler, vehicle);
 		} else {
-			StartingLegMessage message = startingLegMessageQueue.poll();
+			StartingLegMessage message = pools.get().startingLegMessageQueue.poll();
 			message.resetMessage(scheduler, vehicle);
 			return message;
 		}
 	}
 
 	public static LeaveRoadMessage getLeaveRoadMessage(Scheduler scheduler, Vehicle vehicle) {
-		if (leaveRoadMessageQueue.size() == 0) {
+		if (pools.get().leaveRoadMessageQueue.size() == 0) {
 			return new LeaveRoadMessage(scheduler, vehicle);
 		} else {
-			LeaveRoadMessage message = leaveRoadMessageQueue.poll();
+			LeaveRoadMessage message = pools.get().leaveRoadMessageQueue.poll();
 			message.resetMessage(scheduler, vehicle);
 			return message;
 		}
 	}
 
 	public static EndRoadMessage getEndRoadMessage(Scheduler scheduler, Vehicle vehicle) {
-		if (endRoadMessageQueue.size() == 0) {
+		if (pools.get().endRoadMessageQueue.size() == 0) {
 			return new EndRoadMessage(scheduler, vehicle);
 		} else {
-			EndRoadMessage message = endRoadMessageQueue.poll();
+			EndRoadMessage message = pools.get().endRoadMessageQueue.poll();
 			message.resetMessage(scheduler, vehicle);
 			return message;
 		}
 	}
 
 	public static DeadlockPreventionMessage getDeadlockPreventionMessage(Scheduler scheduler, Vehicle vehicle) {
-		if (deadlockPreventionMessageQueue.size() == 0) {
+		if (pools.get().deadlockPreventionMessageQueue.size() == 0) {
 			return new DeadlockPreventionMessage(scheduler, vehicle);
 		} else {
-			DeadlockPreventionMessage message = deadlockPreventionMessageQueue.poll();
+			DeadlockPreventionMessage message = pools.get().deadlockPreventionMessageQueue.poll();
 			message.resetMessage(scheduler, vehicle);
 			return message;
 		}
 	}
 
 	public static void GC_ALL_MESSAGES() {
-		endLegMessageQueue = new LinkedList<EndLegMessage>();
-		enterRoadMessageQueue = new LinkedList<EnterRoadMessage>();
-		startingLegMessageQueue = new LinkedList<StartingLegMessage>();
-		leaveRoadMessageQueue = new LinkedList<LeaveRoadMessage>();
-		endRoadMessageQueue = new LinkedList<EndRoadMessage>();
-
-		deadlockPreventionMessageQueue = new LinkedList<DeadlockPreventionMessage>();
+		pools.remove();
 	}
 
 	public static LinkedList<EndLegMessage> getEndLegMessageQueue() {
-		return endLegMessageQueue;
+		return pools.get().endLegMessageQueue;
 	}
 
 	public static LinkedList<EnterRoadMessage> getEnterRoadMessageQueue() {
-		return enterRoadMessageQueue;
+		return pools.get().enterRoadMessageQueue;
 	}
 
 	public static LinkedList<StartingLegMessage> getStartingLegMessageQueue() {
-		return startingLegMessageQueue;
+		return pools.get().startingLegMessageQueue;
 	}
 
 	public static LinkedList<LeaveRoadMessage> getLeaveRoadMessageQueue() {
-		return leaveRoadMessageQueue;
+		return pools.get().leaveRoadMessageQueue;
 	}
 
 	public static LinkedList<EndRoadMessage> getEndRoadMessageQueue() {
-		return endRoadMessageQueue;
+		return pools.get().endRoadMessageQueue;
 	}
 
 	public static LinkedList<DeadlockPreventionMessage> getDeadlockPreventionMessageQueue() {
-		return deadlockPreventionMessageQueue;
+		return pools.get().deadlockPreventionMessageQueue;
 	}
 
 }
@@ -22,19 +22,45 @@ package org.matsim.core.mobsim.jdeqsim;
 import org.matsim.core.mobsim.qsim.jdeqsimengine.SteppableScheduler;
 
 import java.util.PriorityQueue;
+import java.util.Queue;
 
 /**
  * The message queue of the micro-simulation.
  * <br/>
  * Via injection, one can currently get hold both of {@link MessageQueue} and {@link SteppableScheduler}.  Seems to me that the intendet API is actually the latter??  But I
  * don't actually know.
+ * <br/>
+ * The underlying queue is a {@link PriorityQueue} by default; a {@link CalendarQueue} can be used instead, see
+ * {@link JDEQSimConfigGroup#getMessageQueueType()}.
  *
  * @author rashid_waraich
  */
 public class MessageQueue {
-	private PriorityQueue<Message> queue1 = new PriorityQueue<Message>();
+	private final Queue<Message> queue1;
 	private int queueSize = 0;
 
+	public MessageQueue() {
+		this(new PriorityQueue<Message>());
+	}
+
+	/**
+	 * @param queue an empty queue which returns the messages in the order given by {@link Message#compareTo(Message)}
+	 */
+	public MessageQueue(Queue<Message> queue) {
+		this.queue1 = queue;
+	}
+
+	public static MessageQueue create(JDEQSimConfigGroup config) {
+		switch (config.getMessageQueueType()) {
+			case priorityQueue:
+				return new MessageQueue();
+			case calendarQueue:
+				return new MessageQueue(new CalendarQueue());
+			default:
+				throw new IllegalArgumentException("unknown message queue type: " + config.getMessageQueueType());
+		}
+	}
+
 	/**
 	 * 
 	 * Putting a message into the queue
@@ -71,7 +97,7 @@ public class MessageQueue {
 	 */
 	public Message getNextMessage() {
 		Message m = null;
-		if (queue1.peek() != null) {
+		if (!queue1.isEmpty()) {
 			// skip over dead messages
 			while ((m = queue1.poll()) != null && !m.isAlive()) {
 
@@ -85,6 +111,21 @@ public class MessageQueue {
 		return m;
 	}
 
+	/**
+	 * 
+	 * get the first message in the queue (with least time stamp) without removing it
+	 * 
+	 * @return
+	 */
+	public Message peekNextMessage() {
+		Message m;
+		// drop dead messages (they have already been subtracted from the queue size)
+		while ((m = queue1.peek()) != null && !m.isAlive()) {
+			queue1.poll();
+		}
+		return m;
+	}
+
 	public boolean isEmpty() {
 		return queue1.size() == 0;
 	}
@@ -0,0 +1,456 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelScheduler.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.jdeqsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.events.EventArray;
+import org.matsim.core.gbl.Gbl;
+import org.matsim.core.network.NetworkChangeEvent;
+import org.matsim.core.network.TimeDependentNetwork;
+import org.matsim.core.population.routes.NetworkRoute;
+
+/**
+ * Scheduler which simulates partitions of the network in parallel, with conservative synchronization of the partitions
+ * in time windows.
+ * <p></p>
+ * Design thoughts:<ul>
+ * <li> The nodes of the network are partitioned into stripes along the x axis, one partition per thread.  A road
+ * belongs with its entry to the partition of its from node, and with its exit to the partition of its to node.  All
+ * interactions at a node (a car leaving one road and entering the next one, deadlock prevention, ...) are thus handled
+ * by one partition, in the same way as by the sequential {@link Scheduler}.</li>
+ * <li> Between the entry and the exit of a road which is cut by the partitioning, there are only two interactions: a
+ * car entering the road does not reach the exit before the free speed travel time (at the highest free speed set by
+ * any network change event), and the space of a car leaving the road does not reach the entry before the gap travel
+ * time.  The minimum of these times over all cut roads is the lookahead: all partitions process the messages of a
+ * window of that length independently, and the hand-overs between the partitions are exchanged at the end of the
+ * window.  Roads with a shorter travel time than {@link #MIN_LOOKAHEAD}
+ * are never cut.</li>
+ * <li> The only difference to the sequential simulation is that the entry of a cut road learns about space released
+ * by a leaving car at the end of the window instead of immediately; a car which wants to enter the (full) road in the
+ * meantime waits until the gap arrives.  Messages to another partition which are due before the end of the window
+ * (e.g. a departure directly after a teleported leg) are delayed to the end of the window.</li>
+ * <li> Within a window, every partition processes its messages in the same order as a sequential scheduler would.
+ * Hand-overs and events are exchanged in the order of the partitions, so the results do not depend on the thread
+ * timing.</li>
+ * <li> The simulation relies on car routes which are contiguous, see {@link #hasContiguousRoutes(Population, Network)}.
+ * </li>
+ * </ul>
+ */
+final class ParallelScheduler extends Scheduler {
+
+	private static final Logger log = LogManager.getLogger(ParallelScheduler.class);
+
+	/**
+	 * in seconds; roads with a shorter free speed or gap travel time are not cut by the partitioning
+	 */
+	static final double MIN_LOOKAHEAD = 1.0;
+
+	private final JDEQSimConfigGroup config;
+	private final double simulationEndTime;
+	private final Partition[] partitions;
+	private final ThreadLocal<Partition> currentPartition = new ThreadLocal<>();
+	private Map<Id<Link>, Double> maxChangedFreespeeds = Map.of();
+	private double lookahead = Double.POSITIVE_INFINITY;
+	private double simTime = 0;
+
+	ParallelScheduler(JDEQSimConfigGroup config, double simulationEndTime) {
+		super(null, simulationEndTime); // every partition has its own message queue
+		this.config = config;
+		this.simulationEndTime = simulationEndTime;
+		this.partitions = new Partition[config.getNumberOfThreads()];
+		for (int i = 0; i < partitions.length; i++) {
+			partitions[i] = new Partition(i, MessageQueue.create(config), partitions.length);
+		}
+	}
+
+	/**
+	 * Checks that the car routes of all selected plans are contiguous, from the link of the previous activity to the link
+	 * of the next activity.  Otherwise a car could need to enter a road which belongs to another partition.
+	 */
+	static boolean hasContiguousRoutes(Population population, Network network) {
+		for (Person person : population.getPersons().values()) {
+			Plan plan = person.getSelectedPlan();
+			if (plan == null) {
+				continue;
+			}
+			List<PlanElement> planElements = plan.getPlanElements();
+			for (int i = 1; i < planElements.size() - 1; i++) {
+				if (planElements.get(i) instanceof Leg leg && leg.getMode().equals(TransportMode.car)
+						&& leg.getRoute() instanceof NetworkRoute route && !route.getLinkIds().isEmpty()) {
+					Id<Link> previousLinkId = ((Activity) planElements.get(i - 1)).getLinkId();
+					for (Id<Link> linkId : route.getLinkIds()) {
+						if (!isConnected(network, previousLinkId, linkId)) {
+							return false;
+						}
+						previousLinkId = linkId;
+					}
+					if (!isConnected(network, previousLinkId, ((Activity) planElements.get(i + 1)).getLinkId())) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isConnected(Network network, Id<Link> fromLinkId, Id<Link> toLinkId) {
+		Link fromLink = network.getLinks().get(fromLinkId);
+		Link toLink = network.getLinks().get(toLinkId);
+		return fromLink != null && toLink != null && fromLink.getToNode() == toLink.getFromNode();
+	}
+
+	/**
+	 * Needs to be called after the roads have been created, and before the vehicles are created.
+	 */
+	void assignPartitions(Network network, Map<Id<Link>, Road> roads) {
+		this.maxChangedFreespeeds = collectMaxChangedFreespeeds(network);
+		Map<Id<Node>, Integer> partitionOfNode = partitionNodes(network);
+		int[] roadsPerPartition = new int[partitions.length];
+		int cutRoads = 0;
+		for (Road road : roads.values()) {
+			Link link = road.getLink();
+			road.entryPartition = partitionOfNode.get(link.getFromNode().getId());
+			road.exitPartition = partitionOfNode.get(link.getToNode().getId());
+			roadsPerPartition[road.entryPartition]++;
+			if (road.entryPartition != road.exitPartition) {
+				road.parallelScheduler = this;
+				lookahead = Math.min(lookahead, lookahead(link));
+				cutRoads++;
+			}
+		}
+		log.info("JDEQSim with " + partitions.length + " partitions: roads per partition " + Arrays.toString(roadsPerPartition)
+				+ ", " + cutRoads + " roads between partitions, lookahead " + lookahead + " sec");
+	}
+
+	double getLookahead() {
+		return lookahead;
+	}
+
+	/**
+	 * Roads move cars with the free speed at the time of entering, which may be raised by network change events.  The
+	 * free speed of a link only changes at the start times of its change events.
+	 */
+	private static Map<Id<Link>, Double> collectMaxChangedFreespeeds(Network network) {
+		Map<Id<Link>, Double> maxFreespeeds = new HashMap<>();
+		if (network instanceof TimeDependentNetwork timeDependentNetwork) {
+			for (NetworkChangeEvent event : timeDependentNetwork.getNetworkChangeEvents()) {
+				for (Link link : event.getLinks()) {
+					maxFreespeeds.merge(link.getId(), link.getFreespeed(event.getStartTime()), Math::max);
+				}
+			}
+		}
+		return maxFreespeeds;
+	}
+
+	private double lookahead(Link link) {
+		double maxFreespeed = Math.max(link.getFreespeed(), maxChangedFreespeeds.getOrDefault(link.getId(), 0.0));
+		return Math.min(link.getLength() / maxFreespeed, link.getLength() / config.getGapTravelSpeed());
+	}
+
+	private Map<Id<Node>, Integer> partitionNodes(Network network) {
+		List<Node> nodes = new ArrayList<>(network.getNodes().values());
+		nodes.sort(Comparator.comparingDouble((Node node) -> node.getCoord().getX()).thenComparing(Node::getId));
+		Map<Id<Node>, Integer> indexOfNode = new HashMap<>();
+		for (int i = 0; i < nodes.size(); i++) {
+			indexOfNode.put(nodes.get(i).getId(), i);
+		}
+
+		// the end nodes of roads with a short lookahead need to be in the same partition
+		int[] parent = new int[nodes.size()];
+		for (int i = 0; i < parent.length; i++) {
+			parent[i] = i;
+		}
+		for (Link link : network.getLinks().values()) {
+			if (lookahead(link) < MIN_LOOKAHEAD) {
+				int root1 = find(parent, indexOfNode.get(link.getFromNode().getId()));
+				int root2 = find(parent, indexOfNode.get(link.getToNode().getId()));
+				parent[Math.max(root1, root2)] = Math.min(root1, root2);
+			}
+		}
+		int[] clusterSize = new int[nodes.size()];
+		for (int i = 0; i < nodes.size(); i++) {
+			clusterSize[find(parent, i)]++;
+		}
+
+		// stripes with (about) the same number of nodes; a cluster goes to the stripe of its westernmost node
+		int[] partitionOfCluster = new int[nodes.size()];
+		Arrays.fill(partitionOfCluster, -1);
+		int assignedNodes = 0;
+		Map<Id<Node>, Integer> partitionOfNode = new HashMap<>();
+		for (int i = 0; i < nodes.size(); i++) {
+			int cluster = find(parent, i);
+			if (partitionOfCluster[cluster] < 0) {
+				partitionOfCluster[cluster] = (int) ((long) assignedNodes * partitions.length / nodes.size());
+				assignedNodes += clusterSize[cluster];
+			}
+			partitionOfNode.put(nodes.get(i).getId(), partitionOfCluster[cluster]);
+		}
+		return partitionOfNode;
+	}
+
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	@Override
+	public void schedule(Message m) {
+		Partition target = partitions[targetPartition(m)];
+		Partition current = currentPartition.get();
+		if (current == null) {
+			// initialization (vehicles are scheduling their first departure)
+			target.queue.putMessage(m);
+		} else if (current == target) {
+			if (m.getMessageArrivalTime() < current.earliestTime) {
+				m.setMessageArrivalTime(current.earliestTime);
+				current.delayedMessages++;
+			}
+			target.queue.putMessage(m);
+		} else if (current.earliestTime > Double.NEGATIVE_INFINITY) {
+			throw new IllegalStateException("a hand-over between partitions must not lead to a message to a third partition");
+		} else {
+			current.messages[target.index].add(m);
+		}
+	}
+
+	private static int targetPartition(Message m) {
+		Road road = (Road) m.getReceivingUnit();
+		return m instanceof EndRoadMessage || m instanceof LeaveRoadMessage ? road.exitPartition : road.entryPartition;
+	}
+
+	@Override
+	public void unschedule(Message m) {
+		// only used for deadlock prevention messages, which stay in the partition of the road entry
+		currentPartition.get().queue.removeMessage(m);
+	}
+
+	void handOverToRoadExit(Road road, Vehicle vehicle, double simTime) {
+		currentPartition.get().handOvers[road.exitPartition].add(new HandOver(road, vehicle, simTime));
+	}
+
+	void handOverToRoadEntry(Road road, double simTime) {
+		currentPartition.get().handOvers[road.entryPartition].add(new HandOver(road, null, simTime));
+	}
+
+	@Override
+	public void startSimulation() {
+		Consumer<Event> events = Message.events;
+		// collects the events of the messages in the partition of the current thread:
+		Message.events = event -> currentPartition.get().events.add(event);
+		ExecutorService executor = Executors.newFixedThreadPool(partitions.length, runnable -> {
+			Thread thread = new Thread(runnable, "JDEQSim");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long simulationStartTime = System.currentTimeMillis();
+		double hourlyLogTime = 3600;
+		int windows = 0;
+		try {
+			double windowStart;
+			while ((windowStart = getNextMessageTime()) < simulationEndTime) {
+				double windowEnd = Math.min(windowStart + lookahead, simulationEndTime);
+				runPartitions(executor, partition -> processWindow(partition, windowEnd));
+				runPartitions(executor, partition -> deliver(partition, windowEnd));
+				flushEvents(events);
+				windows++;
+
+				if (simTime > hourlyLogTime) {
+					hourlyLogTime = simTime + 3600;
+					log.info("Simulation at " + simTime / 3600 + "[h]; s/r:" + simTime / (System.currentTimeMillis() - simulationStartTime) * 1000);
+					Gbl.printMemoryUsage();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			Message.events = events;
+		}
+		int delayedMessages = 0;
+		for (Partition partition : partitions) {
+			delayedMessages += partition.delayedMessages;
+		}
+		log.info("JDEQSim finished after " + windows + " synchronization windows; " + delayedMessages
+				+ " messages between partitions had to be delayed to the end of their window.");
+	}
+
+	@Override
+	public double getSimTime() {
+		return simTime;
+	}
+
+	private double getNextMessageTime() {
+		double time = Double.POSITIVE_INFINITY;
+		for (Partition partition : partitions) {
+			Message m = partition.queue.peekNextMessage();
+			if (m != null) {
+				time = Math.min(time, m.getMessageArrivalTime());
+			}
+		}
+		return time;
+	}
+
+	private void runPartitions(ExecutorService executor, Consumer<Partition> task) {
+		List<Future<?>> futures = new ArrayList<>(partitions.length);
+		for (Partition partition : partitions) {
+			futures.add(executor.submit(() -> task.accept(partition)));
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	private void processWindow(Partition partition, double windowEnd) {
+		currentPartition.set(partition);
+		try {
+			Message m;
+			while ((m = partition.queue.peekNextMessage()) != null && m.getMessageArrivalTime() < windowEnd) {
+				partition.queue.getNextMessage();
+				partition.simTime = m.getMessageArrivalTime();
+				processMessage(m);
+			}
+		} finally {
+			currentPartition.remove();
+		}
+	}
+
+	/**
+	 * Applies the hand-overs and messages from the other partitions, in the order of the partitions.
+	 */
+	private void deliver(Partition partition, double windowEnd) {
+		currentPartition.set(partition);
+		partition.earliestTime = windowEnd;
+		try {
+			for (Partition sender : partitions) {
+				List<HandOver> handOvers = sender.handOvers[partition.index];
+				for (HandOver handOver : handOvers) {
+					if (handOver.vehicle() == null) {
+						handOver.road().spaceReleased(handOver.simTime());
+					} else {
+						handOver.road().vehicleEntered(handOver.vehicle(), handOver.simTime());
+					}
+				}
+				handOvers.clear();
+				List<Message> messages = sender.messages[partition.index];
+				for (Message m : messages) {
+					schedule(m);
+				}
+				messages.clear();
+			}
+		} finally {
+			partition.earliestTime = Double.NEGATIVE_INFINITY;
+			currentPartition.remove();
+		}
+	}
+
+	/**
+	 * Passes the events of the last window to the events manager, sorted by time (and by partition for equal times).
+	 */
+	private void flushEvents(Consumer<Event> events) {
+		int[] next = new int[partitions.length];
+		while (true) {
+			Partition first = null;
+			for (Partition partition : partitions) {
+				if (next[partition.index] < partition.events.size() && (first == null
+						|| partition.events.get(next[partition.index]).getTime() < first.events.get(next[first.index]).getTime())) {
+					first = partition;
+				}
+			}
+			if (first == null) {
+				break;
+			}
+			events.accept(first.events.get(next[first.index]++));
+		}
+		for (Partition partition : partitions) {
+			partition.events.clear();
+			simTime = Math.max(simTime, partition.simTime);
+		}
+	}
+
+	private static final class Partition {
+		private final int index;
+		private final MessageQueue queue;
+		private final List<HandOver>[] handOvers;
+		private final List<Message>[] messages;
+		private final EventArray events = new EventArray();
+		/**
+		 * messages before this time are delayed to this time; only set while hand-overs are delivered
+		 */
+		private double earliestTime = Double.NEGATIVE_INFINITY;
+		private double simTime = 0;
+		private int delayedMessages = 0;
+
+		@SuppressWarnings("unchecked")
+		Partition(int index, MessageQueue queue, int numberOfPartitions) {
+			this.index = index;
+			this.queue = queue;
+			this.handOvers = new List[numberOfPartitions];
+			this.messages = new List[numberOfPartitions];
+			for (int i = 0; i < numberOfPartitions; i++) {
+				this.handOvers[i] = new ArrayList<>();
+				this.messages[i] = new ArrayList<>();
+			}
+		}
+	}
+
+	/**
+	 * A car which has entered a road (to be handed over to the exit of the road), or the space released by a car which
+	 * has left a road (vehicle is null, to be handed over to the entry of the road).
+	 */
+	private record HandOver(Road road, Vehicle vehicle, double simTime) {
+	}
+}
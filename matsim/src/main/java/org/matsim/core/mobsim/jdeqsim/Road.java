@@ -101,6 +101,20 @@ public class Road extends SimUnit {
 	 */
 	private LinkedList<DeadlockPreventionMessage> deadlockPreventionMessages = new LinkedList<>();
 
+	/**
+	 * the number of cars on the road as seen from the entry of the road. This is the same as the size of carsOnTheRoad,
+	 * except if the entry and the exit of the road are simulated by different threads (see {@link ParallelScheduler})
+	 */
+	private int numberOfCarsOnTheRoad = 0;
+
+	/*
+	 * only used by the ParallelScheduler: the partitions which simulate the entry (from node) and the exit (to node) of the
+	 * road, and the scheduler, if these are different.
+	 */
+	int entryPartition = 0;
+	int exitPartition = 0;
+	ParallelScheduler parallelScheduler = null;
+
 	public Road(Scheduler scheduler, Link link) {
 		super(scheduler);
 		this.link = link;
@@ -140,12 +154,40 @@ public class Road extends SimUnit {
 
 	public void leaveRoad(Vehicle vehicle, double simTime) {
 		assert (this.carsOnTheRoad.getFirst() == vehicle);
-		assert (this.interestedInEnteringRoad.size()==this.deadlockPreventionMessages.size());
 
 		this.carsOnTheRoad.removeFirst();
 		this.earliestDepartureTimeOfCar.removeFirst();
 		this.timeOfLastLeavingVehicle = simTime;
 
+		if (this.parallelScheduler == null) {
+			spaceReleased(simTime);
+		} else {
+			this.parallelScheduler.handOverToRoadEntry(this, simTime);
+		}
+
+		/*
+		 * tell the car behind the fist car (which is the first car now), when
+		 * it reaches the end of the read
+		 */
+		if (this.carsOnTheRoad.size() > 0) {
+			Vehicle nextVehicle = this.carsOnTheRoad.getFirst();
+			double nextAvailableTimeForLeavingStreet = Math.max(this.earliestDepartureTimeOfCar.getFirst(),
+					this.timeOfLastLeavingVehicle + this.inverseOutFlowCapacity);
+			nextVehicle.scheduleEndRoadMessage(nextAvailableTimeForLeavingStreet, this);
+		}
+
+	}
+
+	/**
+	 * The part of leaving the road which concerns the entry of the road.
+	 *
+	 * @param simTime the time, when the car has left the road
+	 */
+	void spaceReleased(double simTime) {
+		assert (this.interestedInEnteringRoad.size()==this.deadlockPreventionMessages.size());
+
+		this.numberOfCarsOnTheRoad--;
+
 		/*
 		 * the next car waiting for entering the road should now be alloted a
 		 * time for entering the road
@@ -176,31 +218,34 @@ public class Road extends SimUnit {
 				 * and there are no cars on the road, then reset gap (this is
 				 * required, for enterRequest to function properly)
 				 */
-				if (this.carsOnTheRoad.size() == 0) {
+				if (this.numberOfCarsOnTheRoad == 0) {
 					this.gap = null;
 				}
 			}
 		}
+	}
 
-		/*
-		 * tell the car behind the fist car (which is the first car now), when
-		 * it reaches the end of the read
-		 */
-		if (this.carsOnTheRoad.size() > 0) {
-			Vehicle nextVehicle = this.carsOnTheRoad.getFirst();
-			double nextAvailableTimeForLeavingStreet = Math.max(this.earliestDepartureTimeOfCar.getFirst(),
-					this.timeOfLastLeavingVehicle + this.inverseOutFlowCapacity);
-			nextVehicle.scheduleEndRoadMessage(nextAvailableTimeForLeavingStreet, this);
-		}
+	public void enterRoad(Vehicle vehicle, double simTime) {
+		this.noOfCarsPromisedToEnterRoad--;
+		this.numberOfCarsOnTheRoad++;
 
+		if (this.parallelScheduler == null) {
+			vehicleEntered(vehicle, simTime);
+		} else {
+			this.parallelScheduler.handOverToRoadExit(this, vehicle, simTime);
+		}
 	}
 
-	public void enterRoad(Vehicle vehicle, double simTime) {
+	/**
+	 * The part of entering the road which concerns the exit of the road.
+	 *
+	 * @param simTime the time, when the car has entered the road
+	 */
+	void vehicleEntered(Vehicle vehicle, double simTime) {
 		// calculate time, when the car reaches the end of the road
 		double nextAvailableTimeForLeavingStreet = simTime + this.link.getLength()
 				/ this.link.getFreespeed(simTime);
 
-		this.noOfCarsPromisedToEnterRoad--;
 		this.carsOnTheRoad.add(vehicle);
 
 		/*
@@ -243,7 +288,7 @@ public class Road extends SimUnit {
 		 */
 
 		// is there any space on the road (including promised entries?)
-		if (this.carsOnTheRoad.size() + this.noOfCarsPromisedToEnterRoad < this.maxNumberOfCarsOnRoad) {
+		if (this.numberOfCarsOnTheRoad + this.noOfCarsPromisedToEnterRoad < this.maxNumberOfCarsOnRoad) {
 			/*
 			 * - check, if the gap needs to be considered for entering the road -
 			 * we can find out, the time since when we have a free road for
@@ -60,13 +60,21 @@ public class Scheduler {
 			m = queue.getNextMessage();
 			if (m != null) {
 				simTime = m.getMessageArrivalTime();
-				m.processEvent();
-				m.handleMessage();
+				processMessage(m);
 			}
 			printLog();
 		}
 	}
 
+	/**
+	 * Processes and handles the message, and then hands it back to the {@link MessageFactory} if it is not needed any more.
+	 */
+	protected final void processMessage(Message m) {
+		m.processEvent();
+		m.handleMessage();
+		m.recycle();
+	}
+
 	public double getSimTime() {
 		return simTime;
 	}
@@ -74,14 +74,19 @@ public class StartingLegMessage extends EventMessage {
 		// schedule ActEndEvent
 		event = new ActivityEndEvent(this.getMessageArrivalTime(), vehicle.getOwnerPerson().getId(), vehicle.getCurrentLinkId(), vehicle
 				.getPreviousActivity().getFacilityId(), vehicle.getPreviousActivity().getType(), vehicle.getPreviousActivity().getCoord());
-		eventsManager.processEvent(event);
+		events.accept(event);
 
 		// schedule AgentDepartureEvent
 		event = new PersonDepartureEvent(this.getMessageArrivalTime(), vehicle.getOwnerPerson().getId(), vehicle.getCurrentLinkId(),
 				vehicle.getCurrentLeg().getMode(), TripStructureUtils.getRoutingMode(vehicle.getCurrentLeg()));
 
-		eventsManager.processEvent(event);
+		events.accept(event);
 
 	}
 
+	@Override
+	void recycle() {
+		MessageFactory.disposeStartingLegMessage(this);
+	}
+
 }
@@ -26,15 +26,32 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.core.api.experimental.events.AgentWaitingForPtEvent;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.mobsim.qsim.AgentTracker;
+import org.matsim.pt.transitSchedule.api.TransitRouteStop;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
+ * Keeps track of the agents waiting at transit stops.
+ * <p></p>
+ * A vehicle arriving at a stop only has to ask those agents whether they want to board which travel to one of the
+ * vehicle's stops to come (see {@link #getAgentsAtFacilityWithDestinationIn(Id, List)}).  For this, the waiting agents
+ * are indexed by the desired destination they have when they arrive at the stop.  Agents without a desired
+ * destination are always asked.  Code changing the destination of an agent while it is waiting (e.g. within-day
+ * replanning) has to call {@link #updateDesiredDestination(PTPassengerAgent, Id)} afterwards.  The agents are
+ * returned in the order in which they have arrived at the stop.
+ *
  * @author mrieser
  */
 public class TransitStopAgentTracker implements AgentTracker {
@@ -42,7 +59,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 	private final static Logger log = LogManager.getLogger(TransitStopAgentTracker.class);
 	
 	private final EventsManager events;
-	private final Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStops = new ConcurrentHashMap<>();
+	private final Map<Id<TransitStopFacility>, WaitingAgents> agentsAtStops = new ConcurrentHashMap<>();
 
 	public TransitStopAgentTracker(final EventsManager events) {
 		this.events = events;
@@ -52,15 +69,11 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stop must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
-		if (agents == null) {
-			agents = new CopyOnWriteArrayList<>();// TODO check again. this might turn out to be slow, but we likely need something thread safe here. marcel/oct2014 
-			this.agentsAtStops.put(stopId, agents);
-		}
-		if ( !agents.add(agent) ) {
+		WaitingAgents agents = this.agentsAtStops.computeIfAbsent(stopId, k -> new WaitingAgents());
+		Id<TransitStopFacility> destinationStopId = agent.getDesiredDestinationStopId();
+		if ( !agents.add(agent, destinationStopId) ) {
 			log.error("did NOT add agent " + agent.getId() + " since it was already there.");
 		}
-		Id<TransitStopFacility> destinationStopId = agent.getDesiredDestinationStopId();
 		events.processEvent(new AgentWaitingForPtEvent(now, agent.getId(), stopId, destinationStopId));
 	}
 
@@ -68,7 +81,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stopId must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
 		if (agents != null) {
 			if (!agents.remove(agent)) {
 				log.error("Agent " + agent.getId() + " could not be removed from waiting at stop " + stopId);
@@ -78,16 +91,138 @@ public class TransitStopAgentTracker implements AgentTracker {
 		}
 	}
 
+	/**
+	 * Moves an agent waiting at the given stop to its current desired destination in the index used by
+	 * {@link #getAgentsAtFacilityWithDestinationIn(Id, List)}. Has to be called whenever the desired destination of a
+	 * waiting agent changes.
+	 */
+	public void updateDesiredDestination(final PTPassengerAgent agent, final Id<TransitStopFacility> stopId) {
+		if (stopId == null) {
+			throw new NullPointerException("stopId must not be null.");
+		}
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
+		if (agents == null || !agents.updateDestination(agent, agent.getDesiredDestinationStopId())) {
+			log.error("Agent " + agent.getId() + " is not waiting at stop " + stopId + ", cannot update its destination.");
+		}
+	}
+
+	/**
+	 * @return a snapshot of the agents waiting at the given stop, in the order in which they arrived at the stop
+	 */
 	@Override
 	public List<PTPassengerAgent> getAgentsAtFacility(final Id<TransitStopFacility> stopId) {
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
 		if (agents == null) {
 			return Collections.emptyList();
 		}
-		return Collections.unmodifiableList(agents);
+		return agents.getAll();
 	}
 
+	/**
+	 * Returns the agents waiting at the given stop which either currently travel to one of the given stops, or do not
+	 * tell their destination stop. These are the only agents which can possibly want to board a vehicle with the given
+	 * stops to come, as long as {@link PTPassengerAgent#getEnterTransitRoute} only accepts routes serving the
+	 * agent's desired destination stop.
+	 *
+	 * @return a snapshot of those agents, in the order in which they arrived at the stop
+	 */
+	public List<PTPassengerAgent> getAgentsAtFacilityWithDestinationIn(final Id<TransitStopFacility> stopId, final List<TransitRouteStop> stopsToCome) {
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
+		if (agents == null) {
+			return Collections.emptyList();
+		}
+		return agents.getWithDestinationIn(stopsToCome);
+	}
+
+	/**
+	 * @return a snapshot of all waiting agents per stop
+	 */
 	public Map<Id<TransitStopFacility>, List<PTPassengerAgent>> getAgentsAtStop() {
-		return this.agentsAtStops;
+		Map<Id<TransitStopFacility>, List<PTPassengerAgent>> map = new LinkedHashMap<>();
+		for (Map.Entry<Id<TransitStopFacility>, WaitingAgents> e : this.agentsAtStops.entrySet()) {
+			map.put(e.getKey(), e.getValue().getAll());
+		}
+		return map;
+	}
+
+	/*
+	 * The agents waiting at one stop, indexed by their desired destination stop (the key may be null). Agents may be
+	 * added and removed by different threads of the mobsim, therefore the methods are synchronized.
+	 */
+	private static final class WaitingAgents {
+
+		private record Waiting(PTPassengerAgent agent, long arrivalIndex, Id<TransitStopFacility> destinationStopId) {
+		}
+
+		private final Map<PTPassengerAgent, Waiting> all = new LinkedHashMap<>();
+		private final Map<Id<TransitStopFacility>, Set<Waiting>> byDestination = new HashMap<>();
+		private long arrivalCounter = 0;
+
+		synchronized boolean add(PTPassengerAgent agent, Id<TransitStopFacility> destinationStopId) {
+			if (this.all.containsKey(agent)) {
+				return false;
+			}
+			Waiting waiting = new Waiting(agent, this.arrivalCounter++, destinationStopId);
+			this.all.put(agent, waiting);
+			this.byDestination.computeIfAbsent(destinationStopId, k -> new LinkedHashSet<>()).add(waiting);
+			return true;
+		}
+
+		synchronized boolean remove(PTPassengerAgent agent) {
+			Waiting waiting = this.all.remove(agent);
+			if (waiting == null) {
+				return false;
+			}
+			removeFromIndex(waiting);
+			return true;
+		}
+
+		synchronized boolean updateDestination(PTPassengerAgent agent, Id<TransitStopFacility> destinationStopId) {
+			Waiting waiting = this.all.get(agent);
+			if (waiting == null) {
+				return false;
+			}
+			if (!Objects.equals(waiting.destinationStopId(), destinationStopId)) {
+				removeFromIndex(waiting);
+				Waiting moved = new Waiting(agent, waiting.arrivalIndex(), destinationStopId);
+				this.all.put(agent, moved);
+				this.byDestination.computeIfAbsent(destinationStopId, k -> new LinkedHashSet<>()).add(moved);
+			}
+			return true;
+		}
+
+		private void removeFromIndex(Waiting waiting) {
+			Set<Waiting> sameDestination = this.byDestination.get(waiting.destinationStopId());
+			sameDestination.remove(waiting);
+			if (sameDestination.isEmpty()) {
+				this.byDestination.remove(waiting.destinationStopId());
+			}
+		}
+
+		synchronized List<PTPassengerAgent> getAll() {
+			return List.copyOf(this.all.keySet());
+		}
+
+		synchronized List<PTPassengerAgent> getWithDestinationIn(List<TransitRouteStop> stopsToCome) {
+			List<Waiting> candidates = new ArrayList<>();
+			Set<Waiting> withoutDestination = this.byDestination.get(null);
+			if (withoutDestination != null) {
+				candidates.addAll(withoutDestination);
+			}
+			Set<Id<TransitStopFacility>> visited = new HashSet<>();
+			for (TransitRouteStop stop : stopsToCome) {
+				Id<TransitStopFacility> stopId = stop.getStopFacility().getId();
+				Set<Waiting> sameDestination = this.byDestination.get(stopId);
+				if (sameDestination != null && visited.add(stopId)) {
+					candidates.addAll(sameDestination);
+				}
+			}
+			candidates.sort(Comparator.comparingLong(Waiting::arrivalIndex));
+			List<PTPassengerAgent> agents = new ArrayList<>(candidates.size());
+			for (Waiting waiting : candidates) {
+				agents.add(waiting.agent());
+			}
+			return agents;
+		}
 	}
 }
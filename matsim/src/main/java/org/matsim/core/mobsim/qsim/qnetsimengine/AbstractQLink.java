@@ -19,6 +19,7 @@
 
 package org.matsim.core.mobsim.qsim.qnetsimengine;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -104,10 +105,25 @@ abstract class AbstractQLink implements QLinkI {
 	 * has come. They are then filled into the vehQueue, depending on free space
 	 * in the vehQueue
 	 */
-	private final Queue<QVehicle> waitingList = new LinkedList<>();
+	private final Queue<QVehicle> waitingList = new ArrayDeque<>();
 
 	private boolean active = false;
 
+	/**
+	 * A dormant link is active, but currently not in the list of links that are visited in every time step.  It sits in the
+	 * {@link LinkWakeUpWheel} of its runner until {@link #wakeUpTime}.  See {@link #getNextRelevantTime()}.
+	 * <p></p>
+	 * The runner of the link sets and clears the flag while it moves its links.  Other threads clear it in
+	 * {@link #activateLink()}, e.g. the runner of the upstream node while it moves the nodes.  The engine separates
+	 * these phases; the flag is volatile so that its visibility across the runner threads does not depend on how.
+	 */
+	private volatile boolean dormant = false;
+	private double wakeUpTime = Double.NEGATIVE_INFINITY;
+	/**
+	 * Position of the link in the list of active links of its runner, so that it can be put back there when woken up.
+	 */
+	private long activationIndex = 0;
+
 	private TransitQLink transitQLink;
 
 	private final QNodeI toQNode ;
@@ -143,6 +159,9 @@ abstract class AbstractQLink implements QLinkI {
 		if (!this.active) {
 			netElementActivationRegistry.registerLinkAsActive(this);
 			this.active = true;
+		} else if (this.dormant) {
+			this.dormant = false;
+			netElementActivationRegistry.wakeUpDormantLink(this);
 		}
 		// This is a bit involved since we do not want to ask the registry in every time step if the link is already active.
 	}
@@ -490,6 +509,40 @@ abstract class AbstractQLink implements QLinkI {
 		this.active = active;
 	}
 
+	/**
+	 * Time until which visiting this link in every time step would not change anything, since nothing can leave the link
+	 * before.  Events from the outside that invalidate this (e.g. a departing vehicle) wake the link up via
+	 * {@link #activateLink()}.  Returning {@link Double#NEGATIVE_INFINITY} means that the link needs to be visited in the next time
+	 * step; this is the default.
+	 */
+	double getNextRelevantTime() {
+		return Double.NEGATIVE_INFINITY;
+	}
+
+	boolean isDormant() {
+		return dormant;
+	}
+
+	void setDormant(boolean dormant) {
+		this.dormant = dormant;
+	}
+
+	double getWakeUpTime() {
+		return wakeUpTime;
+	}
+
+	void setWakeUpTime(double wakeUpTime) {
+		this.wakeUpTime = wakeUpTime;
+	}
+
+	long getActivationIndex() {
+		return activationIndex;
+	}
+
+	void setActivationIndex(long activationIndex) {
+		this.activationIndex = activationIndex;
+	}
+
 	Queue<QVehicle> getWaitingList() {
 		return waitingList;
 	}
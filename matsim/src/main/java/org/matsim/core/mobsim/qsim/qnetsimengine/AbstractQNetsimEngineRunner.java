@@ -20,14 +20,18 @@
 
 package org.matsim.core.mobsim.qsim.qnetsimengine;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.matsim.core.mobsim.qsim.QSim;
+import org.matsim.core.utils.instrumentation.Instrumentation;
 
 /**
  * These are the "threads" of the {@link QNetsimEngineWithThreadpool}. The "run()" method is implicitly called by starting the thread.
@@ -56,7 +60,22 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 	 * no concurrent add operation can occur.
 	 * cdobler, sep'14
 	 */
-	private final List<QLinkI> linksList = new LinkedList<>();
+	private final List<ActiveLink> linksList = new LinkedList<>();
+	private long nextActivationIndex = 0;
+
+	/*
+	 * Active links that do not need to be visited before a known point in time, see
+	 * AbstractQLink.getNextRelevantTime().  Links are woken up either by the wheel or, if something happens
+	 * on the link in the meantime, from the outside.  The latter may happen from other threads (e.g. a departure
+	 * triggered by an arrival on a link of another runner), which is why those go through a concurrent queue.
+	 * Woken up links are put back at their old position in the linksList (by activation index), so that links
+	 * are moved, and their events are thrown, in the same order as without putting them aside.
+	 */
+	private final LinkWakeUpWheel dormantLinks = new LinkWakeUpWheel();
+	private final Queue<AbstractQLink> wokenUpLinks = new ConcurrentLinkedQueue<>();
+	private final PriorityQueue<AbstractQLink> linksToWakeUp = new PriorityQueue<>(Comparator.comparingLong(AbstractQLink::getActivationIndex));
+	private final List<AbstractQLink> linksToWakeUpNextStep = new ArrayList<>();
+	private int numberOfDormantLinks = 0;
 
 	/*
 	 * Ensure that nodes and links are only activate during times where we expect it.
@@ -77,6 +96,14 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 		else runTimes = null;
 	}
 
+	private final Instrumentation.Metric nodesMetric;
+	private final Instrumentation.Metric linksMetric;
+
+	AbstractQNetsimEngineRunner(int runnerIndex) {
+		this.nodesMetric = Instrumentation.getMetric("qsim.runner" + runnerIndex + ".nodes");
+		this.linksMetric = Instrumentation.getMetric("qsim.runner" + runnerIndex + ".links");
+	}
+
 	/*package*/ final void setTime(final double t) {
 		time = t;
 	}
@@ -84,6 +111,7 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 	public abstract void afterSim() ;
 
 	protected void moveNodes() {
+		long start = Instrumentation.startTime();
 		boolean remainsActive;
 		this.lockNodes = true;
 		QNodeI node;
@@ -94,21 +122,84 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 			if (!remainsActive) simNodes.remove();
 		}
 		this.lockNodes = false;
+		this.nodesMetric.recordTime(start);
 	}
 	
 	protected final void moveLinks() {
-		boolean remainsActive;
+		long start = Instrumentation.startTime();
+		this.dormantLinks.wakeUp(time, this.linksToWakeUp);
+		this.linksToWakeUp.addAll(this.linksToWakeUpNextStep);
+		this.linksToWakeUpNextStep.clear();
+
 		lockLinks = true;
-		QLinkI link;
-		ListIterator<QLinkI> simLinks = this.linksList.listIterator();
-		while (simLinks.hasNext()) {
-			link = simLinks.next();
+		long passedActivationIndex = Long.MIN_VALUE;
+		ListIterator<ActiveLink> simLinks = this.linksList.listIterator();
+		while (true) {
+			drainWokenUpLinks(passedActivationIndex);
+			AbstractQLink wokenUpLink = this.linksToWakeUp.peek();
+			ActiveLink next = simLinks.hasNext() ? simLinks.next() : null;
+			if (wokenUpLink != null && (next == null || wokenUpLink.getActivationIndex() < next.activationIndex())) {
+				// the woken up link comes first:
+				if (next != null) simLinks.previous();
+				this.linksToWakeUp.poll();
+				this.numberOfDormantLinks--;
+				passedActivationIndex = wokenUpLink.getActivationIndex();
+				if (moveLink(wokenUpLink)) simLinks.add(new ActiveLink(wokenUpLink, wokenUpLink.getActivationIndex()));
+			} else if (next != null) {
+				passedActivationIndex = next.activationIndex();
+				if (!moveLink(next.link())) simLinks.remove();
+			} else {
+				break;
+			}
+		}
+		lockLinks = false;
+		this.linksMetric.recordTime(start);
+	}
 
-			remainsActive = link.doSimStep();
+	/**
+	 * @return whether the link stays in the list of links that are visited in every time step
+	 */
+	private boolean moveLink(QLinkI link) {
+		if (!link.doSimStep()) {
+			return false;
+		}
+		if (link instanceof AbstractQLink qLink) {
+			double nextRelevantTime = qLink.getNextRelevantTime();
+			if (nextRelevantTime > time) {
+				// nothing will happen on this link before nextRelevantTime; do not visit it until then:
+				qLink.setWakeUpTime(nextRelevantTime);
+				qLink.setDormant(true);
+				this.dormantLinks.add(qLink, nextRelevantTime);
+				this.numberOfDormantLinks++;
+				return false;
+			}
+		}
+		return true;
+	}
 
-			if (!remainsActive) simLinks.remove();
+	/*
+	 * Links woken up from the outside before their position in the linksList has been passed in this time step are
+	 * still moved in this time step, the others in the next one (as they would have been without putting them aside).
+	 */
+	private void drainWokenUpLinks(long passedActivationIndex) {
+		AbstractQLink link;
+		while ((link = this.wokenUpLinks.poll()) != null) {
+			if (link.getActivationIndex() > passedActivationIndex) {
+				this.linksToWakeUp.add(link);
+			} else {
+				this.linksToWakeUpNextStep.add(link);
+			}
 		}
-		lockLinks = false;
+	}
+
+	/*
+	 * In contrast to registerLinkAsActive(...), this may be called while links are moved, and from other threads.
+	 * Woken up links are collected and put back into the linksList when links are moved, see drainWokenUpLinks(...).
+	 * (Inactive links cannot be activated while links are moved at all, see below.)
+	 */
+	@Override
+	final void wakeUpDormantLink(AbstractQLink link) {
+		this.wokenUpLinks.add(link);
 	}
 
 	/*
@@ -118,13 +209,17 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 	 */
 	@Override
 	protected final void registerLinkAsActive(QLinkI link) {
-		if (!lockLinks) linksList.add(link);
+		if (!lockLinks) {
+			long activationIndex = this.nextActivationIndex++;
+			if (link instanceof AbstractQLink qLink) qLink.setActivationIndex(activationIndex);
+			linksList.add(new ActiveLink(link, activationIndex));
+		}
 		else throw new RuntimeException("Tried to activate a QLink at a time where this was not allowed. Aborting!");
 	}
 
 	@Override
 	public final int getNumberOfSimulatedLinks() {
-		return this.linksList.size();
+		return this.linksList.size() + this.numberOfDormantLinks;
 	}
 
 	/*
@@ -160,4 +255,7 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 			if (bin < this.runTimes.length) this.runTimes[bin] = end - this.startTime;
 		}
 	}
-}
\ No newline at end of file
+
+	private record ActiveLink(QLinkI link, long activationIndex) {
+	}
+}
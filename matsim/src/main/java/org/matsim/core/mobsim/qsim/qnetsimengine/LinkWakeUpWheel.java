@@ -0,0 +1,99 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LinkWakeUpWheel.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Timing wheel for links that are active but do not need to be visited before a known point in time (typically the
+ * earliest link exit time of their first vehicle).  There is one wheel per {@link AbstractQNetsimEngineRunner}, so
+ * no synchronization is needed.
+ * <p></p>
+ * Design thoughts:<ul>
+ * <li> Slots cover one second each.  Links with a wake up time more than one revolution ahead just stay in their
+ * slot and are looked at again in the next revolution.  This is cheaper than a hierarchical wheel as long as
+ * most link travel times are shorter than one revolution.</li>
+ * <li> Entries are removed lazily: a link that was woken up from the outside (see
+ * {@link AbstractQLink#isDormant()}) is simply dropped when its slot comes up.</li>
+ * </ul>
+ */
+final class LinkWakeUpWheel {
+
+	private static final int NUMBER_OF_SLOTS = 256; // needs to be a power of two
+	private static final int MASK = NUMBER_OF_SLOTS - 1;
+
+	private final List<List<AbstractQLink>> slots = new ArrayList<>(NUMBER_OF_SLOTS);
+
+	private long lastProcessedSecond = Long.MIN_VALUE;
+
+	LinkWakeUpWheel() {
+		for (int i = 0; i < NUMBER_OF_SLOTS; i++) {
+			slots.add(new ArrayList<>());
+		}
+	}
+
+	void add(final AbstractQLink link, final double wakeUpTime) {
+		slots.get((int) ((long) Math.floor(wakeUpTime) & MASK)).add(link);
+	}
+
+	/**
+	 * Moves all dormant links with a wake up time of at most <code>now</code> to <code>activeLinks</code>, in no particular
+	 * order.
+	 *
+	 * @return the number of links that were woken up
+	 */
+	int wakeUp(final double now, final Collection<? super AbstractQLink> activeLinks) {
+		long currentSecond = (long) Math.floor(now);
+		long fromSecond = lastProcessedSecond == Long.MIN_VALUE ? currentSecond : Math.min(lastProcessedSecond + 1, currentSecond);
+		if (currentSecond - fromSecond >= NUMBER_OF_SLOTS) {
+			// (time step size larger than one revolution; every slot needs to be looked at once)
+			fromSecond = currentSecond - NUMBER_OF_SLOTS + 1;
+		}
+		int cnt = 0;
+		for (long second = fromSecond; second <= currentSecond; second++) {
+			cnt += wakeUpSlot(slots.get((int) (second & MASK)), now, activeLinks);
+		}
+		lastProcessedSecond = currentSecond;
+		return cnt;
+	}
+
+	private static int wakeUpSlot(final List<AbstractQLink> slot, final double now, final Collection<? super AbstractQLink> activeLinks) {
+		int cnt = 0;
+		int kept = 0;
+		for (int i = 0; i < slot.size(); i++) {
+			AbstractQLink link = slot.get(i);
+			if (!link.isDormant()) {
+				continue; // was woken up from outside in the meantime
+			}
+			if (link.getWakeUpTime() <= now) {
+				link.setDormant(false);
+				activeLinks.add(link);
+				cnt++;
+			} else {
+				slot.set(kept++, link); // not yet due, e.g. more than one revolution ahead
+			}
+		}
+		slot.subList(kept, slot.size()).clear();
+		return cnt;
+	}
+}
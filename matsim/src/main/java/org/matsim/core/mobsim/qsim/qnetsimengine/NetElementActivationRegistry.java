@@ -31,4 +31,12 @@ abstract class NetElementActivationRegistry {
 	abstract void registerLinkAsActive(final QLinkI link);
 
 	abstract int getNumberOfSimulatedLinks();
+
+	/**
+	 * Puts a link that was dormant (see {@link AbstractQLink#getNextRelevantTime()}) back into the set of links that are
+	 * visited in every time step.  Registries that never put links aside just treat this as a new activation.
+	 */
+	void wakeUpDormantLink(final AbstractQLink link) {
+		registerLinkAsActive(link);
+	}
 } 
\ No newline at end of file
@@ -182,6 +182,17 @@ public final class QLinkImpl extends AbstractQLink implements SignalizeableItem
 		return qlane.isNotOfferingVehicle();
 	}
 
+	@Override
+	double getNextRelevantTime() {
+		if ( !this.getWaitingList().isEmpty() || !this.getTransitQLink().getTransitVehicleStopQueue().isEmpty() ) {
+			return Double.NEGATIVE_INFINITY ;
+		}
+		if ( qlane instanceof QueueWithBuffer ) {
+			return ((QueueWithBuffer) qlane).getNextRelevantTime() ;
+		}
+		return Double.NEGATIVE_INFINITY ;
+	}
+
 	@Override public void recalcTimeVariantAttributes() {
 		double now = context.getSimTimer().getTimeOfDay() ;
 		qlane.changeUnscaledFlowCapacityPerSecond( this.getLink().getFlowCapacityPerSec(now ) );
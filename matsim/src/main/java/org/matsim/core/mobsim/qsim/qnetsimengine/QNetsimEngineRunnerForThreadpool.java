@@ -35,7 +35,8 @@ final class QNetsimEngineRunnerForThreadpool extends AbstractQNetsimEngineRunner
 	private volatile boolean simulationRunning = true;
 	private boolean movingNodes;
 
-	QNetsimEngineRunnerForThreadpool() {
+	QNetsimEngineRunnerForThreadpool(int runnerIndex) {
+		super(runnerIndex);
 	}
 
 	@Override
@@ -124,7 +124,7 @@ final class QNetsimEngineWithThreadpool extends AbstractQNetsimEngine<QNetsimEng
 	protected List<QNetsimEngineRunnerForThreadpool> initQSimEngineRunners() {
 		List<QNetsimEngineRunnerForThreadpool> engines = new ArrayList<>();
 		for (int i = 0; i < numOfRunners; i++) {
-			QNetsimEngineRunnerForThreadpool engine = new QNetsimEngineRunnerForThreadpool();
+			QNetsimEngineRunnerForThreadpool engine = new QNetsimEngineRunnerForThreadpool(i);
 			engines.add(engine);
 		}
 		return engines;
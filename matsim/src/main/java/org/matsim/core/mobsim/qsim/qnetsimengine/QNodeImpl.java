@@ -66,7 +66,13 @@ final class QNodeImpl extends AbstractQNode {
 	
 	private final QLinkI[] inLinksArrayCache;
 	private final QLinkI[] tempLinks;
-	private Double[] inLinkPriorities;
+	/**
+	 * Capacities of the inLinks at the current time step.  Collected once per {@link #doSimStep(double)}, so that the
+	 * selection loops below, which pass over all inLinks for every vehicle (or buffer) moved, do not need to go through
+	 * {@link Link#getCapacity(double)} (which may involve a lookup for time variant links) over and over again.
+	 */
+	private final double[] inLinkCapacities;
+	private double[] inLinkPriorities;
 	
 	private final Random random;
 	private final NetsimEngineContext context;
@@ -111,6 +117,7 @@ final class QNodeImpl extends AbstractQNode {
 		int nofInLinks = n.getInLinks().size();
 		this.inLinksArrayCache = new QLinkI[nofInLinks];
 		this.tempLinks = new QLinkI[nofInLinks];
+		this.inLinkCapacities = new double[nofInLinks];
 		if (this.context.qsimConfig.getNumberOfThreads() > 1) {
 			// This could just as well be the "normal" case. The second alternative
 			// is just there so some scenarios / test cases stay
@@ -170,7 +177,7 @@ final class QNodeImpl extends AbstractQNode {
 			/* initialize inLink priorities.
 			 * unfortunately, this can't be done in init() because when capacities are changed 
 			 * before controler.run() init() uses the old capacities. theresa, may'20 */ 
-			inLinkPriorities = new Double[inLinksArrayCache.length];
+			inLinkPriorities = new double[inLinksArrayCache.length];
 			for (int inLinkCounter=0; inLinkCounter<this.inLinksArrayCache.length; inLinkCounter++) {
 				double linkCap = this.inLinksArrayCache[inLinkCounter].getLink().getCapacity(now);
 				inLinkPriorities[inLinkCounter] = 1. / linkCap;
@@ -186,7 +193,11 @@ final class QNodeImpl extends AbstractQNode {
 			QLinkI link = this.inLinksArrayCache[inLinkIndex];
 			if (!link.isNotOfferingVehicle()) {
 				this.tempLinks[inLinkIndex] = link;
-				inLinksCapSum += link.getLink().getCapacity(now);
+				this.inLinkCapacities[inLinkIndex] = link.getLink().getCapacity(now);
+				inLinksCapSum += this.inLinkCapacities[inLinkIndex];
+			} else if (this.tempLinks[inLinkIndex] != null) {
+				// (left over from a time step that ended with a blocked node; still taking part in the selection below)
+				this.inLinkCapacities[inLinkIndex] = link.getLink().getCapacity(now);
 			}
 		}
 		
@@ -207,10 +218,10 @@ final class QNodeImpl extends AbstractQNode {
 					QLinkI link = this.tempLinks[i];
 					if (link != null) {
 						// link is offering vehicles
-						selCap += link.getLink().getCapacity(now);
+						selCap += this.inLinkCapacities[i];
 						if (selCap >= rndNum) {
 							// try to move vehicles from this link over the node
-							inLinksCapSum -= link.getLink().getCapacity(now);
+							inLinksCapSum -= this.inLinkCapacities[i];
 							this.tempLinks[i] = null;
 							this.moveLink(link, now);
 							if (this.stopMoveNodeWhenSingleOutlinkFull && this.atLeastOneOutgoingLaneIsJammed) {
@@ -233,12 +244,12 @@ final class QNodeImpl extends AbstractQNode {
 					QLinkI link = this.tempLinks[i];
 					if (link != null) {
 						// link is offering vehicles
-						selCap += link.getLink().getCapacity(now);
+						selCap += this.inLinkCapacities[i];
 						if (selCap >= rndNum) {
 							// try to move a vehicle from this link over the node
 							if ( ! moveFirstVehicleOnLink(now, link)) {
 								// the link is not able to move (more) vehicles in this time step
-								inLinksCapSum -= link.getLink().getCapacity(now);
+								inLinksCapSum -= this.inLinkCapacities[i];
 								this.tempLinks[i] = null;
 							} else {
 								// a vehicle has been moved
@@ -268,7 +279,7 @@ final class QNodeImpl extends AbstractQNode {
 							 * (e.g. 1/7200 + 1/7200 as double is greater than 1/3600).
 							 * for equal priorities the tie breaking rule is applied (lower link id, see above)
 							 */
-							(float) this.inLinkPriorities[i].doubleValue() < (float) minPrio) {
+							(float) this.inLinkPriorities[i] < (float) minPrio) {
 						// link is offering vehicles and has lowest priority so far
 						minPrio = this.inLinkPriorities[i];
 						prioInLinkIndex = i;
@@ -279,12 +290,12 @@ final class QNodeImpl extends AbstractQNode {
 				// try to move a vehicle from this selected link over the node
 				if ( ! moveFirstVehicleOnLink(now, selectedLink)) {
 					// the link is not able to move (more) vehicles in this time step
-					inLinksCapSum -= selectedLink.getLink().getCapacity(now);
+					inLinksCapSum -= this.inLinkCapacities[prioInLinkIndex];
 					this.tempLinks[prioInLinkIndex] = null;
 				} else {
 					// a vehicle has been moved; update priority of the selected link
 					prioWithWhichTheLastVehWasSent = minPrio;
-					this.inLinkPriorities[prioInLinkIndex] += 1. / selectedLink.getLink().getCapacity(now);
+					this.inLinkPriorities[prioInLinkIndex] += 1. / this.inLinkCapacities[prioInLinkIndex];
 				}
 				if (this.atLeastOneOutgoingLaneIsJammed) {
 					// stopMoveNodeWhenSingleOutlinkFull is always true for this node transition
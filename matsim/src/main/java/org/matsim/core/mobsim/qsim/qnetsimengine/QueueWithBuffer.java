@@ -19,10 +19,10 @@
 
 package org.matsim.core.mobsim.qsim.qnetsimengine;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Queue;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -132,7 +132,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	private double flowCapacityPerTimeStep;
 	private double remainingHolesStorageCapacity = 0.0 ;
 
-	private final Queue<QueueWithBuffer.Hole> holes = new LinkedList<>();
+	private final Queue<QueueWithBuffer.Hole> holes = new ArrayDeque<>();
 
 	/** the last time-step the front-most vehicle in the buffer was moved. Used for detecting dead-locks. */
 	private double bufferLastMovedTime = Double.NEGATIVE_INFINITY ;
@@ -151,7 +151,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	 * (1) entry to the buffer (this is where it is computed and then stored) <br>
 	 * (2) update of the remaining flow capacity (where we account for all vehicles that are still in the buffer since previous time steps) - see {@link #subtractConsumptionOfVehiclesThatAreAlreadyInTheBuffer()} <br>
 	 */
-	private final Queue<Pair<QVehicle,Double>> buffer = new LinkedList<>() ;
+	private final Queue<Pair<QVehicle,Double>> buffer = new ArrayDeque<>() ;
 	/**
 	 * null if the link is not signalized
 	 */
@@ -705,6 +705,28 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		}
 	}
 
+	/**
+	 * Earliest time at which {@link #doSimStep()} may have an effect, or {@link Double#NEGATIVE_INFINITY} if this is not known.
+	 * <br>
+	 * This is only known for the plain queue model: with fast capacity update, the flow capacity is not accumulated in every
+	 * time step, and with FIFO, nothing can overtake the first vehicle.  Holes, inflow capacity, seepage and lanes need the
+	 * link to be visited in every time step.
+	 */
+	final double getNextRelevantTime() {
+		if ( !context.qsimConfig.isUsingEventDrivenLinkWakeUp()
+				|| !context.qsimConfig.isUsingFastCapacityUpdate()
+				|| context.qsimConfig.getTrafficDynamics() != TrafficDynamics.queue
+				|| context.qsimConfig.getLinkDynamics() != LinkDynamics.FIFO
+				|| context.qsimConfig.isUseLanes() ) {
+			return Double.NEGATIVE_INFINITY ;
+		}
+		QVehicle veh = vehQueue.peek() ;
+		if ( veh == null ) {
+			return Double.NEGATIVE_INFINITY ;
+		}
+		return veh.getEarliestLinkExitTime() ;
+	}
+
 	@Override
 	public final void setSignalStateAllTurningMoves( final SignalGroupState state) {
 		qSignalizedItem.setSignalStateAllTurningMoves(state);
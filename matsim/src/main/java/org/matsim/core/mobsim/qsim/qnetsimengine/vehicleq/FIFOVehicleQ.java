@@ -19,14 +19,16 @@
 package org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq;
 
 import java.util.AbstractQueue;
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.LinkedList;
 
 import org.matsim.core.mobsim.qsim.qnetsimengine.QVehicle;
 
 public final class FIFOVehicleQ extends AbstractQueue<QVehicle> implements VehicleQ<QVehicle>  {
 	
-	private final LinkedList<QVehicle> vehicleQueue = new LinkedList<>();
+	// An array-based ring buffer rather than a linked list: no node object per queued vehicle, and consecutive vehicles
+	// are next to each other in memory.  Vehicles are almost always removed at the head.
+	private final ArrayDeque<QVehicle> vehicleQueue = new ArrayDeque<>();
 
 	@Override
 	public boolean offer(QVehicle e) {
@@ -43,6 +45,16 @@ public final class FIFOVehicleQ extends AbstractQueue<QVehicle> implements Vehic
 		return vehicleQueue.poll();
 	}
 
+	@Override
+	public boolean remove(Object o) {
+		return vehicleQueue.removeFirstOccurrence(o);
+	}
+
+	@Override
+	public void clear() {
+		vehicleQueue.clear();
+	}
+
 	@Override
 	public Iterator<QVehicle> iterator() {
 		return vehicleQueue.iterator();
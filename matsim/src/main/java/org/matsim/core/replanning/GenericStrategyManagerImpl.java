@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.matsim.core.replanning.selectors.PlanSelector;
 import org.matsim.core.replanning.selectors.GenericWorstPlanForRemovalSelector;
 import org.matsim.core.replanning.selectors.RandomPlanSelector;
 import org.matsim.core.replanning.selectors.WorstPlanForRemovalSelector;
+import org.matsim.core.utils.instrumentation.Instrumentation;
 
 /**
  * Notes:<ul>
@@ -212,9 +214,15 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 	{
 		this.strategyChooser.beforeReplanning(replanningContext);
 
+		// (null if instrumentation is switched off)
+		Map<GenericPlanStrategy<PL, AG>, Instrumentation.Metric> metrics = Instrumentation.isEnabled() ? new IdentityHashMap<>() : null;
+
 		// initialize all strategies
 		for (GenericPlanStrategy<PL, AG> strategy : distinctStrategies()) {
 			strategy.init(replanningContext);
+			if (metrics != null) {
+				metrics.put(strategy, Instrumentation.getMetric("replanning." + strategy));
+			}
 		}
 
 		// then go through the population and ...
@@ -238,12 +246,20 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 			}
 
 			// ... and run the strategy:
+			long start = Instrumentation.startTime();
 			strategy.run(person);
+			if (metrics != null) {
+				metrics.get(strategy).recordTime(start);
+			}
 		}
 
 		// finally make sure all strategies have finished there work
 		for (GenericPlanStrategy<PL, AG> strategy : distinctStrategies()) {
+			long start = Instrumentation.startTime();
 			strategy.finish();
+			if (metrics != null) {
+				metrics.get(strategy).recordTime(start);
+			}
 		}
 
 	}
@@ -40,6 +40,7 @@ import org.matsim.api.core.v01.population.PlanElement;
 import org.matsim.core.api.internal.MatsimExtensionPoint;
 import org.matsim.core.config.Config;
 import org.matsim.core.gbl.Gbl;
+import org.matsim.core.utils.instrumentation.Instrumentation;
 import org.matsim.facilities.Facility;
 import org.matsim.utils.objectattributes.attributable.Attributes;
 
@@ -62,6 +63,7 @@ public final class TripRouter implements MatsimExtensionPoint {
 
 	private final Map<String, RoutingModule> routingModules = new HashMap<>();
 	private final FallbackRoutingModule fallbackRoutingModule;
+	private final Map<String, Instrumentation.Metric> routingMetrics = new HashMap<>();
 
 	private Config config;
 	// (I need the config in the PlanRouter to figure out activity end times. And since the PlanRouter is not
@@ -179,11 +181,17 @@ public final class TripRouter implements MatsimExtensionPoint {
 				person,
 				routingAttributes);
 
+		long start = Instrumentation.startTime();
+
 		List<? extends PlanElement> trip = module.calcRoute(request);
 
 		if ( trip == null ) {
 			trip = fallbackRoutingModule.calcRoute(request) ;
 		}
+
+		if ( start != Instrumentation.DISABLED ) {
+			routingMetrics.computeIfAbsent( mainMode, mode -> Instrumentation.getMetric( "router." + mode ) ).recordTime( start );
+		}
 		for (Leg leg: TripStructureUtils.getLegs(trip)) {
 			TripStructureUtils.setRoutingMode(leg, mainMode);
 		}
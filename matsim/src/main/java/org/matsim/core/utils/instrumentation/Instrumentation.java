@@ -0,0 +1,201 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.core.utils.instrumentation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.matsim.core.utils.io.IOUtils;
+
+/**
+ * Counters and timers for the hot paths of a run (mobsim runners, events processing, routing, replanning), which are
+ * too fine-grained for the {@link org.matsim.analysis.IterationStopWatch}.
+ * <p></p>
+ * Usage:<pre>
+ * long start = Instrumentation.startTime();
+ * ... // the code to be measured
+ * metric.recordTime(start);
+ * </pre>
+ * where <code>metric</code> is obtained once (and kept) via {@link #getMetric(String)}.  Every measurement is aggregated
+ * into the metric and, if a Java Flight Recorder recording with the corresponding event types is running, also
+ * emitted as a JFR event (<code>org.matsim.Timing</code> and <code>org.matsim.Value</code>).
+ * <p></p>
+ * Design thoughts:<ul>
+ * <li> This is static (as the {@link org.matsim.utils.MemoryObserver}) since the measured code is spread over the mobsim,
+ * the events managers and the routers, most of which are not created through injection.</li>
+ * <li> When switched off, a measurement costs one read of a volatile boolean; nothing is allocated.</li>
+ * <li> Metrics are kept across iterations; {@link #reset()} only resets their values.  So call sites can keep their
+ * metrics in fields.</li>
+ * </ul>
+ *
+ * @see org.matsim.core.config.groups.ControllerConfigGroup#getWriteInstrumentationInterval()
+ */
+public final class Instrumentation {
+
+	/**
+	 * Returned by {@link #startTime()} when instrumentation is switched off.
+	 */
+	public static final long DISABLED = Long.MIN_VALUE;
+
+	private static volatile boolean enabled = false;
+
+	private static final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+	private Instrumentation() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		Instrumentation.enabled = enabled;
+	}
+
+	/**
+	 * @return the current value of {@link System#nanoTime()}, or {@link #DISABLED} if instrumentation is switched off.
+	 */
+	public static long startTime() {
+		return enabled ? System.nanoTime() : DISABLED;
+	}
+
+	/**
+	 * @return the metric with the given name; created if necessary.  Names are hierarchical, separated by dots, e.g.
+	 * <code>qsim.runner0.nodes</code>.
+	 */
+	public static Metric getMetric(String name) {
+		return metrics.computeIfAbsent(name, Metric::new);
+	}
+
+	/**
+	 * Resets the values of all metrics, typically at the beginning of an iteration.
+	 */
+	public static void reset() {
+		for (Metric metric : metrics.values()) {
+			metric.reset();
+		}
+	}
+
+	/**
+	 * Writes all metrics that have at least one measurement, sorted by name.  Times are in milliseconds.
+	 */
+	public static void write(String filename, String delimiter) {
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(filename)) {
+			writer.write(String.join(delimiter, "metric", "count", "total", "mean", "max"));
+			writer.newLine();
+			for (Metric metric : metrics.values()) {
+				long count = metric.count.sum();
+				if (count == 0) {
+					continue;
+				}
+				double total = metric.total.sum();
+				writer.write(String.join(delimiter, metric.name, Long.toString(count), Double.toString(total),
+						Double.toString(total / count), Double.toString(metric.max.get())));
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Aggregates measurements (count, total, max).  Thread-safe.
+	 */
+	public static final class Metric {
+
+		private final String name;
+		private final LongAdder count = new LongAdder();
+		private final DoubleAdder total = new DoubleAdder();
+		private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+		private Metric(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Records the time since <code>startTime</code>, which must have been obtained from
+		 * {@link Instrumentation#startTime()}.  Does nothing if that was {@link Instrumentation#DISABLED}.
+		 */
+		public void recordTime(long startTime) {
+			if (startTime == DISABLED) {
+				return;
+			}
+			long duration = System.nanoTime() - startTime;
+			add(duration / 1e6);
+
+			TimingEvent event = new TimingEvent();
+			if (event.shouldCommit()) {
+				event.metric = name;
+				event.duration = duration;
+				event.commit();
+			}
+		}
+
+		/**
+		 * Records a value, e.g. a queue length.  Does nothing if instrumentation is switched off.
+		 */
+		public void recordValue(double value) {
+			if (!enabled) {
+				return;
+			}
+			add(value);
+
+			ValueEvent event = new ValueEvent();
+			if (event.shouldCommit()) {
+				event.metric = name;
+				event.value = value;
+				event.commit();
+			}
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		public double getTotal() {
+			return total.sum();
+		}
+
+		public double getMax() {
+			return max.get();
+		}
+
+		private void add(double value) {
+			count.increment();
+			total.add(value);
+			max.accumulate(value);
+		}
+
+		private void reset() {
+			count.reset();
+			total.reset();
+			max.reset();
+		}
+	}
+}
@@ -32,7 +32,7 @@ import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.StartupEvent;
-import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.AsyncIterationEndsListener;
 import org.matsim.core.controler.listener.StartupListener;
 import org.matsim.core.utils.collections.CollectionUtils;
 import org.matsim.core.utils.geometry.transformations.TransformationFactory;
@@ -54,7 +54,7 @@ import java.util.Set;
 /**
  * @author dgrether
  */
-class CountsControlerListener implements StartupListener, IterationEndsListener {
+class CountsControlerListener implements StartupListener, AsyncIterationEndsListener {
 
 	/*
 	 * String used to identify the operation in the IterationStopWatch.
@@ -99,69 +99,89 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
 
 	@Override
 	public void notifyIterationEnds(final IterationEndsEvent event) {
-		if (counts != null && this.config.getWriteCountsInterval() > 0) {
-            if (useVolumesOfIteration(event.getIteration(), controllerConfigGroup.getFirstIteration())) {
-                addVolumes(volumesAnalyzer);
-            }
+		Runnable comparison = prepareComparison(event);
+		if (comparison != null) {
+			iterationStopwatch.beginOperation(OPERATION_COMPARECOUNTS);
+			comparison.run();
+			iterationStopwatch.endOperation(OPERATION_COMPARECOUNTS);
+		}
+	}
 
-            if (createCountsInIteration(event.getIteration())) {
-                iterationStopwatch.beginOperation(OPERATION_COMPARECOUNTS);
-                IdMap<Link, double[]> averages;
-                if (this.iterationsUsed > 1) {
-                    averages = new IdMap<>(Link.class);
-                    for (Map.Entry<Id<Link>, double[]> e : this.linkStats.entrySet()) {
-                        Id<Link> linkId = e.getKey();
-                        double[] totalVolumesPerHour = e.getValue();
-                        double[] averageVolumesPerHour = new double[totalVolumesPerHour.length];
-                        for (int i = 0; i < totalVolumesPerHour.length; i++) {
-                            averageVolumesPerHour[i] = totalVolumesPerHour[i] / this.iterationsUsed;
-                        }
-                        averages.put(linkId, averageVolumesPerHour);
-                    }
-                } else {
-                    averages = this.linkStats;
-                }
-                CountsComparisonAlgorithm cca = new CountsComparisonAlgorithm(averages, counts, network, config.getCountsScaleFactor());
-                if ((this.config.getDistanceFilter() != null) && (this.config.getDistanceFilterCenterNode() != null)) {
-                    cca.setDistanceFilter(this.config.getDistanceFilter(), this.config.getDistanceFilterCenterNode());
-                }
-                cca.setCountsScaleFactor(this.config.getCountsScaleFactor());
-                cca.run();
-
-                if (this.config.getOutputFormat().contains("html") ||
-                        this.config.getOutputFormat().contains("all")) {
-                    CountsHtmlAndGraphsWriter cgw = new CountsHtmlAndGraphsWriter(controlerIO.getIterationPath(event.getIteration()), cca.getComparison(), event.getIteration());
-                    cgw.addGraphsCreator(new CountsSimRealPerHourGraphCreator("sim and real volumes"));
-                    cgw.addGraphsCreator(new CountsErrorGraphCreator("errors"));
-                    cgw.addGraphsCreator(new CountsLoadCurveGraphCreator("link volumes"));
-                    cgw.addGraphsCreator(new CountsSimReal24GraphCreator("average working day sim and count volumes"));
-                    cgw.createHtmlAndGraphs();
-                }
-                if (this.config.getOutputFormat().contains("txt") ||
-                        this.config.getOutputFormat().contains("all")) {
-                    String filename = controlerIO.getIterationFilename(event.getIteration(), "countscompare.txt");
-                    CountSimComparisonTableWriter ctw = new CountSimComparisonTableWriter(cca.getComparison(), Locale.ENGLISH);
-                    ctw.writeFile(filename);
-                }
-                if (this.config.getOutputFormat().contains("xml") ||
-                        this.config.getOutputFormat().contains("all")) {
-                    String filename = controlerIO.getIterationFilename(event.getIteration(), "simulatedCounts.xml.gz");
-                    Counts<Link> simCounts = new Counts<>();
-                    simCounts.setDescription("sim values from iteration " + event.getIteration()); simCounts.setName("sim values from iteration " + event.getIteration()); simCounts.setYear(event.getIteration());
-                    for (CountSimComparison countSimComparison : cca.getComparison()) {
-						if (simCounts.getCount(countSimComparison.getId()) == null) {
-							simCounts.createAndAddCount(countSimComparison.getId(), counts.getCount(countSimComparison.getId()).getCsLabel());
-							simCounts.getCount(countSimComparison.getId()).setCoord(counts.getCount(countSimComparison.getId()).getCoord());
-						}
-						simCounts.getCount(countSimComparison.getId()).createVolume(countSimComparison.getHour(), countSimComparison.getSimulationValue());
-					}
-                    CountsWriter countsWriter = new CountsWriter(TransformationFactory.getCoordinateTransformation(globalConfigGroup.getCoordinateSystem(), TransformationFactory.WGS84), simCounts);
-                    countsWriter.write(filename);
-                }
-                reset();
-                iterationStopwatch.endOperation(OPERATION_COMPARECOUNTS);
-            }
-        }
+	@Override
+	public Runnable prepareIterationEnds(final IterationEndsEvent event) {
+		Runnable comparison = prepareComparison(event);
+		return comparison == null ? () -> {} : comparison;
+	}
+
+	/**
+	 * Adds the volumes of this iteration and, if the comparison is due, returns it, working on a copy of the
+	 * (averaged) volumes.
+	 *
+	 * @return the comparison with the counts and its output, or <code>null</code> if there is nothing to compare
+	 */
+	private Runnable prepareComparison(final IterationEndsEvent event) {
+		if (counts == null || this.config.getWriteCountsInterval() <= 0) {
+			return null;
+		}
+		if (useVolumesOfIteration(event.getIteration(), controllerConfigGroup.getFirstIteration())) {
+			addVolumes(volumesAnalyzer);
+		}
+		if (!createCountsInIteration(event.getIteration())) {
+			return null;
+		}
+		final IdMap<Link, double[]> averages = new IdMap<>(Link.class);
+		for (Map.Entry<Id<Link>, double[]> e : this.linkStats.entrySet()) {
+			Id<Link> linkId = e.getKey();
+			double[] totalVolumesPerHour = e.getValue();
+			double[] averageVolumesPerHour = new double[totalVolumesPerHour.length];
+			for (int i = 0; i < totalVolumesPerHour.length; i++) {
+				averageVolumesPerHour[i] = this.iterationsUsed > 1 ? totalVolumesPerHour[i] / this.iterationsUsed : totalVolumesPerHour[i];
+			}
+			averages.put(linkId, averageVolumesPerHour);
+		}
+		reset();
+		final int iteration = event.getIteration();
+		return () -> compareAndWrite(averages, iteration);
+	}
+
+	private void compareAndWrite(final IdMap<Link, double[]> averages, final int iteration) {
+		CountsComparisonAlgorithm cca = new CountsComparisonAlgorithm(averages, counts, network, config.getCountsScaleFactor());
+		if ((this.config.getDistanceFilter() != null) && (this.config.getDistanceFilterCenterNode() != null)) {
+			cca.setDistanceFilter(this.config.getDistanceFilter(), this.config.getDistanceFilterCenterNode());
+		}
+		cca.setCountsScaleFactor(this.config.getCountsScaleFactor());
+		cca.run();
+
+		if (this.config.getOutputFormat().contains("html") ||
+				this.config.getOutputFormat().contains("all")) {
+			CountsHtmlAndGraphsWriter cgw = new CountsHtmlAndGraphsWriter(controlerIO.getIterationPath(iteration), cca.getComparison(), iteration);
+			cgw.addGraphsCreator(new CountsSimRealPerHourGraphCreator("sim and real volumes"));
+			cgw.addGraphsCreator(new CountsErrorGraphCreator("errors"));
+			cgw.addGraphsCreator(new CountsLoadCurveGraphCreator("link volumes"));
+			cgw.addGraphsCreator(new CountsSimReal24GraphCreator("average working day sim and count volumes"));
+			cgw.createHtmlAndGraphs();
+		}
+		if (this.config.getOutputFormat().contains("txt") ||
+				this.config.getOutputFormat().contains("all")) {
+			String filename = controlerIO.getIterationFilename(iteration, "countscompare.txt");
+			CountSimComparisonTableWriter ctw = new CountSimComparisonTableWriter(cca.getComparison(), Locale.ENGLISH);
+			ctw.writeFile(filename);
+		}
+		if (this.config.getOutputFormat().contains("xml") ||
+				this.config.getOutputFormat().contains("all")) {
+			String filename = controlerIO.getIterationFilename(iteration, "simulatedCounts.xml.gz");
+			Counts<Link> simCounts = new Counts<>();
+			simCounts.setDescription("sim values from iteration " + iteration); simCounts.setName("sim values from iteration " + iteration); simCounts.setYear(iteration);
+			for (CountSimComparison countSimComparison : cca.getComparison()) {
+				if (simCounts.getCount(countSimComparison.getId()) == null) {
+					simCounts.createAndAddCount(countSimComparison.getId(), counts.getCount(countSimComparison.getId()).getCsLabel());
+					simCounts.getCount(countSimComparison.getId()).setCoord(counts.getCount(countSimComparison.getId()).getCoord());
+				}
+				simCounts.getCount(countSimComparison.getId()).createVolume(countSimComparison.getHour(), countSimComparison.getSimulationValue());
+			}
+			CountsWriter countsWriter = new CountsWriter(TransformationFactory.getCoordinateTransformation(globalConfigGroup.getCoordinateSystem(), TransformationFactory.WGS84), simCounts);
+			countsWriter.write(filename);
+		}
 	}
 
 	/*package*/ boolean useVolumesOfIteration(final int iteration, final int firstIteration) {
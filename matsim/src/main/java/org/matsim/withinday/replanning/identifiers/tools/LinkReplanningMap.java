@@ -20,9 +20,10 @@
 
 package org.matsim.withinday.replanning.identifiers.tools;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.Set;
 
 import jakarta.inject.Inject;
@@ -162,22 +163,24 @@ public class LinkReplanningMap implements PersonStuckEventHandler, ActivityStart
 
 		Set<Id<Person>> set = new HashSet<>();
 
-		Set<Entry<OptionalTime, Set<Id<Person>>>> entries = this.earliestLinkExitTimeProvider.getEarliestLinkExitTimesPerTimeStep().entrySet();
-
-		for (Entry<OptionalTime, Set<Id<Person>>> entry : entries) {
-			OptionalTime earliestLinkExitTime = entry.getKey();
-
-			// check time
-			if (timeMode == TimeFilterMode.RESTRICTED) {
-				if (time <= earliestLinkExitTime.seconds()) continue;
-			} else if (timeMode == TimeFilterMode.UNRESTRICTED) {
-				if (time > earliestLinkExitTime.seconds()) continue;
-			} else {
-				throw new RuntimeException("Unexpected TimeFilterMode was found: " + timeMode.toString());
-			}
+		/*
+		 * The earliest link exit times are sorted, therefore only the time steps
+		 * matching the filter are visited.
+		 */
+		NavigableMap<OptionalTime, Set<Id<Person>>> map = this.earliestLinkExitTimeProvider.getEarliestLinkExitTimesPerTimeStep();
+		Collection<Set<Id<Person>>> agentsPerTimeStep;
+		if (timeMode == TimeFilterMode.RESTRICTED) {
+			// time > earliestLinkExitTime
+			agentsPerTimeStep = map.headMap(OptionalTime.defined(time), false).values();
+		} else if (timeMode == TimeFilterMode.UNRESTRICTED) {
+			// time <= earliestLinkExitTime
+			agentsPerTimeStep = map.tailMap(OptionalTime.defined(time), true).values();
+		} else {
+			throw new RuntimeException("Unexpected TimeFilterMode was found: " + timeMode.toString());
+		}
 
-			// non of the checks fails therefore add agents to the set
-			set.addAll(entry.getValue());
+		for (Set<Id<Person>> agents : agentsPerTimeStep) {
+			set.addAll(agents);
 		}
 
 		return set;
@@ -28,7 +28,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.LogManager;
@@ -56,7 +55,8 @@ public abstract class ParallelReplanner<T extends WithinDayReplannerFactory<? ex
 	 * ReplanningTasks or use a separate queue per replanner object. A shared queue
 	 * should result in a better load balancing but also might become a bottleneck when
 	 * many threads are accessing it at the same time. When using a shared queue, a 
-	 * LinkedBlockingQueue is used. Otherwise, each replanner uses a LinkedList.
+	 * ReplanningTaskBatch is used, from which the threads take the tasks without locking.
+	 * Otherwise, each replanner uses a LinkedList.
 	 * Both approaches should produce the same simulation results.
 	 */
 	private final boolean shareReplannerQueue = true;
@@ -114,7 +114,7 @@ public abstract class ParallelReplanner<T extends WithinDayReplannerFactory<? ex
 		 */
 		for (T factory : this.replannerFactories) {
 			if (shareReplannerQueue) {
-				Queue<ReplanningTask> queue = new LinkedBlockingQueue<ReplanningTask>();
+				Queue<ReplanningTask> queue = new ReplanningTaskBatch();
 				for (ReplanningRunnable replanningRunnable : this.replanningRunnables) {
 					WithinDayReplanner<? extends AgentSelector> newInstance = factory.createReplanner();
 					replanningRunnable.addWithinDayReplanner(newInstance, queue);
@@ -256,7 +256,7 @@ public abstract class ParallelReplanner<T extends WithinDayReplannerFactory<? ex
 		 */
 		if (simIsRunning) {
 			if (shareReplannerQueue) {
-				Queue<ReplanningTask> queue = new LinkedBlockingQueue<ReplanningTask>();
+				Queue<ReplanningTask> queue = new ReplanningTaskBatch();
 				for (ReplanningRunnable replanningRunnable : this.replanningRunnables) {
 					WithinDayReplanner<? extends AgentSelector> newInstance = factory.createReplanner();
 					replanningRunnable.addWithinDayReplanner(newInstance, queue);
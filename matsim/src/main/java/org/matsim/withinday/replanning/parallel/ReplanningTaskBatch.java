@@ -0,0 +1,90 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ReplanningTaskBatch.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.withinday.replanning.parallel;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.matsim.withinday.replanning.replanners.tools.ReplanningTask;
+
+/**
+ * The queue of {@link ReplanningTask}s which is shared by all replanning threads of one replanner.
+ * <p></p>
+ * The tasks of a time step are collected by the mobsim thread before the replanning threads are started, and then
+ * handed over as one batch: the threads take the tasks by incrementing a shared index, i.e. without any locking.
+ * Adding tasks while the threads are taking them is not allowed, which is ensured by the barriers of the
+ * {@link ParallelReplanner}.  The next task which is added after a batch has been taken completely starts a new
+ * batch; the array is re-used.
+ */
+/*package*/ final class ReplanningTaskBatch extends AbstractQueue<ReplanningTask> {
+
+	private ReplanningTask[] tasks = new ReplanningTask[16];
+	private int size = 0;
+	private final AtomicInteger next = new AtomicInteger(0);
+
+	/*
+	 * Must only be called by the mobsim thread, i.e. not while the
+	 * replanning threads are running.
+	 */
+	@Override
+	public boolean offer(ReplanningTask task) {
+		if (this.next.get() >= this.size) {
+			// the previous batch has been taken completely
+			Arrays.fill(this.tasks, 0, this.size, null);
+			this.size = 0;
+			this.next.set(0);
+		}
+		if (this.size == this.tasks.length) {
+			this.tasks = Arrays.copyOf(this.tasks, this.size * 2);
+		}
+		this.tasks[this.size++] = task;
+		return true;
+	}
+
+	@Override
+	public ReplanningTask poll() {
+		int index = this.next.getAndIncrement();
+		return index < this.size ? this.tasks[index] : null;
+	}
+
+	@Override
+	public ReplanningTask peek() {
+		int index = this.next.get();
+		return index < this.size ? this.tasks[index] : null;
+	}
+
+	@Override
+	public int size() {
+		return Math.max(this.size - this.next.get(), 0);
+	}
+
+	/**
+	 * Returns an iterator over the remaining tasks. It does not support removal.
+	 */
+	@Override
+	public Iterator<ReplanningTask> iterator() {
+		int from = Math.min(this.next.get(), this.size);
+		return List.of(Arrays.copyOfRange(this.tasks, from, this.size)).iterator();
+	}
+}
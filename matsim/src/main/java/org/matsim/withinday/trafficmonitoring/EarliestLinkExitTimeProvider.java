@@ -21,11 +21,14 @@
 package org.matsim.withinday.trafficmonitoring;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -81,7 +84,12 @@ public class EarliestLinkExitTimeProvider implements LinkEnterEventHandler, Link
 	private final TravelTime freeSpeedTravelTime;
 
 	private final ConcurrentMap<Id<Person>, OptionalTime> earliestLinkExitTimes = new ConcurrentHashMap<>();
-	private final ConcurrentMap<OptionalTime, Set<Id<Person>>> earliestLinkExitTimesPerTimeStep = new ConcurrentHashMap<>();
+	/*
+	 * Sorted by time, so that agents which can (or cannot) leave their link
+	 * before a given time are found without scanning all time steps.
+	 */
+	private final ConcurrentSkipListMap<OptionalTime, Set<Id<Person>>> earliestLinkExitTimesPerTimeStep =
+			new ConcurrentSkipListMap<>(Comparator.comparingDouble(OptionalTime::seconds));
 
 	private Vehicle2DriverEventHandler delegate = new Vehicle2DriverEventHandler();
 
@@ -113,13 +121,13 @@ public class EarliestLinkExitTimeProvider implements LinkEnterEventHandler, Link
 	}
 
 	public Set<Id<Person>> getEarliestLinkExitTimesPerTimeStep(double time) {
-		Set<Id<Person>> set = this.earliestLinkExitTimesPerTimeStep.get(time);
+		Set<Id<Person>> set = this.earliestLinkExitTimesPerTimeStep.get(OptionalTime.defined(time));
 		if (set != null) return Collections.unmodifiableSet(set);
 		else return null;
 	}
 
-	public Map<OptionalTime, Set<Id<Person>>> getEarliestLinkExitTimesPerTimeStep() {
-		return Collections.unmodifiableMap(this.earliestLinkExitTimesPerTimeStep);
+	public NavigableMap<OptionalTime, Set<Id<Person>>> getEarliestLinkExitTimesPerTimeStep() {
+		return Collections.unmodifiableNavigableMap(this.earliestLinkExitTimesPerTimeStep);
 	}
 
 	@Override
@@ -20,18 +20,20 @@
 
 package org.matsim.withinday.trafficmonitoring;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CyclicBarrier;
 
 import jakarta.inject.Inject;
@@ -76,6 +78,11 @@ import org.matsim.vehicles.Vehicle;
 /**
  * Collects link travel times over a given time span (storedTravelTimesBinSize)
  * and calculates an average travel time over this time span.
+ * <p></p>
+ * The event handling part only works on primitive arrays: the link enter times are kept per vehicle index, the trips
+ * of a link in a ring buffer of its {@link TravelTimeInfo}.  The mean travel times are published into an array
+ * indexed by the link index, which is read without any locking, so routers of parallel within-day replanners never
+ * block the event handling or the update threads.  They see, per link, either the old or the new mean travel time.
  *
  * TODO:
  * - make storedTravelTimesBinSize configurable (e.g. via config)
@@ -93,9 +100,12 @@ public class WithinDayTravelTime implements TravelTime,
 
 	private Network network;
 
-	// Trips with no Activity on the current Link
-	private Map<Id<Vehicle>, TripBin> regularActiveTrips; // VehicleId
+	private static final VarHandle TRAVEL_TIMES = MethodHandles.arrayElementVarHandle(double[].class);
+
+	// Link enter times of trips with no Activity on the current Link, NaN if there is no such trip
+	private double[] enterTimes; // vehicle index
 	private Map<Id<Link>, TravelTimeInfo> travelTimeInfos; // LinkId
+	private double[] travelTimes; // link index
 
 	private TravelTimeInfoProvider travelTimeInfoProvider;
 
@@ -114,7 +124,7 @@ public class WithinDayTravelTime implements TravelTime,
 	private final int infoTimeStep = 3600;
 	private int nextInfoTime = 0;
 
-	private Set<Id<Vehicle>> vehiclesToFilter;
+	private BitSet vehiclesToFilter; // vehicle index
 	private final Set<String> analyzedModes;
 	private final boolean filterModes;
 
@@ -150,21 +160,24 @@ public class WithinDayTravelTime implements TravelTime,
 	}
 
 	private void init() {
-		this.regularActiveTrips = new HashMap<>();
-		this.travelTimeInfos = new ConcurrentHashMap<>();
+		this.enterTimes = new double[Id.getNumberOfIds(Vehicle.class)];
+		Arrays.fill(this.enterTimes, Double.NaN);
+		this.travelTimeInfos = new HashMap<>();
+		this.travelTimes = new double[Id.getNumberOfIds(Link.class)];
+		Arrays.fill(this.travelTimes, Double.NaN); // not (yet) known, see getLinkTravelTime()
 		this.changedLinksByTime = new TreeMap<>();
-		this.vehiclesToFilter = new HashSet<>();
+		this.vehiclesToFilter = new BitSet();
 
 		// one TravelTimeInfo per link:
 		for (Link link : this.network.getLinks().values()) {
-			TravelTimeInfo travelTimeInfo = new TravelTimeInfo();
+			TravelTimeInfo travelTimeInfo = new TravelTimeInfo(this.travelTimes, link.getId().index());
 			this.travelTimeInfos.put(link.getId(), travelTimeInfo);
 		}
 
 		/*
-		 * If no RoutingNetwork is used, ArrayBasedTravelTimeInfoProvider uses
-		 * a MapBasedTravelTimeInfoProvider as fall back solution. This increases
-		 * routing times of a AStarLandmarks router by ~5%.
+		 * ArrayBasedTravelTimeInfoProvider looks up the TravelTimeInfos by the
+		 * index of the link ids, which is much faster than the map lookup of the
+		 * MapBasedTravelTimeInfoProvider in the event handling part.
 		 */
 //		this.travelTimeInfoProvider = new MapBasedTravelTimeInfoProvider(this.travelTimeInfos);
 		this.travelTimeInfoProvider = new ArrayBasedTravelTimeInfoProvider(this.travelTimeInfos, this.network);
@@ -230,7 +243,12 @@ public class WithinDayTravelTime implements TravelTime,
 
 	@Override
 	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
-		final double travelTime = this.travelTimeInfoProvider.getTravelTimeInfo(link).travelTime;
+		int linkIndex = link.getId().index();
+		double travelTime = linkIndex < this.travelTimes.length ? (double) TRAVEL_TIMES.getOpaque(this.travelTimes, linkIndex) : Double.NaN;
+		if (Double.isNaN(travelTime)) {
+			// no travel times are collected for the link, e.g. because it was added to the network after init()
+			return link.getLength() / link.getFreespeed(time);
+		}
 		return travelTime;
 	}
 
@@ -252,31 +270,30 @@ public class WithinDayTravelTime implements TravelTime,
 		 * If only some modes are analyzed, we check whether the vehicle
 		 * performs a trip with one of those modes. if not, we skip the event.
 		 */
-		if (filterModes && vehiclesToFilter.contains(event.getVehicleId())) return;
-
-		Id<Vehicle> vehicleId = event.getVehicleId();
-		double time = event.getTime();
-
-		TripBin tripBin = new TripBin();
-		tripBin.enterTime = time;
+		int vehicleIndex = event.getVehicleId().index();
+		if (filterModes && vehiclesToFilter.get(vehicleIndex)) return;
 
-		this.regularActiveTrips.put(vehicleId, tripBin);
+		if (vehicleIndex >= this.enterTimes.length) {
+			int oldLength = this.enterTimes.length;
+			this.enterTimes = Arrays.copyOf(this.enterTimes, Math.max(vehicleIndex + 1, oldLength * 2));
+			Arrays.fill(this.enterTimes, oldLength, this.enterTimes.length, Double.NaN);
+		}
+		this.enterTimes[vehicleIndex] = event.getTime();
 	}
 
 	@Override
 	public void handleEvent(LinkLeaveEvent event) {
-		Id<Link> linkId = event.getLinkId();
-		Id<Vehicle> vehicleId = event.getVehicleId();
-		double time = event.getTime();
+		int vehicleIndex = event.getVehicleId().index();
+		double enterTime = vehicleIndex < this.enterTimes.length ? this.enterTimes[vehicleIndex] : Double.NaN;
 
-		TripBin tripBin = this.regularActiveTrips.remove(vehicleId);
-		if (tripBin != null) {
-			tripBin.leaveTime = time;
+		if (!Double.isNaN(enterTime)) {
+			this.enterTimes[vehicleIndex] = Double.NaN;
 
-			double tripTime = tripBin.leaveTime - tripBin.enterTime;
+			double time = event.getTime();
+			double tripTime = time - enterTime;
 
-			TravelTimeInfo travelTimeInfo = this.travelTimeInfoProvider.getTravelTimeInfo(linkId);
-			travelTimeInfo.tripBins.add(tripBin);
+			TravelTimeInfo travelTimeInfo = this.travelTimeInfoProvider.getTravelTimeInfo(event.getLinkId());
+			travelTimeInfo.addTrip(time, tripTime);
 			travelTimeInfo.addedTravelTimes += tripTime;
 			travelTimeInfo.addedTrips++;
 
@@ -301,12 +318,12 @@ public class WithinDayTravelTime implements TravelTime,
 	 */
 	@Override
 	public void handleEvent(VehicleLeavesTrafficEvent event) {
-		Id<Vehicle> vehicleId = event.getVehicleId();
+		int vehicleIndex = event.getVehicleId().index();
 
-		this.regularActiveTrips.remove(vehicleId);
+		if (vehicleIndex < this.enterTimes.length) this.enterTimes[vehicleIndex] = Double.NaN;
 
 		// try to remove vehicle from set with filtered vehicles
-		if (filterModes) this.vehiclesToFilter.remove(event.getVehicleId());
+		if (filterModes) this.vehiclesToFilter.clear(vehicleIndex);
 	}
 
 	@Override
@@ -316,7 +333,7 @@ public class WithinDayTravelTime implements TravelTime,
 		 * starts a leg on a non analyzed transport mode, add the vehicle
 		 * to the filtered vehicles set.
 		 */
-		if (filterModes && !analyzedModes.contains(event.getNetworkMode())) this.vehiclesToFilter.add(event.getVehicleId());
+		if (filterModes && !analyzedModes.contains(event.getNetworkMode())) this.vehiclesToFilter.set(event.getVehicleId().index());
 	}
 
 	/*
@@ -341,7 +358,7 @@ public class WithinDayTravelTime implements TravelTime,
 			double freeSpeedTravelTime = link.getLength() / link.getFreespeed();
 
 			TravelTimeInfo travelTimeInfo = this.travelTimeInfoProvider.getTravelTimeInfo(link);
-			travelTimeInfo.travelTime = freeSpeedTravelTime;
+			travelTimeInfo.setTravelTime(freeSpeedTravelTime);
 			travelTimeInfo.init(freeSpeedTravelTime);
 		}
 
@@ -445,15 +462,18 @@ public class WithinDayTravelTime implements TravelTime,
 		}
 	}
 
-	private static class TripBin {
-		double enterTime;
-		double leaveTime;
-	}
-
 	/*package*/ static class TravelTimeInfo {
 
 		UpdateMeanTravelTimesRunnable runnable;
-		List<TripBin> tripBins = new ArrayList<>();
+
+		private final double[] travelTimes; // shared by all links
+		private final int linkIndex;
+
+		// trips within the time window, ordered by leave time (ring buffer)
+		private double[] leaveTimes = new double[4];
+		private double[] tripTimes = new double[4];
+		private int firstTrip = 0;
+		int numTrips = 0;
 
 		boolean isActive = false;
 		// int numActiveTrips = 0;
@@ -462,13 +482,59 @@ public class WithinDayTravelTime implements TravelTime,
 		double sumTravelTimes = 0.0; // We cache the sum of the TravelTimes
 
 		double freeSpeedTravelTime = Double.MAX_VALUE; // We cache the FreeSpeedTravelTimes
-		double travelTime = Double.MAX_VALUE;
 
 		double dynamicBinSize = 0.0; // size of the time window that is taken into account
 
 		static Counter enlarge = new Counter("WithinDayTravelTime: enlarged time bin size: ");
 		static Counter shrink = new Counter("WithinDayTravelTime: shrunk time bin size: ");
 
+		/*package*/ TravelTimeInfo(double[] travelTimes, int linkIndex) {
+			this.travelTimes = travelTimes;
+			this.linkIndex = linkIndex;
+		}
+
+		/*
+		 * Opaque access is atomic also for doubles, and does not need any
+		 * synchronization with the readers.
+		 */
+		/*package*/ void setTravelTime(double travelTime) {
+			TRAVEL_TIMES.setOpaque(this.travelTimes, this.linkIndex, travelTime);
+		}
+
+		/*package*/ void addTrip(double leaveTime, double tripTime) {
+			if (numTrips == leaveTimes.length) {
+				// unwrap the ring buffer into arrays of twice the size
+				double[] newLeaveTimes = new double[numTrips * 2];
+				double[] newTripTimes = new double[numTrips * 2];
+				for (int i = 0; i < numTrips; i++) {
+					int j = (firstTrip + i) % leaveTimes.length;
+					newLeaveTimes[i] = leaveTimes[j];
+					newTripTimes[i] = tripTimes[j];
+				}
+				leaveTimes = newLeaveTimes;
+				tripTimes = newTripTimes;
+				firstTrip = 0;
+			}
+			int last = (firstTrip + numTrips) % leaveTimes.length;
+			leaveTimes[last] = leaveTime;
+			tripTimes[last] = tripTime;
+			numTrips++;
+		}
+
+		/*
+		 * Removes the trips which have left the link before the current time
+		 * window, and returns the sum of their travel times.
+		 */
+		/*package*/ double removeOldTrips(double time) {
+			double removedTravelTimes = 0.0;
+			while (numTrips > 0 && leaveTimes[firstTrip] + dynamicBinSize < time) {
+				removedTravelTimes += tripTimes[firstTrip];
+				firstTrip = (firstTrip + 1) % leaveTimes.length;
+				numTrips--;
+			}
+			return removedTravelTimes;
+		}
+
 		/*package*/ void init(double freeSpeedTravelTime) {
 			this.freeSpeedTravelTime = freeSpeedTravelTime;
 			this.dynamicBinSize = freeSpeedTravelTime * 2.5;
@@ -644,9 +710,9 @@ public class WithinDayTravelTime implements TravelTime,
 						 * we deactivate the link and ensure that its expected
 						 * travel time is its free speed travel time.
 						 */
-						if (travelTimeInfo.tripBins.size() == 0) {
+						if (travelTimeInfo.numTrips == 0) {
 							travelTimeInfo.isActive = false;
-							travelTimeInfo.travelTime = travelTimeInfo.freeSpeedTravelTime;
+							travelTimeInfo.setTravelTime(travelTimeInfo.freeSpeedTravelTime);
 							iter.remove();
 						}
 					}
@@ -658,20 +724,8 @@ public class WithinDayTravelTime implements TravelTime,
 		} // run()
 
 		private void calcBinTravelTime(double time, TravelTimeInfo travelTimeInfo) {
-			double removedTravelTimes = 0.0;
-
-			List<TripBin> tripBins = travelTimeInfo.tripBins;
-
 			// first remove old TravelTimes
-			Iterator<TripBin> iter = tripBins.iterator();
-			while (iter.hasNext()) {
-				TripBin tripBin = iter.next();
-				if (tripBin.leaveTime + travelTimeInfo.dynamicBinSize < time) {
-					double travelTime = tripBin.leaveTime - tripBin.enterTime;
-					removedTravelTimes += travelTime;
-					iter.remove();
-				} else break;
-			}
+			double removedTravelTimes = travelTimeInfo.removeOldTrips(time);
 
 			/*
 			 * We don't need an update if no Trips have been added or removed
@@ -690,14 +744,14 @@ public class WithinDayTravelTime implements TravelTime,
 			 * Ensure that we don't allow TravelTimes shorter than the FreeSpeedTravelTime.
 			 */
 			double meanTravelTime = travelTimeInfo.freeSpeedTravelTime;
-			if (!tripBins.isEmpty()) meanTravelTime = travelTimeInfo.sumTravelTimes / tripBins.size();
+			if (travelTimeInfo.numTrips > 0) meanTravelTime = travelTimeInfo.sumTravelTimes / travelTimeInfo.numTrips;
 
 			if (meanTravelTime < travelTimeInfo.freeSpeedTravelTime) {
 //				log.warn("Mean TravelTime too short?");
 				// can happen when network change event came in with lower speed. kai, feb'18
-				travelTimeInfo.travelTime = travelTimeInfo.freeSpeedTravelTime;
+				travelTimeInfo.setTravelTime(travelTimeInfo.freeSpeedTravelTime);
 			} else {
-				travelTimeInfo.travelTime = meanTravelTime;
+				travelTimeInfo.setTravelTime(meanTravelTime);
 			}
 		}
 
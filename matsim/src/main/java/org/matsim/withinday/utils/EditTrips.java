@@ -454,6 +454,9 @@ public final class EditTrips {
 			transitAgentTracker.removeAgentFromStop(ptPassengerAgent, currentOrNextStop.getId());
 			((MobsimAgent) ptPassengerAgent).endLegAndComputeNextState( now );
 			this.internalInterface.arrangeNextAgentState( (MobsimAgent) ptPassengerAgent );
+		} else if ( mobsimVehicle == null && transitAgentTracker != null ) {
+			// the agent keeps waiting at the stop, but may now travel to another egress stop
+			transitAgentTracker.updateDesiredDestination(ptPassengerAgent, currentOrNextStop.getId());
 		}
 
 		PopulationUtils.putPersonAttribute( person, AgentSnapshotInfo.marker, true );
@@ -43,7 +43,7 @@ public class SwissRailRaptorDataTest {
         Id<TransitStopFacility> stopId9 = Id.create(9, TransitStopFacility.class);
         Id<TransitStopFacility> stopId18 = Id.create(18, TransitStopFacility.class);
         Id<TransitStopFacility> stopId19 = Id.create(19, TransitStopFacility.class);
-        for (SwissRailRaptorData.RTransfer t : data.transfers) {
+        for (SwissRailRaptorData.RTransfer t : data.getAllTransfers()) {
             TransitStopFacility fromStop = data.routeStops[t.fromRouteStop].routeStop.getStopFacility();
             TransitStopFacility toStop = data.routeStops[t.toRouteStop].routeStop.getStopFacility();
             if (fromStop.getId().equals(stopId19) && toStop.getId().equals(stopId9)) {
@@ -56,7 +56,7 @@ public class SwissRailRaptorDataTest {
         f.schedule.getMinimalTransferTimes().set(stopId19, stopId9, 345);
         SwissRailRaptorData data2 = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
         int foundTransferCount = 0;
-        for (SwissRailRaptorData.RTransfer t : data2.transfers) {
+        for (SwissRailRaptorData.RTransfer t : data2.getAllTransfers()) {
             TransitStopFacility fromStop = data2.routeStops[t.fromRouteStop].routeStop.getStopFacility();
             TransitStopFacility toStop = data2.routeStops[t.toRouteStop].routeStop.getStopFacility();
             if (fromStop.getId().equals(stopId19) && toStop.getId().equals(stopId9)) {
@@ -64,13 +64,13 @@ public class SwissRailRaptorDataTest {
             }
         }
         Assertions.assertEquals(1, foundTransferCount, "wrong number of transfers between stop facilities 19 and 9.");
-        Assertions.assertEquals(data.transfers.length + 1, data2.transfers.length, "number of transfers should have incrased.");
+        Assertions.assertEquals(data.getAllTransfers().size() + 1, data2.getAllTransfers().size(), "number of transfers should have incrased.");
 
         // assign a high transfer time to a "default" transfer
         f.schedule.getMinimalTransferTimes().set(stopId5, stopId18, 456);
         SwissRailRaptorData data3 = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
         boolean foundCorrectTransfer = false;
-        for (SwissRailRaptorData.RTransfer t : data3.transfers) {
+        for (SwissRailRaptorData.RTransfer t : data3.getAllTransfers()) {
             TransitStopFacility fromStop = data3.routeStops[t.fromRouteStop].routeStop.getStopFacility();
             TransitStopFacility toStop = data3.routeStops[t.toRouteStop].routeStop.getStopFacility();
             if (fromStop.getId().equals(stopId5) && toStop.getId().equals(stopId18)) {
@@ -79,13 +79,13 @@ public class SwissRailRaptorDataTest {
             }
         }
         Assertions.assertTrue(foundCorrectTransfer, "did not find overwritten transfer");
-        Assertions.assertEquals(data2.transfers.length, data3.transfers.length, "number of transfers should have stayed the same.");
+        Assertions.assertEquals(data2.getAllTransfers().size(), data3.getAllTransfers().size(), "number of transfers should have stayed the same.");
 
         // assign a low transfer time to a "default" transfer
         f.schedule.getMinimalTransferTimes().set(stopId5, stopId18, 0.2);
         SwissRailRaptorData data4 = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
         foundCorrectTransfer = false;
-        for (SwissRailRaptorData.RTransfer t : data4.transfers) {
+        for (SwissRailRaptorData.RTransfer t : data4.getAllTransfers()) {
             TransitStopFacility fromStop = data4.routeStops[t.fromRouteStop].routeStop.getStopFacility();
             TransitStopFacility toStop = data4.routeStops[t.toRouteStop].routeStop.getStopFacility();
             if (fromStop.getId().equals(stopId5) && toStop.getId().equals(stopId18)) {
@@ -94,7 +94,7 @@ public class SwissRailRaptorDataTest {
             }
         }
         Assertions.assertTrue(foundCorrectTransfer, "did not find overwritten transfer");
-        Assertions.assertEquals(data2.transfers.length, data4.transfers.length, "number of transfers should have stayed the same.");
+        Assertions.assertEquals(data2.getAllTransfers().size(), data4.getAllTransfers().size(), "number of transfers should have stayed the same.");
     }
 
 }
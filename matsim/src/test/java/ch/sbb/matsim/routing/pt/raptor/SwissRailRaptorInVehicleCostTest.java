@@ -125,17 +125,43 @@ public class SwissRailRaptorInVehicleCostTest {
 		runTest(f, new CapacityDependentInVehicleCostCalculator(1.0, 0.3, 0.6, 2.0), f.slowLineId);
 	}
 
+	@Test
+	void test_capacityDependentInVehicleCost_occupancyTrackedAfterRouting_uses_slowRoute() {
+		Fixture f = new Fixture();
+		OccupancyData occupancyData = new OccupancyData();
+		SwissRailRaptorData raptorData = createRaptorData(f, occupancyData);
+		RaptorInVehicleCostCalculator inVehCostCalculator = new CapacityDependentInVehicleCostCalculator(1.0, 0.3, 0.6, 2.0);
+
+		// without any occupancy data, the fast route is used
+		runTest(f, raptorData, inVehCostCalculator, f.fastLineId);
+
+		// the occupancies are now recorded incrementally while the router is already in use
+		OccupancyTracker tracker = new OccupancyTracker(occupancyData, f.scenario, new DefaultRaptorInVehicleCostCalculator(), EventsUtils.createEventsManager(), new SubpopulationScoringParameters(f.scenario));
+		fillExecutionTracker(f, tracker);
+		runTest(f, raptorData, inVehCostCalculator, f.slowLineId);
+
+		// and are gone after a reset
+		tracker.reset(1);
+		runTest(f, raptorData, inVehCostCalculator, f.fastLineId);
+	}
+
 	private void runTest(Fixture f, RaptorInVehicleCostCalculator inVehCostCalcualtor, Id<TransitLine> expectedTransitLine) {
 		OccupancyData occupancyData = new OccupancyData();
 		OccupancyTracker tracker = new OccupancyTracker(occupancyData, f.scenario, new DefaultRaptorInVehicleCostCalculator(), EventsUtils.createEventsManager(), new SubpopulationScoringParameters(f.scenario));
 		fillExecutionTracker(f, tracker);
 
-		SwissRailRaptorData raptorData = SwissRailRaptorData.create(
+		runTest(f, createRaptorData(f, occupancyData), inVehCostCalcualtor, expectedTransitLine);
+	}
+
+	private SwissRailRaptorData createRaptorData(Fixture f, OccupancyData occupancyData) {
+		return SwissRailRaptorData.create(
 				f.scenario.getTransitSchedule(), f.scenario.getTransitVehicles(),
 				RaptorUtils.createStaticConfig(f.config),
 				f.scenario.getNetwork(),
 				occupancyData);
+	}
 
+	private void runTest(Fixture f, SwissRailRaptorData raptorData, RaptorInVehicleCostCalculator inVehCostCalcualtor, Id<TransitLine> expectedTransitLine) {
 		SwissRailRaptor raptor = new SwissRailRaptor.Builder(raptorData, f.config).with(inVehCostCalcualtor).build();
 
 		Facility fromFacility = new FakeFacility(new Coord(900, 900), Id.create("aa", Link.class));
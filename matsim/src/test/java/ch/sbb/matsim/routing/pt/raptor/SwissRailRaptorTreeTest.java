@@ -400,6 +400,37 @@ public class SwissRailRaptorTreeTest {
         Assertions.assertNull(stage5.line); // egress_walk
     }
 
+	@Test
+	void testSingleStop_profile0740to0755atN_optimized() {
+        Fixture f = new Fixture();
+        f.init();
+
+        RaptorStaticConfig config = RaptorUtils.createStaticConfig(f.config);
+        config.setOptimization(RaptorStaticConfig.RaptorOptimization.OneToAllRouting);
+        SwissRailRaptorData data = SwissRailRaptorData.create(f.scenario.getTransitSchedule(), null, config, f.scenario.getNetwork(), null);
+        SwissRailRaptor raptor = new SwissRailRaptor.Builder(data, f.scenario.getConfig()).build();
+
+        RaptorParameters raptorParams = RaptorUtils.createParameters(f.config);
+
+        // start with a stop on the green line, which departs at 07:41 and 07:51
+        TransitStopFacility fromStop = f.schedule.getFacilities().get(Id.create(23, TransitStopFacility.class));
+        List<Map<Id<TransitStopFacility>, TravelInfo>> trees = raptor.calcTreeProfile(List.of(fromStop), Time.parseTime("07:40:00"), Time.parseTime("07:55:00"), raptorParams, null);
+
+        Assertions.assertEquals(2, trees.size(), "expected one tree per departure.");
+
+        // the latest departure comes first, the same as in a regular tree
+        Map<Id<TransitStopFacility>, TravelInfo> map = trees.get(0);
+        assertTravelInfo(map, 1 , "23", 1, "07:51:00", "08:14:00"); // transfer at C, 8:00/8:02 blue
+        assertTravelInfo(map, 18, "23", 0, "07:51:00", "08:00:00"); // directly reachable
+        Assertions.assertNull(map.get(Id.create(19, TransitStopFacility.class))); // unreachable
+
+        // the earlier departure only contains the stops which are reached better than with the later one
+        map = trees.get(1);
+        assertTravelInfo(map, 18, "23", 0, "07:41:00", "07:50:00"); // directly reachable
+        assertTravelInfo(map, 19, "23", 1, "07:41:00", "08:01:00"); // transfer at C, 7:50/7:51 green
+        assertTravelInfo(map, 20, "23", 1, "07:41:00", "08:11:00"); // transfer at C, 7:50/7:51 green
+    }
+
     private void assertTravelInfo(Map<Id<TransitStopFacility>, TravelInfo> map, int stopId, String expectedDepartureStop, int expectedTransfers, String expectedDepartureTime, String expectedArrivalTime) {
         TravelInfo info = map.get(Id.create(stopId, TransitStopFacility.class));
         Assertions.assertNotNull(info, "Stop " + stopId + " is not reachable.");
@@ -0,0 +1,79 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.core.config.Config;
+import org.matsim.testcases.MatsimTestUtils;
+
+/**
+ * Checks that writing the output of the asynchronous controler listeners in the background does not change it.
+ */
+public class AsyncIterationEndsIT {
+
+	private static final int LAST_ITERATION = 3;
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testOutputIsIdenticalWithAndWithoutBacklog() {
+		String syncOutput = utils.getOutputDirectory() + "sync/";
+		String asyncOutput = utils.getOutputDirectory() + "async/";
+		run(syncOutput, 0);
+		run(asyncOutput, 2);
+
+		assertSameFile(syncOutput, asyncOutput, "modestats.csv");
+		assertSameFile(syncOutput, asyncOutput, "scorestats.csv");
+		for (int iteration = 0; iteration <= LAST_ITERATION; iteration++) {
+			String iterationDir = "ITERS/it." + iteration + "/" + iteration + ".";
+			assertSameFile(syncOutput, asyncOutput, iterationDir + "plans.xml.gz");
+			assertSameFile(syncOutput, asyncOutput, iterationDir + "linkstats.txt.gz");
+			assertSameFile(syncOutput, asyncOutput, iterationDir + "legHistogram.txt");
+			assertSameFile(syncOutput, asyncOutput, iterationDir + "countscompare.txt");
+		}
+	}
+
+	private void run(String outputDirectory, int backlog) {
+		Config config = utils.loadConfig("test/scenarios/equil/config.xml");
+		config.controller().setOutputDirectory(outputDirectory);
+		config.controller().setLastIteration(LAST_ITERATION);
+		config.controller().setWritePlansInterval(1);
+		config.controller().setCreateGraphsInterval(0);
+		config.controller().setAsyncIterationEndsBacklog(backlog);
+		config.linkStats().setWriteLinkStatsInterval(1);
+		config.linkStats().setAverageLinkStatsOverIterations(1);
+		config.counts().setInputFile("counts100.xml");
+		config.counts().setOutputFormat("txt");
+		config.counts().setWriteCountsInterval(1);
+		config.counts().setAverageCountsOverIterations(1);
+		new Controler(config).run();
+	}
+
+	private static void assertSameFile(String expectedDirectory, String actualDirectory, String filename) {
+		Assertions.assertTrue(new File(expectedDirectory + filename).exists(), filename + " was not written");
+		// compares the uncompressed content of .gz files
+		MatsimTestUtils.assertEqualFilesBasedOnCRC(expectedDirectory + filename, actualDirectory + filename);
+	}
+}
@@ -21,11 +21,24 @@
 
  package org.matsim.core.controler;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.IterationStartsEvent;
 import org.matsim.core.controler.events.ShutdownEvent;
 import org.matsim.core.controler.events.StartupEvent;
+import org.matsim.core.controler.listener.AsyncIterationEndsListener;
 import org.matsim.core.controler.listener.IterationStartsListener;
 import org.matsim.core.controler.listener.ShutdownListener;
 import org.matsim.core.controler.listener.StartupListener;
@@ -109,6 +122,74 @@ public class ControlerListenerManagerImplTest {
 		Assertions.assertEquals(1, ecl.nOfShutdowns);
 	}
 	
+	@Test
+	void testAsyncIterationEndsListener_pipelined() {
+		Config config = ConfigUtils.createConfig();
+		config.controller().setAsyncIterationEndsBacklog(1);
+		MatsimServices services = mock(MatsimServices.class);
+		when(services.getConfig()).thenReturn(config);
+
+		ControlerListenerManagerImpl m = new ControlerListenerManagerImpl();
+		m.setControler(services);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingAsyncListener listener = new RecordingAsyncListener(release);
+		m.addControlerListener(listener);
+
+		m.fireControlerIterationEndsEvent(0, false);
+		// the work of iteration 0 is blocked, but may be pending:
+		Assertions.assertEquals(List.of(0), listener.prepared);
+		Assertions.assertTrue(listener.done.isEmpty());
+
+		release.countDown();
+		m.fireControlerIterationEndsEvent(1, false);
+		// backlog of 1: the work of iteration 0 has to be finished now
+		Assertions.assertEquals(List.of(0, 1), listener.prepared);
+		Assertions.assertTrue(listener.done.contains(0));
+
+		m.fireControlerShutdownEvent(false, 1);
+		Assertions.assertEquals(List.of(0, 1), listener.done);
+	}
+
+	@Test
+	void testAsyncIterationEndsListener_synchronousByDefault() {
+		Config config = ConfigUtils.createConfig();
+		MatsimServices services = mock(MatsimServices.class);
+		when(services.getConfig()).thenReturn(config);
+
+		ControlerListenerManagerImpl m = new ControlerListenerManagerImpl();
+		m.setControler(services);
+		RecordingAsyncListener listener = new RecordingAsyncListener(new CountDownLatch(0));
+		m.addControlerListener(listener);
+
+		m.fireControlerIterationEndsEvent(0, false);
+		Assertions.assertEquals(List.of(0), listener.done);
+	}
+
+	private static class RecordingAsyncListener implements AsyncIterationEndsListener {
+
+		/*package*/ final List<Integer> prepared = new ArrayList<>();
+		/*package*/ final List<Integer> done = Collections.synchronizedList(new ArrayList<>());
+		private final CountDownLatch release;
+
+		RecordingAsyncListener(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public Runnable prepareIterationEnds(IterationEndsEvent event) {
+			int iteration = event.getIteration();
+			this.prepared.add(iteration);
+			return () -> {
+				try {
+					this.release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				this.done.add(iteration);
+			};
+		}
+	}
+
 	private static class CountingControlerListener implements StartupListener, IterationStartsListener {
 
 		/*package*/ int nOfStartups = 0;
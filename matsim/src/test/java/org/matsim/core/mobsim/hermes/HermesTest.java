@@ -238,6 +238,88 @@ public class HermesTest {
 		Assertions.assertEquals(7.0*3600 + 11, collector.events.get(3).getTime(), MatsimTestUtils.EPSILON, "wrong time in second event.");
 	}
 
+	/**
+	 * Tests that with reuseEncodedPlans, unchanged plans are simulated again, and changed plans are re-encoded.
+	 */
+	@Test
+	void testReuseEncodedPlans() {
+		Fixture f = new Fixture();
+		f.config.hermes().setReuseEncodedPlans(true);
+
+		Person[] persons = new Person[2];
+		for (int i = 0; i < 2; i++) {
+			persons[i] = PopulationUtils.getFactory().createPerson(Id.create(i, Person.class));
+			persons[i].addPlan(createPlanFromLink1ToLink3(f, (6 + i) * 3600));
+			f.plans.addPerson(persons[i]);
+		}
+
+		EventsManager events = EventsUtils.createEventsManager();
+		LinkEnterEventCollector collector = new LinkEnterEventCollector();
+		events.addHandler(collector);
+
+		createHermes(f, events).run();
+		Assertions.assertEquals(4, collector.events.size(), "wrong number of link enter events.");
+		Assertions.assertEquals(7.0*3600, collector.events.get(2).getTime(), MatsimTestUtils.EPSILON, "wrong time in third event.");
+		Assertions.assertEquals(2, ScenarioImporter.instance(f.scenario, events).getNumberOfEncodedPersonPlans(), "wrong number of encoded plans.");
+
+		// "replanning": the second person gets a new plan, the first person keeps its (already encoded) plan
+		Plan newPlan = createPlanFromLink1ToLink3(f, 8 * 3600);
+		persons[1].addPlan(newPlan);
+		persons[1].setSelectedPlan(newPlan);
+
+		collector.events.clear();
+		createHermes(f, events).run();
+		// only the new plan is encoded, the plan of the first person is reused
+		Assertions.assertEquals(1, ScenarioImporter.instance(f.scenario, events).getNumberOfEncodedPersonPlans(), "wrong number of encoded plans.");
+		Assertions.assertEquals(4, collector.events.size(), "wrong number of link enter events.");
+		Assertions.assertEquals(6.0*3600, collector.events.get(0).getTime(), MatsimTestUtils.EPSILON, "wrong time in first event.");
+		Assertions.assertEquals(6.0*3600 + 11, collector.events.get(1).getTime(), MatsimTestUtils.EPSILON, "wrong time in second event.");
+		Assertions.assertEquals(8.0*3600, collector.events.get(2).getTime(), MatsimTestUtils.EPSILON, "wrong time in third event.");
+		Assertions.assertEquals(8.0*3600 + 11, collector.events.get(3).getTime(), MatsimTestUtils.EPSILON, "wrong time in fourth event.");
+	}
+
+	/**
+	 * Tests that streaming events in small chunks from a background thread yields the same events in the same order.
+	 */
+	@Test
+	void testStreamEvents() {
+		Fixture f = new Fixture();
+		f.config.hermes().setStreamEvents(true);
+		f.config.hermes().setEventFlushInterval(60);
+
+		for (int i = 0; i < 3; i++) {
+			Person person = PopulationUtils.getFactory().createPerson(Id.create(i, Person.class));
+			person.addPlan(createPlanFromLink1ToLink3(f, 6 * 3600 + i * 30));
+			f.plans.addPerson(person);
+		}
+
+		EventsManager events = EventsUtils.createEventsManager();
+		LinkEnterEventCollector collector = new LinkEnterEventCollector();
+		events.addHandler(collector);
+
+		createHermes(f, events).run();
+
+		Assertions.assertEquals(6, collector.events.size(), "wrong number of link enter events.");
+		for (int i = 1; i < collector.events.size(); i++) {
+			Assertions.assertTrue(collector.events.get(i - 1).getTime() <= collector.events.get(i).getTime(), "events are not in time order.");
+		}
+		Assertions.assertEquals(6.0*3600, collector.events.get(0).getTime(), MatsimTestUtils.EPSILON, "wrong time in first event.");
+		Assertions.assertEquals(6.0*3600 + 60 + 11, collector.events.get(5).getTime(), MatsimTestUtils.EPSILON, "wrong time in last event.");
+	}
+
+	private static Plan createPlanFromLink1ToLink3(Fixture f, double departureTime) {
+		Plan plan = PopulationUtils.createPlan();
+		Activity a1 = PopulationUtils.createAndAddActivityFromLinkId(plan, "h", f.link1.getId());
+		a1.setEndTime(departureTime);
+		Leg leg = PopulationUtils.createAndAddLeg( plan, TransportMode.car );
+		TripStructureUtils.setRoutingMode( leg, TransportMode.car );
+		NetworkRoute route = f.scenario.getPopulation().getFactory().getRouteFactories().createRoute(NetworkRoute.class, f.link1.getId(), f.link3.getId());
+		route.setLinkIds(f.link1.getId(), f.linkIds2, f.link3.getId());
+		leg.setRoute(route);
+		PopulationUtils.createAndAddActivityFromLinkId(plan, "w", f.link3.getId());
+		return plan;
+	}
+
 	/**
 	 * A single agent is simulated that uses teleportation for its one and only leg.
 	 *
@@ -0,0 +1,144 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CalendarQueueTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.jdeqsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.core.mobsim.jdeqsim.util.DummyMessage;
+
+public class CalendarQueueTest {
+
+	@Test
+	void testOrderAndPriority() {
+		CalendarQueue queue = new CalendarQueue(1.0, 8);
+		Message m1 = message(2.5, 0);
+		Message m2 = message(1.0, 0);
+		Message m3 = message(1.0, 10); // same time, higher priority comes first
+		Message m4 = message(1.7, 0);
+		queue.add(m1);
+		queue.add(m2);
+		queue.add(m3);
+		queue.add(m4);
+
+		assertEquals(4, queue.size());
+		assertSame(m3, queue.peek());
+		assertSame(m3, queue.poll());
+		assertSame(m2, queue.poll());
+		assertSame(m4, queue.poll());
+		assertSame(m1, queue.poll());
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	void testTiesAreFifo() {
+		CalendarQueue queue = new CalendarQueue(1.0, 8);
+		Message[] messages = new Message[10];
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = message(5.0, 0);
+			queue.add(messages[i]);
+		}
+		for (Message m : messages) {
+			assertSame(m, queue.poll());
+		}
+	}
+
+	@Test
+	void testBeyondHorizonAndInThePast() {
+		CalendarQueue queue = new CalendarQueue(1.0, 4);
+		Message late = message(1000.0, 0);
+		Message veryLate = message(1e12, 0);
+		Message early = message(10.0, 0);
+		queue.add(late);
+		queue.add(veryLate);
+		queue.add(early);
+
+		assertSame(early, queue.poll());
+		// scheduled before the current bucket, needs to come first nevertheless
+		Message past = message(3.0, 0);
+		queue.add(past);
+		Message soon = message(11.5, 0);
+		queue.add(soon);
+		assertSame(past, queue.poll());
+		assertSame(soon, queue.poll());
+		assertSame(late, queue.poll());
+		assertSame(veryLate, queue.poll());
+		assertNull(queue.peek());
+	}
+
+	@Test
+	void testSameOrderAsPriorityQueue() {
+		Random random = new Random(4711);
+		CalendarQueue calendarQueue = new CalendarQueue(1.0, 64);
+		PriorityQueue<Message> priorityQueue = new PriorityQueue<>(CalendarQueue.COMPARATOR);
+		double now = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (random.nextInt(3) > 0 || calendarQueue.isEmpty()) {
+				// mostly a few seconds ahead, sometimes much later
+				double delay = random.nextInt(10) == 0 ? random.nextDouble() * 10_000 : random.nextInt(20) * 0.5;
+				Message m = message(now + delay, random.nextInt(3) * 100);
+				calendarQueue.add(m); // sets the sequence number used by the comparator of the priority queue
+				priorityQueue.add(m);
+			} else {
+				Message m = calendarQueue.poll();
+				assertSame(priorityQueue.poll(), m);
+				now = m.getMessageArrivalTime();
+			}
+			assertEquals(priorityQueue.size(), calendarQueue.size());
+		}
+		while (!priorityQueue.isEmpty()) {
+			assertSame(priorityQueue.poll(), calendarQueue.poll());
+		}
+		assertNull(calendarQueue.poll());
+	}
+
+	@Test
+	void testMessageQueueWithCalendarQueue() {
+		MessageQueue mq = new MessageQueue(new CalendarQueue());
+		Message m1 = message(1.0, 0);
+		Message m2 = message(2.0, 0);
+		mq.putMessage(m1);
+		mq.putMessage(m2);
+		mq.removeMessage(m1);
+		assertEquals(1, mq.getQueueSize());
+		assertSame(m2, mq.getNextMessage());
+		assertEquals(0, mq.getQueueSize());
+	}
+
+	@Test
+	void testIllegalNumberOfBuckets() {
+		assertThrows(IllegalArgumentException.class, () -> new CalendarQueue(1.0, 100));
+	}
+
+	private static Message message(double time, int priority) {
+		Message m = new DummyMessage();
+		m.setMessageArrivalTime(time);
+		m.setPriority(priority);
+		return m;
+	}
+}
@@ -0,0 +1,125 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelJDEQSimTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.jdeqsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.gbl.MatsimRandom;
+import org.matsim.core.network.NetworkChangeEvent;
+import org.matsim.core.network.NetworkChangeEvent.ChangeType;
+import org.matsim.core.network.NetworkChangeEvent.ChangeValue;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+
+public class ParallelJDEQSimTest extends AbstractJDEQSimTest {
+
+	@Test
+	void test_equilPlans100_twoThreads() {
+		Scenario scenario = loadScenario(2);
+		this.runJDEQSim(scenario);
+
+		assertEquals(scenario.getPopulation().getPersons().size(), super.eventsByPerson.size());
+		super.checkAscendingTimeStamps();
+		super.checkEventsCorrespondToPlans(scenario.getPopulation());
+
+		double lastTime = Double.NEGATIVE_INFINITY;
+		for (Event event : super.allEvents) {
+			assertTrue(lastTime <= event.getTime(), "events are not sorted by time");
+			lastTime = event.getTime();
+		}
+
+		// the roads are only connected to the parallel scheduler if they are cut by the partitioning
+		assertTrue(Road.getAllRoads().values().stream().anyMatch(road -> road.parallelScheduler != null
+				&& road.entryPartition != road.exitPartition), "no road was cut by the partitioning");
+	}
+
+	@Test
+	void test_lookaheadTakesNetworkChangeEventsIntoAccount() {
+		double lookahead = assignPartitions(loadScenario(2));
+
+		Scenario timeVariantScenario = loadScenario(2, true);
+		NetworkChangeEvent event = new NetworkChangeEvent(3600);
+		event.addLinks(timeVariantScenario.getNetwork().getLinks().values());
+		event.setFreespeedChange(new ChangeValue(ChangeType.FACTOR, 10));
+		NetworkUtils.addNetworkChangeEvent(timeVariantScenario.getNetwork(), event);
+
+		assertTrue(assignPartitions(timeVariantScenario) < lookahead,
+				"a cut road may be traversed faster after the network change event");
+	}
+
+	private static double assignPartitions(Scenario scenario) {
+		JDEQSimConfigGroup config = ConfigUtils.addOrGetModule(scenario.getConfig(), JDEQSimConfigGroup.class);
+		Road.setConfig(config);
+		ParallelScheduler scheduler = new ParallelScheduler(config, Double.MAX_VALUE);
+		Map<Id<Link>, Road> roads = new HashMap<>();
+		for (Link link : scenario.getNetwork().getLinks().values()) {
+			roads.put(link.getId(), new Road(scheduler, link));
+		}
+		scheduler.assignPartitions(scenario.getNetwork(), roads);
+		return scheduler.getLookahead();
+	}
+
+	@Test
+	void test_equilPlans100_deterministic() {
+		List<String> firstRun = runAndCollectEvents(3);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(firstRun, runAndCollectEvents(3));
+		}
+	}
+
+	private List<String> runAndCollectEvents(int numberOfThreads) {
+		super.allEvents.clear();
+		super.eventsByPerson.clear();
+		this.runJDEQSim(loadScenario(numberOfThreads));
+		List<String> events = new ArrayList<>();
+		for (Event event : super.allEvents) {
+			events.add(event.toString());
+		}
+		return events;
+	}
+
+	private static Scenario loadScenario(int numberOfThreads) {
+		return loadScenario(numberOfThreads, false);
+	}
+
+	private static Scenario loadScenario(int numberOfThreads, boolean timeVariantNetwork) {
+		Config config = ConfigUtils.loadConfig("test/scenarios/equil/config.xml");
+		MatsimRandom.reset(config.global().getRandomSeed());
+		ConfigUtils.addOrGetModule(config, JDEQSimConfigGroup.class).setNumberOfThreads(numberOfThreads);
+		config.network().setTimeVariantNetwork(timeVariantNetwork);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		ScenarioUtils.loadScenario(scenario);
+		return scenario;
+	}
+}
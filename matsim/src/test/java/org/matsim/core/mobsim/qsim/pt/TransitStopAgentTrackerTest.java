@@ -22,6 +22,8 @@ package org.matsim.core.mobsim.qsim.pt;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
@@ -30,7 +32,9 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.events.EventsUtils;
 import org.matsim.pt.fakes.FakeAgent;
+import org.matsim.pt.fakes.FakePassengerAgent;
 import org.matsim.pt.transitSchedule.TransitScheduleFactoryImpl;
+import org.matsim.pt.transitSchedule.api.TransitRouteStop;
 import org.matsim.pt.transitSchedule.api.TransitScheduleFactory;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
@@ -119,4 +123,81 @@ public class TransitStopAgentTrackerTest {
 			log.info("catched expected exception.", e);
 		}
 	}
+
+	@Test
+	void testGetAgentsAtFacilityWithDestinationIn() {
+		EventsManager events = EventsUtils.createEventsManager();
+		TransitStopAgentTracker tracker = new TransitStopAgentTracker(events);
+		TransitScheduleFactory builder = new TransitScheduleFactoryImpl();
+		TransitStopFacility stop = builder.createTransitStopFacility(Id.create(0, TransitStopFacility.class), new Coord(0, 0), false);
+		TransitStopFacility stopA = builder.createTransitStopFacility(Id.create("A", TransitStopFacility.class), new Coord(1, 0), false);
+		TransitStopFacility stopB = builder.createTransitStopFacility(Id.create("B", TransitStopFacility.class), new Coord(2, 0), false);
+		TransitStopFacility stopC = builder.createTransitStopFacility(Id.create("C", TransitStopFacility.class), new Coord(3, 0), false);
+		TransitRouteStop routeStopB = builder.createTransitRouteStop(stopB, 60, 60);
+		TransitRouteStop routeStopC = builder.createTransitRouteStop(stopC, 120, 120);
+
+		PTPassengerAgent agentToB1 = new DestinationAgent(stopB);
+		PTPassengerAgent agentToC = new DestinationAgent(stopC);
+		PTPassengerAgent agentWithoutDestination = new DestinationAgent(null);
+		PTPassengerAgent agentToA = new DestinationAgent(stopA);
+		PTPassengerAgent agentToB2 = new DestinationAgent(stopB);
+		tracker.addAgentToStop(10, agentToB1, stop.getId());
+		tracker.addAgentToStop(11, agentToC, stop.getId());
+		tracker.addAgentToStop(12, agentWithoutDestination, stop.getId());
+		tracker.addAgentToStop(13, agentToA, stop.getId());
+		tracker.addAgentToStop(14, agentToB2, stop.getId());
+
+		// in the order of arrival at the stop
+		assertEquals(List.of(agentToB1, agentToC, agentWithoutDestination, agentToB2),
+				tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopB, routeStopC)));
+		assertEquals(List.of(agentToC, agentWithoutDestination),
+				tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopC)));
+		assertEquals(List.of(agentToB1, agentToC, agentWithoutDestination, agentToA, agentToB2), tracker.getAgentsAtFacility(stop.getId()));
+
+		tracker.removeAgentFromStop(agentToB1, stop.getId());
+		tracker.removeAgentFromStop(agentToC, stop.getId());
+		assertEquals(List.of(agentWithoutDestination, agentToB2),
+				tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopB, routeStopC)));
+		assertTrue(tracker.getAgentsAtFacilityWithDestinationIn(stopA.getId(), List.of(routeStopB)).isEmpty());
+	}
+
+	@Test
+	void testGetAgentsAtFacilityWithDestinationIn_destinationChangedWhileWaiting() {
+		EventsManager events = EventsUtils.createEventsManager();
+		TransitStopAgentTracker tracker = new TransitStopAgentTracker(events);
+		TransitScheduleFactory builder = new TransitScheduleFactoryImpl();
+		TransitStopFacility stop = builder.createTransitStopFacility(Id.create(0, TransitStopFacility.class), new Coord(0, 0), false);
+		TransitStopFacility stopA = builder.createTransitStopFacility(Id.create("A", TransitStopFacility.class), new Coord(1, 0), false);
+		TransitStopFacility stopB = builder.createTransitStopFacility(Id.create("B", TransitStopFacility.class), new Coord(2, 0), false);
+		TransitRouteStop routeStopA = builder.createTransitRouteStop(stopA, 60, 60);
+		TransitRouteStop routeStopB = builder.createTransitRouteStop(stopB, 120, 120);
+
+		DestinationAgent agent = new DestinationAgent(stopA);
+		tracker.addAgentToStop(10, agent, stop.getId());
+		assertEquals(List.of(agent), tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopA)));
+		assertTrue(tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopB)).isEmpty());
+
+		// e.g. within-day replanning changes the egress stop while the agent is waiting
+		agent.destinationStop = stopB;
+		tracker.updateDesiredDestination(agent, stop.getId());
+		assertTrue(tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopA)).isEmpty());
+		assertEquals(List.of(agent), tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopB)));
+
+		tracker.removeAgentFromStop(agent, stop.getId());
+		assertTrue(tracker.getAgentsAtFacilityWithDestinationIn(stop.getId(), List.of(routeStopA, routeStopB)).isEmpty());
+	}
+
+	private static class DestinationAgent extends FakePassengerAgent {
+		private TransitStopFacility destinationStop;
+
+		DestinationAgent(TransitStopFacility destinationStop) {
+			super(null);
+			this.destinationStop = destinationStop;
+		}
+
+		@Override
+		public Id<TransitStopFacility> getDesiredDestinationStopId() {
+			return this.destinationStop == null ? null : this.destinationStop.getId();
+		}
+	}
 }
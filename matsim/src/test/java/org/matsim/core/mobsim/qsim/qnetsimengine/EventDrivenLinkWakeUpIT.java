@@ -0,0 +1,149 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.RoutingConfigGroup;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.algorithms.EventWriterXML;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+/**
+ * Links that are put aside until their next vehicle can leave must not change the events of the QSim, not even their
+ * order within a time step.
+ */
+public class EventDrivenLinkWakeUpIT {
+
+	private static final int NUMBER_OF_NODES = 8;
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testSameEventsAsWithoutWakeUp() {
+		String withoutWakeUp = utils.getOutputDirectory() + "events_withoutWakeUp.xml";
+		String withWakeUp = utils.getOutputDirectory() + "events_withWakeUp.xml";
+		runQSim(false, withoutWakeUp);
+		runQSim(true, withWakeUp);
+
+		MatsimTestUtils.assertEqualFilesBasedOnCRC(withoutWakeUp, withWakeUp);
+	}
+
+	private static void runQSim(boolean usingEventDrivenLinkWakeUp, String eventsFile) {
+		Config config = ConfigUtils.createConfig();
+		config.qsim().setUsingFastCapacityUpdate(true);
+		config.qsim().setUsingEventDrivenLinkWakeUp(usingEventDrivenLinkWakeUp);
+		config.routing().setNetworkRouteConsistencyCheck(RoutingConfigGroup.NetworkRouteConsistencyCheck.disable);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		createNetwork(scenario.getNetwork());
+		createPopulation(scenario);
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventWriterXML writer = new EventWriterXML(eventsFile);
+		events.addHandler(writer);
+
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+		new QSimBuilder(config) //
+			.useDefaults() //
+			.build(scenario, events) //
+			.run();
+		writer.closeFile();
+	}
+
+	/*
+	 * A corridor with links in both directions.  The lengths differ, so that vehicles leave their links at many
+	 * different times, and one link in each direction is a bottleneck, so that vehicles queue up and spill back.
+	 */
+	private static void createNetwork(Network network) {
+		List<Node> nodes = new ArrayList<>();
+		double x = 0;
+		for (int i = 0; i < NUMBER_OF_NODES; i++) {
+			nodes.add(NetworkUtils.createAndAddNode(network, Id.createNodeId(i), new Coord(x, 0)));
+			x += 100 + 75 * (i % 3);
+		}
+		for (int i = 0; i < NUMBER_OF_NODES - 1; i++) {
+			Node from = nodes.get(i);
+			Node to = nodes.get(i + 1);
+			double length = NetworkUtils.getEuclideanDistance(from.getCoord(), to.getCoord());
+			double capacity = i == NUMBER_OF_NODES / 2 ? 900 : 3600;
+			NetworkUtils.createAndAddLink(network, forward(i), from, to, length, 10 + i, capacity, 1);
+			NetworkUtils.createAndAddLink(network, backward(i), to, from, length, 15 - i, capacity, 1);
+		}
+	}
+
+	private static void createPopulation(Scenario scenario) {
+		PopulationFactory factory = scenario.getPopulation().getFactory();
+		int lastLink = NUMBER_OF_NODES - 2;
+		for (int i = 0; i < 200; i++) {
+			boolean isForward = i % 2 == 0;
+			int startLink = i % 3;
+			List<Id<Link>> linkIds = new ArrayList<>();
+			for (int link = startLink; link <= lastLink; link++) {
+				linkIds.add(isForward ? forward(link) : backward(lastLink - link + startLink));
+			}
+
+			Person person = factory.createPerson(Id.createPersonId(i));
+			Plan plan = factory.createPlan();
+			Activity home = factory.createActivityFromLinkId("h", linkIds.get(0));
+			home.setEndTime(6 * 3600 + 7 * i);
+			plan.addActivity(home);
+			Leg leg = factory.createLeg(TransportMode.car);
+			NetworkRoute route = RouteUtils.createLinkNetworkRouteImpl(linkIds.get(0), linkIds.subList(1, linkIds.size() - 1), linkIds.get(linkIds.size() - 1));
+			leg.setRoute(route);
+			plan.addLeg(leg);
+			plan.addActivity(factory.createActivityFromLinkId("w", linkIds.get(linkIds.size() - 1)));
+			person.addPlan(plan);
+			scenario.getPopulation().addPerson(person);
+		}
+	}
+
+	private static Id<Link> forward(int i) {
+		return Id.createLinkId("f" + i);
+	}
+
+	private static Id<Link> backward(int i) {
+		return Id.createLinkId("b" + i);
+	}
+}
@@ -0,0 +1,93 @@
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.mobsim.framework.MobsimTimer;
+import org.matsim.core.mobsim.qsim.interfaces.AgentCounter;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.vis.snapshotwriters.SnapshotLinkWidthCalculator;
+
+class LinkWakeUpWheelTest {
+
+	@Test
+	void wakeUpAtWakeUpTime() {
+		LinkWakeUpWheel wheel = new LinkWakeUpWheel();
+		AbstractQLink link = createDormantLink(10.);
+		wheel.add(link, 10.);
+
+		List<QLinkI> active = new ArrayList<>();
+		for (double now = 0; now < 10; now++) {
+			assertEquals(0, wheel.wakeUp(now, active));
+		}
+		assertEquals(1, wheel.wakeUp(10., active));
+		assertEquals(List.of(link), active);
+		assertFalse(link.isDormant());
+	}
+
+	@Test
+	void wakeUpMoreThanOneRevolutionAhead() {
+		LinkWakeUpWheel wheel = new LinkWakeUpWheel();
+		AbstractQLink link = createDormantLink(1000.);
+		wheel.add(link, 1000.);
+
+		List<QLinkI> active = new ArrayList<>();
+		for (double now = 0; now < 1000; now++) {
+			wheel.wakeUp(now, active);
+		}
+		assertTrue(active.isEmpty());
+		assertEquals(1, wheel.wakeUp(1000., active));
+	}
+
+	@Test
+	void wakeUpWithLargeTimeSteps() {
+		LinkWakeUpWheel wheel = new LinkWakeUpWheel();
+		AbstractQLink link = createDormantLink(11.);
+		wheel.add(link, 11.);
+
+		List<QLinkI> active = new ArrayList<>();
+		assertEquals(0, wheel.wakeUp(10., active));
+		// slot 11 is skipped by the time step, but must still be looked at:
+		assertEquals(1, wheel.wakeUp(15., active));
+	}
+
+	@Test
+	void ignoreLinksWokenUpFromOutside() {
+		LinkWakeUpWheel wheel = new LinkWakeUpWheel();
+		AbstractQLink link = createDormantLink(10.);
+		wheel.add(link, 10.);
+		link.setDormant(false);
+
+		List<QLinkI> active = new ArrayList<>();
+		assertEquals(0, wheel.wakeUp(10., active));
+		assertTrue(active.isEmpty());
+	}
+
+	private static AbstractQLink createDormantLink(double wakeUpTime) {
+		var config = ConfigUtils.createConfig();
+		var context = new NetsimEngineContext(mock(EventsManager.class), 5, mock(AgentCounter.class),
+			mock(AbstractAgentSnapshotInfoBuilder.class), config.qsim(), new MobsimTimer(), mock(SnapshotLinkWidthCalculator.class));
+		var net = NetworkUtils.createNetwork();
+		var n1 = net.getFactory().createNode(Id.createNodeId("n1"), new Coord(0, 0));
+		var n2 = net.getFactory().createNode(Id.createNodeId("n2"), new Coord(0, 100));
+		var link = net.getFactory().createLink(Id.createLinkId("test"), n1, n2);
+		var internalInterface = mock(QNetsimEngineI.NetsimInternalInterface.class);
+		QNodeImpl qNode = new QNodeImpl.Builder(internalInterface, context, config.qsim()).build(n2);
+		var b = new QLinkImpl.Builder(context, internalInterface);
+		b.setLinkSpeedCalculator(new DefaultLinkSpeedCalculator());
+		QLinkImpl qLink = b.build(link, qNode);
+		qLink.setWakeUpTime(wakeUpTime);
+		qLink.setDormant(true);
+		return qLink;
+	}
+}
@@ -151,6 +151,50 @@ class QueueWithBufferTest {
 		assertTrue(link.getOfferingQLanes().getFirst().isNotOfferingVehicle());
 	}
 
+	@Test
+	void nextRelevantTimeEventDrivenWakeUp() {
+		var config = ConfigUtils.createConfig();
+		config.qsim().setUsingEventDrivenLinkWakeUp(true);
+		var timer = new MobsimTimer();
+		var context = createNetsimeEngineContext(config, timer);
+		var link = createQLink(100, 1, 1800, context, config);
+		var driver = mock(MobsimDriverAgent.class);
+		var vehicle1 = createVehicle("vehicle-1", driver, 10, 1);
+		var vehicle2 = createVehicle("vehicle-2", driver, 10, 1);
+
+		// an empty link has nothing to wait for
+		assertEquals(Double.NEGATIVE_INFINITY, link.getNextRelevantTime());
+
+		// 100m at 10m/s: the first vehicle can leave at 10s, and nothing else can happen on the link before
+		link.getAcceptingQLane().addFromUpstream(vehicle1);
+		timer.setTime(3);
+		link.getAcceptingQLane().addFromUpstream(vehicle2);
+		assertEquals(10., link.getNextRelevantTime());
+
+		// visiting the link before that does not change anything
+		timer.setTime(9);
+		link.doSimStep();
+		assertTrue(link.getOfferingQLanes().getFirst().isNotOfferingVehicle());
+
+		timer.setTime(10);
+		link.doSimStep();
+		assertEquals(vehicle1.getId(), link.getOfferingQLanes().getFirst().popFirstVehicle().getId());
+		assertEquals(13., link.getNextRelevantTime());
+	}
+
+	@Test
+	void nextRelevantTimeNotKnown() {
+		var config = ConfigUtils.createConfig();
+		config.qsim().setUsingEventDrivenLinkWakeUp(true);
+		config.qsim().setTrafficDynamics(QSimConfigGroup.TrafficDynamics.withHoles);
+		var context = createNetsimeEngineContext(config, new MobsimTimer());
+		var link = createQLink(100, 1, 1800, context, config);
+		link.getAcceptingQLane().addFromUpstream(createVehicle("vehicle-1", mock(MobsimDriverAgent.class), 10, 1));
+
+		// holes need to be processed in every time step
+		assertEquals(Double.NEGATIVE_INFINITY, link.getNextRelevantTime());
+	}
+
 	private static NetsimEngineContext createNetsimeEngineContext(Config config, MobsimTimer timer) {
 		return new NetsimEngineContext(
 			mock(EventsManager.class),
@@ -0,0 +1,55 @@
+package org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.core.mobsim.qsim.qnetsimengine.QVehicle;
+
+class FIFOVehicleQTest {
+
+	@Test
+	void firstInFirstOut() {
+		FIFOVehicleQ queue = new FIFOVehicleQ();
+		QVehicle veh1 = mock(QVehicle.class);
+		QVehicle veh2 = mock(QVehicle.class);
+		QVehicle veh3 = mock(QVehicle.class);
+
+		queue.add(veh1);
+		queue.add(veh2);
+		queue.addFirst(veh3);
+
+		assertEquals(3, queue.size());
+		assertEquals(List.of(veh3, veh1, veh2), List.copyOf(queue));
+		assertSame(veh3, queue.poll());
+		assertSame(veh1, queue.peek());
+		assertSame(veh1, queue.poll());
+		assertSame(veh2, queue.poll());
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	void removeFromTheMiddle() {
+		FIFOVehicleQ queue = new FIFOVehicleQ();
+		QVehicle veh1 = mock(QVehicle.class);
+		QVehicle veh2 = mock(QVehicle.class);
+		QVehicle veh3 = mock(QVehicle.class);
+		queue.add(veh1);
+		queue.add(veh2);
+		queue.add(veh3);
+
+		assertTrue(queue.remove(veh2));
+		assertFalse(queue.remove(veh2));
+		assertEquals(List.of(veh1, veh3), List.copyOf(queue));
+
+		queue.clear();
+		assertTrue(queue.isEmpty());
+	}
+}
@@ -0,0 +1,77 @@
+package org.matsim.core.utils.instrumentation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class InstrumentationTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@AfterEach
+	void tearDown() {
+		Instrumentation.setEnabled(false);
+		Instrumentation.reset();
+	}
+
+	@Test
+	void nothingIsRecordedWhenDisabled() {
+		Instrumentation.Metric metric = Instrumentation.getMetric("test.disabled");
+
+		long start = Instrumentation.startTime();
+		assertEquals(Instrumentation.DISABLED, start);
+		metric.recordTime(start);
+		metric.recordValue(42.);
+
+		assertEquals(0, metric.getCount());
+	}
+
+	@Test
+	void recordAndReset() {
+		Instrumentation.setEnabled(true);
+		Instrumentation.Metric metric = Instrumentation.getMetric("test.values");
+
+		metric.recordValue(1.);
+		metric.recordValue(5.);
+		metric.recordTime(Instrumentation.startTime());
+
+		assertEquals(3, metric.getCount());
+		assertTrue(metric.getTotal() >= 6.);
+		assertEquals(5., metric.getMax(), 1e-3);
+
+		Instrumentation.reset();
+		assertEquals(0, metric.getCount());
+		assertEquals(0., metric.getTotal());
+		assertTrue(Instrumentation.getMetric("test.values") == metric);
+	}
+
+	@Test
+	void write() throws IOException {
+		Instrumentation.setEnabled(true);
+		Instrumentation.getMetric("test.write.b").recordValue(2.);
+		Instrumentation.getMetric("test.write.b").recordValue(4.);
+		Instrumentation.getMetric("test.write.a").recordValue(1.);
+		Instrumentation.getMetric("test.write.unused");
+
+		String filename = utils.getOutputDirectory() + "instrumentation.csv";
+		Instrumentation.write(filename, ";");
+
+		try (BufferedReader reader = IOUtils.getBufferedReader(filename)) {
+			List<String> lines = reader.lines().toList();
+			assertEquals(List.of(
+					"metric;count;total;mean;max",
+					"test.write.a;1;1.0;1.0;1.0",
+					"test.write.b;2;6.0;3.0;4.0"), lines);
+		}
+	}
+}
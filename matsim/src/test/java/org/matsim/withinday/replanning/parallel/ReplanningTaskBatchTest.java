@@ -0,0 +1,95 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ReplanningTaskBatchTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.withinday.replanning.parallel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.withinday.replanning.replanners.tools.ReplanningTask;
+
+public class ReplanningTaskBatchTest {
+
+	@Test
+	void testBatches() {
+		ReplanningTaskBatch batch = new ReplanningTaskBatch();
+		ReplanningTask t1 = new ReplanningTask(null, null);
+		ReplanningTask t2 = new ReplanningTask(null, null);
+		batch.add(t1);
+		batch.add(t2);
+		assertEquals(2, batch.size());
+		assertSame(t1, batch.poll());
+		assertSame(t2, batch.poll());
+		assertNull(batch.poll());
+		assertNull(batch.poll());
+		assertEquals(0, batch.size());
+
+		// next time step
+		ReplanningTask t3 = new ReplanningTask(null, null);
+		batch.add(t3);
+		assertEquals(1, batch.size());
+		assertSame(t3, batch.peek());
+		assertSame(t3, batch.poll());
+		assertNull(batch.poll());
+	}
+
+	@Test
+	void testParallelPoll() throws InterruptedException {
+		ReplanningTaskBatch batch = new ReplanningTaskBatch();
+		Set<ReplanningTask> tasks = new HashSet<>();
+		for (int i = 0; i < 10_000; i++) {
+			ReplanningTask task = new ReplanningTask(null, null);
+			tasks.add(task);
+			batch.add(task);
+		}
+
+		Set<ReplanningTask> polled = ConcurrentHashMap.newKeySet();
+		AtomicInteger count = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(() -> {
+				ReplanningTask task;
+				while ((task = batch.poll()) != null) {
+					polled.add(task);
+					count.incrementAndGet();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// every task has been taken exactly once
+		assertEquals(tasks, polled);
+		assertEquals(tasks.size(), count.get());
+		assertEquals(0, batch.size());
+	}
+}
@@ -24,8 +24,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.events.VehicleLeavesTrafficEvent;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.config.Config;
@@ -39,6 +44,7 @@ import org.matsim.core.controler.events.StartupEvent;
 import org.matsim.core.controler.listener.StartupListener;
 import org.matsim.core.gbl.Gbl;
 import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
 import org.matsim.core.mobsim.framework.events.MobsimBeforeSimStepEvent;
 import org.matsim.core.mobsim.framework.events.MobsimInitializedEvent;
 import org.matsim.core.mobsim.framework.listeners.*;
@@ -49,6 +55,7 @@ import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.vehicles.Vehicle;
 
 /**
  * @author cdobler
@@ -72,6 +79,90 @@ public class WithinDayTravelTimeTest {
 	}
 
 
+	@Test
+	void testRollingMeanTravelTime() {
+		Config config = ConfigUtils.createConfig();
+		config.global().setNumberOfThreads(2);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		NetworkUtils.createAndAddNode(network, Id.createNodeId("a"), new Coord(0, 0));
+		NetworkUtils.createAndAddNode(network, Id.createNodeId("b"), new Coord(100, 0));
+		Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId("ab"), network.getNodes().get(Id.createNodeId("a")),
+				network.getNodes().get(Id.createNodeId("b")), 100.0, 10.0, 1800.0, 1);
+
+		WithinDayTravelTime travelTime = new WithinDayTravelTime(scenario, null);
+		travelTime.notifyMobsimInitialized(new MobsimInitializedEvent<>(null));
+		assertEquals(10.0, travelTime.getLinkTravelTime(link, 0.0, null, null), 0);
+
+		Id<Vehicle> v1 = Id.createVehicleId("v1");
+		Id<Vehicle> v2 = Id.createVehicleId("v2");
+		Id<Vehicle> v3 = Id.createVehicleId("v3");
+		travelTime.handleEvent(new LinkEnterEvent(0.0, v1, link.getId()));
+		travelTime.handleEvent(new LinkEnterEvent(5.0, v2, link.getId()));
+		travelTime.handleEvent(new LinkEnterEvent(6.0, v3, link.getId()));
+		travelTime.handleEvent(new LinkLeaveEvent(20.0, v1, link.getId()));
+		travelTime.handleEvent(new LinkLeaveEvent(45.0, v2, link.getId()));
+		// v3 arrives on the link, i.e. its time on the link is not a travel time
+		travelTime.handleEvent(new VehicleLeavesTrafficEvent(50.0, null, link.getId(), v3, TransportMode.car, 1.0));
+		travelTime.handleEvent(new LinkLeaveEvent(60.0, v3, link.getId()));
+
+		travelTime.notifyMobsimBeforeSimStep(new MobsimBeforeSimStepEvent<>(null, 61.0));
+		assertEquals(30.0, travelTime.getLinkTravelTime(link, 61.0, null, null), 1e-9);
+
+		// both trips are outside the time window now
+		travelTime.notifyMobsimBeforeSimStep(new MobsimBeforeSimStepEvent<>(null, 500.0));
+		assertEquals(10.0, travelTime.getLinkTravelTime(link, 500.0, null, null), 0);
+
+		travelTime.notifyMobsimBeforeCleanup(new MobsimBeforeCleanupEvent<>(null));
+	}
+
+	@Test
+	void testLinkAddedAfterInitialization() {
+		Config config = ConfigUtils.createConfig();
+		config.global().setNumberOfThreads(1);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		NetworkUtils.createAndAddNode(network, Id.createNodeId("a"), new Coord(0, 0));
+		NetworkUtils.createAndAddNode(network, Id.createNodeId("b"), new Coord(150, 0));
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("ab"), network.getNodes().get(Id.createNodeId("a")),
+				network.getNodes().get(Id.createNodeId("b")), 150.0, 15.0, 1800.0, 1);
+
+		WithinDayTravelTime travelTime = new WithinDayTravelTime(scenario, null);
+		travelTime.notifyMobsimInitialized(new MobsimInitializedEvent<>(null));
+
+		// the link id did not exist when the travel time arrays were created, so the free speed travel time is returned
+		Link newLink = NetworkUtils.createAndAddLink(network, Id.createLinkId("ba_addedAfterInitialization"),
+				network.getNodes().get(Id.createNodeId("b")), network.getNodes().get(Id.createNodeId("a")), 150.0, 7.5,
+				1800.0, 1);
+		assertEquals(20.0, travelTime.getLinkTravelTime(newLink, 0.0, null, null), 0);
+
+		travelTime.notifyMobsimBeforeCleanup(new MobsimBeforeCleanupEvent<>(null));
+	}
+
+	@Test
+	void testLinkIdCreatedBeforeButLinkAddedAfterInitialization() {
+		Config config = ConfigUtils.createConfig();
+		config.global().setNumberOfThreads(1);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		NetworkUtils.createAndAddNode(network, Id.createNodeId("a"), new Coord(0, 0));
+		NetworkUtils.createAndAddNode(network, Id.createNodeId("b"), new Coord(150, 0));
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("ab"), network.getNodes().get(Id.createNodeId("a")),
+				network.getNodes().get(Id.createNodeId("b")), 150.0, 15.0, 1800.0, 1);
+		Id<Link> laterLinkId = Id.createLinkId("ba_addedAfterInitialization_idCreatedBefore");
+
+		WithinDayTravelTime travelTime = new WithinDayTravelTime(scenario, null);
+		travelTime.notifyMobsimInitialized(new MobsimInitializedEvent<>(null));
+
+		// the link id existed when the travel time arrays were created, but no travel times are known for the link
+		Link laterLink = NetworkUtils.createAndAddLink(network, laterLinkId, network.getNodes().get(Id.createNodeId("b")),
+				network.getNodes().get(Id.createNodeId("a")), 150.0, 7.5, 1800.0, 1);
+		assertEquals(20.0, travelTime.getLinkTravelTime(laterLink, 0.0, null, null), 0);
+		assertEquals(10.0, travelTime.getLinkTravelTime(network.getLinks().get(Id.createLinkId("ab")), 0.0, null, null), 0);
+
+		travelTime.notifyMobsimBeforeCleanup(new MobsimBeforeCleanupEvent<>(null));
+	}
+
 	private void testGetLinkTravelTime(boolean isUsingFastCapacityUpdate) {
 
         Config config = ConfigUtils.loadConfig("test/scenarios/equil/config.xml");